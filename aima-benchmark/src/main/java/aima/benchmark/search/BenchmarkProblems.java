@@ -0,0 +1,127 @@
+package aima.benchmark.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.search.framework.BidirectionalProblem;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.Problem;
+
+/**
+ * Creates the problem instances used by the search benchmarks. All random
+ * choices are made with a fixed seed, so that every run of a benchmark solves
+ * exactly the same instances.
+ */
+public class BenchmarkProblems {
+
+	public static final long SEED = 20110731L;
+
+	/** The goal configuration of the eight puzzle. */
+	public static EightPuzzleBoard eightPuzzleGoal() {
+		return new EightPuzzleBoard(new int[] { 0, 1, 2, 3, 4, 5, 6, 7, 8 });
+	}
+
+	/**
+	 * Returns a board obtained from the goal configuration by the specified
+	 * number of random gap moves. Moves which undo the previous move are not
+	 * chosen, so the solution depth grows with the number of moves.
+	 */
+	public static EightPuzzleBoard scrambledEightPuzzle(int moves) {
+		Random random = new Random(SEED);
+		EightPuzzleBoard board = eightPuzzleGoal();
+		Action last = null;
+		for (int i = 0; i < moves; i++) {
+			List<Action> actions = new ArrayList<Action>(
+					EightPuzzleFunctionFactory.getActionsFunction().actions(
+							board));
+			actions.remove(inverse(last));
+			last = actions.get(random.nextInt(actions.size()));
+			board = (EightPuzzleBoard) EightPuzzleFunctionFactory
+					.getResultFunction().result(board, last);
+		}
+		return board;
+	}
+
+	public static Problem eightPuzzleProblem(EightPuzzleBoard initialState) {
+		return new Problem(initialState,
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+
+	/**
+	 * Returns the same problem as {@link #eightPuzzleProblem(EightPuzzleBoard)}
+	 * with the initial state packed into a {@link PackedTileBoard}.
+	 */
+	public static Problem packedEightPuzzleProblem(EightPuzzleBoard initialState) {
+		return new Problem(new PackedTileBoard(initialState.getState()),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+
+	/**
+	 * Returns an eight puzzle problem which can also be solved backwards from
+	 * the goal configuration. All gap moves are reversible, so the reverse
+	 * problem uses the same actions.
+	 */
+	public static Problem bidirectionalEightPuzzleProblem(
+			EightPuzzleBoard initialState) {
+		return new BidirectionalEightPuzzleProblem(initialState);
+	}
+
+	/** The incremental formulation of the n-queens problem. */
+	public static Problem nQueensProblem(int size) {
+		return new Problem(new NQueensBoard(size),
+				NQueensFunctionFactory.getIActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static Action inverse(Action a) {
+		if (EightPuzzleBoard.UP.equals(a))
+			return EightPuzzleBoard.DOWN;
+		if (EightPuzzleBoard.DOWN.equals(a))
+			return EightPuzzleBoard.UP;
+		if (EightPuzzleBoard.LEFT.equals(a))
+			return EightPuzzleBoard.RIGHT;
+		if (EightPuzzleBoard.RIGHT.equals(a))
+			return EightPuzzleBoard.LEFT;
+		return null;
+	}
+
+	private static class BidirectionalEightPuzzleProblem extends Problem
+			implements BidirectionalProblem {
+		private final Problem reverseProblem;
+
+		BidirectionalEightPuzzleProblem(EightPuzzleBoard initialState) {
+			super(initialState, EightPuzzleFunctionFactory
+					.getActionsFunction(), EightPuzzleFunctionFactory
+					.getResultFunction(), new EightPuzzleGoalTest());
+			reverseProblem = new Problem(eightPuzzleGoal(),
+					EightPuzzleFunctionFactory.getActionsFunction(),
+					EightPuzzleFunctionFactory.getResultFunction(),
+					new DefaultGoalTest(initialState));
+		}
+
+		public Problem getOriginalProblem() {
+			return this;
+		}
+
+		public Problem getReverseProblem() {
+			return reverseProblem;
+		}
+	}
+}
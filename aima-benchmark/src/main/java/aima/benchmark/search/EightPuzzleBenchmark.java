@@ -0,0 +1,173 @@
+package aima.benchmark.search;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.SearchTracer;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.IterativeDeepeningAStarSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.informed.SimplifiedMemoryBoundedAStarSearch;
+import aima.core.search.uninformed.BidirectionalSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.IterativeDeepeningSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+
+/**
+ * Solves eight puzzle instances of increasing difficulty. The problem size is
+ * the number of random moves used to scramble the goal configuration and can
+ * be changed from the command line, e.g. <code>-p depth=20</code>. Note that
+ * iterative deepening search is a tree search and becomes impractical beyond
+ * a depth of about 16.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EightPuzzleBenchmark {
+
+	@Param({ "4", "8", "12" })
+	public int depth;
+
+	private Problem problem;
+	private Problem packedProblem;
+	private Problem bidirectionalProblem;
+
+	private BreadthFirstSearch breadthFirstSearch;
+	private UniformCostSearch uniformCostSearch;
+	private AStarSearch aStarSearch;
+	private AStarSearch aStarSearchWithStateCodec;
+	private AStarSearch aStarSearchWithTracing;
+	private SearchTracer tracer;
+	private File traceFile;
+	private IterativeDeepeningSearch iterativeDeepeningSearch;
+	private RecursiveBestFirstSearch recursiveBestFirstSearch;
+	private IterativeDeepeningAStarSearch iterativeDeepeningAStarSearch;
+	private SimplifiedMemoryBoundedAStarSearch simplifiedMemoryBoundedAStarSearch;
+	private BidirectionalSearch bidirectionalSearch;
+
+	@Setup
+	public void setUp() throws IOException {
+		EightPuzzleBoard board = BenchmarkProblems.scrambledEightPuzzle(depth);
+		problem = BenchmarkProblems.eightPuzzleProblem(board);
+		packedProblem = BenchmarkProblems.packedEightPuzzleProblem(board);
+		bidirectionalProblem = BenchmarkProblems
+				.bidirectionalEightPuzzleProblem(board);
+
+		breadthFirstSearch = new BreadthFirstSearch(new GraphSearch());
+		uniformCostSearch = new UniformCostSearch(new GraphSearch());
+		aStarSearch = new AStarSearch(new GraphSearch(),
+				new ManhattanHeuristicFunction());
+		aStarSearchWithStateCodec = new AStarSearch(new GraphSearch(
+				new EightPuzzleStateCodec()), new ManhattanHeuristicFunction());
+		// tracing at 1% sampling, drained to a file in the background
+		GraphSearch tracedSearch = new GraphSearch();
+		tracer = new SearchTracer(0.01, 1 << 16);
+		tracer.setEvaluationFunction(new AStarEvaluationFunction(
+				new ManhattanHeuristicFunction()));
+		traceFile = File.createTempFile("eightpuzzle", ".trace");
+		tracer.startWriting(traceFile);
+		tracedSearch.setTracer(tracer);
+		aStarSearchWithTracing = new AStarSearch(tracedSearch,
+				new ManhattanHeuristicFunction());
+		iterativeDeepeningSearch = new IterativeDeepeningSearch();
+		recursiveBestFirstSearch = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()));
+		iterativeDeepeningAStarSearch = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()));
+		simplifiedMemoryBoundedAStarSearch = new SimplifiedMemoryBoundedAStarSearch(
+				new ManhattanHeuristicFunction(), 1000);
+		bidirectionalSearch = new BidirectionalSearch();
+	}
+
+	@Benchmark
+	public List<Action> breadthFirstSearch() throws Exception {
+		return breadthFirstSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> uniformCostSearch() throws Exception {
+		return uniformCostSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> aStarSearch() throws Exception {
+		return aStarSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> aStarSearchWithStateCodec() throws Exception {
+		return aStarSearchWithStateCodec.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> aStarSearchWithPackedBoard() throws Exception {
+		return aStarSearchWithStateCodec.search(packedProblem);
+	}
+
+	@TearDown
+	public void tearDown() throws IOException {
+		tracer.close();
+		traceFile.delete();
+	}
+
+	@Benchmark
+	public List<Action> aStarSearchWithTracing() throws Exception {
+		return aStarSearchWithTracing.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> iterativeDeepeningSearch() throws Exception {
+		return iterativeDeepeningSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> recursiveBestFirstSearch() throws Exception {
+		return recursiveBestFirstSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> iterativeDeepeningAStarSearch() throws Exception {
+		return iterativeDeepeningAStarSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> iterativeDeepeningAStarSearchWithPackedBoard()
+			throws Exception {
+		return iterativeDeepeningAStarSearch.search(packedProblem);
+	}
+
+	@Benchmark
+	public List<Action> simplifiedMemoryBoundedAStarSearch() throws Exception {
+		return simplifiedMemoryBoundedAStarSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> bidirectionalSearch() throws Exception {
+		return bidirectionalSearch.search(bidirectionalProblem);
+	}
+}
@@ -0,0 +1,91 @@
+package aima.benchmark.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.core.agent.Action;
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.IterativeDeepeningSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+
+/**
+ * Solves the incremental formulation of the n-queens problem for increasing
+ * board sizes, which can be changed from the command line, e.g.
+ * <code>-p size=12</code>. Bidirectional search is not applicable here, as
+ * there is no single goal state to search backwards from.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NQueensBenchmark {
+
+	@Param({ "6", "8", "10" })
+	public int size;
+
+	private Problem problem;
+
+	private BreadthFirstSearch breadthFirstSearch;
+	private UniformCostSearch uniformCostSearch;
+	private AStarSearch aStarSearch;
+	private IterativeDeepeningSearch iterativeDeepeningSearch;
+	private RecursiveBestFirstSearch recursiveBestFirstSearch;
+
+	@Setup
+	public void setUp() {
+		problem = BenchmarkProblems.nQueensProblem(size);
+
+		breadthFirstSearch = new BreadthFirstSearch(new GraphSearch());
+		uniformCostSearch = new UniformCostSearch(new GraphSearch());
+		aStarSearch = new AStarSearch(new GraphSearch(),
+				new AttackingPairsHeuristic());
+		iterativeDeepeningSearch = new IterativeDeepeningSearch();
+		recursiveBestFirstSearch = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(new AttackingPairsHeuristic()));
+	}
+
+	@Benchmark
+	public List<Action> breadthFirstSearch() throws Exception {
+		return breadthFirstSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> uniformCostSearch() throws Exception {
+		return uniformCostSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> aStarSearch() throws Exception {
+		return aStarSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> iterativeDeepeningSearch() throws Exception {
+		return iterativeDeepeningSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> recursiveBestFirstSearch() throws Exception {
+		return recursiveBestFirstSearch.search(problem);
+	}
+}
@@ -0,0 +1,68 @@
+package aima.benchmark.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.core.agent.Action;
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.search.framework.Problem;
+import aima.core.search.local.RandomRestartHillClimbingSearch;
+
+/**
+ * Solves the complete-state formulation of the n-queens problem by
+ * random-restart hill climbing with an increasing number of worker threads,
+ * which shows the speed-up of the parallel climbs. The board size can be
+ * changed from the command line, e.g. <code>-p size=24</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NQueensRestartBenchmark {
+
+	@Param({ "16" })
+	public int size;
+
+	@Param({ "1", "2", "4", "8" })
+	public int threads;
+
+	private Problem problem;
+
+	private long seed = 0;
+
+	@Setup
+	public void setUp() {
+		problem = new Problem(new NQueensBoard(size),
+				NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+	}
+
+	@Benchmark
+	public List<Action> randomRestartHillClimbingSearch() throws Exception {
+		// a new seed for each invocation, so that the time is averaged over
+		// many series of climbs
+		RandomRestartHillClimbingSearch search = new RandomRestartHillClimbingSearch(
+				new AttackingPairsHeuristic(),
+				NQueensFunctionFactory.getCInitialStateGenerator(size),
+				threads, 0, 0, seed++);
+		return search.search(problem);
+	}
+}
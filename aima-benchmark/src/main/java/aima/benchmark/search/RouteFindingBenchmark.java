@@ -0,0 +1,113 @@
+package aima.benchmark.search;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import aima.core.agent.Action;
+import aima.core.environment.map.BidirectionalMapProblem;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.SimplifiedRoadMapOfAustralia;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.uninformed.BidirectionalSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.IterativeDeepeningSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+
+/**
+ * Finds routes on the simplified road maps of Romania and Australia. The
+ * routes are ordered by increasing length; further routes can be given on
+ * the command line as <code>-p route=Map:From:To</code>.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RouteFindingBenchmark {
+
+	@Param({ "Romania:Arad:Bucharest", "Romania:Oradea:Eforie",
+			"Australia:Sydney:Melbourne", "Australia:Cairns:Perth" })
+	public String route;
+
+	private Problem problem;
+
+	private BreadthFirstSearch breadthFirstSearch;
+	private UniformCostSearch uniformCostSearch;
+	private AStarSearch aStarSearch;
+	private IterativeDeepeningSearch iterativeDeepeningSearch;
+	private RecursiveBestFirstSearch recursiveBestFirstSearch;
+	private BidirectionalSearch bidirectionalSearch;
+
+	@Setup
+	public void setUp() {
+		String[] parts = route.split(":");
+		Map map;
+		if ("Romania".equals(parts[0])) {
+			map = new SimplifiedRoadMapOfPartOfRomania();
+		} else if ("Australia".equals(parts[0])) {
+			map = new SimplifiedRoadMapOfAustralia();
+		} else {
+			throw new IllegalArgumentException("Unknown map: " + parts[0]);
+		}
+		problem = new BidirectionalMapProblem(map, parts[1], parts[2]);
+
+		StraightLineDistanceHeuristicFunction hf = new StraightLineDistanceHeuristicFunction(
+				parts[2], map);
+		breadthFirstSearch = new BreadthFirstSearch(new GraphSearch());
+		uniformCostSearch = new UniformCostSearch(new GraphSearch());
+		aStarSearch = new AStarSearch(new GraphSearch(), hf);
+		iterativeDeepeningSearch = new IterativeDeepeningSearch();
+		recursiveBestFirstSearch = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(hf));
+		bidirectionalSearch = new BidirectionalSearch();
+	}
+
+	@Benchmark
+	public List<Action> breadthFirstSearch() throws Exception {
+		return breadthFirstSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> uniformCostSearch() throws Exception {
+		return uniformCostSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> aStarSearch() throws Exception {
+		return aStarSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> iterativeDeepeningSearch() throws Exception {
+		return iterativeDeepeningSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> recursiveBestFirstSearch() throws Exception {
+		return recursiveBestFirstSearch.search(problem);
+	}
+
+	@Benchmark
+	public List<Action> bidirectionalSearch() throws Exception {
+		return bidirectionalSearch.search(problem);
+	}
+}
@@ -4,10 +4,13 @@ import java.util.LinkedHashSet;
 import java.util.Set;
 
 import aima.core.agent.Action;
+import aima.core.environment.slidingtile.PackedTileBoard;
 import aima.core.search.framework.ActionsFunction;
 import aima.core.search.framework.ResultFunction;
 
 /**
+ * The functions accept {@link PackedTileBoard}s of size 3 as well.
+ * 
  * @author Ravi Mohan
  * @author Ciaran O'Reilly
  */
@@ -31,6 +34,9 @@ public class EightPuzzleFunctionFactory {
 
 	private static class EPActionsFunction implements ActionsFunction {
 		public Set<Action> actions(Object state) {
+			if (state instanceof PackedTileBoard) {
+				return ((PackedTileBoard) state).getGapActions();
+			}
 			EightPuzzleBoard board = (EightPuzzleBoard) state;
 
 			Set<Action> actions = new LinkedHashSet<Action>();
@@ -54,6 +60,9 @@ public class EightPuzzleFunctionFactory {
 
 	private static class EPResultFunction implements ResultFunction {
 		public Object result(Object s, Action a) {
+			if (s instanceof PackedTileBoard) {
+				return ((PackedTileBoard) s).moveGap(a);
+			}
 			EightPuzzleBoard board = (EightPuzzleBoard) s;
 
 			if (EightPuzzleBoard.UP.equals(a)
@@ -1,5 +1,6 @@
 package aima.core.environment.eightpuzzle;
 
+import aima.core.environment.slidingtile.PackedTileBoard;
 import aima.core.search.framework.GoalTest;
 
 /**
@@ -11,6 +12,9 @@ public class EightPuzzleGoalTest implements GoalTest {
 			6, 7, 8 });
 
 	public boolean isGoalState(Object state) {
+		if (state instanceof PackedTileBoard) {
+			return ((PackedTileBoard) state).isGoal();
+		}
 		EightPuzzleBoard board = (EightPuzzleBoard) state;
 		return board.equals(goal);
 	}
@@ -0,0 +1,38 @@
+package aima.core.environment.eightpuzzle;
+
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.search.framework.StateCodec;
+
+/**
+ * Packs an eight puzzle board into 36 bits of a <code>long</code>, 4 bits per
+ * square, the first square in the lowest bits. {@link PackedTileBoard}s of size
+ * 3 are encoded as well, the keys are decoded to eight puzzle boards.
+ */
+public class EightPuzzleStateCodec implements StateCodec {
+
+	public long encode(Object state) {
+		if (state instanceof PackedTileBoard) {
+			PackedTileBoard board = (PackedTileBoard) state;
+			if (board.getSize() != 3) {
+				throw new IllegalArgumentException("Board of size "
+						+ board.getSize() + " is not an eight puzzle board.");
+			}
+			return board.getKey();
+		}
+		int[] squares = ((EightPuzzleBoard) state).getState();
+		long key = 0;
+		for (int i = squares.length - 1; i >= 0; i--) {
+			key = (key << 4) | squares[i];
+		}
+		return key;
+	}
+
+	public Object decode(long key) {
+		int[] squares = new int[9];
+		for (int i = 0; i < squares.length; i++) {
+			squares[i] = (int) (key & 0xF);
+			key >>>= 4;
+		}
+		return new EightPuzzleBoard(squares);
+	}
+}
@@ -1,5 +1,6 @@
 package aima.core.environment.eightpuzzle;
 
+import aima.core.environment.slidingtile.PackedTileBoard;
 import aima.core.search.framework.HeuristicFunction;
 import aima.core.util.datastructure.XYLocation;
 
@@ -10,14 +11,21 @@ import aima.core.util.datastructure.XYLocation;
 public class ManhattanHeuristicFunction implements HeuristicFunction {
 
 	public double h(Object state) {
-		EightPuzzleBoard board = (EightPuzzleBoard) state;
+		if (state instanceof PackedTileBoard) {
+			// kept up to date by the moves
+			return ((PackedTileBoard) state).getManhattanDistance();
+		}
+		// the goal square of tile i is square i, no locations are created
+		int[] squares = ((EightPuzzleBoard) state).getState();
 		int retVal = 0;
-		for (int i = 1; i < 9; i++) {
-			XYLocation loc = board.getLocationOf(i);
-			retVal += evaluateManhattanDistanceOf(i, loc);
+		for (int square = 0; square < 9; square++) {
+			int tile = squares[square];
+			if (0 != tile) {
+				retVal += Math.abs(square / 3 - tile / 3)
+						+ Math.abs(square % 3 - tile % 3);
+			}
 		}
 		return retVal;
-
 	}
 
 	public int evaluateManhattanDistanceOf(int i, XYLocation loc) {
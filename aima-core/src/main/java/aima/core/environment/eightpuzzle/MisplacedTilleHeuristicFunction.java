@@ -1,5 +1,6 @@
 package aima.core.environment.eightpuzzle;
 
+import aima.core.environment.slidingtile.PackedTileBoard;
 import aima.core.search.framework.HeuristicFunction;
 import aima.core.util.datastructure.XYLocation;
 
@@ -10,6 +11,16 @@ import aima.core.util.datastructure.XYLocation;
 public class MisplacedTilleHeuristicFunction implements HeuristicFunction {
 
 	public double h(Object state) {
+		if (state instanceof PackedTileBoard) {
+			PackedTileBoard board = (PackedTileBoard) state;
+			int misplaced = 0;
+			for (int square = 0; square < 9; square++) {
+				if (board.getTileAt(square) != square) {
+					misplaced++;
+				}
+			}
+			return misplaced;
+		}
 		EightPuzzleBoard board = (EightPuzzleBoard) state;
 		return getNumberOfMisplacedTiles(board);
 	}
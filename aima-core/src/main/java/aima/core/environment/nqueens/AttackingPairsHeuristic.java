@@ -11,6 +11,9 @@ import aima.core.search.framework.HeuristicFunction;
 public class AttackingPairsHeuristic implements HeuristicFunction {
 
 	public double h(Object state) {
+		if (state instanceof NQueensColumnBoard) {
+			return ((NQueensColumnBoard) state).getNumberOfAttackingPairs();
+		}
 		NQueensBoard board = (NQueensBoard) state;
 		return board.getNumberOfAttackingPairs();
 	}
@@ -0,0 +1,245 @@
+package aima.core.environment.nqueens;
+
+import java.util.Arrays;
+
+import aima.core.util.datastructure.XYLocation;
+
+/**
+ * A board of the complete-state formulation of the n-queens problem, i.e. with
+ * exactly one queen in each column, represented by the row of the queen in
+ * each column. In addition, the board counts the queens in each row and on
+ * each diagonal, and keeps the number of attacking pairs up to date when a
+ * queen is moved. Moving a queen, counting the attacks on a square and the
+ * change of the number of attacking pairs caused by a move therefore take
+ * constant time, independent of the size of the board, and a board with a
+ * million queens takes about 20 MB.<br>
+ * <br>
+ * Columns and rows are numbered as for the {@link NQueensBoard}, i.e. the
+ * queen in column x and row y is at location (x, y). The actions and result
+ * functions of the complete-state formulation, the attacking pairs heuristic
+ * and the goal test accept boards of this type.
+ */
+public class NQueensColumnBoard {
+
+	private final int size;
+	// the row of the queen in each column
+	private final int[] rows;
+	// the number of queens in each row
+	private final int[] rowCounts;
+	// the number of queens on each diagonal with constant x + y
+	private final int[] sumCounts;
+	// the number of queens on each diagonal with constant x - y
+	private final int[] differenceCounts;
+	private long attackingPairs = 0;
+
+	/**
+	 * Creates a board of the specified size with all queens in the first
+	 * row.
+	 *
+	 * @param size
+	 *            the number of rows and columns.
+	 */
+	public NQueensColumnBoard(int size) {
+		this(new int[size]);
+	}
+
+	/**
+	 * Creates a board with the queens in the specified rows.
+	 *
+	 * @param rows
+	 *            the row of the queen in each column.
+	 */
+	public NQueensColumnBoard(int[] rows) {
+		size = rows.length;
+		if (size < 1) {
+			throw new IllegalArgumentException("A board needs a column.");
+		}
+		this.rows = new int[size];
+		rowCounts = new int[size];
+		sumCounts = new int[2 * size - 1];
+		differenceCounts = new int[2 * size - 1];
+		for (int x = 0; x < size; x++) {
+			if (rows[x] < 0 || rows[x] >= size) {
+				throw new IllegalArgumentException("Row " + rows[x]
+						+ " of column " + x + " is not on the board.");
+			}
+			this.rows[x] = rows[x];
+			add(x, rows[x]);
+		}
+	}
+
+	/**
+	 * Creates a board with the same queens as the specified board, which must
+	 * have exactly one queen in each column.
+	 */
+	public NQueensColumnBoard(NQueensBoard board) {
+		this(rowsOf(board));
+	}
+
+	public NQueensColumnBoard(NQueensColumnBoard copyBoard) {
+		size = copyBoard.size;
+		rows = copyBoard.rows.clone();
+		rowCounts = copyBoard.rowCounts.clone();
+		sumCounts = copyBoard.sumCounts.clone();
+		differenceCounts = copyBoard.differenceCounts.clone();
+		attackingPairs = copyBoard.attackingPairs;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	/**
+	 * Returns the row of the queen in the specified column.
+	 */
+	public int getRowOf(int x) {
+		return rows[x];
+	}
+
+	/**
+	 * Returns a copy of the row of the queen in each column.
+	 */
+	public int[] getRows() {
+		return rows.clone();
+	}
+
+	public boolean queenExistsAt(XYLocation l) {
+		return rows[l.getXCoOrdinate()] == l.getYCoOrdinate();
+	}
+
+	/**
+	 * Moves the queen in the specified column to the specified row.
+	 */
+	public void moveQueen(int x, int y) {
+		if (y < 0 || y >= size) {
+			throw new IllegalArgumentException("Row " + y
+					+ " is not on the board.");
+		}
+		remove(x, rows[x]);
+		rows[x] = y;
+		add(x, y);
+	}
+
+	/**
+	 * Moves the queen in the specified column (x-value of <code>l</code>) to
+	 * the specified row (y-value of <code>l</code>).
+	 */
+	public void moveQueenTo(XYLocation l) {
+		moveQueen(l.getXCoOrdinate(), l.getYCoOrdinate());
+	}
+
+	public long getNumberOfAttackingPairs() {
+		return attackingPairs;
+	}
+
+	/**
+	 * Returns the number of queens attacking the queen in the specified
+	 * column.
+	 */
+	public int getNumberOfAttacksOn(int x) {
+		int y = rows[x];
+		return rowCounts[y] + sumCounts[x + y]
+				+ differenceCounts[x - y + size - 1] - 3;
+	}
+
+	/**
+	 * Returns the number of queens in other columns which attack the
+	 * specified square, i.e. the number of attacks on the queen of column x if
+	 * it were moved to row y.
+	 */
+	public int getNumberOfConflicts(int x, int y) {
+		if (rows[x] == y) {
+			return getNumberOfAttacksOn(x);
+		}
+		// the queen of column x is not on any line through the square
+		return rowCounts[y] + sumCounts[x + y]
+				+ differenceCounts[x - y + size - 1];
+	}
+
+	/**
+	 * Returns the change of the number of attacking pairs if the queen in
+	 * column x were moved to row y.
+	 */
+	public int getAttackingPairsDelta(int x, int y) {
+		return getNumberOfConflicts(x, y) - getNumberOfAttacksOn(x);
+	}
+
+	public boolean isGoal() {
+		return 0 == attackingPairs;
+	}
+
+	/**
+	 * Returns a board of the general representation with the same queens.
+	 */
+	public NQueensBoard toNQueensBoard() {
+		NQueensBoard board = new NQueensBoard(size);
+		for (int x = 0; x < size; x++) {
+			board.addQueenAt(new XYLocation(x, rows[x]));
+		}
+		return board;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if ((o == null) || (this.getClass() != o.getClass())) {
+			return false;
+		}
+		return Arrays.equals(rows, ((NQueensColumnBoard) o).rows);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(rows);
+	}
+
+	@Override
+	public String toString() {
+		StringBuffer buf = new StringBuffer();
+		for (int row = 0; row < size; row++) { // rows
+			for (int col = 0; col < size; col++) { // columns
+				buf.append(rows[col] == row ? 'Q' : '-');
+			}
+			buf.append("\n");
+		}
+		return buf.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// each queen already on a line forms a new pair with the added queen
+	private void add(int x, int y) {
+		attackingPairs += rowCounts[y]++;
+		attackingPairs += sumCounts[x + y]++;
+		attackingPairs += differenceCounts[x - y + size - 1]++;
+	}
+
+	private void remove(int x, int y) {
+		attackingPairs -= --rowCounts[y];
+		attackingPairs -= --sumCounts[x + y];
+		attackingPairs -= --differenceCounts[x - y + size - 1];
+	}
+
+	private static int[] rowsOf(NQueensBoard board) {
+		int[] rows = new int[board.getSize()];
+		Arrays.fill(rows, -1);
+		for (XYLocation l : board.getQueenPositions()) {
+			if (-1 != rows[l.getXCoOrdinate()]) {
+				throw new IllegalArgumentException(
+						"More than one queen in column " + l.getXCoOrdinate()
+								+ ".");
+			}
+			rows[l.getXCoOrdinate()] = l.getYCoOrdinate();
+		}
+		for (int x = 0; x < rows.length; x++) {
+			if (-1 == rows[x]) {
+				throw new IllegalArgumentException("No queen in column " + x
+						+ ".");
+			}
+		}
+		return rows;
+	}
+}
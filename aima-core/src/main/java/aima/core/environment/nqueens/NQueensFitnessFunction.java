@@ -1,7 +1,6 @@
 package aima.core.environment.nqueens;
 
 import java.util.HashSet;
-import java.util.List;
 import java.util.Random;
 import java.util.Set;
 
@@ -28,45 +27,14 @@ public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
 	//
 	// START - Interface FitnessFunction
 	public double getValue(String individual) {
-		double fitness = 0;
-
-		NQueensBoard board = getBoardForIndividual(individual);
-		int boardSize = board.getSize();
+		NQueensColumnBoard board = getColumnBoardForIndividual(individual);
+		long boardSize = board.getSize();
 
 		// Calculate the number of non-attacking pairs of queens (refer to AIMA
-		// page 117).
-		List<XYLocation> qPositions = board.getQueenPositions();
-		for (int fromX = 0; fromX < (boardSize - 1); fromX++) {
-			for (int toX = fromX + 1; toX < boardSize; toX++) {
-				int fromY = qPositions.get(fromX).getYCoOrdinate();
-				boolean nonAttackingPair = true;
-				// Check right beside
-				int toY = fromY;
-				if (board.queenExistsAt(new XYLocation(toX, toY))) {
-					nonAttackingPair = false;
-				}
-				// Check right and above
-				toY = fromY - (toX - fromX);
-				if (toY >= 0) {
-					if (board.queenExistsAt(new XYLocation(toX, toY))) {
-						nonAttackingPair = false;
-					}
-				}
-				// Check right and below
-				toY = fromY + (toX - fromX);
-				if (toY < boardSize) {
-					if (board.queenExistsAt(new XYLocation(toX, toY))) {
-						nonAttackingPair = false;
-					}
-				}
-
-				if (nonAttackingPair) {
-					fitness += 1.0;
-				}
-			}
-		}
-
-		return fitness;
+		// page 117). Two queens attack each other along at most one line, so
+		// these are all pairs except the attacking ones.
+		return boardSize * (boardSize - 1) / 2
+				- board.getNumberOfAttackingPairs();
 	}
 
 	// END - Interface FitnessFunction
@@ -75,7 +43,8 @@ public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
 	//
 	// START - Interface GoalTest
 	public boolean isGoalState(Object state) {
-		return goalTest.isGoalState(getBoardForIndividual((String) state));
+		return goalTest
+				.isGoalState(getColumnBoardForIndividual((String) state));
 	}
 
 	// END - Interface GoalTest
@@ -93,6 +62,19 @@ public class NQueensFitnessFunction implements FitnessFunction, GoalTest {
 		return board;
 	}
 
+	/**
+	 * Returns the board of the complete-state formulation for the specified
+	 * individual, which counts attacking pairs in constant time.
+	 */
+	public NQueensColumnBoard getColumnBoardForIndividual(String individual) {
+		int boardSize = individual.length();
+		int[] rows = new int[boardSize];
+		for (int i = 0; i < boardSize; i++) {
+			rows[i] = Character.digit(individual.charAt(i), boardSize);
+		}
+		return new NQueensColumnBoard(rows);
+	}
+
 	public String generateRandomIndividual(int boardSize) {
 		StringBuffer ind = new StringBuffer();
 
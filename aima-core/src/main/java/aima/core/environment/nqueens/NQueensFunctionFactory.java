@@ -6,6 +6,8 @@ import java.util.Set;
 import aima.core.agent.Action;
 import aima.core.search.framework.ActionsFunction;
 import aima.core.search.framework.ResultFunction;
+import aima.core.search.local.InitialStateGenerator;
+import aima.core.util.Randomizer;
 import aima.core.util.datastructure.XYLocation;
 
 /**
@@ -43,6 +45,18 @@ public class NQueensFunctionFactory {
 		return _cActionsFunction;
 	}
 
+	/**
+	 * Returns a generator of random initial states for the complete-state
+	 * formulation of the n-queens problem, i.e. boards with a queen in a random
+	 * row of each column.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the boards.
+	 */
+	public static InitialStateGenerator getCInitialStateGenerator(int size) {
+		return new NQCInitialStateGenerator(size);
+	}
+
 	/**
 	 * Returns a RESULT function for the n-queens problem.
 	 */
@@ -90,6 +104,15 @@ public class NQueensFunctionFactory {
 
 		public Set<Action> actions(Object state) {
 			Set<Action> actions = new LinkedHashSet<Action>();
+			if (state instanceof NQueensColumnBoard) {
+				NQueensColumnBoard board = (NQueensColumnBoard) state;
+				for (int i = 0; i < board.getSize(); i++)
+					for (int j = 0; j < board.getSize(); j++)
+						if (board.getRowOf(i) != j)
+							actions.add(new QueenAction(QueenAction.MOVE_QUEEN,
+									new XYLocation(i, j)));
+				return actions;
+			}
 			NQueensBoard board = (NQueensBoard) state;
 			for (int i = 0; i < board.getSize(); i++)
 				for (int j = 0; j < board.getSize(); j++) {
@@ -101,10 +124,42 @@ public class NQueensFunctionFactory {
 		}
 	}
 
-	/** Supports queen placing, queen removal, and queen movement actions. */
+	/**
+	 * Places one queen in each column, in a row chosen at random.
+	 */
+	private static class NQCInitialStateGenerator implements
+			InitialStateGenerator {
+		private final int size;
+
+		NQCInitialStateGenerator(int size) {
+			this.size = size;
+		}
+
+		public Object generateInitialState(Randomizer random) {
+			NQueensBoard board = new NQueensBoard(size);
+			for (int i = 0; i < size; i++) {
+				board.addQueenAt(new XYLocation(i,
+						(int) (random.nextDouble() * size)));
+			}
+			return board;
+		}
+	}
+
+	/**
+	 * Supports queen placing, queen removal, and queen movement actions. Boards
+	 * of the complete-state formulation only support queen movements.
+	 */
 	private static class NQResultFunction implements ResultFunction {
 		public Object result(Object s, Action a) {
-			if (a instanceof QueenAction) {
+			if (s instanceof NQueensColumnBoard) {
+				if (a instanceof QueenAction
+						&& ((QueenAction) a).getName() == QueenAction.MOVE_QUEEN) {
+					NQueensColumnBoard newBoard = new NQueensColumnBoard(
+							(NQueensColumnBoard) s);
+					newBoard.moveQueenTo(((QueenAction) a).getLocation());
+					s = newBoard;
+				}
+			} else if (a instanceof QueenAction) {
 				QueenAction qa = (QueenAction) a;
 				NQueensBoard board = (NQueensBoard) s;
 				NQueensBoard newBoard = new NQueensBoard(board.getSize());
@@ -8,6 +8,9 @@ import aima.core.search.framework.GoalTest;
 public class NQueensGoalTest implements GoalTest {
 
 	public boolean isGoalState(Object state) {
+		if (state instanceof NQueensColumnBoard) {
+			return ((NQueensColumnBoard) state).isGoal();
+		}
 		NQueensBoard board = (NQueensBoard) state;
 		return board.getNumberOfQueensOnBoard() == board.getSize()
 				&& board.getNumberOfAttackingPairs() == 0;
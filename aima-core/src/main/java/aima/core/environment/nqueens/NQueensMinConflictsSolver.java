@@ -0,0 +1,169 @@
+package aima.core.environment.nqueens;
+
+import java.util.Random;
+
+import aima.core.util.CancelableThread;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 221.<br>
+ * <br>
+ * The MIN-CONFLICTS algorithm (see
+ * {@link aima.core.search.csp.MinConflictsStrategy}) applied to the n-queens
+ * problem directly on a {@link NQueensColumnBoard}, whose counters answer the
+ * CONFLICTS function in constant time, so that even the million-queens
+ * problem is solved within seconds.<br>
+ * <br>
+ * The initial state is chosen by a greedy assignment process: the queens are
+ * placed column by column in distinct rows, each in a randomly chosen row
+ * without diagonal conflicts with the queens placed before, if such a row is
+ * found within a few trials (R. Sosic, J. Gu: Efficient local search with
+ * conflict minimization, 1994). Then, a randomly chosen conflicted queen is
+ * moved to a row with the minimum number of conflicts, ties broken randomly,
+ * until no queens attack each other or the maximum number of steps is
+ * reached. Each step takes time linear in the size of the board. The
+ * conflicted queens are collected once, extended by the queens attacking a
+ * moved queen, and dropped lazily when they are chosen without being attacked
+ * any more.
+ */
+public class NQueensMinConflictsSolver {
+
+	// the number of random rows tried for a queen of the initial assignment
+	private static final int MAX_TRIALS = 32;
+
+	private final int maxSteps;
+	private final Random random;
+	private int steps = 0;
+
+	/**
+	 * Constructs a solver.
+	 *
+	 * @param maxSteps
+	 *            the number of steps allowed before giving up.
+	 * @param random
+	 *            the random number generator making all random choices.
+	 */
+	public NQueensMinConflictsSolver(int maxSteps, Random random) {
+		this.maxSteps = maxSteps;
+		this.random = random;
+	}
+
+	/**
+	 * Solves the n-queens problem of the specified size.
+	 *
+	 * @param size
+	 *            the number of queens.
+	 * @return a board without attacking queens, or null if none was found
+	 *         within the maximum number of steps.
+	 */
+	public NQueensColumnBoard solve(int size) {
+		NQueensColumnBoard board = createInitialBoard(size);
+		return solve(board) ? board : null;
+	}
+
+	/**
+	 * Moves the queens of the specified board until no queens attack each
+	 * other or the maximum number of steps is reached.
+	 *
+	 * @param board
+	 *            the board to be repaired.
+	 * @return true if the board is a solution.
+	 */
+	public boolean solve(NQueensColumnBoard board) {
+		int size = board.getSize();
+		// contains all conflicted queens, and some which are not any more
+		int[] conflicted = new int[size];
+		boolean[] listed = new boolean[size];
+		int n = 0;
+		for (int x = 0; x < size; x++) {
+			if (board.getNumberOfAttacksOn(x) > 0) {
+				conflicted[n++] = x;
+				listed[x] = true;
+			}
+		}
+		int[] candidates = new int[size];
+		steps = 0;
+		while (!board.isGoal()) {
+			if (steps >= maxSteps || CancelableThread.currIsCanceled()) {
+				return false;
+			}
+			// var = a randomly chosen conflicted variable
+			int i = random.nextInt(n);
+			int x = conflicted[i];
+			if (0 == board.getNumberOfAttacksOn(x)) {
+				conflicted[i] = conflicted[--n];
+				listed[x] = false;
+				continue;
+			}
+			steps++;
+			// value = the value v for var that minimizes CONFLICTS
+			int min = Integer.MAX_VALUE;
+			int ties = 0;
+			for (int y = 0; y < size; y++) {
+				int conflicts = board.getNumberOfConflicts(x, y);
+				if (conflicts < min) {
+					min = conflicts;
+					ties = 0;
+				}
+				if (conflicts == min) {
+					candidates[ties++] = y;
+				}
+			}
+			int y = candidates[random.nextInt(ties)];
+			board.moveQueen(x, y);
+			if (min > 0) {
+				// the queens attacking the moved queen are conflicted now
+				for (int col = 0; col < size; col++) {
+					int row = board.getRowOf(col);
+					if (!listed[col]
+							&& (row == y || col + row == x + y || col - row == x
+									- y)) {
+						conflicted[n++] = col;
+						listed[col] = true;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the number of steps of the last repair.
+	 *
+	 * @return the number of queens moved after the initial assignment.
+	 */
+	public int getSteps() {
+		return steps;
+	}
+
+	/**
+	 * Returns a board with one queen in each row, most of them without
+	 * diagonal conflicts.
+	 *
+	 * @param size
+	 *            the number of queens.
+	 * @return a board for the repair.
+	 */
+	public NQueensColumnBoard createInitialBoard(int size) {
+		int[] rows = new int[size];
+		for (int x = 0; x < size; x++) {
+			rows[x] = x;
+		}
+		boolean[] sums = new boolean[2 * size - 1];
+		boolean[] differences = new boolean[2 * size - 1];
+		for (int x = 0; x < size; x++) {
+			// choose among the rows not used by the previous columns
+			for (int trial = 0; trial < MAX_TRIALS; trial++) {
+				int j = x + random.nextInt(size - x);
+				int y = rows[j];
+				rows[j] = rows[x];
+				rows[x] = y;
+				if (!sums[x + y] && !differences[x - y + size - 1]) {
+					break;
+				}
+			}
+			sums[x + rows[x]] = true;
+			differences[x - rows[x] + size - 1] = true;
+		}
+		return new NQueensColumnBoard(rows);
+	}
+}
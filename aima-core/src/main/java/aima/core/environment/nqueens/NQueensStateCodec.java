@@ -0,0 +1,81 @@
+package aima.core.environment.nqueens;
+
+import java.util.List;
+
+import aima.core.search.framework.StateCodec;
+import aima.core.util.datastructure.XYLocation;
+
+/**
+ * Packs an n-queens board with at most one queen per column into a
+ * <code>long</code>. Every column is represented by a fixed number of bits
+ * holding 0 for an empty column and y + 1 for a queen in row y, so that the
+ * boards of both the incremental and the complete-state formulation can be
+ * encoded. Boards with up to 15 queens fit into a key. Boards of type
+ * {@link NQueensColumnBoard} are encoded like the equivalent
+ * {@link NQueensBoard} and decoded as such.
+ */
+public class NQueensStateCodec implements StateCodec {
+	private final int size;
+	private final int bitsPerColumn;
+
+	/**
+	 * Creates a codec for boards of the specified size.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the boards.
+	 */
+	public NQueensStateCodec(int size) {
+		int bits = 1;
+		while ((1 << bits) < size + 1) {
+			bits++;
+		}
+		if (size < 1 || size * bits > 64) {
+			throw new IllegalArgumentException("Boards of size " + size
+					+ " can not be encoded into a long.");
+		}
+		this.size = size;
+		this.bitsPerColumn = bits;
+	}
+
+	public long encode(Object state) {
+		if (state instanceof NQueensColumnBoard) {
+			state = ((NQueensColumnBoard) state).toNQueensBoard();
+		}
+		NQueensBoard board = (NQueensBoard) state;
+		if (board.getSize() != size) {
+			throw new IllegalArgumentException("Board of size "
+					+ board.getSize() + " can not be encoded by a codec for size "
+					+ size + ".");
+		}
+		long key = 0;
+		List<XYLocation> queens = board.getQueenPositions();
+		for (XYLocation loc : queens) {
+			int shift = loc.getXCoOrdinate() * bitsPerColumn;
+			if (0 != ((key >>> shift) & columnMask())) {
+				throw new IllegalArgumentException(
+						"More than one queen in column " + loc.getXCoOrdinate()
+								+ ".");
+			}
+			key |= ((long) loc.getYCoOrdinate() + 1) << shift;
+		}
+		return key;
+	}
+
+	public Object decode(long key) {
+		NQueensBoard board = new NQueensBoard(size);
+		for (int x = 0; x < size; x++) {
+			int y = (int) ((key >>> (x * bitsPerColumn)) & columnMask());
+			if (0 != y) {
+				board.addQueenAt(new XYLocation(x, y - 1));
+			}
+		}
+		return board;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private long columnMask() {
+		return (1L << bitsPerColumn) - 1;
+	}
+}
@@ -0,0 +1,284 @@
+package aima.core.environment.slidingtile;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import aima.core.agent.Action;
+
+/**
+ * An immutable board of the N&times;N sliding-tile puzzle for N up to 4, i.e.
+ * the 8-puzzle and the 15-puzzle, packed into a single <code>long</code> of 4
+ * bits per square, the first square in the lowest bits. The squares and the
+ * goal are the same as for the {@link SlidingTileBoard}.<br>
+ * <br>
+ * Moving the gap exchanges two 4 bit fields, and the board keeps the square
+ * of the gap and the sum of the Manhattan distances of the tiles from their
+ * goal squares, which a move changes by at most 1. A successor is therefore
+ * created in constant time and without copying an array, and the Manhattan
+ * heuristic as well as the goal test take constant time. The actions and
+ * result functions, goal tests and Manhattan heuristics of this package and
+ * of the eight puzzle accept packed boards, so any search can use them.
+ */
+public class PackedTileBoard {
+
+	private static final int UP = 0;
+	private static final int DOWN = 1;
+	private static final int LEFT = 2;
+	private static final int RIGHT = 3;
+	// the directions in the order of SlidingTileFunctionFactory
+	private static final Action[] DIRECTIONS = { SlidingTileBoard.UP,
+			SlidingTileBoard.DOWN, SlidingTileBoard.LEFT,
+			SlidingTileBoard.RIGHT };
+	// the actions applicable with the gap at each square, by size
+	private static final List<List<Set<Action>>> GAP_ACTIONS = new ArrayList<List<Set<Action>>>();
+	static {
+		for (int size = 0; size <= 4; size++) {
+			List<Set<Action>> actions = new ArrayList<Set<Action>>();
+			for (int square = 0; square < size * size; square++) {
+				Set<Action> set = new LinkedHashSet<Action>();
+				for (int d = UP; d <= RIGHT; d++) {
+					if (canMove(size, square, d)) {
+						set.add(DIRECTIONS[d]);
+					}
+				}
+				actions.add(Collections.unmodifiableSet(set));
+			}
+			GAP_ACTIONS.add(actions);
+		}
+	}
+
+	private final int size;
+	private final long tiles;
+	private final int gap;
+	private final int manhattanDistance;
+
+	/**
+	 * Creates the goal board of the specified size, i.e. the gap in the top
+	 * left corner followed by the tiles in ascending order.
+	 *
+	 * @param size
+	 *            the number of rows and columns, 2 to 4.
+	 */
+	public PackedTileBoard(int size) {
+		this(new SlidingTileBoard(size).getTiles());
+	}
+
+	/**
+	 * Creates a board with the specified tiles.
+	 *
+	 * @param tiles
+	 *            the tile at each square, row by row, 0 for the gap. The
+	 *            length must be 4, 9 or 16.
+	 */
+	public PackedTileBoard(int[] tiles) {
+		// validates the tiles
+		this(new SlidingTileBoard(tiles));
+	}
+
+	/**
+	 * Creates a board with the same tiles as the specified board.
+	 *
+	 * @param board
+	 *            a board with up to 4 rows and columns.
+	 */
+	public PackedTileBoard(SlidingTileBoard board) {
+		if (board.getSize() > 4) {
+			throw new IllegalArgumentException(
+					"Packed boards have at most 4 rows and columns.");
+		}
+		size = board.getSize();
+		long packed = 0;
+		int distance = 0;
+		for (int square = board.getNumberOfSquares() - 1; square >= 0; square--) {
+			int tile = board.getTileAt(square);
+			packed = (packed << 4) | tile;
+			if (0 != tile) {
+				distance += distance(tile, square);
+			}
+		}
+		tiles = packed;
+		gap = board.getGapSquare();
+		manhattanDistance = distance;
+	}
+
+	private PackedTileBoard(int size, long tiles, int gap,
+			int manhattanDistance) {
+		this.size = size;
+		this.tiles = tiles;
+		this.gap = gap;
+		this.manhattanDistance = manhattanDistance;
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of this board.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	public int getNumberOfSquares() {
+		return size * size;
+	}
+
+	public int getTileAt(int square) {
+		return (int) (tiles >>> (square << 2)) & 0xF;
+	}
+
+	public int getSquareOf(int tile) {
+		for (int square = 0; square < size * size; square++) {
+			if (getTileAt(square) == tile) {
+				return square;
+			}
+		}
+		return -1;
+	}
+
+	public int getGapSquare() {
+		return gap;
+	}
+
+	/**
+	 * Returns the tiles at each square, row by row.
+	 */
+	public int[] getTiles() {
+		int[] result = new int[size * size];
+		for (int square = 0; square < result.length; square++) {
+			result[square] = getTileAt(square);
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the packed tiles, 4 bits per square, the first square in the
+	 * lowest bits. For the 8-puzzle, this is the key of the board used by
+	 * {@link aima.core.environment.eightpuzzle.EightPuzzleStateCodec}.
+	 */
+	public long getKey() {
+		return tiles;
+	}
+
+	/**
+	 * Returns the sum of the Manhattan distances of all tiles from their goal
+	 * squares, which is 0 for the goal board only.
+	 */
+	public int getManhattanDistance() {
+		return manhattanDistance;
+	}
+
+	public boolean isGoal() {
+		return 0 == manhattanDistance;
+	}
+
+	public boolean canMoveGap(Action where) {
+		int d = directionOf(where);
+		return d >= 0 && canMove(size, gap, d);
+	}
+
+	/**
+	 * Returns the actions which can be applied to this board, i.e. the
+	 * directions in which the gap can be moved. The set is shared by all
+	 * boards of this size with the gap at the same square and must not be
+	 * modified.
+	 */
+	public Set<Action> getGapActions() {
+		return GAP_ACTIONS.get(size).get(gap);
+	}
+
+	/**
+	 * Returns the board which results from moving the gap in the specified
+	 * direction, or this board if the gap cannot be moved in that direction.
+	 */
+	public PackedTileBoard moveGap(Action where) {
+		int d = directionOf(where);
+		if (d < 0 || !canMove(size, gap, d)) {
+			return this;
+		}
+		int target;
+		if (LEFT == d) {
+			target = gap - 1;
+		} else if (RIGHT == d) {
+			target = gap + 1;
+		} else if (UP == d) {
+			target = gap - size;
+		} else {
+			target = gap + size;
+		}
+		// the tile at the target square moves into the gap
+		long tile = (tiles >>> (target << 2)) & 0xF;
+		long moved = (tiles & ~(0xFL << (target << 2))) | (tile << (gap << 2));
+		int delta = distance((int) tile, gap) - distance((int) tile, target);
+		return new PackedTileBoard(size, moved, target, manhattanDistance
+				+ delta);
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if ((o == null) || (this.getClass() != o.getClass())) {
+			return false;
+		}
+		PackedTileBoard other = (PackedTileBoard) o;
+		return size == other.size && tiles == other.tiles;
+	}
+
+	@Override
+	public int hashCode() {
+		long h = tiles * 0x9e3779b97f4a7c15L;
+		return (int) (h ^ (h >>> 32));
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < size * size; i++) {
+			if (i > 0) {
+				sb.append(i % size == 0 ? "\n" : " ");
+			}
+			sb.append(getTileAt(i));
+		}
+		return sb.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// the Manhattan distance of a tile at a square from its goal square
+	private int distance(int tile, int square) {
+		return Math.abs(square / size - tile / size)
+				+ Math.abs(square % size - tile % size);
+	}
+
+	private static boolean canMove(int size, int gap, int direction) {
+		switch (direction) {
+		case UP:
+			return gap >= size;
+		case DOWN:
+			return gap < size * size - size;
+		case LEFT:
+			return gap % size != 0;
+		default:
+			return gap % size != size - 1;
+		}
+	}
+
+	// the index of the direction, -1 if the action does not move the gap
+	private static int directionOf(Action where) {
+		// the actions are usually the constants themselves
+		for (int d = UP; d <= RIGHT; d++) {
+			if (DIRECTIONS[d] == where) {
+				return d;
+			}
+		}
+		for (int d = UP; d <= RIGHT; d++) {
+			if (DIRECTIONS[d].equals(where)) {
+				return d;
+			}
+		}
+		return -1;
+	}
+}
@@ -0,0 +1,344 @@
+package aima.core.environment.slidingtile;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * A pattern database for the N&times;N sliding-tile puzzle, see J. C.
+ * Culberson and J. Schaeffer: Pattern Databases, Computational Intelligence
+ * 14(3), 1998.<br>
+ * <br>
+ * For a subset of the tiles (the pattern), the database stores for every
+ * placement of these tiles the minimum number of moves of pattern tiles
+ * needed to bring them to their goal squares. As moves of the other tiles
+ * are not counted, the values of databases with disjoint patterns can be
+ * added and still yield an admissible heuristic (R. E. Korf and A. Felner:
+ * Disjoint Pattern Database Heuristics, Artificial Intelligence 134, 2002).<br>
+ * <br>
+ * The table holds one unsigned byte per placement, indexed by the rank of the
+ * sequence of squares occupied by the pattern tiles among all sequences of k
+ * distinct squares out of m, i.e. m!/(m-k)! entries. Looking up a value takes
+ * O(k) time, independent of the size of the table.
+ */
+public class PatternDatabase {
+	private final int numberOfSquares;
+	private final int[] tiles;
+	private final ByteBuffer table;
+
+	/**
+	 * Creates a pattern database from an existing table, e.g. one which was
+	 * memory-mapped from a file.
+	 * 
+	 * @param numberOfSquares
+	 *            the number of squares of the board.
+	 * @param tiles
+	 *            the tiles of the pattern.
+	 * @param table
+	 *            the table, indexed from position 0 of the buffer.
+	 */
+	public PatternDatabase(int numberOfSquares, int[] tiles, ByteBuffer table) {
+		if (numberOfSquares > 64 || tiles.length >= numberOfSquares) {
+			throw new IllegalArgumentException("Illegal pattern size.");
+		}
+		for (int tile : tiles) {
+			if (tile < 1 || tile >= numberOfSquares) {
+				throw new IllegalArgumentException("Illegal tile in pattern: "
+						+ tile);
+			}
+		}
+		if (table.capacity() != getTableSize(numberOfSquares, tiles.length)) {
+			throw new IllegalArgumentException("Table size does not match.");
+		}
+		this.numberOfSquares = numberOfSquares;
+		this.tiles = tiles.clone();
+		this.table = table;
+	}
+
+	/**
+	 * Generates the pattern database for the specified tiles by a retrograde
+	 * breadth-first search from the goal. The search runs in the abstract
+	 * state space of pattern tile placements together with the square of the
+	 * gap, where moving the gap onto a square of another tile costs nothing,
+	 * so it needs one byte per abstract state, i.e. m times the size of the
+	 * resulting table.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the board.
+	 * @param tiles
+	 *            the tiles of the pattern.
+	 * @return the pattern database for the specified tiles.
+	 */
+	public static PatternDatabase generate(int size, int[] tiles) {
+		int m = size * size;
+		long tableSize = getTableSize(m, tiles.length);
+		if (tableSize * m > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Pattern is too large.");
+		}
+		return new PatternDatabase(m, tiles, ByteBuffer
+				.wrap(new Generator(size, tiles.length).run(tiles)));
+	}
+
+	/**
+	 * Returns the number of entries of the table of a pattern with k tiles on
+	 * a board with m squares, i.e. m!/(m-k)!.
+	 */
+	public static long getTableSize(int m, int k) {
+		long result = 1;
+		for (int i = 0; i < k; i++) {
+			result *= m - i;
+		}
+		return result;
+	}
+
+	public int getNumberOfSquares() {
+		return numberOfSquares;
+	}
+
+	/**
+	 * Returns a copy of the tiles of the pattern.
+	 */
+	public int[] getTiles() {
+		return tiles.clone();
+	}
+
+	/**
+	 * Returns a read only view of the table.
+	 */
+	public ByteBuffer getTable() {
+		return table.asReadOnlyBuffer();
+	}
+
+	/**
+	 * Returns the number of moves of pattern tiles needed to solve the pattern
+	 * on the specified board.
+	 */
+	public int getValue(SlidingTileBoard board) {
+		long used = 0;
+		int rank = 0;
+		for (int i = 0; i < tiles.length; i++) {
+			int square = board.getSquareOf(tiles[i]);
+			rank = rank * (numberOfSquares - i) + square
+					- Long.bitCount(used & ((1L << square) - 1));
+			used |= 1L << square;
+		}
+		return table.get(rank) & 0xFF;
+	}
+
+	/**
+	 * Returns the number of moves of pattern tiles needed to solve the pattern
+	 * for the specified tiles at each square.
+	 */
+	public int getValue(int[] tileAtSquare) {
+		int[] squareOf = new int[tileAtSquare.length];
+		for (int i = 0; i < tileAtSquare.length; i++) {
+			squareOf[tileAtSquare[i]] = i;
+		}
+		return getValueForSquares(squareOf);
+	}
+
+	/**
+	 * Returns the number of moves of pattern tiles needed to solve the pattern
+	 * on the specified packed board.
+	 */
+	public int getValue(PackedTileBoard board) {
+		long packed = board.getKey();
+		int[] squareOf = new int[numberOfSquares];
+		for (int i = 0; i < numberOfSquares; i++) {
+			squareOf[(int) (packed >>> (i << 2)) & 0xF] = i;
+		}
+		return getValueForSquares(squareOf);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int getValueForSquares(int[] squareOf) {
+		long used = 0;
+		int rank = 0;
+		for (int i = 0; i < tiles.length; i++) {
+			int square = squareOf[tiles[i]];
+			rank = rank * (numberOfSquares - i) + square
+					- Long.bitCount(used & ((1L << square) - 1));
+			used |= 1L << square;
+		}
+		return table.get(rank) & 0xFF;
+	}
+
+	/**
+	 * The retrograde breadth-first search over the abstract states, encoded as
+	 * rank * m + square of the gap. As moves can have cost 0 or 1, each level
+	 * is processed until no more states of the same distance are found.
+	 */
+	private static class Generator {
+		private static final int UNKNOWN = 0xFF;
+		private final int size;
+		private final int m;
+		private final int k;
+		private final int[] squares;
+		private final boolean[] occupied;
+
+		Generator(int size, int k) {
+			this.size = size;
+			this.m = size * size;
+			this.k = k;
+			this.squares = new int[k];
+			this.occupied = new boolean[m];
+		}
+
+		byte[] run(int[] tiles) {
+			int tableSize = (int) getTableSize(m, k);
+			byte[] distance = new byte[tableSize * m];
+			Arrays.fill(distance, (byte) UNKNOWN);
+			// the goal: each tile on the square with its number, gap at 0
+			int start = rank(tiles) * m;
+			distance[start] = 0;
+			IntList current = new IntList();
+			IntList next = new IntList();
+			current.add(start);
+			for (int d = 0; !current.isEmpty(); d++) {
+				if (d + 1 >= UNKNOWN) {
+					throw new IllegalStateException("Distance overflow.");
+				}
+				// current grows while it is processed (moves of cost 0)
+				for (int i = 0; i < current.size(); i++) {
+					int state = current.get(i);
+					if ((distance[state] & 0xFF) != d) {
+						continue; // reached again with a smaller distance
+					}
+					expand(state, d, distance, current, next);
+				}
+				IntList tmp = current;
+				current = next;
+				next = tmp;
+				next.clear();
+			}
+
+			byte[] table = new byte[tableSize];
+			for (int r = 0; r < tableSize; r++) {
+				int min = UNKNOWN;
+				for (int gap = 0; gap < m; gap++) {
+					min = Math.min(min, distance[r * m + gap] & 0xFF);
+				}
+				table[r] = (byte) (UNKNOWN == min ? 0 : min);
+			}
+			return table;
+		}
+
+		private void expand(int state, int d, byte[] distance,
+				IntList current, IntList next) {
+			int gap = state % m;
+			unrank(state / m);
+			Arrays.fill(occupied, false);
+			for (int s : squares) {
+				occupied[s] = true;
+			}
+			int row = gap / size;
+			int col = gap % size;
+			for (int dir = 0; dir < 4; dir++) {
+				int target;
+				if (0 == dir && row > 0) {
+					target = gap - size;
+				} else if (1 == dir && row < size - 1) {
+					target = gap + size;
+				} else if (2 == dir && col > 0) {
+					target = gap - 1;
+				} else if (3 == dir && col < size - 1) {
+					target = gap + 1;
+				} else {
+					continue;
+				}
+				if (occupied[target]) {
+					// a pattern tile moves onto the gap, cost 1
+					int j = 0;
+					while (squares[j] != target) {
+						j++;
+					}
+					squares[j] = gap;
+					int successor = rankSquares() * m + target;
+					squares[j] = target;
+					if (UNKNOWN == (distance[successor] & 0xFF)) {
+						distance[successor] = (byte) (d + 1);
+						next.add(successor);
+					}
+				} else {
+					// another tile moves, cost 0
+					int successor = (state - gap) + target;
+					int known = distance[successor] & 0xFF;
+					if (known > d) {
+						distance[successor] = (byte) d;
+						current.add(successor);
+					}
+				}
+			}
+		}
+
+		private int rank(int[] tileSquares) {
+			System.arraycopy(tileSquares, 0, squares, 0, k);
+			return rankSquares();
+		}
+
+		private int rankSquares() {
+			long used = 0;
+			int rank = 0;
+			for (int i = 0; i < k; i++) {
+				int square = squares[i];
+				rank = rank * (m - i) + square
+						- Long.bitCount(used & ((1L << square) - 1));
+				used |= 1L << square;
+			}
+			return rank;
+		}
+
+		private void unrank(int rank) {
+			int[] digits = new int[k];
+			for (int i = k - 1; i >= 0; i--) {
+				digits[i] = rank % (m - i);
+				rank /= m - i;
+			}
+			long used = 0;
+			for (int i = 0; i < k; i++) {
+				// the digits[i]-th square which is not used yet
+				int square = -1;
+				for (int free = digits[i]; free >= 0; free--) {
+					square++;
+					while (0 != (used & (1L << square))) {
+						square++;
+					}
+				}
+				squares[i] = square;
+				used |= 1L << square;
+			}
+		}
+	}
+
+	/**
+	 * A growable list of primitive ints.
+	 */
+	private static class IntList {
+		private int[] elements = new int[1024];
+		private int size = 0;
+
+		void add(int e) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size * 2);
+			}
+			elements[size++] = e;
+		}
+
+		int get(int i) {
+			return elements[i];
+		}
+
+		int size() {
+			return size;
+		}
+
+		boolean isEmpty() {
+			return 0 == size;
+		}
+
+		void clear() {
+			size = 0;
+		}
+	}
+}
@@ -0,0 +1,214 @@
+package aima.core.environment.slidingtile;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.search.framework.HeuristicFunction;
+
+/**
+ * An additive heuristic for the N&times;N sliding-tile puzzle, which sums up
+ * the values of pattern databases with disjoint patterns. States can be
+ * {@link SlidingTileBoard}s, {@link PackedTileBoard}s or, for N = 3,
+ * {@link EightPuzzleBoard}s.<br>
+ * <br>
+ * The databases can be saved to and loaded from a binary file with the
+ * following layout (all numbers are big-endian ints):
+ * 
+ * <pre>
+ * magic ('APDB'), version (1), N, number of patterns
+ * for each pattern:
+ *   k, tile 1, ..., tile k, table size, table (one unsigned byte per entry)
+ * </pre>
+ * 
+ * When loaded, the file is memory-mapped, so that the tables are paged in by
+ * the operating system instead of being copied to the heap.
+ */
+public class PatternDatabaseHeuristicFunction implements HeuristicFunction {
+	private static final int MAGIC = 0x41504442;
+	private static final int VERSION = 1;
+
+	private final int size;
+	private final PatternDatabase[] databases;
+
+	/**
+	 * Creates a heuristic from pattern databases with disjoint patterns.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the board.
+	 * @param databases
+	 *            the pattern databases.
+	 */
+	public PatternDatabaseHeuristicFunction(int size,
+			PatternDatabase... databases) {
+		boolean[] used = new boolean[size * size];
+		for (PatternDatabase db : databases) {
+			if (db.getNumberOfSquares() != size * size) {
+				throw new IllegalArgumentException(
+						"Pattern database is for a different board size.");
+			}
+			for (int tile : db.getTiles()) {
+				if (used[tile]) {
+					throw new IllegalArgumentException("Tile " + tile
+							+ " is part of more than one pattern.");
+				}
+				used[tile] = true;
+			}
+		}
+		this.size = size;
+		this.databases = databases.clone();
+	}
+
+	/**
+	 * Generates the pattern databases for the specified partition of the
+	 * tiles, e.g. <code>{ { 1, 2, 3, 4, 5 }, { 6, 7, 8, 9, 10 }, { 11, 12,
+	 * 13, 14, 15 } }</code> for the 15-puzzle.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the board.
+	 * @param patterns
+	 *            disjoint sets of tiles.
+	 * @return the additive heuristic of the generated databases.
+	 */
+	public static PatternDatabaseHeuristicFunction generate(int size,
+			int[]... patterns) {
+		PatternDatabase[] databases = new PatternDatabase[patterns.length];
+		for (int i = 0; i < patterns.length; i++) {
+			databases[i] = PatternDatabase.generate(size, patterns[i]);
+		}
+		return new PatternDatabaseHeuristicFunction(size, databases);
+	}
+
+	/**
+	 * Loads pattern databases from the specified file by memory-mapping it.
+	 * 
+	 * @param file
+	 *            a file written by {@link #save(File)}.
+	 * @return the additive heuristic of the loaded databases.
+	 * @throws IOException
+	 *             if the file can not be read or has an invalid format.
+	 */
+	public static PatternDatabaseHeuristicFunction load(File file)
+			throws IOException {
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		MappedByteBuffer buffer;
+		try {
+			// the mapping stays valid after the file has been closed
+			buffer = raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0,
+					raf.length());
+		} finally {
+			raf.close();
+		}
+		try {
+			if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+				throw new IOException(file + " is not a pattern database file.");
+			}
+			int size = buffer.getInt();
+			PatternDatabase[] databases = new PatternDatabase[buffer.getInt()];
+			for (int i = 0; i < databases.length; i++) {
+				int[] tiles = new int[buffer.getInt()];
+				for (int j = 0; j < tiles.length; j++) {
+					tiles[j] = buffer.getInt();
+				}
+				int tableSize = buffer.getInt();
+				ByteBuffer table = buffer.slice();
+				table.limit(tableSize);
+				databases[i] = new PatternDatabase(size * size, tiles,
+						table.slice());
+				buffer.position(buffer.position() + tableSize);
+			}
+			return new PatternDatabaseHeuristicFunction(size, databases);
+		} catch (RuntimeException ex) {
+			// buffer underflow, illegal patterns, ...
+			IOException ioe = new IOException(file
+					+ " is not a valid pattern database file.");
+			ioe.initCause(ex);
+			throw ioe;
+		}
+	}
+
+	/**
+	 * Saves the pattern databases to the specified file.
+	 * 
+	 * @param file
+	 *            the file to be written.
+	 * @throws IOException
+	 *             if the file can not be written.
+	 */
+	public void save(File file) throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file)));
+		try {
+			out.writeInt(MAGIC);
+			out.writeInt(VERSION);
+			out.writeInt(size);
+			out.writeInt(databases.length);
+			byte[] buf = new byte[8192];
+			for (PatternDatabase db : databases) {
+				int[] tiles = db.getTiles();
+				out.writeInt(tiles.length);
+				for (int tile : tiles) {
+					out.writeInt(tile);
+				}
+				ByteBuffer table = db.getTable();
+				out.writeInt(table.capacity());
+				table.position(0);
+				while (table.hasRemaining()) {
+					int n = Math.min(buf.length, table.remaining());
+					table.get(buf, 0, n);
+					out.write(buf, 0, n);
+				}
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public double h(Object state) {
+		int result = 0;
+		if (state instanceof SlidingTileBoard) {
+			SlidingTileBoard board = (SlidingTileBoard) state;
+			checkSize(board.getSize());
+			for (PatternDatabase db : databases) {
+				result += db.getValue(board);
+			}
+		} else if (state instanceof PackedTileBoard) {
+			PackedTileBoard board = (PackedTileBoard) state;
+			checkSize(board.getSize());
+			for (PatternDatabase db : databases) {
+				result += db.getValue(board);
+			}
+		} else {
+			if (3 != size) {
+				throw new IllegalArgumentException(
+						"Eight puzzle boards require 3x3 pattern databases.");
+			}
+			int[] tiles = ((EightPuzzleBoard) state).getState();
+			for (PatternDatabase db : databases) {
+				result += db.getValue(tiles);
+			}
+		}
+		return result;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void checkSize(int boardSize) {
+		if (boardSize != size) {
+			throw new IllegalArgumentException("Board of size " + boardSize
+					+ " does not match pattern databases of size " + size + ".");
+		}
+	}
+}
@@ -0,0 +1,194 @@
+package aima.core.environment.slidingtile;
+
+import java.util.Arrays;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+
+/**
+ * A board of the N&times;N sliding-tile puzzle (e.g. the 8-puzzle for N = 3 or
+ * the 15-puzzle for N = 4). The squares are numbered row by row, starting with
+ * 0 in the top left corner, and contain the tiles 1 to N<sup>2</sup> - 1 and
+ * the gap (0).<br>
+ * <br>
+ * The actions are the same as for the {@link EightPuzzleBoard}, i.e. they
+ * move the gap. In addition to the tile at each square, the board keeps the
+ * square of each tile, so that locating a tile takes constant time.
+ */
+public class SlidingTileBoard {
+
+	public static final Action LEFT = EightPuzzleBoard.LEFT;
+
+	public static final Action RIGHT = EightPuzzleBoard.RIGHT;
+
+	public static final Action UP = EightPuzzleBoard.UP;
+
+	public static final Action DOWN = EightPuzzleBoard.DOWN;
+
+	private final int size;
+	// tile at each square
+	private final int[] tiles;
+	// square of each tile
+	private final int[] squares;
+
+	/**
+	 * Creates the goal board of the specified size, i.e. the gap in the top
+	 * left corner followed by the tiles in ascending order.
+	 * 
+	 * @param size
+	 *            the number of rows and columns.
+	 */
+	public SlidingTileBoard(int size) {
+		this(goalTiles(size));
+	}
+
+	/**
+	 * Creates a board with the specified tiles.
+	 * 
+	 * @param tiles
+	 *            the tile at each square, row by row, 0 for the gap. The
+	 *            length must be a square number.
+	 */
+	public SlidingTileBoard(int[] tiles) {
+		int n = (int) Math.round(Math.sqrt(tiles.length));
+		if (n < 2 || n * n != tiles.length || n > 8) {
+			throw new IllegalArgumentException("Illegal number of squares: "
+					+ tiles.length);
+		}
+		this.size = n;
+		this.tiles = tiles.clone();
+		this.squares = new int[tiles.length];
+		Arrays.fill(squares, -1);
+		for (int i = 0; i < tiles.length; i++) {
+			int tile = tiles[i];
+			if (tile < 0 || tile >= tiles.length || squares[tile] != -1) {
+				throw new IllegalArgumentException(
+						"Tiles are not a permutation of 0.."
+								+ (tiles.length - 1));
+			}
+			squares[tile] = i;
+		}
+	}
+
+	public SlidingTileBoard(SlidingTileBoard copyBoard) {
+		this.size = copyBoard.size;
+		this.tiles = copyBoard.tiles.clone();
+		this.squares = copyBoard.squares.clone();
+	}
+
+	/**
+	 * Creates a 3&times;3 board with the same tiles as the specified eight
+	 * puzzle board.
+	 */
+	public SlidingTileBoard(EightPuzzleBoard board) {
+		this(board.getState());
+	}
+
+	/**
+	 * Returns the number of rows (and columns) of this board.
+	 */
+	public int getSize() {
+		return size;
+	}
+
+	public int getNumberOfSquares() {
+		return tiles.length;
+	}
+
+	public int getTileAt(int square) {
+		return tiles[square];
+	}
+
+	public int getSquareOf(int tile) {
+		return squares[tile];
+	}
+
+	public int getGapSquare() {
+		return squares[0];
+	}
+
+	/**
+	 * Returns a copy of the tiles at each square, row by row.
+	 */
+	public int[] getTiles() {
+		return tiles.clone();
+	}
+
+	public boolean canMoveGap(Action where) {
+		int gap = squares[0];
+		if (LEFT.equals(where)) {
+			return gap % size != 0;
+		} else if (RIGHT.equals(where)) {
+			return gap % size != size - 1;
+		} else if (UP.equals(where)) {
+			return gap >= size;
+		} else if (DOWN.equals(where)) {
+			return gap < tiles.length - size;
+		}
+		return false;
+	}
+
+	/**
+	 * Moves the gap in the specified direction, if possible.
+	 */
+	public void moveGap(Action where) {
+		if (!canMoveGap(where)) {
+			return;
+		}
+		int gap = squares[0];
+		int target;
+		if (LEFT.equals(where)) {
+			target = gap - 1;
+		} else if (RIGHT.equals(where)) {
+			target = gap + 1;
+		} else if (UP.equals(where)) {
+			target = gap - size;
+		} else {
+			target = gap + size;
+		}
+		int tile = tiles[target];
+		tiles[gap] = tile;
+		squares[tile] = gap;
+		tiles[target] = 0;
+		squares[0] = target;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (this == o) {
+			return true;
+		}
+		if ((o == null) || (this.getClass() != o.getClass())) {
+			return false;
+		}
+		return Arrays.equals(tiles, ((SlidingTileBoard) o).tiles);
+	}
+
+	@Override
+	public int hashCode() {
+		return Arrays.hashCode(tiles);
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < tiles.length; i++) {
+			if (i > 0) {
+				sb.append(i % size == 0 ? "\n" : " ");
+			}
+			sb.append(tiles[i]);
+		}
+		return sb.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static int[] goalTiles(int size) {
+		int[] tiles = new int[size * size];
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = i;
+		}
+		return tiles;
+	}
+}
@@ -0,0 +1,72 @@
+package aima.core.environment.slidingtile;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.ResultFunction;
+
+/**
+ * Provides the actions and result functions of the N&times;N sliding-tile
+ * puzzle. The actions are offered in the same order as for the eight puzzle.
+ * The states are {@link SlidingTileBoard}s or {@link PackedTileBoard}s.
+ */
+public class SlidingTileFunctionFactory {
+	private static ActionsFunction _actionsFunction = null;
+	private static ResultFunction _resultFunction = null;
+
+	public static ActionsFunction getActionsFunction() {
+		if (null == _actionsFunction) {
+			_actionsFunction = new STActionsFunction();
+		}
+		return _actionsFunction;
+	}
+
+	public static ResultFunction getResultFunction() {
+		if (null == _resultFunction) {
+			_resultFunction = new STResultFunction();
+		}
+		return _resultFunction;
+	}
+
+	private static final Action[] ACTIONS = { SlidingTileBoard.UP,
+			SlidingTileBoard.DOWN, SlidingTileBoard.LEFT,
+			SlidingTileBoard.RIGHT };
+
+	private static class STActionsFunction implements ActionsFunction {
+		public Set<Action> actions(Object state) {
+			if (state instanceof PackedTileBoard) {
+				return ((PackedTileBoard) state).getGapActions();
+			}
+			SlidingTileBoard board = (SlidingTileBoard) state;
+
+			Set<Action> actions = new LinkedHashSet<Action>();
+			for (Action a : ACTIONS) {
+				if (board.canMoveGap(a)) {
+					actions.add(a);
+				}
+			}
+			return actions;
+		}
+	}
+
+	private static class STResultFunction implements ResultFunction {
+		public Object result(Object s, Action a) {
+			if (s instanceof PackedTileBoard) {
+				return ((PackedTileBoard) s).moveGap(a);
+			}
+			SlidingTileBoard board = (SlidingTileBoard) s;
+
+			if (board.canMoveGap(a)) {
+				SlidingTileBoard newBoard = new SlidingTileBoard(board);
+				newBoard.moveGap(a);
+				return newBoard;
+			}
+
+			// The Action is not understood or is a NoOp
+			// the result will be the current state.
+			return s;
+		}
+	}
+}
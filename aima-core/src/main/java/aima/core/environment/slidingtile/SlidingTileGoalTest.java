@@ -0,0 +1,23 @@
+package aima.core.environment.slidingtile;
+
+import aima.core.search.framework.GoalTest;
+
+/**
+ * Tests whether the gap is in the top left corner, followed by the tiles in
+ * ascending order (the same goal as for the eight puzzle).
+ */
+public class SlidingTileGoalTest implements GoalTest {
+
+	public boolean isGoalState(Object state) {
+		if (state instanceof PackedTileBoard) {
+			return ((PackedTileBoard) state).isGoal();
+		}
+		SlidingTileBoard board = (SlidingTileBoard) state;
+		for (int i = 0; i < board.getNumberOfSquares(); i++) {
+			if (board.getTileAt(i) != i) {
+				return false;
+			}
+		}
+		return true;
+	}
+}
@@ -0,0 +1,26 @@
+package aima.core.environment.slidingtile;
+
+import aima.core.search.framework.HeuristicFunction;
+
+/**
+ * The sum of the Manhattan distances of all tiles from their goal squares.
+ */
+public class SlidingTileManhattanHeuristicFunction implements
+		HeuristicFunction {
+
+	public double h(Object state) {
+		if (state instanceof PackedTileBoard) {
+			// kept up to date by the moves
+			return ((PackedTileBoard) state).getManhattanDistance();
+		}
+		SlidingTileBoard board = (SlidingTileBoard) state;
+		int size = board.getSize();
+		int result = 0;
+		for (int tile = 1; tile < board.getNumberOfSquares(); tile++) {
+			int square = board.getSquareOf(tile);
+			result += Math.abs(square / size - tile / size)
+					+ Math.abs(square % size - tile % size);
+		}
+		return result;
+	}
+}
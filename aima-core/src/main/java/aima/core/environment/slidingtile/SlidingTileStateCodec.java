@@ -0,0 +1,63 @@
+package aima.core.environment.slidingtile;
+
+import aima.core.search.framework.StateCodec;
+
+/**
+ * Packs a board of the N&times;N sliding-tile puzzle for N up to 4 into a
+ * <code>long</code>, 4 bits per square, the first square in the lowest bits,
+ * i.e. the key of a board is the one returned by
+ * {@link PackedTileBoard#getKey()}. Both {@link SlidingTileBoard}s and
+ * {@link PackedTileBoard}s are encoded, the keys are decoded to sliding-tile
+ * boards.
+ */
+public class SlidingTileStateCodec implements StateCodec {
+	private final int size;
+
+	/**
+	 * Creates a codec for boards of the specified size.
+	 * 
+	 * @param size
+	 *            the number of rows and columns of the boards, 2 to 4.
+	 */
+	public SlidingTileStateCodec(int size) {
+		if (size < 2 || size > 4) {
+			throw new IllegalArgumentException("Boards of size " + size
+					+ " can not be encoded into a long.");
+		}
+		this.size = size;
+	}
+
+	public long encode(Object state) {
+		if (state instanceof PackedTileBoard) {
+			PackedTileBoard board = (PackedTileBoard) state;
+			checkSize(board.getSize());
+			return board.getKey();
+		}
+		SlidingTileBoard board = (SlidingTileBoard) state;
+		checkSize(board.getSize());
+		long key = 0;
+		for (int square = board.getNumberOfSquares() - 1; square >= 0; square--) {
+			key = (key << 4) | board.getTileAt(square);
+		}
+		return key;
+	}
+
+	public Object decode(long key) {
+		int[] tiles = new int[size * size];
+		for (int i = 0; i < tiles.length; i++) {
+			tiles[i] = (int) (key & 0xF);
+			key >>>= 4;
+		}
+		return new SlidingTileBoard(tiles);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void checkSize(int boardSize) {
+		if (boardSize != size) {
+			throw new IllegalArgumentException("Board of size " + boardSize
+					+ " can not be encoded by a codec for size " + size + ".");
+		}
+	}
+}
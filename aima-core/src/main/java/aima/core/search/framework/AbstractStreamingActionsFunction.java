@@ -0,0 +1,23 @@
+package aima.core.search.framework;
+
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import aima.core.agent.Action;
+
+/**
+ * Base class for streaming actions functions, which derives the set of
+ * actions from the iterator.
+ */
+public abstract class AbstractStreamingActionsFunction implements
+		StreamingActionsFunction {
+
+	public Set<Action> actions(Object s) {
+		Set<Action> result = new LinkedHashSet<Action>();
+		for (Iterator<Action> it = actionIterator(s); it.hasNext();) {
+			result.add(it.next());
+		}
+		return result;
+	}
+}
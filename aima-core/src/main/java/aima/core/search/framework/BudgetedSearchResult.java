@@ -0,0 +1,138 @@
+package aima.core.search.framework;
+
+import java.util.Collections;
+import java.util.List;
+
+import aima.core.agent.Action;
+
+/**
+ * The outcome of a single run of a search which is limited by a
+ * {@link SearchBudget}: why the search stopped, the solution if one was found,
+ * the best node found so far and the part of the budget that was consumed.<br>
+ * <br>
+ * The best node is the expanded node with the lowest value of the evaluation
+ * function used to rank nodes (e.g. f = g + h, or h alone to prefer the nodes
+ * closest to a goal). If a solution was found, the best node is the goal node.
+ * A search which runs out of budget can thus still report the most promising
+ * partial path (an anytime result).
+ */
+public class BudgetedSearchResult {
+	public enum StopReason {
+		SOLUTION_FOUND, SEARCH_SPACE_EXHAUSTED, TIME_LIMIT_REACHED, NODE_LIMIT_REACHED, MEMORY_LIMIT_REACHED, CANCELED
+	}
+
+	private final StopReason stopReason;
+	private final List<Action> actions;
+	private final Node bestNode;
+	private final double bestNodeValue;
+	private final long nodesExpanded;
+	private final long maxNodesInMemory;
+	private final long elapsedMillis;
+
+	/**
+	 * Constructs a result.
+	 *
+	 * @param stopReason
+	 *            why the search stopped.
+	 * @param actions
+	 *            the solution, or an empty list if no solution was found.
+	 * @param bestNode
+	 *            the best node found, or null if no node was ranked.
+	 * @param bestNodeValue
+	 *            the value of the best node, NaN if it is unknown.
+	 * @param nodesExpanded
+	 *            the number of nodes expanded.
+	 * @param maxNodesInMemory
+	 *            the largest number of nodes held in memory at once.
+	 * @param elapsedMillis
+	 *            the wall-clock time of the search in milliseconds.
+	 */
+	public BudgetedSearchResult(StopReason stopReason, List<Action> actions,
+			Node bestNode, double bestNodeValue, long nodesExpanded,
+			long maxNodesInMemory, long elapsedMillis) {
+		this.stopReason = stopReason;
+		this.actions = actions;
+		this.bestNode = bestNode;
+		this.bestNodeValue = bestNodeValue;
+		this.nodesExpanded = nodesExpanded;
+		this.maxNodesInMemory = maxNodesInMemory;
+		this.elapsedMillis = elapsedMillis;
+	}
+
+	public StopReason getStopReason() {
+		return stopReason;
+	}
+
+	/**
+	 * Returns true if a solution was found. An anytime search which runs out
+	 * of budget can have found a solution which is not proven to be optimal.
+	 *
+	 * @return true if a solution was found.
+	 */
+	public boolean isSolutionFound() {
+		return StopReason.SOLUTION_FOUND == stopReason || !actions.isEmpty();
+	}
+
+	/**
+	 * Returns true if the search stopped because a limit of its budget was
+	 * reached.
+	 *
+	 * @return true if the search ran out of budget.
+	 */
+	public boolean isBudgetExhausted() {
+		return StopReason.TIME_LIMIT_REACHED == stopReason
+				|| StopReason.NODE_LIMIT_REACHED == stopReason
+				|| StopReason.MEMORY_LIMIT_REACHED == stopReason;
+	}
+
+	/**
+	 * Returns the solution, which is the same list as returned by the search.
+	 *
+	 * @return the solution, or an empty list if no solution was found.
+	 */
+	public List<Action> getActions() {
+		return actions;
+	}
+
+	public Node getBestNode() {
+		return bestNode;
+	}
+
+	public double getBestNodeValue() {
+		return bestNodeValue;
+	}
+
+	/**
+	 * Returns the actions leading from the initial state to the state of the
+	 * best node.
+	 *
+	 * @return the actions leading to the best node, or an empty list if there
+	 *         is no best node.
+	 */
+	public List<Action> getActionsToBestNode() {
+		if (null == bestNode) {
+			return Collections.emptyList();
+		}
+		return SearchUtils.actionsFromNodes(bestNode.getPathFromRoot());
+	}
+
+	public long getNodesExpanded() {
+		return nodesExpanded;
+	}
+
+	public long getMaxNodesInMemory() {
+		return maxNodesInMemory;
+	}
+
+	public long getElapsedMillis() {
+		return elapsedMillis;
+	}
+
+	@Override
+	public String toString() {
+		return "BudgetedSearchResult[stopReason=" + stopReason
+				+ ", bestNodeValue=" + bestNodeValue + ", nodesExpanded="
+				+ nodesExpanded + ", maxNodesInMemory=" + maxNodesInMemory
+				+ ", elapsedMillis=" + elapsedMillis + "]";
+	}
+}
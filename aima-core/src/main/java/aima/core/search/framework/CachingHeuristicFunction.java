@@ -0,0 +1,208 @@
+package aima.core.search.framework;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Memoizes the values of an expensive heuristic function. Searches evaluate
+ * the heuristic each time a state is generated, i.e. repeatedly for states
+ * which are reached on several paths or regenerated after backtracking (e.g.
+ * by {@link aima.core.search.informed.RecursiveBestFirstSearch}).<br>
+ * <br>
+ * The cache holds a bounded number of values and evicts the least recently
+ * used ones. It is divided into segments, each a small LRU cache with its own
+ * lock, so that concurrent searches sharing the cache rarely contend. The
+ * heuristic itself is evaluated outside of the locks. States are used as keys
+ * unless a {@link StateCodec} is given, in which case the cache holds the long
+ * keys of the states instead of the states themselves.<br>
+ * <br>
+ * Note: The decorated function must depend on the state only, and must be
+ * safe to call from several threads if the cache is shared.
+ */
+public class CachingHeuristicFunction implements HeuristicFunction {
+	public static final String METRIC_HITS = "cacheHits";
+	public static final String METRIC_MISSES = "cacheMisses";
+	public static final String METRIC_EVICTIONS = "cacheEvictions";
+
+	// each segment holds at least this many values
+	private static final int MIN_SEGMENT_CAPACITY = 256;
+	private static final int MAX_SEGMENTS = 16;
+
+	private final HeuristicFunction hf;
+	private final StateCodec codec;
+	private final int capacity;
+	private final Segment[] segments;
+	private final Metrics metrics = new Metrics();
+	private final Metrics.LongCounter hits = metrics.counter(METRIC_HITS);
+	private final Metrics.LongCounter misses = metrics.counter(METRIC_MISSES);
+	private final Metrics.LongCounter evictions = metrics
+			.counter(METRIC_EVICTIONS);
+
+	/**
+	 * Constructs a cache which uses the states as keys.
+	 *
+	 * @param hf
+	 *            the heuristic function to be cached.
+	 * @param capacity
+	 *            the maximum number of values held.
+	 */
+	public CachingHeuristicFunction(HeuristicFunction hf, int capacity) {
+		this(hf, capacity, null);
+	}
+
+	/**
+	 * Constructs a cache.
+	 *
+	 * @param hf
+	 *            the heuristic function to be cached.
+	 * @param capacity
+	 *            the maximum number of values held.
+	 * @param codec
+	 *            encodes the states into keys, or null to use the states as
+	 *            keys.
+	 */
+	public CachingHeuristicFunction(HeuristicFunction hf, int capacity,
+			StateCodec codec) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException(
+					"Capacity must be at least 1.");
+		}
+		this.hf = hf;
+		this.codec = codec;
+		this.capacity = capacity;
+		int n = Math.max(1, Math.min(MAX_SEGMENTS,
+				Integer.highestOneBit(capacity / MIN_SEGMENT_CAPACITY)));
+		segments = new Segment[n];
+		for (int i = 0; i < n; i++) {
+			// distribute the capacity exactly
+			segments[i] = new Segment(capacity / n + (i < capacity % n ? 1 : 0));
+		}
+	}
+
+	public double h(Object state) {
+		Object key = null == codec ? state : Long.valueOf(codec
+				.encode(state));
+		Segment segment = segmentFor(key);
+		Double value;
+		synchronized (segment) {
+			value = segment.get(key);
+		}
+		if (null != value) {
+			hits.increment();
+			return value;
+		}
+		misses.increment();
+		double h = hf.h(state);
+		synchronized (segment) {
+			segment.put(key, h);
+		}
+		return h;
+	}
+
+	public HeuristicFunction getHeuristicFunction() {
+		return hf;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Returns the number of values currently held.
+	 *
+	 * @return the number of values in the cache.
+	 */
+	public int size() {
+		int size = 0;
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				size += segment.size();
+			}
+		}
+		return size;
+	}
+
+	/**
+	 * Removes all values, the statistics are retained.
+	 */
+	public void clear() {
+		for (Segment segment : segments) {
+			synchronized (segment) {
+				segment.clear();
+			}
+		}
+	}
+
+	/**
+	 * Returns the hit, miss and eviction counts of the cache.
+	 *
+	 * @return the metrics of the cache.
+	 */
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public long getEvictions() {
+		return evictions.get();
+	}
+
+	/**
+	 * Returns the fraction of the calls which were answered from the cache.
+	 *
+	 * @return the hit rate, 0 if the function was not called yet.
+	 */
+	public double getHitRate() {
+		long h = hits.get();
+		long total = h + misses.get();
+		return 0 == total ? 0.0 : (double) h / total;
+	}
+
+	/**
+	 * Sets the statistics to zero.
+	 */
+	public void clearInstrumentation() {
+		hits.reset();
+		misses.reset();
+		evictions.reset();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Segment segmentFor(Object key) {
+		int hash = key.hashCode();
+		hash ^= (hash >>> 16);
+		return segments[hash & (segments.length - 1)];
+	}
+
+	/**
+	 * An LRU cache, guarded by its own monitor.
+	 */
+	private class Segment extends LinkedHashMap<Object, Double> {
+		private static final long serialVersionUID = 1L;
+		private final int segmentCapacity;
+
+		Segment(int segmentCapacity) {
+			// access order, i.e. the eldest entry is the least recently used
+			super(16, 0.75f, true);
+			this.segmentCapacity = segmentCapacity;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+			if (size() > segmentCapacity) {
+				evictions.increment();
+				return true;
+			}
+			return false;
+		}
+	}
+}
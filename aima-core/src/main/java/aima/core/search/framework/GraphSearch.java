@@ -9,6 +9,8 @@ import java.util.Map;
 import java.util.Set;
 
 import aima.core.agent.Action;
+import aima.core.util.datastructure.LongHashMap;
+import aima.core.util.datastructure.LongHashSet;
 import aima.core.util.datastructure.Queue;
 
 /**
@@ -35,11 +37,43 @@ import aima.core.util.datastructure.Queue;
  */
 public class GraphSearch extends QueueSearch {
 
-	private Set<Object> explored = new HashSet<Object>();
-	private Map<Object, Node> frontierState = new HashMap<Object, Node>();
+	private Set<Object> explored;
+	private Map<Object, Node> frontierState;
+	// Used instead of explored and frontierState if a state codec is set
+	private final StateCodec stateCodec;
+	private LongHashSet exploredKeys;
+	private LongHashMap<Node> frontierKeys;
 	private Comparator<Node> replaceFrontierNodeAtStateCostFunction = null;
 	private List<Node> addToFrontier = new ArrayList<Node>();
 
+	public GraphSearch() {
+		this(null);
+	}
+
+	/**
+	 * Constructs a graph search which keeps the explored set and the index of
+	 * the frontier states in primitive hash tables, keyed by the states as
+	 * encoded by the specified codec.
+	 * 
+	 * @param stateCodec
+	 *            a codec for the states of the problems to be searched, or
+	 *            null to store the states themselves.
+	 */
+	public GraphSearch(StateCodec stateCodec) {
+		this.stateCodec = stateCodec;
+		if (null == stateCodec) {
+			explored = new HashSet<Object>();
+			frontierState = new HashMap<Object, Node>();
+		} else {
+			exploredKeys = new LongHashSet();
+			frontierKeys = new LongHashMap<Node>();
+		}
+	}
+
+	public StateCodec getStateCodec() {
+		return stateCodec;
+	}
+
 	public Comparator<Node> getReplaceFrontierNodeAtStateCostFunction() {
 		return replaceFrontierNodeAtStateCostFunction;
 	}
@@ -54,15 +88,20 @@ public class GraphSearch extends QueueSearch {
 	@Override
 	public List<Action> search(Problem problem, Queue<Node> frontier) {
 		// initialize the explored set to be empty
-		explored.clear();
-		frontierState.clear();
+		if (null == stateCodec) {
+			explored.clear();
+			frontierState.clear();
+		} else {
+			exploredKeys.clear();
+			frontierKeys.clear();
+		}
 		return super.search(problem, frontier);
 	}
 
 	@Override
 	public Node popNodeFromFrontier() {
 		Node toRemove = super.popNodeFromFrontier();
-		frontierState.remove(toRemove.getState());
+		removeFrontierState(toRemove.getState());
 		return toRemove;
 	}
 
@@ -70,7 +109,7 @@ public class GraphSearch extends QueueSearch {
 	public boolean removeNodeFromFrontier(Node toRemove) {
 		boolean removed = super.removeNodeFromFrontier(toRemove);
 		if (removed) {
-			frontierState.remove(toRemove.getState());
+			removeFrontierState(toRemove.getState());
 		}
 		return removed;
 	}
@@ -81,13 +120,23 @@ public class GraphSearch extends QueueSearch {
 
 		addToFrontier.clear();
 		// add the node to the explored set
-		explored.add(nodeToExpand.getState());
+		if (null == stateCodec) {
+			explored.add(nodeToExpand.getState());
+		} else {
+			exploredKeys.add(stateCodec.encode(nodeToExpand.getState()));
+		}
 		// expand the chosen node, adding the resulting nodes to the frontier
 		for (Node cfn : expandNode(nodeToExpand, problem)) {
-			Node frontierNode = frontierState.get(cfn.getState());
+			// encode the state only once per child
+			long key = null == stateCodec ? 0 : stateCodec.encode(cfn
+					.getState());
+			Node frontierNode = null == stateCodec ? frontierState.get(cfn
+					.getState()) : frontierKeys.get(key);
 			boolean yesAddToFrontier = false;
 			// only if not in the frontier or explored set
-			if (null == frontierNode && !explored.contains(cfn.getState())) {
+			if (null == frontierNode
+					&& !(null == stateCodec ? explored.contains(cfn.getState())
+							: exploredKeys.contains(key))) {
 				yesAddToFrontier = true;
 			} else if (null != frontierNode
 					&& null != replaceFrontierNodeAtStateCostFunction
@@ -96,21 +145,50 @@ public class GraphSearch extends QueueSearch {
 				// child.STATE is in frontier with higher cost
 				// replace that frontier node with child
 				yesAddToFrontier = true;
+				if (null != tracer) {
+					tracer.frontierReplaced(cfn);
+				}
 				// Want to replace the current frontier node with the child
 				// node therefore mark the child to be added and remove the
-				// current fontierNode
-				removeNodeFromFrontier(frontierNode);
-				// Ensure removed from add to frontier as well
-				// as 1 or more may reach the same state at the same time
-				addToFrontier.remove(frontierNode);
+				// current fontierNode (O(log n) with an IndexedPriorityQueue)
+				if (!removeNodeFromFrontier(frontierNode)) {
+					// Not in the frontier yet, as 1 or more may reach the
+					// same state at the same time, so it is still in the list
+					// of nodes to be added
+					addToFrontier.remove(frontierNode);
+				}
+			} else if (null != tracer) {
+				// child.STATE is explored, or in the frontier with a cost which
+				// is not higher
+				tracer.duplicatePruned(cfn);
 			}
 
 			if (yesAddToFrontier) {
 				addToFrontier.add(cfn);
-				frontierState.put(cfn.getState(), cfn);
+				if (null == stateCodec) {
+					frontierState.put(cfn.getState(), cfn);
+				} else {
+					frontierKeys.put(key, cfn);
+				}
 			}
 		}
 
 		return addToFrontier;
 	}
+
+	@Override
+	protected int getExploredSetSize() {
+		return null == stateCodec ? explored.size() : exploredKeys.size();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void removeFrontierState(Object state) {
+		if (null == stateCodec) {
+			frontierState.remove(state);
+		} else {
+			frontierKeys.remove(stateCodec.encode(state));
+		}
+	}
 }
\ No newline at end of file
@@ -1,40 +1,401 @@
 package aima.core.search.framework;
 
+import java.util.Collections;
 import java.util.Hashtable;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
+ * A registry of named, typed metrics. Algorithms that update a metric
+ * frequently (e.g. once per node expansion) should obtain a typed handle once,
+ * via {@link #counter(String)}, {@link #gauge(String)},
+ * {@link #doubleCounter(String)} or {@link #doubleGauge(String)}, and update
+ * the handle directly. Handle updates are lock-free and allocation-free. The
+ * name based accessors ({@link #set(String, int)}, {@link #getInt(String)},
+ * {@link #get(String)}, ...) are retained for infrequent updates and for
+ * existing callers.
+ *
  * @author Ravi Mohan
- * 
  */
 public class Metrics {
-	private Hashtable<String, String> hash;
+	// Note: a Hashtable is used as the registry so that the iteration order of
+	// keySet() stays the same as it was for the string backed implementation.
+	// The registry is only consulted when a metric is registered or accessed
+	// by name, never when a handle is updated.
+	private Hashtable<String, Metric> hash;
 
 	public Metrics() {
-		this.hash = new Hashtable<String, String>();
+		this.hash = new Hashtable<String, Metric>();
 	}
 
+	/**
+	 * Returns the long counter registered under the specified name, creating
+	 * it if necessary.
+	 *
+	 * @param name
+	 *            the name of the metric.
+	 * @return the long counter registered under the specified name.
+	 */
+	public LongCounter counter(String name) {
+		return register(name, LongCounter.class);
+	}
+
+	/**
+	 * Returns the long gauge registered under the specified name, creating it
+	 * if necessary.
+	 *
+	 * @param name
+	 *            the name of the metric.
+	 * @return the long gauge registered under the specified name.
+	 */
+	public LongGauge gauge(String name) {
+		return register(name, LongGauge.class);
+	}
+
+	/**
+	 * Returns the double counter registered under the specified name, creating
+	 * it if necessary.
+	 *
+	 * @param name
+	 *            the name of the metric.
+	 * @return the double counter registered under the specified name.
+	 */
+	public DoubleCounter doubleCounter(String name) {
+		return register(name, DoubleCounter.class);
+	}
+
+	/**
+	 * Returns the double gauge registered under the specified name, creating
+	 * it if necessary.
+	 *
+	 * @param name
+	 *            the name of the metric.
+	 * @return the double gauge registered under the specified name.
+	 */
+	public DoubleGauge doubleGauge(String name) {
+		return register(name, DoubleGauge.class);
+	}
+
+	/**
+	 * Sets the named metric to the specified integer value. If the metric is
+	 * not already a long metric it is replaced by a long gauge.
+	 */
 	public void set(String name, int i) {
-		hash.put(name, Integer.toString(i));
+		set(name, (long) i);
+	}
+
+	/**
+	 * Sets the named metric to the specified long value. If the metric is not
+	 * already a long metric it is replaced by a long gauge.
+	 */
+	public void set(String name, long l) {
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (m instanceof LongMetric) {
+				((LongMetric) m).set(l);
+			} else {
+				LongGauge g = new LongGauge();
+				g.set(l);
+				hash.put(name, g);
+			}
+		}
 	}
 
+	/**
+	 * Sets the named metric to the specified double value. If the metric is
+	 * not already a double metric it is replaced by a double gauge.
+	 */
 	public void set(String name, double d) {
-		hash.put(name, Double.toString(d));
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (m instanceof DoubleMetric) {
+				((DoubleMetric) m).set(d);
+			} else {
+				DoubleGauge g = new DoubleGauge();
+				g.set(d);
+				hash.put(name, g);
+			}
+		}
 	}
 
 	public int getInt(String name) {
-		return new Integer(hash.get(name)).intValue();
+		return lookup(name).getValue().intValue();
+	}
+
+	public long getLong(String name) {
+		return lookup(name).getValue().longValue();
 	}
 
 	public double getDouble(String name) {
-		return new Double(hash.get(name)).doubleValue();
+		return lookup(name).getValue().doubleValue();
 	}
 
+	/**
+	 * Returns the value of the named metric formatted as a string, or null if
+	 * no such metric exists.
+	 */
 	public String get(String name) {
-		return hash.get(name);
+		Metric m = hash.get(name);
+		return null == m ? null : m.toString();
+	}
+
+	/**
+	 * Returns the current value of the named metric, or null if no such metric
+	 * exists.
+	 */
+	public Number getValue(String name) {
+		Metric m = hash.get(name);
+		return null == m ? null : m.getValue();
 	}
 
 	public Set<String> keySet() {
 		return hash.keySet();
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns a detached copy of these metrics. The copy has the same names,
+	 * types and values, but later updates to either one are not visible in the
+	 * other.
+	 *
+	 * @return a detached copy of these metrics.
+	 */
+	public Metrics snapshot() {
+		Metrics result = new Metrics();
+		synchronized (hash) {
+			for (Map.Entry<String, Metric> e : hash.entrySet()) {
+				result.hash.put(e.getKey(), e.getValue().copy());
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the current values of all metrics, sorted by name, for export to
+	 * reports or monitoring systems.
+	 *
+	 * @return an unmodifiable map from metric name to current value.
+	 */
+	public Map<String, Number> toMap() {
+		Map<String, Number> result = new TreeMap<String, Number>();
+		synchronized (hash) {
+			for (Map.Entry<String, Metric> e : hash.entrySet()) {
+				result.put(e.getKey(), e.getValue().getValue());
+			}
+		}
+		return Collections.unmodifiableMap(result);
+	}
+
+	@Override
+	public String toString() {
+		return toMap().toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Metric lookup(String name) {
+		Metric m = hash.get(name);
+		if (null == m) {
+			throw new IllegalArgumentException("No metric named " + name);
+		}
+		return m;
+	}
+
+	private <T extends Metric> T register(String name, Class<T> type) {
+		synchronized (hash) {
+			Metric m = hash.get(name);
+			if (null == m) {
+				try {
+					m = type.newInstance();
+				} catch (Exception ex) {
+					throw new IllegalStateException(ex);
+				}
+				hash.put(name, m);
+			} else if (!type.isInstance(m)) {
+				throw new IllegalArgumentException("Metric " + name
+						+ " is already registered as a "
+						+ m.getClass().getSimpleName());
+			}
+			return type.cast(m);
+		}
+	}
+
+	//
+	// Metric types
+	//
+
+	/**
+	 * Base class of all typed metrics.
+	 */
+	public static abstract class Metric {
+		/**
+		 * Returns the current value of this metric.
+		 */
+		public abstract Number getValue();
+
+		/**
+		 * Resets this metric to zero.
+		 */
+		public abstract void reset();
+
+		abstract Metric copy();
+	}
+
+	/**
+	 * Base class of metrics holding a long value.
+	 */
+	public static abstract class LongMetric extends Metric {
+		protected final AtomicLong value = new AtomicLong();
+
+		public long get() {
+			return value.get();
+		}
+
+		public void set(long l) {
+			value.set(l);
+		}
+
+		@Override
+		public Number getValue() {
+			return value.get();
+		}
+
+		@Override
+		public void reset() {
+			value.set(0);
+		}
+
+		@Override
+		public String toString() {
+			return Long.toString(value.get());
+		}
+	}
+
+	/**
+	 * A long metric which is incremented as events occur, e.g. the number of
+	 * nodes expanded.
+	 */
+	public static class LongCounter extends LongMetric {
+		public void increment() {
+			value.incrementAndGet();
+		}
+
+		public void add(long delta) {
+			value.addAndGet(delta);
+		}
+
+		@Override
+		Metric copy() {
+			LongCounter c = new LongCounter();
+			c.set(get());
+			return c;
+		}
+	}
+
+	/**
+	 * A long metric which records a current level, e.g. the size of the
+	 * frontier, and optionally tracks its maximum.
+	 */
+	public static class LongGauge extends LongMetric {
+		/**
+		 * Sets this gauge to the specified value if that value is greater than
+		 * the current one.
+		 */
+		public void updateMax(long l) {
+			long current;
+			while (l > (current = value.get())) {
+				if (value.compareAndSet(current, l)) {
+					break;
+				}
+			}
+		}
+
+		@Override
+		Metric copy() {
+			LongGauge g = new LongGauge();
+			g.set(get());
+			return g;
+		}
+	}
+
+	/**
+	 * Base class of metrics holding a double value. The value is stored as its
+	 * raw long bits so that it can be updated atomically.
+	 */
+	public static abstract class DoubleMetric extends Metric {
+		protected final AtomicLong bits = new AtomicLong(
+				Double.doubleToRawLongBits(0.0));
+
+		public double get() {
+			return Double.longBitsToDouble(bits.get());
+		}
+
+		public void set(double d) {
+			bits.set(Double.doubleToRawLongBits(d));
+		}
+
+		@Override
+		public Number getValue() {
+			return get();
+		}
+
+		@Override
+		public void reset() {
+			set(0.0);
+		}
+
+		@Override
+		public String toString() {
+			return Double.toString(get());
+		}
+	}
+
+	/**
+	 * A double metric which is accumulated as events occur, e.g. total time
+	 * spent in a phase.
+	 */
+	public static class DoubleCounter extends DoubleMetric {
+		public void add(double delta) {
+			long current;
+			do {
+				current = bits.get();
+			} while (!bits.compareAndSet(current, Double
+					.doubleToRawLongBits(Double.longBitsToDouble(current)
+							+ delta)));
+		}
+
+		@Override
+		Metric copy() {
+			DoubleCounter c = new DoubleCounter();
+			c.set(get());
+			return c;
+		}
+	}
+
+	/**
+	 * A double metric which records a current level, e.g. a path cost.
+	 */
+	public static class DoubleGauge extends DoubleMetric {
+		/**
+		 * Sets this gauge to the specified value if that value is greater than
+		 * the current one.
+		 */
+		public void updateMax(double d) {
+			long current;
+			while (d > Double.longBitsToDouble(current = bits.get())) {
+				if (bits.compareAndSet(current, Double.doubleToRawLongBits(d))) {
+					break;
+				}
+			}
+		}
+
+		@Override
+		Metric copy() {
+			DoubleGauge g = new DoubleGauge();
+			g.set(get());
+			return g;
+		}
+	}
+}
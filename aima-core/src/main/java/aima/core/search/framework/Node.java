@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import aima.core.agent.Action;
@@ -78,6 +79,25 @@ public class Node {
 		this.pathCost = parent.pathCost + stepCost;
 	}
 
+	/**
+	 * Constructs a node with the specified state, action, and path cost, but
+	 * without a reference to its parent. Intended for subclasses which keep
+	 * track of the parent in a different way.
+	 * 
+	 * @param state
+	 *            the state in the state space to which the node corresponds.
+	 * @param action
+	 *            the action that was applied to the parent to generate the
+	 *            node.
+	 * @param pathCost
+	 *            the cost of the path from the initial state to the node.
+	 */
+	protected Node(Object state, Action action, double pathCost) {
+		this(state);
+		this.action = action;
+		this.pathCost = pathCost;
+	}
+
 	/**
 	 * Returns the state in the state space to which the node corresponds.
 	 * 
@@ -134,11 +154,13 @@ public class Node {
 		List<Node> path = new ArrayList<Node>();
 		Node current = this;
 		while (!current.isRootNode()) {
-			path.add(0, current);
+			path.add(current);
 			current = current.getParent();
 		}
 		// ensure the root node is added
-		path.add(0, current);
+		path.add(current);
+		// collected from the node upwards, which is linear in the depth
+		Collections.reverse(path);
 		return path;
 	}
 
@@ -0,0 +1,185 @@
+package aima.core.search.framework;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import aima.core.agent.Action;
+
+/**
+ * A compact store for the interior of a search tree. Each expanded node is
+ * stored as two <code>int</code> values in parallel arrays, the index of its
+ * parent and the index of the action which generated it, instead of as a
+ * {@link Node} object which keeps its state, its action and its parent alive.
+ * The nodes created by the arena (e.g. for the frontier) refer to their parent
+ * by index.<br>
+ * <br>
+ * Neither states nor path costs are stored. When the parent or the path of a
+ * node is requested, {@link Node} views of its ancestors are materialized by
+ * applying the stored actions to the initial state of the problem again.
+ * Therefore, the arena can only be used for problems with deterministic
+ * actions, which are identified by <code>equals</code>. Requesting the parent
+ * of a node created by the arena takes time linear in its depth, once: the
+ * ancestors returned are plain nodes, so walking further up the path costs
+ * constant time per step. Callers which need the parent of the same node
+ * repeatedly should keep the returned node.<br>
+ * <br>
+ * <b>Limitation:</b> Only the expanded nodes are stored compactly. The nodes
+ * waiting in the frontier are still {@link Node} objects holding their state,
+ * action and path cost, as the frontier orders them by evaluating these. In a
+ * breadth-first search with branching factor b, the frontier holds about a
+ * fraction (b - 1) / b of the generated nodes, so the arena saves the memory
+ * of the remaining fraction only, and does not make it possible to generate,
+ * say, 10^8 nodes within a heap which cannot hold the frontier.
+ */
+public class NodeArena {
+	private final Problem problem;
+	private int[] parents;
+	private int[] actions;
+	private int size = 0;
+	private final List<Action> actionTable = new ArrayList<Action>();
+	private final Map<Action, Integer> actionIndices = new HashMap<Action, Integer>();
+
+	/**
+	 * Constructs an empty arena for the search tree of the specified problem.
+	 * 
+	 * @param problem
+	 *            the problem whose search tree is stored.
+	 */
+	public NodeArena(Problem problem) {
+		this.problem = problem;
+		parents = new int[1024];
+		actions = new int[1024];
+	}
+
+	/**
+	 * Returns the number of nodes stored in this arena.
+	 * 
+	 * @return the number of nodes stored in this arena.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Stores the specified node, which is about to be expanded. The node must
+	 * be the root node of the search tree or a node created by this arena.
+	 * 
+	 * @param node
+	 *            the node to be stored.
+	 * @return the index of the stored node.
+	 */
+	public int add(Node node) {
+		int parent = -1;
+		int action = -1;
+		if (node instanceof ArenaNode && ((ArenaNode) node).arena == this) {
+			parent = ((ArenaNode) node).parentIndex;
+			action = indexOf(node.getAction());
+		} else if (!node.isRootNode()) {
+			throw new IllegalArgumentException(
+					"Node does not belong to this arena.");
+		}
+		if (size == parents.length) {
+			int capacity = size + (size >> 1);
+			parents = Arrays.copyOf(parents, capacity);
+			actions = Arrays.copyOf(actions, capacity);
+		}
+		parents[size] = parent;
+		actions[size] = action;
+		return size++;
+	}
+
+	/**
+	 * Creates a node whose parent is stored in this arena.
+	 * 
+	 * @param parentIndex
+	 *            the index of the parent node.
+	 * @param state
+	 *            the state of the node.
+	 * @param action
+	 *            the action that was applied to the parent to generate the
+	 *            node.
+	 * @param pathCost
+	 *            the cost of the path from the initial state to the node.
+	 * @return a node whose parent is stored in this arena.
+	 */
+	public Node newChild(int parentIndex, Object state, Action action,
+			double pathCost) {
+		return new ArenaNode(this, parentIndex, state, action, pathCost);
+	}
+
+	/**
+	 * Materializes the stored node with the specified index, together with
+	 * all its ancestors.
+	 * 
+	 * @param index
+	 *            the index of a stored node.
+	 * @return a node view of the stored node.
+	 */
+	public Node getNode(int index) {
+		int depth = 0;
+		for (int i = index; i != -1; i = parents[i]) {
+			depth++;
+		}
+		int[] path = new int[depth];
+		for (int i = index, d = depth - 1; i != -1; i = parents[i], d--) {
+			path[d] = i;
+		}
+		Node node = new Node(problem.getInitialState());
+		for (int d = 1; d < depth; d++) {
+			Action a = actionTable.get(actions[path[d]]);
+			Object state = node.getState();
+			Object successor = problem.getResultFunction().result(state, a);
+			node = new Node(successor, node, a, problem.getStepCostFunction()
+					.c(state, a, successor));
+		}
+		return node;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private int indexOf(Action action) {
+		Integer index = actionIndices.get(action);
+		if (null == index) {
+			index = actionTable.size();
+			actionTable.add(action);
+			actionIndices.put(action, index);
+		}
+		return index;
+	}
+
+	/**
+	 * A node which refers to its parent by its index in an arena.
+	 */
+	private static class ArenaNode extends Node {
+		private final NodeArena arena;
+		private final int parentIndex;
+
+		ArenaNode(NodeArena arena, int parentIndex, Object state,
+				Action action, double pathCost) {
+			super(state, action, pathCost);
+			this.arena = arena;
+			this.parentIndex = parentIndex;
+		}
+
+		@Override
+		public Node getParent() {
+			return arena.getNode(parentIndex);
+		}
+
+		@Override
+		public boolean isRootNode() {
+			return false;
+		}
+
+		@Override
+		public List<Node> getPathFromRoot() {
+			List<Node> path = getParent().getPathFromRoot();
+			path.add(this);
+			return path;
+		}
+	}
+}
@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import aima.core.agent.Action;
@@ -14,15 +15,20 @@ public class NodeExpander {
 
 	protected Metrics metrics;
 
+	private final Metrics.LongCounter nodesExpanded;
+
+	protected SearchTracer tracer = null;
+
 	public NodeExpander() {
 		metrics = new Metrics();
+		nodesExpanded = metrics.counter(METRIC_NODES_EXPANDED);
 	}
 
 	/**
 	 * Sets the nodes expanded metric to zero.
 	 */
 	public void clearInstrumentation() {
-		metrics.set(METRIC_NODES_EXPANDED, 0);
+		nodesExpanded.reset();
 	}
 
 	/**
@@ -31,7 +37,7 @@ public class NodeExpander {
 	 * @return the number of nodes expanded so far.
 	 */
 	public int getNodesExpanded() {
-		return metrics.getInt(METRIC_NODES_EXPANDED);
+		return (int) nodesExpanded.get();
 	}
 
 	/**
@@ -43,6 +49,20 @@ public class NodeExpander {
 		return metrics;
 	}
 
+	public SearchTracer getTracer() {
+		return tracer;
+	}
+
+	/**
+	 * Sets the tracer recording the events of subsequent searches.
+	 * 
+	 * @param tracer
+	 *            a tracer, or null to disable tracing.
+	 */
+	public void setTracer(SearchTracer tracer) {
+		this.tracer = tracer;
+	}
+
 	/**
 	 * Returns the children obtained from expanding the specified node in the
 	 * specified problem.
@@ -68,11 +88,88 @@ public class NodeExpander {
 
 			double stepCost = stepCostFunction.c(node.getState(), action,
 					successorState);
-			childNodes.add(new Node(successorState, node, action, stepCost));
+			childNodes.add(newChildNode(successorState, node, action,
+					stepCost));
+		}
+		nodesExpanded.increment();
+		if (null != tracer) {
+			tracer.expanded(node);
+			for (Node child : childNodes) {
+				tracer.generated(child);
+			}
 		}
-		metrics.set(METRIC_NODES_EXPANDED,
-				metrics.getInt(METRIC_NODES_EXPANDED) + 1);
 
 		return childNodes;
 	}
+
+	/**
+	 * Returns an iterator generating the children of the specified node one at
+	 * a time, so that a search which does not need all of them (e.g. because
+	 * it finds a goal) stops early without creating the remaining children. If
+	 * the actions function of the problem is a
+	 * {@link StreamingActionsFunction}, the actions are generated on demand as
+	 * well. The node counts as expanded when the iterator is created.
+	 * 
+	 * @param node
+	 *            the node to expand
+	 * @param problem
+	 *            the problem the specified node is within.
+	 * 
+	 * @return an iterator over the children of the specified node.
+	 */
+	public Iterator<Node> successors(final Node node, Problem problem) {
+		final Iterator<Action> actions = SearchUtils.actionIterator(
+				problem.getActionsFunction(), node.getState());
+		final ResultFunction resultFunction = problem.getResultFunction();
+		final StepCostFunction stepCostFunction = problem
+				.getStepCostFunction();
+		nodesExpanded.increment();
+		if (null != tracer) {
+			tracer.expanded(node);
+		}
+
+		return new Iterator<Node>() {
+			public boolean hasNext() {
+				return actions.hasNext();
+			}
+
+			public Node next() {
+				Action action = actions.next();
+				Object successorState = resultFunction.result(node.getState(),
+						action);
+				double stepCost = stepCostFunction.c(node.getState(), action,
+						successorState);
+				Node child = newChildNode(successorState, node, action,
+						stepCost);
+				if (null != tracer) {
+					tracer.generated(child);
+				}
+				return child;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	/**
+	 * Creates a child node of the specified node. Subclasses can override this
+	 * method to represent the search tree differently.
+	 * 
+	 * @param state
+	 *            the state of the child node.
+	 * @param parent
+	 *            the node which is expanded.
+	 * @param action
+	 *            the action that was applied to the parent to generate the
+	 *            child node.
+	 * @param stepCost
+	 *            the cost from the parent node to the child node.
+	 * @return a child node of the specified node.
+	 */
+	protected Node newChildNode(Object state, Node parent, Action action,
+			double stepCost) {
+		return new Node(state, parent, action, stepCost);
+	}
 }
\ No newline at end of file
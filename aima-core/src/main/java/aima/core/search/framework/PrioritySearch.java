@@ -4,7 +4,7 @@ import java.util.Comparator;
 import java.util.List;
 
 import aima.core.agent.Action;
-import aima.core.util.datastructure.PriorityQueue;
+import aima.core.util.datastructure.IndexedPriorityQueue;
 
 /**
  * @author Ravi Mohan
@@ -14,7 +14,8 @@ public abstract class PrioritySearch implements Search {
 	protected QueueSearch search;
 
 	public List<Action> search(Problem p) throws Exception {
-		return search.search(p, new PriorityQueue<Node>(5, getComparator()));
+		return search.search(p, new IndexedPriorityQueue<Node>(5,
+				getComparator()));
 	}
 
 	public Metrics getMetrics() {
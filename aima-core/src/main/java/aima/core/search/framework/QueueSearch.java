@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 
 import aima.core.agent.Action;
@@ -23,6 +24,24 @@ public abstract class QueueSearch extends NodeExpander {
 	//
 	private Queue<Node> frontier = null;
 	private boolean checkGoalBeforeAddingToFrontier = false;
+	private boolean useNodeArena = false;
+	// the search tree of the last search, if a node arena is used
+	private NodeArena nodeArena = null;
+	private int expandedNodeIndex = -1;
+	private SearchBudget searchBudget = SearchBudget.UNLIMITED;
+	private EvaluationFunction bestNodeEvaluationFunction = null;
+	// the ranking of the search strategy, used if no other one has been set
+	private EvaluationFunction defaultBestNodeEvaluationFunction = null;
+	// state of the current search
+	private SearchBudget.Monitor monitor = null;
+	private boolean rankNodes = false;
+	private Node bestNode = null;
+	private double bestNodeValue = Double.NaN;
+	private BudgetedSearchResult lastSearchResult = null;
+	private final Metrics.LongGauge queueSize = metrics
+			.gauge(METRIC_QUEUE_SIZE);
+	private final Metrics.LongGauge maxQueueSize = metrics
+			.gauge(METRIC_MAX_QUEUE_SIZE);
 
 	public boolean isFailure(List<Action> result) {
 		return 0 == result.size();
@@ -46,16 +65,31 @@ public abstract class QueueSearch extends NodeExpander {
 		this.frontier = frontier;
 
 		clearInstrumentation();
+		nodeArena = useNodeArena ? new NodeArena(problem) : null;
+		monitor = searchBudget.start();
+		// without budget, the best node is only of interest if a ranking
+		// has been set explicitly, so the default one costs nothing
+		rankNodes = null != bestNodeEvaluationFunction
+				|| (null != defaultBestNodeEvaluationFunction && !searchBudget
+						.isUnlimited());
+		bestNode = null;
+		bestNodeValue = Double.NaN;
 		// initialize the frontier using the initial state of the problem
 		Node root = new Node(problem.getInitialState());
 		if (isCheckGoalBeforeAddingToFrontier()) {
 			if (SearchUtils.isGoalState(problem, root)) {
-				return SearchUtils.actionsFromNodes(root.getPathFromRoot());
+				return solution(root);
 			}
 		}
 		frontier.insert(root);
 		setQueueSize(frontier.size());
+		BudgetedSearchResult.StopReason stopReason = null;
 		while (!(frontier.isEmpty()) && !CancelableThread.currIsCanceled()) {
+			stopReason = monitor.check(getNodesExpanded(), frontier.size()
+					+ getExploredSetSize());
+			if (null != stopReason) {
+				break;
+			}
 			// choose a leaf node and remove it from the frontier
 			Node nodeToExpand = popNodeFromFrontier();
 			setQueueSize(frontier.size());
@@ -65,28 +99,29 @@ public abstract class QueueSearch extends NodeExpander {
 				// if the node contains a goal state then return the
 				// corresponding solution
 				if (SearchUtils.isGoalState(problem, nodeToExpand)) {
-					setPathCost(nodeToExpand.getPathCost());
-					return SearchUtils.actionsFromNodes(nodeToExpand
-							.getPathFromRoot());
+					return solution(nodeToExpand);
 				}
 			}
+			rankNode(nodeToExpand);
 			// expand the chosen node, adding the resulting nodes to the
 			// frontier
 			for (Node fn : getResultingNodesToAddToFrontier(nodeToExpand,
 					problem)) {
 				if (isCheckGoalBeforeAddingToFrontier()) {
 					if (SearchUtils.isGoalState(problem, fn)) {
-						setPathCost(fn.getPathCost());
-						return SearchUtils.actionsFromNodes(fn
-								.getPathFromRoot());
+						return solution(fn);
 					}
 				}
 				frontier.insert(fn);
 			}
 			setQueueSize(frontier.size());
 		}
+		if (null == stopReason) {
+			stopReason = frontier.isEmpty() ? BudgetedSearchResult.StopReason.SEARCH_SPACE_EXHAUSTED
+					: BudgetedSearchResult.StopReason.CANCELED;
+		}
 		// if the frontier is empty then return failure
-		return failure();
+		return failure(stopReason);
 	}
 
 	public boolean isCheckGoalBeforeAddingToFrontier() {
@@ -98,6 +133,116 @@ public abstract class QueueSearch extends NodeExpander {
 		this.checkGoalBeforeAddingToFrontier = checkGoalBeforeAddingToFrontier;
 	}
 
+	public boolean isUseNodeArena() {
+		return useNodeArena;
+	}
+
+	/**
+	 * Sets whether the expanded nodes of the search tree are kept in a
+	 * {@link NodeArena} instead of as node objects. This reduces the memory
+	 * needed for the explored part of the search tree, while the parents of
+	 * nodes are materialized by replaying actions when they are requested
+	 * (e.g. to extract a solution). The frontier nodes are not affected, see
+	 * the limitation described for {@link NodeArena}.
+	 * 
+	 * @param useNodeArena
+	 *            true if a node arena is to be used by subsequent searches.
+	 */
+	public void setUseNodeArena(boolean useNodeArena) {
+		this.useNodeArena = useNodeArena;
+	}
+
+	/**
+	 * Returns the node arena of the last search, or null if no node arena was
+	 * used.
+	 * 
+	 * @return the node arena of the last search, or null.
+	 */
+	public NodeArena getNodeArena() {
+		return nodeArena;
+	}
+
+	public SearchBudget getSearchBudget() {
+		return searchBudget;
+	}
+
+	/**
+	 * Sets the budget of subsequent searches. A search which runs out of
+	 * budget returns failure, the best node found so far is reported by
+	 * {@link #getLastSearchResult()}.
+	 * 
+	 * @param searchBudget
+	 *            the budget, or null if searches are not to be limited.
+	 */
+	public void setSearchBudget(SearchBudget searchBudget) {
+		this.searchBudget = null == searchBudget ? SearchBudget.UNLIMITED
+				: searchBudget;
+	}
+
+	/**
+	 * Returns the function used to rank the expanded nodes, by default the
+	 * one set by
+	 * {@link #setDefaultBestNodeEvaluationFunction(EvaluationFunction)}.
+	 * 
+	 * @return the function used to rank the expanded nodes, or null.
+	 */
+	public EvaluationFunction getBestNodeEvaluationFunction() {
+		return null == bestNodeEvaluationFunction ? defaultBestNodeEvaluationFunction
+				: bestNodeEvaluationFunction;
+	}
+
+	/**
+	 * Sets the function used to rank the expanded nodes, the node with the
+	 * lowest value is reported as the best node found so far.
+	 * 
+	 * @param ef
+	 *            an evaluation function, e.g. f = g + h or h alone, or null if
+	 *            the default ranking is to be used.
+	 */
+	public void setBestNodeEvaluationFunction(EvaluationFunction ef) {
+		this.bestNodeEvaluationFunction = ef;
+	}
+
+	/**
+	 * Sets the function used to rank the expanded nodes if no other one has
+	 * been set, usually the evaluation function of a best-first search. The
+	 * default ranking is only applied by searches with a limited budget, so
+	 * that unlimited searches do not evaluate each expanded node once more.
+	 * 
+	 * @param ef
+	 *            an evaluation function, or null.
+	 */
+	public void setDefaultBestNodeEvaluationFunction(EvaluationFunction ef) {
+		this.defaultBestNodeEvaluationFunction = ef;
+	}
+
+	/**
+	 * Returns the outcome of the last search, including why it stopped and the
+	 * best node found.
+	 * 
+	 * @return the outcome of the last search, or null if there was none.
+	 */
+	public BudgetedSearchResult getLastSearchResult() {
+		return lastSearchResult;
+	}
+
+	@Override
+	public List<Node> expandNode(Node node, Problem problem) {
+		if (null != nodeArena) {
+			// the children refer to the expanded node by its index
+			expandedNodeIndex = nodeArena.add(node);
+		}
+		return super.expandNode(node, problem);
+	}
+
+	@Override
+	public Iterator<Node> successors(Node node, Problem problem) {
+		if (null != nodeArena) {
+			expandedNodeIndex = nodeArena.add(node);
+		}
+		return super.successors(node, problem);
+	}
+
 	/**
 	 * Removes and returns the node at the head of the frontier.
 	 * 
@@ -114,29 +259,38 @@ public abstract class QueueSearch extends NodeExpander {
 	public abstract List<Node> getResultingNodesToAddToFrontier(
 			Node nodeToExpand, Problem p);
 
+	/**
+	 * Returns the number of nodes held in memory in addition to the frontier,
+	 * which is taken into account by the memory limit of the search budget.
+	 * 
+	 * @return the number of nodes held in memory in addition to the frontier.
+	 */
+	protected int getExploredSetSize() {
+		return 0;
+	}
+
 	@Override
 	public void clearInstrumentation() {
 		super.clearInstrumentation();
-		metrics.set(METRIC_QUEUE_SIZE, 0);
-		metrics.set(METRIC_MAX_QUEUE_SIZE, 0);
+		queueSize.reset();
+		maxQueueSize.reset();
 		metrics.set(METRIC_PATH_COST, 0);
 	}
 
 	public int getQueueSize() {
-		return metrics.getInt("queueSize");
+		return (int) queueSize.get();
 	}
 
 	public void setQueueSize(int queueSize) {
-
-		metrics.set(METRIC_QUEUE_SIZE, queueSize);
-		int maxQSize = metrics.getInt(METRIC_MAX_QUEUE_SIZE);
-		if (queueSize > maxQSize) {
-			metrics.set(METRIC_MAX_QUEUE_SIZE, queueSize);
+		this.queueSize.set(queueSize);
+		maxQueueSize.updateMax(queueSize);
+		if (null != tracer) {
+			tracer.setFrontierSize(queueSize);
 		}
 	}
 
 	public int getMaxQueueSize() {
-		return metrics.getInt(METRIC_MAX_QUEUE_SIZE);
+		return (int) maxQueueSize.get();
 	}
 
 	public double getPathCost() {
@@ -147,10 +301,52 @@ public abstract class QueueSearch extends NodeExpander {
 		metrics.set(METRIC_PATH_COST, pathCost);
 	}
 
+	@Override
+	protected Node newChildNode(Object state, Node parent, Action action,
+			double stepCost) {
+		if (null != nodeArena) {
+			return nodeArena.newChild(expandedNodeIndex, state, action,
+					parent.getPathCost() + stepCost);
+		}
+		return super.newChildNode(state, parent, action, stepCost);
+	}
+
 	//
 	// PRIVATE METHODS
 	//
-	private List<Action> failure() {
-		return Collections.emptyList();
+	private List<Action> solution(Node goal) {
+		setPathCost(goal.getPathCost());
+		List<Action> actions = SearchUtils.actionsFromNodes(goal
+				.getPathFromRoot());
+		bestNode = goal;
+		EvaluationFunction ef = getBestNodeEvaluationFunction();
+		bestNodeValue = null == ef ? Double.NaN : ef.f(goal);
+		setLastSearchResult(BudgetedSearchResult.StopReason.SOLUTION_FOUND,
+				actions);
+		return actions;
+	}
+
+	private List<Action> failure(BudgetedSearchResult.StopReason stopReason) {
+		List<Action> actions = Collections.emptyList();
+		setLastSearchResult(stopReason, actions);
+		return actions;
+	}
+
+	private void rankNode(Node node) {
+		if (rankNodes) {
+			double value = getBestNodeEvaluationFunction().f(node);
+			if (null == bestNode || value < bestNodeValue) {
+				bestNode = node;
+				bestNodeValue = value;
+			}
+		}
+	}
+
+	private void setLastSearchResult(BudgetedSearchResult.StopReason stopReason,
+			List<Action> actions) {
+		lastSearchResult = new BudgetedSearchResult(stopReason, actions,
+				bestNode, bestNodeValue, getNodesExpanded(),
+				monitor.getMaxNodesInMemory(), monitor.getElapsedMillis());
+		monitor = null;
 	}
 }
\ No newline at end of file
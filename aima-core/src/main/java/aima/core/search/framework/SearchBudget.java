@@ -0,0 +1,137 @@
+package aima.core.search.framework;
+
+/**
+ * Limits on the resources a search may consume: wall-clock time, the number of
+ * expanded nodes and the number of nodes held in memory (e.g. the frontier plus
+ * the explored set of a graph search). A limit of 0 means that the resource is
+ * not limited.<br>
+ * <br>
+ * A budget is immutable and may be shared between searches. It is enforced for
+ * a single run of a search by the {@link Monitor} returned by {@link #start()}.
+ */
+public class SearchBudget {
+	/**
+	 * A budget without any limits.
+	 */
+	public static final SearchBudget UNLIMITED = new SearchBudget(0, 0, 0);
+
+	// the clock is only read on every TIME_CHECK_INTERVAL-th check
+	private static final int TIME_CHECK_INTERVAL = 16;
+
+	private final long timeLimitMillis;
+	private final long maxNodesExpanded;
+	private final long maxNodesInMemory;
+
+	/**
+	 * Constructs a search budget.
+	 *
+	 * @param timeLimitMillis
+	 *            the maximum wall-clock time of a search in milliseconds, or 0.
+	 * @param maxNodesExpanded
+	 *            the maximum number of nodes a search may expand, or 0.
+	 * @param maxNodesInMemory
+	 *            the maximum number of nodes a search may hold in memory, or
+	 *            0.
+	 */
+	public SearchBudget(long timeLimitMillis, long maxNodesExpanded,
+			long maxNodesInMemory) {
+		if (timeLimitMillis < 0 || maxNodesExpanded < 0 || maxNodesInMemory < 0) {
+			throw new IllegalArgumentException(
+					"Budget limits must not be negative.");
+		}
+		this.timeLimitMillis = timeLimitMillis;
+		this.maxNodesExpanded = maxNodesExpanded;
+		this.maxNodesInMemory = maxNodesInMemory;
+	}
+
+	public long getTimeLimitMillis() {
+		return timeLimitMillis;
+	}
+
+	public long getMaxNodesExpanded() {
+		return maxNodesExpanded;
+	}
+
+	public long getMaxNodesInMemory() {
+		return maxNodesInMemory;
+	}
+
+	public boolean isUnlimited() {
+		return 0 == timeLimitMillis && 0 == maxNodesExpanded
+				&& 0 == maxNodesInMemory;
+	}
+
+	/**
+	 * Starts to consume this budget, i.e. starts the clock for a single run of
+	 * a search.
+	 *
+	 * @return a monitor enforcing this budget.
+	 */
+	public Monitor start() {
+		return new Monitor();
+	}
+
+	@Override
+	public String toString() {
+		return "SearchBudget[timeLimitMillis=" + timeLimitMillis
+				+ ", maxNodesExpanded=" + maxNodesExpanded
+				+ ", maxNodesInMemory=" + maxNodesInMemory + "]";
+	}
+
+	/**
+	 * Enforces a budget for a single run of a search. The search calls
+	 * {@link #check(long, long)} before each expansion, which costs two
+	 * comparisons and, on every 16th call only, a read of the clock.
+	 */
+	public class Monitor {
+		private final long startNanos = System.nanoTime();
+		private int checks = 0;
+		private long maxNodesInMemorySeen = 0;
+
+		/**
+		 * Tests whether the budget has run out.
+		 *
+		 * @param nodesExpanded
+		 *            the number of nodes expanded so far.
+		 * @param nodesInMemory
+		 *            the number of nodes currently held in memory.
+		 * @return the reason to stop the search or null if the search may
+		 *         continue.
+		 */
+		public BudgetedSearchResult.StopReason check(long nodesExpanded,
+				long nodesInMemory) {
+			if (nodesInMemory > maxNodesInMemorySeen) {
+				maxNodesInMemorySeen = nodesInMemory;
+			}
+			if (maxNodesExpanded > 0 && nodesExpanded >= maxNodesExpanded) {
+				return BudgetedSearchResult.StopReason.NODE_LIMIT_REACHED;
+			}
+			if (maxNodesInMemory > 0 && nodesInMemory > maxNodesInMemory) {
+				return BudgetedSearchResult.StopReason.MEMORY_LIMIT_REACHED;
+			}
+			if (timeLimitMillis > 0 && 0 == checks++ % TIME_CHECK_INTERVAL
+					&& getElapsedMillis() >= timeLimitMillis) {
+				return BudgetedSearchResult.StopReason.TIME_LIMIT_REACHED;
+			}
+			return null;
+		}
+
+		public SearchBudget getBudget() {
+			return SearchBudget.this;
+		}
+
+		public long getElapsedMillis() {
+			return (System.nanoTime() - startNanos) / 1000000L;
+		}
+
+		/**
+		 * Returns the largest number of nodes in memory passed to
+		 * {@link #check(long, long)}.
+		 *
+		 * @return the largest number of nodes in memory seen so far.
+		 */
+		public long getMaxNodesInMemory() {
+			return maxNodesInMemorySeen;
+		}
+	}
+}
@@ -0,0 +1,396 @@
+package aima.core.search.framework;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import aima.core.agent.Action;
+import aima.core.util.CancelableThread;
+
+/**
+ * Solves batches of independent problems on a fixed pool of worker threads.
+ * Searches keep per-search state and metrics in instance fields and must not
+ * be shared between threads, so each worker creates its own search object
+ * with the {@link SearchFactory} on first use and reuses it (including any
+ * data structures it retains) for all the problems it solves.<br>
+ * <br>
+ * The number of queries which are queued or running is bounded. When the
+ * bound is reached, {@link #submit(Problem)} blocks the caller until a worker
+ * has finished a query or a queued query has been dropped (backpressure), and
+ * {@link #trySubmit(Problem, long, TimeUnit)} gives up after a timeout. A
+ * canceled query counts until its worker has actually stopped searching. Each
+ * query yields a {@link Result} holding the solution together with a snapshot
+ * of the metrics of the search which solved it. Canceling the future of a
+ * running query with interruption cancels the search via
+ * {@link CancelableThread}.
+ */
+public class SearchService {
+
+	/**
+	 * Creates the search objects of the workers.
+	 */
+	public interface SearchFactory {
+		Search createSearch();
+	}
+
+	/**
+	 * The outcome of a single query.
+	 */
+	public static class Result {
+		private final Problem problem;
+		private final List<Action> actions;
+		private final Metrics metrics;
+		private final long elapsedMillis;
+
+		public Result(Problem problem, List<Action> actions, Metrics metrics,
+				long elapsedMillis) {
+			this.problem = problem;
+			this.actions = actions;
+			this.metrics = metrics;
+			this.elapsedMillis = elapsedMillis;
+		}
+
+		public Problem getProblem() {
+			return problem;
+		}
+
+		/**
+		 * Returns the result of the search, see {@link Search#search(Problem)}.
+		 *
+		 * @return the actions leading to a goal, or an empty list if no
+		 *         solution was found.
+		 */
+		public List<Action> getActions() {
+			return actions;
+		}
+
+		/**
+		 * Returns a snapshot of the metrics of the search taken when it
+		 * finished the query.
+		 *
+		 * @return the metrics of the query.
+		 */
+		public Metrics getMetrics() {
+			return metrics;
+		}
+
+		public long getElapsedMillis() {
+			return elapsedMillis;
+		}
+
+		@Override
+		public String toString() {
+			return "Result[actions=" + actions + ", metrics=" + metrics
+					+ ", elapsedMillis=" + elapsedMillis + "]";
+		}
+	}
+
+	private final SearchFactory searchFactory;
+	private final int numberOfThreads;
+	private final int queueCapacity;
+	private final ThreadPoolExecutor executor;
+	// one permit per query which may be queued or running
+	private final Semaphore permits;
+	private final List<Worker> workers = new ArrayList<Worker>();
+
+	/**
+	 * Constructs a service and starts its workers.
+	 *
+	 * @param searchFactory
+	 *            creates one search object per worker.
+	 * @param numberOfThreads
+	 *            the number of workers.
+	 * @param queueCapacity
+	 *            the number of queries which may wait for a worker.
+	 */
+	public SearchService(SearchFactory searchFactory, int numberOfThreads,
+			int queueCapacity) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException(
+					"At least one thread is required.");
+		}
+		if (queueCapacity < 0) {
+			throw new IllegalArgumentException(
+					"Queue capacity must not be negative.");
+		}
+		this.searchFactory = searchFactory;
+		this.numberOfThreads = numberOfThreads;
+		this.queueCapacity = queueCapacity;
+		permits = new Semaphore(numberOfThreads + queueCapacity);
+		// the queue is bounded by the permits
+		executor = new ThreadPoolExecutor(numberOfThreads, numberOfThreads, 0,
+				TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+				new WorkerFactory());
+		executor.prestartAllCoreThreads();
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	/**
+	 * Returns the number of queries which are queued or running.
+	 *
+	 * @return the number of pending queries.
+	 */
+	public int getPendingQueries() {
+		return numberOfThreads + queueCapacity - permits.availablePermits();
+	}
+
+	/**
+	 * Submits a problem, waiting for capacity if the queue is full.
+	 *
+	 * @param problem
+	 *            the problem to solve.
+	 * @return the future result of the query.
+	 * @throws InterruptedException
+	 *             if the caller is interrupted while waiting for capacity.
+	 * @throws RejectedExecutionException
+	 *             if the service has been shut down.
+	 */
+	public Future<Result> submit(Problem problem) throws InterruptedException {
+		permits.acquire();
+		return execute(problem);
+	}
+
+	/**
+	 * Submits a problem if capacity becomes available within the specified
+	 * time.
+	 *
+	 * @param problem
+	 *            the problem to solve.
+	 * @param timeout
+	 *            the maximum time to wait for capacity.
+	 * @param unit
+	 *            the unit of the timeout.
+	 * @return the future result of the query, or null if the queue stayed
+	 *         full.
+	 * @throws InterruptedException
+	 *             if the caller is interrupted while waiting for capacity.
+	 * @throws RejectedExecutionException
+	 *             if the service has been shut down.
+	 */
+	public Future<Result> trySubmit(Problem problem, long timeout,
+			TimeUnit unit) throws InterruptedException {
+		if (!permits.tryAcquire(timeout, unit)) {
+			return null;
+		}
+		return execute(problem);
+	}
+
+	/**
+	 * Submits a batch of problems, waiting for capacity whenever the queue is
+	 * full.
+	 *
+	 * @param problems
+	 *            the problems to solve.
+	 * @return the future results, in the order of the problems.
+	 * @throws InterruptedException
+	 *             if the caller is interrupted while waiting for capacity.
+	 */
+	public List<Future<Result>> submitAll(Collection<? extends Problem> problems)
+			throws InterruptedException {
+		List<Future<Result>> results = new ArrayList<Future<Result>>(
+				problems.size());
+		for (Problem problem : problems) {
+			results.add(submit(problem));
+		}
+		return results;
+	}
+
+	/**
+	 * Stops accepting problems, queued queries are still solved.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	/**
+	 * Stops accepting problems, cancels the running queries and drops the
+	 * queued ones.
+	 *
+	 * @return the futures of the queries which were never started.
+	 */
+	public List<Future<Result>> shutdownNow() {
+		List<Future<Result>> result = new ArrayList<Future<Result>>();
+		for (Runnable r : executor.shutdownNow()) {
+			Query query = (Query) r;
+			query.cancel(false);
+			// the query was never started and will not be
+			query.releasePermit();
+			result.add(query);
+		}
+		for (Query query : running()) {
+			query.cancel(true);
+		}
+		return result;
+	}
+
+	public boolean isShutdown() {
+		return executor.isShutdown();
+	}
+
+	public boolean awaitTermination(long timeout, TimeUnit unit)
+			throws InterruptedException {
+		return executor.awaitTermination(timeout, unit);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Future<Result> execute(Problem problem) {
+		Query query = new Query(problem);
+		try {
+			executor.execute(query);
+		} catch (RejectedExecutionException ex) {
+			permits.release();
+			throw ex;
+		}
+		return query;
+	}
+
+	private List<Query> running() {
+		List<Query> result = new ArrayList<Query>();
+		synchronized (workers) {
+			for (Worker worker : workers) {
+				Query query = worker.query;
+				if (null != query) {
+					result.add(query);
+				}
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * A query, which cancels the search of its worker when it is canceled
+	 * while running.
+	 */
+	private class Query extends FutureTask<Result> {
+		private Worker worker = null;
+		private final AtomicBoolean permitReleased = new AtomicBoolean();
+
+		Query(final Problem problem) {
+			super(new Callable<Result>() {
+				public Result call() throws Exception {
+					Worker w = (Worker) Thread.currentThread();
+					if (null == w.search) {
+						w.search = searchFactory.createSearch();
+					}
+					long start = System.currentTimeMillis();
+					List<Action> actions = w.search.search(problem);
+					return new Result(problem, actions, w.search.getMetrics()
+							.snapshot(), System.currentTimeMillis() - start);
+				}
+			});
+		}
+
+		@Override
+		public void run() {
+			Worker w = (Worker) Thread.currentThread();
+			synchronized (this) {
+				worker = w;
+			}
+			w.query = this;
+			try {
+				super.run();
+			} finally {
+				w.query = null;
+				synchronized (this) {
+					worker = null;
+					// a late cancellation must not affect the next query
+					w.resetCanceled();
+				}
+				// in case the search was never started, e.g. the query was
+				// canceled while queued
+				releasePermit();
+			}
+		}
+
+		@Override
+		public boolean cancel(boolean mayInterruptIfRunning) {
+			boolean result = super.cancel(false);
+			if (result) {
+				synchronized (this) {
+					if (null != worker) {
+						if (mayInterruptIfRunning) {
+							worker.cancel();
+						}
+					} else if (executor.remove(this)) {
+						// a queued query is dropped right away
+						releasePermit();
+					}
+				}
+			}
+			return result;
+		}
+
+		// the search has finished: the permit is released before the result
+		// is published, so that a caller which got the result sees the
+		// capacity of the query again
+		@Override
+		protected void set(Result result) {
+			releasePermit();
+			super.set(result);
+		}
+
+		@Override
+		protected void setException(Throwable t) {
+			releasePermit();
+			super.setException(t);
+		}
+
+		void releasePermit() {
+			if (permitReleased.compareAndSet(false, true)) {
+				permits.release();
+			}
+		}
+	}
+
+	/**
+	 * A worker thread with its own search object.
+	 */
+	private static class Worker extends CancelableThread {
+		private final Runnable task;
+		Search search = null;
+		volatile Query query = null;
+
+		Worker(Runnable task) {
+			this.task = task;
+		}
+
+		@Override
+		public void run() {
+			task.run();
+		}
+	}
+
+	private class WorkerFactory implements ThreadFactory {
+		private final AtomicInteger count = new AtomicInteger();
+
+		public Thread newThread(Runnable r) {
+			Worker worker = new Worker(r);
+			worker.setName("search-service-worker-" + count.incrementAndGet());
+			worker.setDaemon(true);
+			synchronized (workers) {
+				workers.add(worker);
+			}
+			return worker;
+		}
+	}
+}
@@ -0,0 +1,248 @@
+package aima.core.search.framework;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Summarizes a trace file written by a {@link SearchTracer}: the number of
+ * events per type, the growth of the frontier over time, a histogram of the
+ * values of the expanded nodes and the expansion rate. All numbers except the
+ * estimated totals refer to the sampled events.
+ */
+public class SearchTraceSummary {
+	private final double samplingRate;
+	private final long[] eventCounts = new long[SearchTracer.EventType
+			.values().length];
+	private long droppedEvents = 0;
+	private long durationNanos = 0;
+	private boolean complete = false;
+	// the expanded nodes, in the order of the trace
+	private int expansions = 0;
+	private long[] expansionTimes = new long[64];
+	private int[] frontierSizes = new int[64];
+	private float[] expansionValues = new float[64];
+
+	private SearchTraceSummary(double samplingRate) {
+		this.samplingRate = samplingRate;
+	}
+
+	/**
+	 * Reads and summarizes a trace file.
+	 *
+	 * @param file
+	 *            a trace file.
+	 * @return the summary of the trace.
+	 * @throws IOException
+	 *             if the file cannot be read or is not a trace file.
+	 */
+	public static SearchTraceSummary read(File file) throws IOException {
+		DataInputStream in = new DataInputStream(new BufferedInputStream(
+				new FileInputStream(file), 1 << 16));
+		try {
+			if (SearchTracer.MAGIC != in.readInt()) {
+				throw new IOException("Not a search trace file: " + file);
+			}
+			int version = in.readInt();
+			if (SearchTracer.VERSION != version) {
+				throw new IOException("Unsupported trace file version "
+						+ version + ".");
+			}
+			SearchTraceSummary summary = new SearchTraceSummary(
+					in.readDouble());
+			summary.readEvents(in);
+			return summary;
+		} finally {
+			in.close();
+		}
+	}
+
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * Returns false if the trace file ends before its end record, e.g. because
+	 * the tracer was not closed.
+	 *
+	 * @return true if the trace file is complete.
+	 */
+	public boolean isComplete() {
+		return complete;
+	}
+
+	public long getEventCount(SearchTracer.EventType type) {
+		return eventCounts[type.ordinal()];
+	}
+
+	/**
+	 * Returns the estimated number of events of the specified type, i.e. the
+	 * number of sampled events divided by the sampling rate.
+	 *
+	 * @param type
+	 *            an event type.
+	 * @return the estimated number of events of the type.
+	 */
+	public long getEstimatedEventCount(SearchTracer.EventType type) {
+		return Math.round(eventCounts[type.ordinal()] / samplingRate);
+	}
+
+	public long getDroppedEvents() {
+		return droppedEvents;
+	}
+
+	/**
+	 * Returns the time from the creation of the tracer to the last event, or
+	 * to the closing of the trace if it is complete.
+	 *
+	 * @return the duration of the trace in nanoseconds.
+	 */
+	public long getDurationNanos() {
+		return durationNanos;
+	}
+
+	/**
+	 * Returns the times (in nanoseconds since the creation of the tracer) of
+	 * the sampled expansions, see {@link #getFrontierSizes()}.
+	 *
+	 * @return the times of the sampled expansions.
+	 */
+	public long[] getExpansionTimes() {
+		return Arrays.copyOf(expansionTimes, expansions);
+	}
+
+	/**
+	 * Returns the frontier sizes at the sampled expansions, which together
+	 * with {@link #getExpansionTimes()} form the frontier growth curve.
+	 *
+	 * @return the frontier sizes at the sampled expansions.
+	 */
+	public int[] getFrontierSizes() {
+		return Arrays.copyOf(frontierSizes, expansions);
+	}
+
+	/**
+	 * Returns a histogram of the values (e.g. f-values) of the sampled
+	 * expanded nodes. The bins are of equal width and span the range from the
+	 * smallest to the largest value.
+	 *
+	 * @param numberOfBins
+	 *            the number of bins.
+	 * @return the number of values per bin.
+	 */
+	public int[] getValueHistogram(int numberOfBins) {
+		if (numberOfBins < 1) {
+			throw new IllegalArgumentException(
+					"At least one bin is required.");
+		}
+		int[] histogram = new int[numberOfBins];
+		if (0 == expansions) {
+			return histogram;
+		}
+		double min = getMinValue();
+		double width = (getMaxValue() - min) / numberOfBins;
+		for (int i = 0; i < expansions; i++) {
+			int bin = width > 0 ? (int) ((expansionValues[i] - min) / width)
+					: 0;
+			histogram[Math.min(bin, numberOfBins - 1)]++;
+		}
+		return histogram;
+	}
+
+	public double getMinValue() {
+		float min = Float.POSITIVE_INFINITY;
+		for (int i = 0; i < expansions; i++) {
+			min = Math.min(min, expansionValues[i]);
+		}
+		return min;
+	}
+
+	public double getMaxValue() {
+		float max = Float.NEGATIVE_INFINITY;
+		for (int i = 0; i < expansions; i++) {
+			max = Math.max(max, expansionValues[i]);
+		}
+		return max;
+	}
+
+	/**
+	 * Returns the estimated number of expansions per second over the whole
+	 * trace.
+	 *
+	 * @return the estimated number of expansions per second.
+	 */
+	public double getExpansionsPerSecond() {
+		if (0 == durationNanos) {
+			return 0;
+		}
+		return getEstimatedEventCount(SearchTracer.EventType.EXPANDED) * 1e9
+				/ durationNanos;
+	}
+
+	@Override
+	public String toString() {
+		StringBuilder sb = new StringBuilder("SearchTraceSummary[");
+		for (SearchTracer.EventType type : SearchTracer.EventType.values()) {
+			sb.append(type).append('=').append(getEventCount(type))
+					.append(", ");
+		}
+		sb.append("dropped=").append(droppedEvents).append(", durationMillis=")
+				.append(durationNanos / 1000000L)
+				.append(", expansionsPerSecond=")
+				.append(Math.round(getExpansionsPerSecond())).append("]");
+		return sb.toString();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void readEvents(DataInputStream in) throws IOException {
+		SearchTracer.EventType[] types = SearchTracer.EventType.values();
+		while (true) {
+			byte type;
+			long time;
+			int frontierSize;
+			float value;
+			try {
+				type = in.readByte();
+				time = in.readLong();
+				frontierSize = in.readInt();
+				in.readFloat();
+				value = in.readFloat();
+			} catch (EOFException ex) {
+				// incomplete trace
+				return;
+			}
+			durationNanos = Math.max(durationNanos, time);
+			if (SearchTracer.END_OF_TRACE == type) {
+				droppedEvents = frontierSize;
+				complete = true;
+				return;
+			}
+			if (type < 0 || type >= types.length) {
+				throw new IOException("Unknown trace event type " + type + ".");
+			}
+			eventCounts[type]++;
+			if (SearchTracer.EventType.EXPANDED == types[type]) {
+				addExpansion(time, frontierSize, value);
+			}
+		}
+	}
+
+	private void addExpansion(long time, int frontierSize, float value) {
+		if (expansions == expansionTimes.length) {
+			int capacity = expansions * 2;
+			expansionTimes = Arrays.copyOf(expansionTimes, capacity);
+			frontierSizes = Arrays.copyOf(frontierSizes, capacity);
+			expansionValues = Arrays.copyOf(expansionValues, capacity);
+		}
+		expansionTimes[expansions] = time;
+		frontierSizes[expansions] = frontierSize;
+		expansionValues[expansions] = value;
+		expansions++;
+	}
+}
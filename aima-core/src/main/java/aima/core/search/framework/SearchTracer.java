@@ -0,0 +1,315 @@
+package aima.core.search.framework;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Records a sample of the events of a search (node expansions, node
+ * generations, duplicates pruned and frontier nodes replaced) in a lock-free
+ * ring buffer, from which a background thread writes them to a binary trace
+ * file. The trace can be summarized offline by {@link SearchTraceSummary}.<br>
+ * <br>
+ * A tracer is attached to a search via
+ * {@link NodeExpander#setTracer(SearchTracer)}. Searches without a tracer only
+ * pay for a null check per event. With a tracer, an event which is not sampled
+ * costs a counter decrement. Each event type has a counter of its own, so
+ * that a search emitting a fixed pattern of events per expansion (one
+ * expansion and b generations with constant branching factor b) does not
+ * sample the same event type over and over again. A sampled event reads the clock, evaluates the
+ * node (if an evaluation function is set) and is copied into the ring buffer.
+ * If the writer cannot keep up and the buffer is full, events are dropped and
+ * counted instead of blocking the search.<br>
+ * <br>
+ * Note: The event methods must be called by one thread at a time, i.e. a
+ * tracer is attached to a single search at a time.<br>
+ * <br>
+ * The trace file starts with the magic number 'ASTR', the format version and
+ * the sampling rate, followed by one record per event (the event type as a
+ * byte, the time since the creation of the tracer in nanoseconds as a long,
+ * the frontier size as an int, and the path cost and the value of the node as
+ * floats), and ends with a record of type -1 carrying the number of dropped
+ * events in place of the frontier size.
+ */
+public class SearchTracer implements Closeable {
+	public enum EventType {
+		EXPANDED, GENERATED, DUPLICATE_PRUNED, FRONTIER_REPLACED
+	}
+
+	static final int MAGIC = 0x41535452;
+	static final int VERSION = 1;
+	static final byte END_OF_TRACE = -1;
+
+	private final double samplingRate;
+	private final int samplingInterval;
+	// one countdown per event type
+	private final int[] countdowns;
+	private final EventBuffer buffer;
+	private final long startNanos = System.nanoTime();
+	private EvaluationFunction evaluationFunction = null;
+	private int frontierSize = 0;
+
+	private Writer writer = null;
+	private Thread writerThread = null;
+
+	/**
+	 * Constructs a tracer.
+	 *
+	 * @param samplingRate
+	 *            the fraction of events to record, e.g. 0.01 records every
+	 *            100th event of each type.
+	 * @param bufferCapacity
+	 *            the number of events the ring buffer can hold, rounded up to
+	 *            a power of two.
+	 */
+	public SearchTracer(double samplingRate, int bufferCapacity) {
+		if (!(samplingRate > 0.0 && samplingRate <= 1.0)) {
+			throw new IllegalArgumentException(
+					"Sampling rate must be in (0, 1].");
+		}
+		if (bufferCapacity < 1 || bufferCapacity > 1 << 30) {
+			throw new IllegalArgumentException(
+					"Buffer capacity must be in [1, 2^30].");
+		}
+		this.samplingRate = samplingRate;
+		samplingInterval = (int) Math.round(1.0 / samplingRate);
+		countdowns = new int[EventType.values().length];
+		Arrays.fill(countdowns, samplingInterval);
+		buffer = new EventBuffer(bufferCapacity);
+	}
+
+	public double getSamplingRate() {
+		return samplingRate;
+	}
+
+	/**
+	 * Sets the function used to evaluate the nodes of sampled events, e.g. f =
+	 * g + h. Without evaluation function, the value of a node is its path
+	 * cost.
+	 *
+	 * @param ef
+	 *            an evaluation function, or null.
+	 */
+	public void setEvaluationFunction(EvaluationFunction ef) {
+		this.evaluationFunction = ef;
+	}
+
+	/**
+	 * Sets the frontier size recorded with subsequent events.
+	 *
+	 * @param frontierSize
+	 *            the current size of the frontier.
+	 */
+	public void setFrontierSize(int frontierSize) {
+		this.frontierSize = frontierSize;
+	}
+
+	public void expanded(Node node) {
+		if (0 == --countdowns[EventType.EXPANDED.ordinal()]) {
+			record(EventType.EXPANDED, node);
+		}
+	}
+
+	public void generated(Node node) {
+		if (0 == --countdowns[EventType.GENERATED.ordinal()]) {
+			record(EventType.GENERATED, node);
+		}
+	}
+
+	public void duplicatePruned(Node node) {
+		if (0 == --countdowns[EventType.DUPLICATE_PRUNED.ordinal()]) {
+			record(EventType.DUPLICATE_PRUNED, node);
+		}
+	}
+
+	public void frontierReplaced(Node node) {
+		if (0 == --countdowns[EventType.FRONTIER_REPLACED.ordinal()]) {
+			record(EventType.FRONTIER_REPLACED, node);
+		}
+	}
+
+	/**
+	 * Returns the number of sampled events which were dropped because the ring
+	 * buffer was full.
+	 *
+	 * @return the number of dropped events.
+	 */
+	public long getDroppedEvents() {
+		return buffer.dropped.get();
+	}
+
+	/**
+	 * Starts a background thread writing the recorded events to the specified
+	 * file.
+	 *
+	 * @param file
+	 *            the trace file, which is overwritten.
+	 * @throws IOException
+	 *             if the file cannot be created.
+	 */
+	public synchronized void startWriting(File file) throws IOException {
+		if (null != writer) {
+			throw new IllegalStateException("Trace is already being written.");
+		}
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), 1 << 16));
+		out.writeInt(MAGIC);
+		out.writeInt(VERSION);
+		out.writeDouble(samplingRate);
+		writer = new Writer(out);
+		writerThread = new Thread(writer, "search-trace-writer");
+		writerThread.setDaemon(true);
+		writerThread.start();
+	}
+
+	/**
+	 * Stops the background thread after it has written all recorded events and
+	 * closes the trace file.
+	 *
+	 * @throws IOException
+	 *             if writing the trace failed.
+	 */
+	public synchronized void close() throws IOException {
+		if (null == writer) {
+			return;
+		}
+		writer.stopped = true;
+		LockSupport.unpark(writerThread);
+		boolean interrupted = false;
+		while (writerThread.isAlive()) {
+			try {
+				writerThread.join();
+			} catch (InterruptedException ex) {
+				interrupted = true;
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+		Writer w = writer;
+		writer = null;
+		writerThread = null;
+		try {
+			if (null == w.failure) {
+				// the writer has stopped, so the buffer can be drained here
+				w.drain();
+				w.out.writeByte(END_OF_TRACE);
+				w.out.writeLong(System.nanoTime() - startNanos);
+				w.out.writeInt((int) Math.min(Integer.MAX_VALUE,
+						getDroppedEvents()));
+				w.out.writeFloat(0);
+				w.out.writeFloat(0);
+			}
+		} finally {
+			w.out.close();
+		}
+		if (null != w.failure) {
+			throw w.failure;
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void record(EventType type, Node node) {
+		countdowns[type.ordinal()] = samplingInterval;
+		double value = null == evaluationFunction ? node.getPathCost()
+				: evaluationFunction.f(node);
+		buffer.offer((byte) type.ordinal(), System.nanoTime() - startNanos,
+				frontierSize, (float) node.getPathCost(), (float) value);
+	}
+
+	/**
+	 * A single-producer single-consumer ring buffer of events, stored in
+	 * parallel primitive arrays so that recording an event does not allocate.
+	 * The producer publishes an event by an ordered write of the tail index,
+	 * the consumer frees slots by an ordered write of the head index.
+	 */
+	private static class EventBuffer {
+		final byte[] types;
+		final long[] times;
+		final int[] frontierSizes;
+		final float[] pathCosts;
+		final float[] values;
+		final int mask;
+		final AtomicLong head = new AtomicLong();
+		final AtomicLong tail = new AtomicLong();
+		final AtomicLong dropped = new AtomicLong();
+
+		EventBuffer(int minCapacity) {
+			int capacity = Integer.highestOneBit(minCapacity);
+			if (capacity < minCapacity) {
+				capacity <<= 1;
+			}
+			types = new byte[capacity];
+			times = new long[capacity];
+			frontierSizes = new int[capacity];
+			pathCosts = new float[capacity];
+			values = new float[capacity];
+			mask = capacity - 1;
+		}
+
+		void offer(byte type, long time, int frontierSize, float pathCost,
+				float value) {
+			long t = tail.get();
+			if (t - head.get() > mask) {
+				dropped.incrementAndGet();
+				return;
+			}
+			int i = (int) t & mask;
+			types[i] = type;
+			times[i] = time;
+			frontierSizes[i] = frontierSize;
+			pathCosts[i] = pathCost;
+			values[i] = value;
+			tail.lazySet(t + 1);
+		}
+	}
+
+	/**
+	 * Drains the ring buffer into the trace file until stopped.
+	 */
+	private class Writer implements Runnable {
+		final DataOutputStream out;
+		volatile boolean stopped = false;
+		IOException failure = null;
+
+		Writer(DataOutputStream out) {
+			this.out = out;
+		}
+
+		public void run() {
+			try {
+				while (!stopped) {
+					if (0 == drain()) {
+						LockSupport.parkNanos(1000000L);
+					}
+				}
+			} catch (IOException ex) {
+				failure = ex;
+			}
+		}
+
+		// writes all published events, returns their number
+		int drain() throws IOException {
+			long h = buffer.head.get();
+			long t = buffer.tail.get();
+			for (long k = h; k < t; k++) {
+				int i = (int) k & buffer.mask;
+				out.writeByte(buffer.types[i]);
+				out.writeLong(buffer.times[i]);
+				out.writeInt(buffer.frontierSizes[i]);
+				out.writeFloat(buffer.pathCosts[i]);
+				out.writeFloat(buffer.values[i]);
+			}
+			buffer.head.lazySet(t);
+			return (int) (t - h);
+		}
+	}
+}
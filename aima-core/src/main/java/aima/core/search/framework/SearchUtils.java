@@ -1,6 +1,7 @@
 package aima.core.search.framework;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
 
 import aima.core.agent.Action;
@@ -43,4 +44,23 @@ public class SearchUtils {
 		}
 		return isGoal;
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Returns an iterator over the actions that can be executed in the
+	 * specified state. Streaming actions functions generate the actions on
+	 * demand, all others are adapted by iterating over their set of actions.
+	 * 
+	 * @param af
+	 *            an actions function.
+	 * @param state
+	 *            a particular state.
+	 * @return an iterator over the actions that can be executed in the state.
+	 */
+	public static Iterator<Action> actionIterator(ActionsFunction af,
+			Object state) {
+		if (af instanceof StreamingActionsFunction) {
+			return ((StreamingActionsFunction) af).actionIterator(state);
+		}
+		return af.actions(state).iterator();
+	}
+}
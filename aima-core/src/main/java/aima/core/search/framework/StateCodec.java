@@ -0,0 +1,30 @@
+package aima.core.search.framework;
+
+/**
+ * Packs states into primitive <code>long</code> keys. A graph search which is
+ * given a state codec keeps its explored set and frontier index in primitive
+ * hash tables, which need neither a boxed entry per state nor calls to
+ * <code>equals</code> and <code>hashCode</code> of the states.<br>
+ * <br>
+ * Note: The encoding must be injective, i.e. two states are encoded to the
+ * same key if and only if they are equal.
+ */
+public interface StateCodec {
+	/**
+	 * Returns the key of the specified state.
+	 * 
+	 * @param state
+	 *            a state.
+	 * @return the key of the specified state.
+	 */
+	long encode(Object state);
+
+	/**
+	 * Returns the state encoded by the specified key.
+	 * 
+	 * @param key
+	 *            a key returned by {@link #encode(Object)}.
+	 * @return the state encoded by the specified key.
+	 */
+	Object decode(long key);
+}
@@ -0,0 +1,28 @@
+package aima.core.search.framework;
+
+import java.util.Iterator;
+
+import aima.core.agent.Action;
+
+/**
+ * An actions function which can generate the actions applicable in a state one
+ * at a time. Searches which may stop before all children of a node have been
+ * generated (e.g. depth-limited search or IDA*) then neither build the set of
+ * actions nor the actions which are never reached.<br>
+ * <br>
+ * Plain {@link ActionsFunction}s are adapted by
+ * {@link SearchUtils#actionIterator(ActionsFunction, Object)}.
+ * 
+ * @see AbstractStreamingActionsFunction
+ */
+public interface StreamingActionsFunction extends ActionsFunction {
+	/**
+	 * Given a particular state s, returns an iterator generating the actions
+	 * that can be executed in s, in the same order as {@link #actions(Object)}.
+	 * 
+	 * @param s
+	 *            a particular state.
+	 * @return an iterator over the actions that can be executed in s.
+	 */
+	Iterator<Action> actionIterator(Object s);
+}
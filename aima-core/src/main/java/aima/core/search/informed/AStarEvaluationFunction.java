@@ -16,6 +16,10 @@ import aima.core.search.framework.PathCostFunction;
  *        f(n) = g(n) + h(n).
  * </pre>
  * 
+ * Weighted A* inflates the heuristic by a weight w &gt;= 1, f(n) = g(n) + w *
+ * h(n). With an admissible heuristic, the cost of the solution found is at
+ * most w times the optimal cost.
+ * 
  * @author Ciaran O'Reilly
  * @author Mike Stampone
  */
@@ -23,21 +27,43 @@ public class AStarEvaluationFunction implements EvaluationFunction {
 
 	private PathCostFunction gf = new PathCostFunction();
 	private HeuristicFunction hf = null;
+	private double weight = 1.0;
 
 	public AStarEvaluationFunction(HeuristicFunction hf) {
 		this.hf = hf;
 	}
 
+	/**
+	 * Constructs the evaluation function of weighted A*.
+	 * 
+	 * @param hf
+	 *            a heuristic function.
+	 * @param weight
+	 *            the weight of the heuristic, at least 1.
+	 */
+	public AStarEvaluationFunction(HeuristicFunction hf, double weight) {
+		if (!(weight >= 1.0)) {
+			throw new IllegalArgumentException("Weight must be at least 1.");
+		}
+		this.hf = hf;
+		this.weight = weight;
+	}
+
+	public double getWeight() {
+		return weight;
+	}
+
 	/**
 	 * Returns <em>g(n)</em> the cost to reach the node, plus <em>h(n)</em> the
-	 * heuristic cost to get from the specified node to the goal.
+	 * heuristic cost to get from the specified node to the goal, weighted by
+	 * w (1 by default).
 	 * 
 	 * @param n
 	 *            a node
-	 * @return g(n) + h(n)
+	 * @return g(n) + w * h(n)
 	 */
 	public double f(Node n) {
-		// f(n) = g(n) + h(n)
-		return gf.g(n) + hf.h(n.getState());
+		// f(n) = g(n) + w * h(n)
+		return gf.g(n) + weight * hf.h(n.getState());
 	}
 }
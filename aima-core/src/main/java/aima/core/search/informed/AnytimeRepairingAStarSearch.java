@@ -0,0 +1,406 @@
+package aima.core.search.informed;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.BudgetedSearchResult;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchBudget;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+import aima.core.util.datastructure.IndexedPriorityQueue;
+
+/**
+ * Anytime repairing A* (ARA*), see M. Likhachev, G. Gordon and S. Thrun:
+ * ARA*: Anytime A* with Provable Bounds on Sub-Optimality, NIPS 2003.<br>
+ * <br>
+ * ARA* runs a series of weighted A* searches (f = g + w * h, see
+ * {@link AStarEvaluationFunction}) with decreasing weights. The first search
+ * uses a high weight and finds a solution quickly, each following search
+ * lowers the weight and improves the solution. Instead of starting from
+ * scratch, a search reuses the results of the previous one: A state is
+ * expanded at most once per search. A state whose cost decreases after it was
+ * expanded is put on the INCONS list, which is merged into the OPEN list
+ * (re-keyed with the new weight) when the next search starts.<br>
+ * <br>
+ * After each search which improves the solution or its suboptimality bound,
+ * min(w, cost / min{g(s) + h(s) | s in OPEN or INCONS}), both are published to
+ * the registered {@link SolutionListener}s. With an admissible heuristic, the cost of the
+ * solution is at most the bound times the optimal cost. The search stops when
+ * the bound reaches 1 (the solution is optimal), when its
+ * {@link SearchBudget} (e.g. a deadline) is exhausted or when it is canceled,
+ * and returns the best solution found so far.
+ */
+public class AnytimeRepairingAStarSearch extends NodeExpander implements
+		Search {
+	public static final String METRIC_ITERATIONS = "iterations";
+	public static final String METRIC_WEIGHT = "weight";
+	public static final String METRIC_SUBOPTIMALITY_BOUND = "suboptimalityBound";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	/**
+	 * Is notified about each solution found by an anytime search.
+	 */
+	public interface SolutionListener {
+		/**
+		 * Called after each search iteration which has found a cheaper
+		 * solution or has tightened the bound, from the thread running the
+		 * search.
+		 *
+		 * @param actions
+		 *            the best solution found so far.
+		 * @param pathCost
+		 *            the cost of the solution.
+		 * @param suboptimalityBound
+		 *            the factor by which the cost exceeds the optimal cost at
+		 *            most, 1 if the solution is optimal.
+		 */
+		void solutionImproved(List<Action> actions, double pathCost,
+				double suboptimalityBound);
+	}
+
+	private final HeuristicFunction hf;
+	private final double initialWeight;
+	private final double weightDecrement;
+	private final List<SolutionListener> listeners = new ArrayList<SolutionListener>();
+	private SearchBudget searchBudget = SearchBudget.UNLIMITED;
+	private BudgetedSearchResult lastSearchResult = null;
+	private final Metrics.LongCounter iterations = metrics
+			.counter(METRIC_ITERATIONS);
+
+	// state of the current search
+	private Problem problem;
+	private AStarEvaluationFunction ef;
+	private Map<Object, Entry> entries;
+	private IndexedPriorityQueue<Entry> open;
+	private List<Entry> incons;
+	private Node incumbent;
+	private SearchBudget.Monitor monitor;
+
+	/**
+	 * Constructs an ARA* search.
+	 *
+	 * @param hf
+	 *            a heuristic function, which should be admissible.
+	 * @param initialWeight
+	 *            the weight of the heuristic in the first iteration, at least
+	 *            1.
+	 * @param weightDecrement
+	 *            the amount by which the weight is lowered after each
+	 *            iteration, until it reaches 1.
+	 */
+	public AnytimeRepairingAStarSearch(HeuristicFunction hf,
+			double initialWeight, double weightDecrement) {
+		if (!(initialWeight >= 1.0)) {
+			throw new IllegalArgumentException(
+					"Initial weight must be at least 1.");
+		}
+		if (!(weightDecrement > 0.0)) {
+			throw new IllegalArgumentException(
+					"Weight decrement must be positive.");
+		}
+		this.hf = hf;
+		this.initialWeight = initialWeight;
+		this.weightDecrement = weightDecrement;
+		clearInstrumentation();
+	}
+
+	public double getInitialWeight() {
+		return initialWeight;
+	}
+
+	public double getWeightDecrement() {
+		return weightDecrement;
+	}
+
+	public void addSolutionListener(SolutionListener listener) {
+		listeners.add(listener);
+	}
+
+	public void removeSolutionListener(SolutionListener listener) {
+		listeners.remove(listener);
+	}
+
+	public SearchBudget getSearchBudget() {
+		return searchBudget;
+	}
+
+	/**
+	 * Sets the budget of subsequent searches, e.g. a time limit as deadline.
+	 * A search which runs out of budget returns the best solution found so
+	 * far.
+	 *
+	 * @param searchBudget
+	 *            the budget, or null if searches are not to be limited.
+	 */
+	public void setSearchBudget(SearchBudget searchBudget) {
+		this.searchBudget = null == searchBudget ? SearchBudget.UNLIMITED
+				: searchBudget;
+	}
+
+	/**
+	 * Returns the outcome of the last search. If the search ran out of budget
+	 * after it had found a solution, the result carries the budget limit as
+	 * stop reason together with the solution.
+	 *
+	 * @return the outcome of the last search, or null if there was none.
+	 */
+	public BudgetedSearchResult getLastSearchResult() {
+		return lastSearchResult;
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		problem = p;
+		entries = new HashMap<Object, Entry>();
+		incons = new ArrayList<Entry>();
+		incumbent = null;
+		monitor = searchBudget.start();
+		BudgetedSearchResult.StopReason stopReason = null;
+		try {
+			double w = initialWeight;
+			ef = new AStarEvaluationFunction(hf, w);
+			open = new IndexedPriorityQueue<Entry>(11, LOWEST_KEY_FIRST);
+			Node root = new Node(p.getInitialState());
+			if (SearchUtils.isGoalState(p, root)) {
+				incumbent = root;
+			}
+			Entry rootEntry = new Entry(root);
+			entries.put(root.getState(), rootEntry);
+			rootEntry.key = ef.f(root);
+			open.add(rootEntry);
+
+			while (true) {
+				iterations.increment();
+				metrics.set(METRIC_WEIGHT, w);
+				stopReason = improvePath();
+				if (null != stopReason) {
+					// a partial iteration does not tighten the bound
+					break;
+				}
+				if (null == incumbent) {
+					stopReason = BudgetedSearchResult.StopReason.SEARCH_SPACE_EXHAUSTED;
+					break;
+				}
+				double bound = Math.min(w, suboptimalityBound());
+				publishSolution(bound);
+				if (bound <= 1.0) {
+					stopReason = BudgetedSearchResult.StopReason.SOLUTION_FOUND;
+					break;
+				}
+				// move states from INCONS into OPEN, re-key all states in
+				// OPEN with the lower weight, and start with an empty CLOSED
+				w = Math.max(1.0, w - weightDecrement);
+				ef = new AStarEvaluationFunction(hf, w);
+				reopen();
+			}
+			List<Action> actions = Collections.emptyList();
+			if (null != incumbent) {
+				actions = SearchUtils.actionsFromNodes(incumbent
+						.getPathFromRoot());
+				metrics.set(METRIC_PATH_COST, incumbent.getPathCost());
+			}
+			lastSearchResult = new BudgetedSearchResult(stopReason, actions,
+					incumbent, null == incumbent ? Double.NaN
+							: incumbent.getPathCost(), getNodesExpanded(),
+					monitor.getMaxNodesInMemory(), monitor.getElapsedMillis());
+			return actions;
+		} finally {
+			problem = null;
+			ef = null;
+			entries = null;
+			open = null;
+			incons = null;
+			incumbent = null;
+			monitor = null;
+		}
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		iterations.reset();
+		metrics.set(METRIC_WEIGHT, 0.0);
+		metrics.set(METRIC_SUBOPTIMALITY_BOUND, 0.0);
+		metrics.set(METRIC_PATH_COST, 0.0);
+	}
+
+	public int getIterations() {
+		return (int) iterations.get();
+	}
+
+	/**
+	 * Returns the weight of the last iteration of the last search.
+	 *
+	 * @return the weight of the last iteration.
+	 */
+	public double getWeight() {
+		return metrics.getDouble(METRIC_WEIGHT);
+	}
+
+	/**
+	 * Returns the suboptimality bound of the solution of the last search.
+	 *
+	 * @return the suboptimality bound, 0 if no solution was found.
+	 */
+	public double getSuboptimalityBound() {
+		return metrics.getDouble(METRIC_SUBOPTIMALITY_BOUND);
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(METRIC_PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// Expands the state with the lowest key until no state in OPEN has a
+	// lower key than the cost of the best solution. Returns the reason why
+	// the iteration was aborted, or null if it was completed.
+	private BudgetedSearchResult.StopReason improvePath() {
+		while (!open.isEmpty()
+				&& (null == incumbent || incumbent.getPathCost() > open
+						.peek().key)) {
+			BudgetedSearchResult.StopReason stopReason = monitor.check(
+					getNodesExpanded(), entries.size());
+			if (null == stopReason && CancelableThread.currIsCanceled()) {
+				stopReason = BudgetedSearchResult.StopReason.CANCELED;
+			}
+			if (null != stopReason) {
+				return stopReason;
+			}
+			Entry e = open.poll();
+			e.closedInIteration = getIterations();
+			if (null != tracer) {
+				tracer.setFrontierSize(open.size());
+			}
+			Node node = e.node;
+			for (Iterator<Node> it = successors(node, problem); it.hasNext();) {
+				Node child = it.next();
+				Entry ce = entries.get(child.getState());
+				if (null == ce) {
+					ce = new Entry(child);
+					entries.put(child.getState(), ce);
+				} else if (child.getPathCost() < ce.node.getPathCost()) {
+					ce.node = child;
+				} else {
+					continue;
+				}
+				if (SearchUtils.isGoalState(problem, child)) {
+					if (null == incumbent
+							|| child.getPathCost() < incumbent.getPathCost()) {
+						incumbent = child;
+					}
+					// paths through a goal cannot lead to a cheaper solution
+					continue;
+				}
+				if (ce.closedInIteration != getIterations()) {
+					// insert, or decrease the key
+					open.remove(ce);
+					ce.key = ef.f(child);
+					open.add(ce);
+				} else if (!ce.inconsistent) {
+					// expanded in this iteration already, defer it to the
+					// next one
+					ce.inconsistent = true;
+					incons.add(ce);
+				}
+			}
+		}
+		return null;
+	}
+
+	private void reopen() {
+		IndexedPriorityQueue<Entry> reopened = new IndexedPriorityQueue<Entry>(
+				open.size() + incons.size() + 1, LOWEST_KEY_FIRST);
+		for (Entry e : open) {
+			e.key = ef.f(e.node);
+			reopened.add(e);
+		}
+		for (Entry e : incons) {
+			e.inconsistent = false;
+			e.key = ef.f(e.node);
+			reopened.add(e);
+		}
+		incons.clear();
+		open = reopened;
+	}
+
+	// cost / min{g(s) + h(s) | s in OPEN or INCONS}
+	private double suboptimalityBound() {
+		double minF = Double.POSITIVE_INFINITY;
+		for (Entry e : open) {
+			minF = Math.min(minF, unweightedF(e));
+		}
+		for (Entry e : incons) {
+			minF = Math.min(minF, unweightedF(e));
+		}
+		double cost = incumbent.getPathCost();
+		return cost <= minF ? 1.0 : cost / minF;
+	}
+
+	private double unweightedF(Entry e) {
+		return e.node.getPathCost() + hf.h(e.node.getState());
+	}
+
+	// notifies the listeners if the solution or its bound has improved
+	private void publishSolution(double bound) {
+		boolean improved = metrics.getDouble(METRIC_PATH_COST) != incumbent
+				.getPathCost()
+				|| metrics.getDouble(METRIC_SUBOPTIMALITY_BOUND) != bound;
+		metrics.set(METRIC_SUBOPTIMALITY_BOUND, bound);
+		metrics.set(METRIC_PATH_COST, incumbent.getPathCost());
+		if (improved && !listeners.isEmpty()) {
+			List<Action> actions = SearchUtils.actionsFromNodes(incumbent
+					.getPathFromRoot());
+			for (SolutionListener listener : listeners) {
+				listener.solutionImproved(actions, incumbent.getPathCost(),
+						bound);
+			}
+		}
+	}
+
+	/**
+	 * The search state of a problem state: the cheapest path found so far,
+	 * the key of the state in OPEN and its CLOSED and INCONS membership.
+	 */
+	private static class Entry {
+		Node node;
+		double key;
+		// the iteration in which the state was expanded last, CLOSED is
+		// emptied by starting a new iteration
+		int closedInIteration = 0;
+		boolean inconsistent = false;
+
+		Entry(Node node) {
+			this.node = node;
+		}
+	}
+
+	// lowest key first, the state with the lowest heuristic value (i.e. the
+	// highest path cost) on ties
+	private static final Comparator<Entry> LOWEST_KEY_FIRST = new Comparator<Entry>() {
+		public int compare(Entry e1, Entry e2) {
+			int result = Double.compare(e1.key, e2.key);
+			if (0 == result) {
+				result = Double.compare(e2.node.getPathCost(),
+						e1.node.getPathCost());
+			}
+			return result;
+		}
+	};
+}
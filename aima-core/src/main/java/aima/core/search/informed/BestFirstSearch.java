@@ -39,6 +39,9 @@ public class BestFirstSearch extends PrioritySearch {
 	public BestFirstSearch(QueueSearch search, EvaluationFunction ef) {
 		this.search = search;
 		evaluationFunction = ef;
+		// report the node with the best evaluation if the search runs out of
+		// budget, unless another ranking has been chosen
+		search.setDefaultBestNodeEvaluationFunction(ef);
 	}
 
 	//
@@ -0,0 +1,296 @@
+package aima.core.search.informed;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+
+import aima.core.agent.Action;
+import aima.core.agent.impl.NoOpAction;
+import aima.core.search.framework.BidirectionalProblem;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+import aima.core.util.datastructure.IndexedPriorityQueue;
+
+/**
+ * Bidirectional A* search with front-to-end heuristics, see I. Pohl:
+ * Bi-directional Search, Machine Intelligence 6, 1971.<br>
+ * <br>
+ * Two A* searches are run in alternation, one from the initial state of the
+ * original problem, guided by a heuristic estimating the cost to the goal, and
+ * one from the initial state of the reverse problem, guided by a heuristic
+ * estimating the cost to the initial state. In every step the direction with
+ * the smaller frontier is expanded. Whenever a state reached in one direction
+ * has already been reached in the other one, the concatenated path becomes the
+ * incumbent solution if it is cheaper than the current one.<br>
+ * <br>
+ * The search terminates as soon as the cost of the incumbent is not greater
+ * than the largest of the following lower bounds on the cost of any solution
+ * not yet found: the smallest f-value of either frontier, and the sum of the
+ * smallest path costs (g-values) of the two frontiers. Hence, if both
+ * heuristics are admissible, the returned solution is optimal.<br>
+ * <br>
+ * Note: As in {@link aima.core.search.uninformed.BidirectionalSearch}, the
+ * part of a solution found by the reverse search is only accepted if it can
+ * be traversed with the actions of the original problem.
+ */
+public class BidirectionalAStarSearch extends NodeExpander implements Search {
+	public static final String METRIC_QUEUE_SIZE = "queueSize";
+	public static final String METRIC_MAX_QUEUE_SIZE = "maxQueueSize";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private final HeuristicFunction forwardHf;
+	private final HeuristicFunction backwardHf;
+	private final Metrics.LongGauge queueSize = metrics
+			.gauge(METRIC_QUEUE_SIZE);
+	private final Metrics.LongGauge maxQueueSize = metrics
+			.gauge(METRIC_MAX_QUEUE_SIZE);
+
+	// incumbent solution of the current search
+	private List<Action> bestActions;
+	private double bestCost;
+
+	/**
+	 * Constructs a bidirectional A* search.
+	 *
+	 * @param forwardHf
+	 *            a heuristic function estimating the cost from a state to the
+	 *            goal of the original problem.
+	 * @param backwardHf
+	 *            a heuristic function estimating the cost from a state to the
+	 *            goal of the reverse problem, i.e. from the initial state of
+	 *            the original problem to the state.
+	 */
+	public BidirectionalAStarSearch(HeuristicFunction forwardHf,
+			HeuristicFunction backwardHf) {
+		this.forwardHf = forwardHf;
+		this.backwardHf = backwardHf;
+		clearInstrumentation();
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		if (!(p instanceof BidirectionalProblem)) {
+			throw new IllegalArgumentException(
+					"Bidirectional A* search requires a BidirectionalProblem.");
+		}
+		clearInstrumentation();
+		bestActions = null;
+		bestCost = Double.POSITIVE_INFINITY;
+
+		Problem op = ((BidirectionalProblem) p).getOriginalProblem();
+		Problem rp = ((BidirectionalProblem) p).getReverseProblem();
+		Direction forward = new Direction(op, forwardHf);
+		Direction backward = new Direction(rp, backwardHf);
+
+		forward.add(new Node(op.getInitialState()), op, backward, true);
+		backward.add(new Node(rp.getInitialState()), op, forward, false);
+		setQueueSize(forward.size() + backward.size());
+
+		while (!forward.isEmpty() && !backward.isEmpty()
+				&& !CancelableThread.currIsCanceled()) {
+			double lowerBound = Math.max(
+					Math.max(forward.minF(), backward.minF()), forward.minG()
+							+ backward.minG());
+			if (bestCost <= lowerBound) {
+				break;
+			}
+			if (forward.size() <= backward.size()) {
+				forward.expandBest(op, backward, true);
+			} else {
+				backward.expandBest(op, forward, false);
+			}
+			setQueueSize(forward.size() + backward.size());
+		}
+
+		if (null == bestActions || CancelableThread.currIsCanceled()) {
+			// Empty List indicates that no solution was found
+			return new ArrayList<Action>();
+		}
+		metrics.set(METRIC_PATH_COST, bestCost);
+		return bestActions;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		queueSize.reset();
+		maxQueueSize.reset();
+		metrics.set(METRIC_PATH_COST, 0.0);
+	}
+
+	public int getQueueSize() {
+		return (int) queueSize.get();
+	}
+
+	public int getMaxQueueSize() {
+		return (int) maxQueueSize.get();
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(METRIC_PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void setQueueSize(int size) {
+		queueSize.set(size);
+		maxQueueSize.updateMax(size);
+	}
+
+	// Tests whether the paths to the specified nodes (one from each direction)
+	// can be joined to a solution cheaper than the incumbent.
+	private void meet(Problem op, Node forwardNode, Node backwardNode) {
+		if (forwardNode.getPathCost() + backwardNode.getPathCost() >= bestCost) {
+			return;
+		}
+		List<Action> actions = new ArrayList<Action>();
+		for (Node n : forwardNode.getPathFromRoot()) {
+			if (!n.isRootNode()) {
+				actions.add(n.getAction());
+			}
+		}
+		double cost = forwardNode.getPathCost();
+		// follow the reverse path back to its root with the actions of the
+		// original problem
+		for (Node n = backwardNode; !n.isRootNode(); n = n.getParent()) {
+			Object from = n.getState();
+			Object to = n.getParent().getState();
+			boolean found = false;
+			for (Action a : op.getActionsFunction().actions(from)) {
+				if (to.equals(op.getResultFunction().result(from, a))) {
+					actions.add(a);
+					cost += op.getStepCostFunction().c(from, a, to);
+					found = true;
+					break;
+				}
+			}
+			if (!found) {
+				// unidirectional link, not a valid solution
+				return;
+			}
+		}
+		if (cost < bestCost) {
+			if (actions.isEmpty()) {
+				// started at the goal
+				actions.add(NoOpAction.NO_OP);
+			}
+			bestActions = actions;
+			bestCost = cost;
+		}
+	}
+
+	/**
+	 * The frontier and the reached states of one search direction.
+	 */
+	private class Direction {
+		private final Problem problem;
+		private final HeuristicFunction hf;
+		private final IndexedPriorityQueue<Entry> byF = new IndexedPriorityQueue<Entry>(
+				16, F_ORDER);
+		private final IndexedPriorityQueue<Entry> byG = new IndexedPriorityQueue<Entry>(
+				16, G_ORDER);
+		// best entry for each reached state (frontier or explored)
+		private final HashMap<Object, Entry> reached = new HashMap<Object, Entry>();
+
+		Direction(Problem problem, HeuristicFunction hf) {
+			this.problem = problem;
+			this.hf = hf;
+		}
+
+		boolean isEmpty() {
+			return byF.isEmpty();
+		}
+
+		int size() {
+			return byF.size();
+		}
+
+		double minF() {
+			return byF.peek().f;
+		}
+
+		double minG() {
+			return byG.peek().node.getPathCost();
+		}
+
+		void expandBest(Problem op, Direction other, boolean isForward) {
+			Entry entry = byF.poll();
+			byG.remove(entry);
+			entry.onFrontier = false;
+			for (Node child : expandNode(entry.node, problem)) {
+				add(child, op, other, isForward);
+			}
+		}
+
+		void add(Node node, Problem op, Direction other, boolean isForward) {
+			Entry old = reached.get(node.getState());
+			if (null != old) {
+				if (old.node.getPathCost() <= node.getPathCost()) {
+					return;
+				}
+				// a cheaper path, (re)open the state
+				if (old.onFrontier) {
+					byF.remove(old);
+					byG.remove(old);
+				}
+			}
+			Entry entry = new Entry(node, node.getPathCost()
+					+ hf.h(node.getState()));
+			reached.put(node.getState(), entry);
+			byF.add(entry);
+			byG.add(entry);
+
+			Entry match = other.reached.get(node.getState());
+			if (null != match) {
+				if (isForward) {
+					meet(op, node, match.node);
+				} else {
+					meet(op, match.node, node);
+				}
+			} else if (isForward && SearchUtils.isGoalState(op, node)) {
+				// a goal other than the root of the reverse search
+				meet(op, node, new Node(node.getState()));
+			}
+		}
+	}
+
+	private static final Comparator<Entry> F_ORDER = new Comparator<Entry>() {
+		public int compare(Entry e1, Entry e2) {
+			int result = Double.compare(e1.f, e2.f);
+			if (0 == result) {
+				// prefer deeper nodes on ties
+				result = Double.compare(e2.node.getPathCost(),
+						e1.node.getPathCost());
+			}
+			return result;
+		}
+	};
+
+	private static final Comparator<Entry> G_ORDER = new Comparator<Entry>() {
+		public int compare(Entry e1, Entry e2) {
+			return Double.compare(e1.node.getPathCost(),
+					e2.node.getPathCost());
+		}
+	};
+
+	private static class Entry {
+		final Node node;
+		final double f;
+		boolean onFrontier = true;
+
+		Entry(Node node, double f) {
+			this.node = node;
+			this.f = f;
+		}
+	}
+}
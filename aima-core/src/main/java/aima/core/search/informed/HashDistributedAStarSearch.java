@@ -0,0 +1,313 @@
+package aima.core.search.informed;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+
+/**
+ * Hash Distributed A* (HDA*), a parallel version of A* graph search, see A.
+ * Kishimoto, A. Fukunaga and A. Botea: Scalable, Parallel Best-First Search
+ * for Optimal Sequential Planning, ICAPS 2009.<br>
+ * <br>
+ * Each state is owned by exactly one worker thread, which is determined by the
+ * hash code of the state. Every worker has its own open list (ordered by f = g
+ * + h) and closed list, so that the workers do not need to synchronize on any
+ * shared data structure. A generated node is sent to the mailbox of the
+ * worker owning its state, a lock-free queue which the owner drains between
+ * expansions.<br>
+ * <br>
+ * Whenever a worker expands a goal node, the solution becomes the incumbent if
+ * it is cheaper than the current one. Nodes whose f-value is not smaller than
+ * the cost of the incumbent are pruned. The search terminates when no worker
+ * has any node left to process and no node is in transit, so if the heuristic
+ * is admissible, the incumbent is an optimal solution.<br>
+ * <br>
+ * Note: The actions, result, step cost and goal test functions of the problem
+ * and the heuristic function are called concurrently from all worker threads,
+ * and the states must provide consistent <code>hashCode</code> and
+ * <code>equals</code> implementations.
+ */
+public class HashDistributedAStarSearch implements Search {
+	public static final String METRIC_NODES_EXPANDED = NodeExpander.METRIC_NODES_EXPANDED;
+	public static final String METRIC_NODES_SENT = "nodesSent";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private final HeuristicFunction hf;
+	private final int numberOfThreads;
+	private final Metrics metrics = new Metrics();
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongCounter nodesSent = metrics
+			.counter(METRIC_NODES_SENT);
+
+	// shared state of the current search
+	private Worker[] workers;
+	private AtomicLong outstanding;
+	private volatile boolean stopped;
+	private Node incumbent;
+	private volatile double incumbentCost;
+	// the first exception or error thrown by a worker, guarded by this
+	private Throwable failure;
+
+	/**
+	 * Constructs a search which uses one worker thread per available
+	 * processor.
+	 *
+	 * @param hf
+	 *            a heuristic function, which should be admissible.
+	 */
+	public HashDistributedAStarSearch(HeuristicFunction hf) {
+		this(hf, Runtime.getRuntime().availableProcessors());
+	}
+
+	/**
+	 * Constructs a search with the specified number of worker threads.
+	 *
+	 * @param hf
+	 *            a heuristic function, which should be admissible.
+	 * @param numberOfThreads
+	 *            the number of worker threads.
+	 */
+	public HashDistributedAStarSearch(HeuristicFunction hf,
+			int numberOfThreads) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException(
+					"At least one worker thread is required.");
+		}
+		this.hf = hf;
+		this.numberOfThreads = numberOfThreads;
+		clearInstrumentation();
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		workers = new Worker[numberOfThreads];
+		for (int i = 0; i < numberOfThreads; i++) {
+			workers[i] = new Worker(p);
+		}
+		outstanding = new AtomicLong();
+		stopped = false;
+		incumbent = null;
+		incumbentCost = Double.POSITIVE_INFINITY;
+		synchronized (this) {
+			failure = null;
+		}
+
+		send(new Node(p.getInitialState()));
+		Thread[] threads = new Thread[numberOfThreads];
+		for (int i = 0; i < numberOfThreads; i++) {
+			threads[i] = new Thread(workers[i], "HDA*-worker-" + i);
+			threads[i].setDaemon(true);
+			threads[i].start();
+		}
+		try {
+			for (Thread t : threads) {
+				// Poll so that a cancellation of the calling thread is
+				// propagated to the workers
+				while (t.isAlive()) {
+					if (CancelableThread.currIsCanceled()) {
+						stopped = true;
+					}
+					t.join(20);
+				}
+			}
+		} finally {
+			stopped = true;
+		}
+
+		for (Worker w : workers) {
+			nodesExpanded.add(w.getNodesExpanded());
+			nodesSent.add(w.sent);
+		}
+		Node solution = incumbent;
+		workers = null;
+		synchronized (this) {
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			if (null != failure) {
+				throw (Exception) failure;
+			}
+		}
+		if (null == solution || CancelableThread.currIsCanceled()) {
+			return Collections.emptyList();
+		}
+		metrics.set(METRIC_PATH_COST, solution.getPathCost());
+		return SearchUtils.actionsFromNodes(solution.getPathFromRoot());
+	}
+
+	public Metrics getMetrics() {
+		return metrics;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	public void clearInstrumentation() {
+		nodesExpanded.reset();
+		nodesSent.reset();
+		metrics.set(METRIC_PATH_COST, 0.0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Increments the number of outstanding nodes before the node becomes
+	// visible to its owner, so that the count cannot drop to zero while work
+	// is left.
+	private void send(Node node) {
+		outstanding.incrementAndGet();
+		workers[owner(node.getState())].mailbox.offer(node);
+	}
+
+	private int owner(Object state) {
+		int h = state.hashCode();
+		// spread the bits, as for example map locations or boards may have
+		// hash codes with regular low order bits
+		h ^= (h >>> 20) ^ (h >>> 12);
+		h ^= (h >>> 7) ^ (h >>> 4);
+		return (h & 0x7fffffff) % workers.length;
+	}
+
+	// records the first failure of a worker and stops all workers, whose
+	// nodes would otherwise never be processed
+	private synchronized void fail(Throwable t) {
+		if (null == failure) {
+			failure = t;
+		}
+		stopped = true;
+	}
+
+	private synchronized void updateIncumbent(Node goal) {
+		if (goal.getPathCost() < incumbentCost) {
+			incumbent = goal;
+			incumbentCost = goal.getPathCost();
+		}
+	}
+
+	private class Worker extends NodeExpander implements Runnable {
+		private final Problem problem;
+		private final ConcurrentLinkedQueue<Node> mailbox = new ConcurrentLinkedQueue<Node>();
+		private final PriorityQueue<OpenEntry> open = new PriorityQueue<OpenEntry>(
+				64, OPEN_ORDER);
+		// best known path cost for each owned state (open or closed)
+		private final HashMap<Object, Double> bestG = new HashMap<Object, Double>();
+		private long sent = 0;
+
+		Worker(Problem problem) {
+			this.problem = problem;
+			clearInstrumentation();
+		}
+
+		public void run() {
+			try {
+				work();
+			} catch (Throwable t) {
+				// also errors, e.g. a stack overflow in the heuristic
+				fail(t);
+			}
+		}
+
+		private void work() {
+			int idle = 0;
+			while (!stopped) {
+				boolean received = receive();
+				OpenEntry entry = open.poll();
+				if (null != entry) {
+					idle = 0;
+					process(entry.node, entry.f);
+					outstanding.decrementAndGet();
+				} else if (!received) {
+					if (0 == outstanding.get()) {
+						break;
+					}
+					// back off while other workers are busy
+					if (++idle < 64) {
+						Thread.yield();
+					} else {
+						LockSupport.parkNanos(50000);
+					}
+				}
+			}
+		}
+
+		private boolean receive() {
+			boolean received = false;
+			Node node;
+			while (null != (node = mailbox.poll())) {
+				received = true;
+				Double g = bestG.get(node.getState());
+				if (null != g && g <= node.getPathCost()) {
+					// duplicate which is not cheaper
+					outstanding.decrementAndGet();
+				} else {
+					bestG.put(node.getState(), node.getPathCost());
+					open.add(new OpenEntry(node, node.getPathCost()
+							+ hf.h(node.getState())));
+				}
+			}
+			return received;
+		}
+
+		private void process(Node node, double nodeF) {
+			// skip nodes superseded by a cheaper path to the same state
+			if (node.getPathCost() > bestG.get(node.getState())) {
+				return;
+			}
+			// prune nodes which cannot lead to a better solution
+			if (nodeF >= incumbentCost) {
+				return;
+			}
+			if (SearchUtils.isGoalState(problem, node)) {
+				updateIncumbent(node);
+				return;
+			}
+			for (Node child : expandNode(node, problem)) {
+				sent++;
+				send(child);
+			}
+		}
+	}
+
+	private static final Comparator<OpenEntry> OPEN_ORDER = new Comparator<OpenEntry>() {
+		public int compare(OpenEntry e1, OpenEntry e2) {
+			int result = Double.compare(e1.f, e2.f);
+			if (0 == result) {
+				// prefer deeper nodes on ties
+				result = Double.compare(e2.node.getPathCost(),
+						e1.node.getPathCost());
+			}
+			return result;
+		}
+	};
+
+	private static class OpenEntry {
+		final Node node;
+		final double f;
+
+		OpenEntry(Node node, double f) {
+			this.node = node;
+			this.f = f;
+		}
+	}
+}
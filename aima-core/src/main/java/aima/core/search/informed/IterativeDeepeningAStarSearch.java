@@ -0,0 +1,239 @@
+package aima.core.search.informed;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.EvaluationFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.search.framework.StepCostFunction;
+import aima.core.util.CancelableThread;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 99.<br>
+ * <br>
+ * Iterative-deepening A* (IDA*), see R. E. Korf: Depth-First Iterative
+ * Deepening: An Optimal Admissible Tree Search, Artificial Intelligence 27,
+ * 1985.<br>
+ * <br>
+ * A series of depth-first searches, each of which is bounded by an f-cost
+ * limit instead of a depth limit. The first limit is the f-cost of the root,
+ * each further limit is the smallest f-cost of any node that exceeded the
+ * limit of the previous iteration. If the evaluation function is f(n) = g(n) +
+ * h(n) with an admissible heuristic h, the first solution found is optimal.<br>
+ * <br>
+ * The children of a node are generated one at a time, and a child whose state
+ * is the state of its grandparent is not generated at all. Optionally, a
+ * bounded transposition table prunes nodes whose state has already been
+ * reached in the current iteration with a path cost which is not greater.
+ */
+public class IterativeDeepeningAStarSearch extends NodeExpander implements
+		Search {
+	public static final String METRIC_ITERATIONS = "iterations";
+	public static final String METRIC_F_LIMIT = "fLimit";
+	public static final String METRIC_MAX_RECURSIVE_DEPTH = "maxRecursiveDepth";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private final EvaluationFunction evaluationFunction;
+	private final int transpositionTableSize;
+	// the same counter as the one updated by expandNode()
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongCounter iterations = metrics
+			.counter(METRIC_ITERATIONS);
+	private final Metrics.LongGauge maxRecursiveDepth = metrics
+			.gauge(METRIC_MAX_RECURSIVE_DEPTH);
+
+	// state of the current search
+	private Problem problem;
+	private TranspositionTable transpositionTable;
+
+	/**
+	 * Constructs an IDA* search without transposition table.
+	 *
+	 * @param ef
+	 *            the evaluation function, usually an
+	 *            {@link AStarEvaluationFunction}.
+	 */
+	public IterativeDeepeningAStarSearch(EvaluationFunction ef) {
+		this(ef, 0);
+	}
+
+	/**
+	 * Constructs an IDA* search with a transposition table.
+	 *
+	 * @param ef
+	 *            the evaluation function, usually an
+	 *            {@link AStarEvaluationFunction}.
+	 * @param transpositionTableSize
+	 *            the maximum number of states kept in the transposition table,
+	 *            the least recently used ones are evicted first. 0 disables
+	 *            the table.
+	 */
+	public IterativeDeepeningAStarSearch(EvaluationFunction ef,
+			int transpositionTableSize) {
+		if (transpositionTableSize < 0) {
+			throw new IllegalArgumentException(
+					"Transposition table size must not be negative.");
+		}
+		this.evaluationFunction = ef;
+		this.transpositionTableSize = transpositionTableSize;
+		clearInstrumentation();
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		problem = p;
+		transpositionTable = transpositionTableSize > 0 ? new TranspositionTable(
+				transpositionTableSize) : null;
+		List<Action> actions = new ArrayList<Action>();
+		try {
+			Node root = new Node(p.getInitialState());
+			double fLimit = evaluationFunction.f(root);
+			while (!CancelableThread.currIsCanceled()) {
+				iterations.increment();
+				metrics.set(METRIC_F_LIMIT, fLimit);
+				if (null != transpositionTable) {
+					transpositionTable.clear();
+				}
+				ContourResult result = new ContourResult();
+				contour(root, fLimit, 0, result);
+				if (null != result.solution) {
+					actions = SearchUtils.actionsFromNodes(result.solution
+							.getPathFromRoot());
+					metrics.set(METRIC_PATH_COST,
+							result.solution.getPathCost());
+					break;
+				}
+				if (Double.isInfinite(result.nextFLimit)
+						|| CancelableThread.currIsCanceled()) {
+					break;
+				}
+				fLimit = result.nextFLimit;
+			}
+		} finally {
+			problem = null;
+			transpositionTable = null;
+		}
+		// Empty List can indicate already at Goal
+		// or unable to find valid set of actions
+		return actions;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		iterations.reset();
+		maxRecursiveDepth.reset();
+		metrics.set(METRIC_F_LIMIT, 0.0);
+		metrics.set(METRIC_PATH_COST, 0.0);
+	}
+
+	public int getIterations() {
+		return (int) iterations.get();
+	}
+
+	public int getMaxRecursiveDepth() {
+		return (int) maxRecursiveDepth.get();
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(METRIC_PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// Searches the subtree below the node up to the f-cost limit. Returns
+	// true if a solution was found, otherwise the smallest f-cost exceeding the
+	// limit is recorded in the result as the limit of the next iteration.
+	private boolean contour(Node node, double fLimit, int depth,
+			ContourResult result) {
+		double f = evaluationFunction.f(node);
+		if (f > fLimit) {
+			if (f < result.nextFLimit) {
+				result.nextFLimit = f;
+			}
+			return false;
+		}
+		if (null != transpositionTable) {
+			Double g = transpositionTable.get(node.getState());
+			if (null != g && g <= node.getPathCost()) {
+				// the subtree was already searched with a larger budget
+				return false;
+			}
+			transpositionTable.put(node.getState(), node.getPathCost());
+		}
+		if (SearchUtils.isGoalState(problem, node)) {
+			result.solution = node;
+			return true;
+		}
+		if (CancelableThread.currIsCanceled()) {
+			return false;
+		}
+		maxRecursiveDepth.updateMax(depth);
+		nodesExpanded.increment();
+
+		// generate the children one at a time instead of via expandNode()
+		ActionsFunction actionsFunction = problem.getActionsFunction();
+		ResultFunction resultFunction = problem.getResultFunction();
+		StepCostFunction stepCostFunction = problem.getStepCostFunction();
+		Object state = node.getState();
+		Object grandparentState = node.isRootNode() ? null : node.getParent()
+				.getState();
+		for (Iterator<Action> it = SearchUtils.actionIterator(actionsFunction,
+				state); it.hasNext();) {
+			Action action = it.next();
+			Object successor = resultFunction.result(state, action);
+			if (successor.equals(grandparentState)) {
+				continue;
+			}
+			Node child = new Node(successor, node, action,
+					stepCostFunction.c(state, action, successor));
+			if (contour(child, fLimit, depth + 1, result)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static class ContourResult {
+		Node solution = null;
+		double nextFLimit = Double.POSITIVE_INFINITY;
+	}
+
+	/**
+	 * Maps states to the smallest path cost with which they have been reached
+	 * in the current iteration, evicting the least recently used state when
+	 * full.
+	 */
+	private static class TranspositionTable extends
+			LinkedHashMap<Object, Double> {
+		private static final long serialVersionUID = 1L;
+		private final int maxSize;
+
+		TranspositionTable(int maxSize) {
+			super(16, 0.75f, true);
+			this.maxSize = maxSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Map.Entry<Object, Double> eldest) {
+			return size() > maxSize;
+		}
+	}
+}
@@ -1,15 +1,21 @@
 package aima.core.search.informed;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.List;
 
 import aima.core.agent.Action;
+import aima.core.search.framework.BudgetedSearchResult;
 import aima.core.search.framework.EvaluationFunction;
+import aima.core.search.framework.Metrics;
 import aima.core.search.framework.Node;
 import aima.core.search.framework.NodeExpander;
 import aima.core.search.framework.Problem;
 import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchBudget;
 import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.26, page
@@ -36,7 +42,18 @@ import aima.core.search.framework.SearchUtils;
  *     if result != failure then return result
  * </pre>
  * 
- * Figure 3.26 The algorithm for recursive best-first search.
+ * Figure 3.26 The algorithm for recursive best-first search.<br>
+ * <br>
+ * The search can be limited by a {@link SearchBudget}, in which case the nodes
+ * held in memory are the nodes on the current path and their successors. The
+ * expanded nodes are only ranked if the budget is limited or a ranking has
+ * been set explicitly.<br>
+ * <br>
+ * The recursion is implemented with an explicit stack kept in arrays, which
+ * are reused by subsequent searches. Solutions at a depth of many thousands
+ * of steps are therefore found without exhausting the call stack of the
+ * thread, and the depth of the current path is still reported as the
+ * recursive depth.
  * 
  * @author Ciaran O'Reilly
  * @author Mike Stampone
@@ -49,7 +66,30 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 
 	private static final String PATH_COST = "pathCost";
 
-	private static final Double INFINITY = Double.MAX_VALUE;
+	private static final double INFINITY = Double.MAX_VALUE;
+
+	private static final int INITIAL_CAPACITY = 64;
+
+	private final Metrics.LongGauge maxRecursiveDepth = metrics
+			.gauge(MAX_RECURSIVE_DEPTH);
+
+	private SearchBudget searchBudget = SearchBudget.UNLIMITED;
+	private EvaluationFunction bestNodeEvaluationFunction = null;
+	private BudgetedSearchResult lastSearchResult = null;
+	// state of the current search
+	private SearchBudget.Monitor monitor = null;
+	private BudgetedSearchResult.StopReason stopReason = null;
+	private long nodesInMemory = 0;
+	private boolean rankNodes = false;
+	private Node bestNode = null;
+	private double bestNodeValue = Double.NaN;
+	// the frames of the explicit stack, see rbfs()
+	private double[] frameFLimit = new double[INITIAL_CAPACITY];
+	private int[] frameStart = new int[INITIAL_CAPACITY];
+	private int[] frameSize = new int[INITIAL_CAPACITY];
+	private int[] frameBest = new int[INITIAL_CAPACITY];
+	private Node[] successors = new Node[INITIAL_CAPACITY];
+	private double[] successorF = new double[INITIAL_CAPACITY];
 
 	public RecursiveBestFirstSearch(EvaluationFunction ef) {
 		evaluationFunction = ef;
@@ -61,15 +101,30 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 		List<Action> actions = new ArrayList<Action>();
 
 		clearInstrumentation();
+		monitor = searchBudget.start();
+		stopReason = null;
+		nodesInMemory = 1;
+		rankNodes = null != bestNodeEvaluationFunction
+				|| !searchBudget.isUnlimited();
+		bestNode = null;
+		bestNodeValue = Double.NaN;
 
 		// RBFS(problem, MAKE-NODE(INITIAL-STATE[problem]), infinity)
 		Node n = new Node(p.getInitialState());
-		SearchResult sr = rbfs(p, n, evaluationFunction.f(n), INFINITY, 0);
-		if (sr.getOutcome() == SearchResult.SearchOutcome.SOLUTION_FOUND) {
-			Node s = sr.getSolution();
+		Node s = rbfs(p, n);
+		if (null != s) {
 			actions = SearchUtils.actionsFromNodes(s.getPathFromRoot());
 			setPathCost(s.getPathCost());
+			bestNode = s;
+			bestNodeValue = getBestNodeEvaluationFunction().f(s);
+			stopReason = BudgetedSearchResult.StopReason.SOLUTION_FOUND;
+		} else if (null == stopReason) {
+			stopReason = BudgetedSearchResult.StopReason.SEARCH_SPACE_EXHAUSTED;
 		}
+		lastSearchResult = new BudgetedSearchResult(stopReason, actions,
+				bestNode, bestNodeValue, getNodesExpanded(),
+				monitor.getMaxNodesInMemory(), monitor.getElapsedMillis());
+		monitor = null;
 
 		// Empty List can indicate already at Goal
 		// or unable to find valid set of actions
@@ -82,7 +137,7 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	@Override
 	public void clearInstrumentation() {
 		super.clearInstrumentation();
-		metrics.set(MAX_RECURSIVE_DEPTH, 0);
+		maxRecursiveDepth.reset();
 		metrics.set(PATH_COST, 0.0);
 	}
 
@@ -94,10 +149,7 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	 *            the depth of the current path
 	 */
 	public void setMaxRecursiveDepth(int recursiveDepth) {
-		int maxRdepth = metrics.getInt(MAX_RECURSIVE_DEPTH);
-		if (recursiveDepth > maxRdepth) {
-			metrics.set(MAX_RECURSIVE_DEPTH, recursiveDepth);
-		}
+		maxRecursiveDepth.updateMax(recursiveDepth);
 	}
 
 	/**
@@ -106,7 +158,57 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	 * @return the maximum recursive depth.
 	 */
 	public int getMaxRecursiveDepth() {
-		return metrics.getInt(MAX_RECURSIVE_DEPTH);
+		return (int) maxRecursiveDepth.get();
+	}
+
+	public SearchBudget getSearchBudget() {
+		return searchBudget;
+	}
+
+	/**
+	 * Sets the budget of subsequent searches. A search which runs out of
+	 * budget returns failure, the best node found so far is reported by
+	 * {@link #getLastSearchResult()}.
+	 * 
+	 * @param searchBudget
+	 *            the budget, or null if searches are not to be limited.
+	 */
+	public void setSearchBudget(SearchBudget searchBudget) {
+		this.searchBudget = null == searchBudget ? SearchBudget.UNLIMITED
+				: searchBudget;
+	}
+
+	/**
+	 * Returns the function used to rank the expanded nodes, by default the
+	 * evaluation function of the search.
+	 * 
+	 * @return the function used to rank the expanded nodes.
+	 */
+	public EvaluationFunction getBestNodeEvaluationFunction() {
+		return null == bestNodeEvaluationFunction ? evaluationFunction
+				: bestNodeEvaluationFunction;
+	}
+
+	/**
+	 * Sets the function used to rank the expanded nodes, the node with the
+	 * lowest value is reported as the best node found so far.
+	 * 
+	 * @param ef
+	 *            an evaluation function, e.g. h alone, or null to rank the
+	 *            nodes by the evaluation function of the search.
+	 */
+	public void setBestNodeEvaluationFunction(EvaluationFunction ef) {
+		this.bestNodeEvaluationFunction = ef;
+	}
+
+	/**
+	 * Returns the outcome of the last search, including why it stopped and the
+	 * best node found.
+	 * 
+	 * @return the outcome of the last search, or null if there was none.
+	 */
+	public BudgetedSearchResult getLastSearchResult() {
+		return lastSearchResult;
 	}
 
 	/**
@@ -133,62 +235,128 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	//
 	// function RBFS(problem, node, f_limit) returns a solution, or failure and
 	// a new f-cost limit
-	private SearchResult rbfs(Problem p, Node n, double node_f, double fLimit,
-			int recursiveDepth) {
-
-		setMaxRecursiveDepth(recursiveDepth);
-
-		// if problem.GOAL-TEST(node.STATE) then return SOLUTION(node)
-		if (SearchUtils.isGoalState(p, n)) {
-			return new SearchResult(n, fLimit);
-		}
-
-		// successors <- []
-		// for each action in problem.ACTION(node.STATE) do
-		// add CHILD-NODE(problem, node, action) into successors
-		List<Node> successors = expandNode(n, p);
-		// if successors is empty then return failure, infinity
-		if (0 == successors.size()) {
-			return new SearchResult(null, INFINITY);
-		}
-		double[] f = new double[successors.size()];
-		// for each s in successors do
-		// update f with value from previous search, if any
-		int size = successors.size();
-		for (int s = 0; s < size; s++) {
-			// s.f <- max(s.g + s.h, node.f)
-			f[s] = Math.max(evaluationFunction.f(successors.get(s)), node_f);
+	//
+	// The recursion is replaced by an explicit stack: frame d holds the node
+	// at depth d which is expanded, its f-limit and the range of its
+	// successors in the successor arrays, which grow like a stack as well.
+	private Node rbfs(Problem p, Node root) {
+		// the frames on the stack
+		int depth = 0;
+		// the end of the successors of the top frame
+		int top = 0;
+		// the arguments of the current call
+		Node n = root;
+		double node_f = evaluationFunction.f(root);
+		double fLimit = INFINITY;
+		try {
+			while (true) {
+				setMaxRecursiveDepth(depth);
+
+				// if problem.GOAL-TEST(node.STATE) then return SOLUTION(node)
+				// (if result != failure then return result, in all callers)
+				if (SearchUtils.isGoalState(p, n)) {
+					return n;
+				}
+				// give up if the budget has run out or the search was canceled
+				stopReason = monitor.check(getNodesExpanded(), nodesInMemory);
+				if (null == stopReason && CancelableThread.currIsCanceled()) {
+					stopReason = BudgetedSearchResult.StopReason.CANCELED;
+				}
+				if (null != stopReason) {
+					return null;
+				}
+				rankNode(n);
+				if (null != tracer) {
+					tracer.setFrontierSize((int) nodesInMemory);
+				}
+
+				// successors <- []
+				// for each action in problem.ACTION(node.STATE) do
+				// add CHILD-NODE(problem, node, action) into successors
+				// for each s in successors do
+				// update f with value from previous search, if any
+				int size = 0;
+				Iterator<Node> children = successors(n, p);
+				while (children.hasNext()) {
+					ensureSuccessorCapacity(top + size + 1);
+					Node s = children.next();
+					successors[top + size] = s;
+					// s.f <- max(s.g + s.h, node.f)
+					successorF[top + size] = Math.max(evaluationFunction.f(s),
+							node_f);
+					size++;
+				}
+				// if successors is empty then return failure, infinity
+				boolean failed = 0 == size;
+				double fCost = INFINITY;
+				if (!failed) {
+					ensureFrameCapacity(depth + 1);
+					frameFLimit[depth] = fLimit;
+					frameStart[depth] = top;
+					frameSize[depth] = size;
+					top += size;
+					depth++;
+					nodesInMemory += size;
+				}
+
+				// repeat, for the frame on top of the stack
+				while (true) {
+					if (failed) {
+						if (0 == depth) {
+							return null;
+						}
+						// result, best.f <- RBFS(problem, best, ...)
+						successorF[frameBest[depth - 1]] = fCost;
+					}
+					int d = depth - 1;
+					int start = frameStart[d];
+					int end = start + frameSize[d];
+					// best <- the lowest f-value node in successors
+					int bestIndex = getBestFValueIndex(start, end);
+					// if best.f > f_limit then return failure, best.f
+					if (successorF[bestIndex] > frameFLimit[d]) {
+						fCost = successorF[bestIndex];
+						Arrays.fill(successors, start, end, null);
+						nodesInMemory -= frameSize[d];
+						top = start;
+						depth = d;
+						failed = true;
+						continue;
+					}
+					// alternative <- the second-lowest f-value among successors
+					int altIndex = getNextBestFValueIndex(start, end, bestIndex);
+					// result, best.f <- RBFS(problem, best, min(f_limit,
+					// alternative))
+					frameBest[d] = bestIndex;
+					n = successors[bestIndex];
+					node_f = successorF[bestIndex];
+					fLimit = Math.min(frameFLimit[d], successorF[altIndex]);
+					break;
+				}
+			}
+		} finally {
+			Arrays.fill(successors, 0, top, null);
 		}
+	}
 
-		// repeat
-		while (true) {
-			// best <- the lowest f-value node in successors
-			int bestIndex = getBestFValueIndex(f);
-			// if best.f > f_limit then return failure, best.f
-			if (f[bestIndex] > fLimit) {
-				return new SearchResult(null, f[bestIndex]);
-			}
-			// if best.f > f_limit then return failure, best.f
-			int altIndex = getNextBestFValueIndex(f, bestIndex);
-			// result, best.f <- RBFS(problem, best, min(f_limit, alternative))
-			SearchResult sr = rbfs(p, successors.get(bestIndex), f[bestIndex],
-					Math.min(fLimit, f[altIndex]), recursiveDepth + 1);
-			f[bestIndex] = sr.getFCostLimit();
-			// if result != failure then return result
-			if (sr.getOutcome() == SearchResult.SearchOutcome.SOLUTION_FOUND) {
-				return sr;
+	private void rankNode(Node n) {
+		if (rankNodes) {
+			double value = getBestNodeEvaluationFunction().f(n);
+			if (null == bestNode || value < bestNodeValue) {
+				bestNode = n;
+				bestNodeValue = value;
 			}
 		}
 	}
 
 	// the lowest f-value node
-	private int getBestFValueIndex(double[] f) {
-		int lidx = 0;
-		Double lowestSoFar = INFINITY;
+	private int getBestFValueIndex(int start, int end) {
+		int lidx = start;
+		double lowestSoFar = INFINITY;
 
-		for (int i = 0; i < f.length; i++) {
-			if (f[i] < lowestSoFar) {
-				lowestSoFar = f[i];
+		for (int i = start; i < end; i++) {
+			if (successorF[i] < lowestSoFar) {
+				lowestSoFar = successorF[i];
 				lidx = i;
 			}
 		}
@@ -197,53 +365,37 @@ public class RecursiveBestFirstSearch extends NodeExpander implements Search {
 	}
 
 	// the second-lowest f-value
-	private int getNextBestFValueIndex(double[] f, int bestIndex) {
-		// Array may only contain 1 item (i.e. no alternative),
+	private int getNextBestFValueIndex(int start, int end, int bestIndex) {
+		// The frame may only contain 1 item (i.e. no alternative),
 		// therefore default to bestIndex initially
 		int lidx = bestIndex;
-		Double lowestSoFar = INFINITY;
+		double lowestSoFar = INFINITY;
 
-		for (int i = 0; i < f.length; i++) {
-			if (i != bestIndex && f[i] < lowestSoFar) {
-				lowestSoFar = f[i];
+		for (int i = start; i < end; i++) {
+			if (i != bestIndex && successorF[i] < lowestSoFar) {
+				lowestSoFar = successorF[i];
 				lidx = i;
 			}
 		}
 
 		return lidx;
 	}
-}
-
-class SearchResult {
-	public enum SearchOutcome {
-		FAILURE, SOLUTION_FOUND
-	};
-
-	private Node solution;
 
-	private SearchOutcome outcome;
-
-	private final Double fCostLimit;
-
-	public SearchResult(Node solution, Double fCostLimit) {
-		if (null == solution) {
-			this.outcome = SearchOutcome.FAILURE;
-		} else {
-			this.outcome = SearchOutcome.SOLUTION_FOUND;
-			this.solution = solution;
+	private void ensureFrameCapacity(int capacity) {
+		if (capacity > frameStart.length) {
+			int length = Math.max(capacity, 2 * frameStart.length);
+			frameFLimit = Arrays.copyOf(frameFLimit, length);
+			frameStart = Arrays.copyOf(frameStart, length);
+			frameSize = Arrays.copyOf(frameSize, length);
+			frameBest = Arrays.copyOf(frameBest, length);
 		}
-		this.fCostLimit = fCostLimit;
 	}
 
-	public SearchOutcome getOutcome() {
-		return outcome;
-	}
-
-	public Node getSolution() {
-		return solution;
-	}
-
-	public Double getFCostLimit() {
-		return fCostLimit;
+	private void ensureSuccessorCapacity(int capacity) {
+		if (capacity > successors.length) {
+			int length = Math.max(capacity, 2 * successors.length);
+			successors = Arrays.copyOf(successors, length);
+			successorF = Arrays.copyOf(successorF, length);
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,351 @@
+package aima.core.search.informed;
+
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.TreeSet;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 101.<br>
+ * <br>
+ * Simplified memory-bounded A* (SMA*), see S. Russell: Efficient
+ * Memory-Bounded Search Methods, ECAI 1992.<br>
+ * <br>
+ * SMA* proceeds just like A*, expanding the best leaf until memory is full. It
+ * generates the successors of a node one at a time, and at no time retains
+ * more nodes than the specified limit. When memory is full, it drops the worst
+ * leaf node (the one with the highest f-value, the shallowest one on ties) and
+ * backs up the value of the forgotten node to its parent. The forgotten
+ * subtree is regenerated only when all other paths have been shown to look
+ * worse than the path it has forgotten. The best node is the deepest one
+ * among those with the lowest f-value.<br>
+ * <br>
+ * A node at the maximum depth which memory allows (i.e. limit - 1) cannot be
+ * on a solution path unless it is a goal, and its f-value is set to infinity.
+ * If the heuristic is admissible, SMA* returns the optimal solution reachable
+ * within the memory limit, and fails if no solution is reachable.
+ */
+public class SimplifiedMemoryBoundedAStarSearch extends NodeExpander
+		implements Search {
+	public static final String METRIC_NODES_GENERATED = "nodesGenerated";
+	public static final String METRIC_NODES_FORGOTTEN = "nodesForgotten";
+	public static final String METRIC_MAX_NODES_IN_MEMORY = "maxNodesInMemory";
+	public static final String METRIC_PATH_COST = "pathCost";
+
+	private final HeuristicFunction hf;
+	private final int maxNodes;
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongCounter nodesGenerated = metrics
+			.counter(METRIC_NODES_GENERATED);
+	private final Metrics.LongCounter nodesForgotten = metrics
+			.counter(METRIC_NODES_FORGOTTEN);
+	private final Metrics.LongGauge maxNodesInMemory = metrics
+			.gauge(METRIC_MAX_NODES_IN_MEMORY);
+
+	// state of the current search
+	private Problem problem;
+	// the nodes with successors which are not in memory, i.e. all leaves
+	private TreeSet<SmaNode> open;
+	private int nodesInMemory;
+	private long nextId;
+
+	/**
+	 * Constructs an SMA* search.
+	 *
+	 * @param hf
+	 *            a heuristic function, which should be admissible.
+	 * @param maxNodes
+	 *            the maximum number of nodes retained in memory.
+	 */
+	public SimplifiedMemoryBoundedAStarSearch(HeuristicFunction hf,
+			int maxNodes) {
+		if (maxNodes < 1) {
+			throw new IllegalArgumentException(
+					"At least one node must fit into memory.");
+		}
+		this.hf = hf;
+		this.maxNodes = maxNodes;
+		clearInstrumentation();
+	}
+
+	public int getMaxNodes() {
+		return maxNodes;
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		problem = p;
+		open = new TreeSet<SmaNode>(BEST_FIRST);
+		nodesInMemory = 0;
+		nextId = 0;
+		try {
+			Node root = new Node(p.getInitialState());
+			SmaNode rootEntry = new SmaNode(root, null, -1, 0);
+			rootEntry.f = hf.h(root.getState());
+			addToMemory(rootEntry);
+
+			while (!open.isEmpty() && !CancelableThread.currIsCanceled()) {
+				SmaNode best = open.first();
+				if (Double.isInfinite(best.f)) {
+					// no solution within the memory limit
+					break;
+				}
+				if (SearchUtils.isGoalState(problem, best.node)) {
+					metrics.set(METRIC_PATH_COST, best.node.getPathCost());
+					return SearchUtils.actionsFromNodes(best.node
+							.getPathFromRoot());
+				}
+				generateNextSuccessor(best);
+			}
+		} finally {
+			problem = null;
+			open = null;
+		}
+		// Empty List indicates that no solution was found
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		nodesGenerated.reset();
+		nodesForgotten.reset();
+		maxNodesInMemory.reset();
+		metrics.set(METRIC_PATH_COST, 0.0);
+	}
+
+	public int getNodesGenerated() {
+		return (int) nodesGenerated.get();
+	}
+
+	public int getNodesForgotten() {
+		return (int) nodesForgotten.get();
+	}
+
+	public int getMaxNodesInMemory() {
+		return (int) maxNodesInMemory.get();
+	}
+
+	public double getPathCost() {
+		return metrics.getDouble(METRIC_PATH_COST);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void generateNextSuccessor(SmaNode n) {
+		if (null == n.actions) {
+			// (re)expanded, the actions of a forgotten node are not retained
+			nodesExpanded.increment();
+			n.actions = problem.getActionsFunction().actions(n.node.getState())
+					.toArray(new Action[0]);
+			n.children = new SmaNode[n.actions.length];
+			n.forgottenF = new double[n.actions.length];
+			if (0 == n.actions.length) {
+				// dead end
+				updateF(n, Double.POSITIVE_INFINITY);
+				backup(n.parent);
+				return;
+			}
+		}
+		int slot = nextSlot(n);
+		Action action = n.actions[slot];
+		Object state = n.node.getState();
+		Object successor = problem.getResultFunction().result(state, action);
+		Node child = newChildNode(successor, n.node, action, problem
+				.getStepCostFunction().c(state, action, successor));
+		nodesGenerated.increment();
+
+		SmaNode s = new SmaNode(child, n, slot, n.depth + 1);
+		if (s.depth >= maxNodes - 1
+				&& !SearchUtils.isGoalState(problem, child)) {
+			// memory does not allow to reach a goal below this node
+			s.f = Double.POSITIVE_INFINITY;
+		} else {
+			// pathmax, and the value backed up before it was forgotten
+			s.f = Math.max(n.f, child.getPathCost() + hf.h(successor));
+			if (n.forgottenF[slot] > s.f) {
+				s.f = n.forgottenF[slot];
+			}
+		}
+		if (n.nextSlot < n.actions.length) {
+			n.nextSlot++;
+		}
+		// if memory is full, make room for the successor
+		if (nodesInMemory >= maxNodes && !forgetWorstLeaf(n)) {
+			// memory is filled by the path to the node (whose successors
+			// cannot be on a solution path), forget the successor right away
+			n.forgottenF[slot] = s.f;
+			nodesForgotten.increment();
+			if (n.nextSlot == n.actions.length) {
+				backup(n);
+			}
+			return;
+		}
+		n.children[slot] = s;
+		if (isExpandedInMemory(n)) {
+			open.remove(n);
+		}
+		addToMemory(s);
+		if (n.nextSlot == n.actions.length) {
+			// all successors have been generated at least once
+			backup(n);
+		}
+	}
+
+	// The successors are generated in the order of the actions, then the
+	// forgotten successor with the lowest backed up value is regenerated.
+	private int nextSlot(SmaNode n) {
+		if (n.nextSlot < n.actions.length) {
+			return n.nextSlot;
+		}
+		int slot = -1;
+		for (int i = 0; i < n.children.length; i++) {
+			if (null == n.children[i]
+					&& (-1 == slot || n.forgottenF[i] < n.forgottenF[slot])) {
+				slot = i;
+			}
+		}
+		return slot;
+	}
+
+	private boolean isExpandedInMemory(SmaNode n) {
+		if (null == n.actions || n.nextSlot < n.actions.length
+				|| 0 == n.actions.length) {
+			return false;
+		}
+		for (SmaNode c : n.children) {
+			if (null == c) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Sets the value of a fully generated node to the lowest value of its
+	// successors (forgotten or not) and propagates changes to the ancestors.
+	private void backup(SmaNode n) {
+		while (null != n && null != n.actions
+				&& n.nextSlot == n.actions.length) {
+			double f = Double.POSITIVE_INFINITY;
+			for (int i = 0; i < n.children.length; i++) {
+				double cf = null == n.children[i] ? n.forgottenF[i]
+						: n.children[i].f;
+				if (cf < f) {
+					f = cf;
+				}
+			}
+			if (0 == n.children.length || f == n.f) {
+				break;
+			}
+			updateF(n, f);
+			n = n.parent;
+		}
+	}
+
+	private void updateF(SmaNode n, double f) {
+		boolean wasOpen = open.remove(n);
+		n.f = f;
+		if (wasOpen) {
+			open.add(n);
+		}
+	}
+
+	private void addToMemory(SmaNode n) {
+		open.add(n);
+		nodesInMemory++;
+		maxNodesInMemory.updateMax(nodesInMemory);
+	}
+
+	// Removes the leaf with the highest f-value (the shallowest one on ties),
+	// except for the node being expanded, and remembers its value in its
+	// parent.
+	private boolean forgetWorstLeaf(SmaNode expanded) {
+		for (Iterator<SmaNode> it = open.descendingIterator(); it.hasNext();) {
+			SmaNode w = it.next();
+			if (w == expanded || null == w.parent || !isLeaf(w)) {
+				continue;
+			}
+			it.remove();
+			nodesInMemory--;
+			nodesForgotten.increment();
+			SmaNode p = w.parent;
+			p.children[w.slot] = null;
+			p.forgottenF[w.slot] = w.f;
+			// the parent has a successor to regenerate
+			if (!open.contains(p)) {
+				open.add(p);
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private boolean isLeaf(SmaNode n) {
+		if (null != n.children) {
+			for (SmaNode c : n.children) {
+				if (null != c) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * A node of the search tree in memory.
+	 */
+	private class SmaNode {
+		final Node node;
+		final SmaNode parent;
+		// index of the action leading to this node in the parent
+		final int slot;
+		final int depth;
+		final long id = nextId++;
+		double f;
+		// null until the node is expanded
+		Action[] actions = null;
+		SmaNode[] children = null;
+		// the values of forgotten successors
+		double[] forgottenF = null;
+		// the number of successors generated at least once
+		int nextSlot = 0;
+
+		SmaNode(Node node, SmaNode parent, int slot, int depth) {
+			this.node = node;
+			this.parent = parent;
+			this.slot = slot;
+			this.depth = depth;
+		}
+	}
+
+	// lowest f-value first, the deepest one on ties, so that the worst leaf
+	// (highest f, shallowest) comes last
+	private static final Comparator<SmaNode> BEST_FIRST = new Comparator<SmaNode>() {
+		public int compare(SmaNode n1, SmaNode n2) {
+			int result = Double.compare(n1.f, n2.f);
+			if (0 == result) {
+				result = n2.depth - n1.depth;
+			}
+			if (0 == result) {
+				result = n1.id < n2.id ? -1 : (n1.id == n2.id ? 0 : 1);
+			}
+			return result;
+		}
+	};
+}
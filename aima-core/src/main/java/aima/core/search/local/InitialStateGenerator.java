@@ -0,0 +1,20 @@
+package aima.core.search.local;
+
+import aima.core.util.Randomizer;
+
+/**
+ * Generates random initial states of a problem, e.g. for the restarts of
+ * {@link RandomRestartHillClimbingSearch}.
+ */
+public interface InitialStateGenerator {
+
+	/**
+	 * Returns a new state chosen at random.
+	 * 
+	 * @param random
+	 *            the source of all random choices. Generators called from
+	 *            several threads receive a randomizer per thread.
+	 * @return a new state.
+	 */
+	Object generateInitialState(Randomizer random);
+}
@@ -0,0 +1,297 @@
+package aima.core.search.local;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 125.<br>
+ * <br>
+ * The local beam search algorithm keeps track of k states rather than just
+ * one. At each step, all the successors of all k states are generated. If any
+ * one is a goal, the algorithm halts. Otherwise, it selects the k best
+ * successors from the complete list and repeats.<br>
+ * <br>
+ * The beam starts with the initial state of the problem and is filled up with
+ * the best of its successors. As with hill climbing, a lower heuristic value
+ * is better, and the search stops at a local optimum, i.e. when no successor
+ * is better than the best state of the current beam. It returns the actions
+ * leading to the best state found, see {@link #getOutcome()}.<br>
+ * <br>
+ * If an executor is given, the states of the beam are expanded and their
+ * successors evaluated in parallel. The candidates are collected in the order
+ * of the beam and selected with ties broken by that order, so the search
+ * behaves exactly like the sequential one.<br>
+ * <br>
+ * <b>Note:</b> With an executor, the heuristic, actions and result functions
+ * of the problem are called from several threads, and no tracer must be
+ * attached.
+ */
+public class LocalBeamSearch extends NodeExpander implements Search {
+	public static final String METRIC_ITERATIONS = "iterations";
+	public static final String METRIC_BEST_VALUE = "bestValue";
+
+	protected final HeuristicFunction hf;
+	protected final int k;
+	private final ExecutorService executor;
+	private final Metrics.LongCounter iterations = metrics
+			.counter(METRIC_ITERATIONS);
+
+	private HillClimbingSearch.SearchOutcome outcome = HillClimbingSearch.SearchOutcome.FAILURE;
+	private Object lastState = null;
+
+	/**
+	 * Constructs a sequential local beam search.
+	 *
+	 * @param hf
+	 *            a heuristic function, 0 for goal states.
+	 * @param k
+	 *            the number of states kept in the beam.
+	 */
+	public LocalBeamSearch(HeuristicFunction hf, int k) {
+		this(hf, k, null);
+	}
+
+	/**
+	 * Constructs a local beam search which expands the states of the beam in
+	 * parallel.
+	 *
+	 * @param hf
+	 *            a heuristic function, 0 for goal states.
+	 * @param k
+	 *            the number of states kept in the beam.
+	 * @param executor
+	 *            the executor expanding the states of the beam, or null for a
+	 *            sequential search. The executor is not shut down by the
+	 *            search.
+	 */
+	public LocalBeamSearch(HeuristicFunction hf, int k,
+			ExecutorService executor) {
+		if (k < 1) {
+			throw new IllegalArgumentException("Beam width must be at least 1.");
+		}
+		this.hf = hf;
+		this.k = k;
+		this.executor = executor;
+	}
+
+	public int getBeamWidth() {
+		return k;
+	}
+
+	/**
+	 * Returns a list of actions to the best state found if the search was
+	 * completed, a list containing a single NoOp Action if this is the initial
+	 * state, or an empty list if the search was canceled.
+	 *
+	 * @param p
+	 *            the search problem
+	 *
+	 * @return a list of actions to the best state found.
+	 */
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		outcome = HillClimbingSearch.SearchOutcome.FAILURE;
+		lastState = null;
+		Node root = new Node(p.getInitialState());
+		Scored best = new Scored(root, hf.h(root.getState()));
+		List<Scored> beam = Collections.singletonList(best);
+		if (SearchUtils.isGoalState(p, root)) {
+			return solution(best, true);
+		}
+		int stepsWithoutImprovement = 0;
+		while (!CancelableThread.currIsCanceled()) {
+			iterations.increment();
+			// all the successors of all k states, in the order of the beam
+			List<Scored> candidates = new ArrayList<Scored>();
+			Set<Object> states = new HashSet<Object>();
+			for (List<Scored> successors : expandAll(beam, p)) {
+				for (Scored s : successors) {
+					if (s.goal) {
+						return solution(s, true);
+					}
+					if (states.add(s.node.getState())) {
+						candidates.add(s);
+					}
+				}
+			}
+			if (candidates.isEmpty()) {
+				break;
+			}
+			beam = selectSuccessors(candidates);
+			Scored beamBest = beam.get(0);
+			for (Scored s : beam) {
+				if (s.value < beamBest.value) {
+					beamBest = s;
+				}
+			}
+			if (beamBest.value < best.value) {
+				best = beamBest;
+				stepsWithoutImprovement = 0;
+			} else {
+				stepsWithoutImprovement++;
+				if (stepsWithoutImprovement > getMaxStepsWithoutImprovement()) {
+					break;
+				}
+			}
+		}
+		if (CancelableThread.currIsCanceled()) {
+			return new ArrayList<Action>();
+		}
+		return solution(best, false);
+	}
+
+	/**
+	 * Returns SOLUTION_FOUND if the best state found is a goal state, or
+	 * FAILURE otherwise.
+	 *
+	 * @return the outcome of the last search.
+	 */
+	public HillClimbingSearch.SearchOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Returns the best state found by the last search.
+	 *
+	 * @return the best state found by the last search.
+	 */
+	public Object getLastSearchState() {
+		return lastState;
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		iterations.reset();
+		metrics.set(METRIC_BEST_VALUE, 0.0);
+	}
+
+	public int getIterations() {
+		return (int) iterations.get();
+	}
+
+	//
+	// PROTECTED METHODS
+	//
+	/**
+	 * Selects the next beam from the candidates, which are distinct and in the
+	 * order of their generation. This implementation selects the k candidates
+	 * with the lowest heuristic values, the earlier generated ones on ties.
+	 *
+	 * @param candidates
+	 *            the successors of the states of the beam.
+	 * @return the next beam.
+	 */
+	protected List<Scored> selectSuccessors(List<Scored> candidates) {
+		List<Scored> sorted = new ArrayList<Scored>(candidates);
+		// stable, i.e. ties are broken by the order of generation
+		Collections.sort(sorted);
+		return sorted.subList(0, Math.min(k, sorted.size()));
+	}
+
+	/**
+	 * Returns the number of consecutive steps without finding a state better
+	 * than the best one found so far, after which the search stops. This
+	 * implementation returns 0, i.e. the search stops at a local optimum.
+	 *
+	 * @return the number of steps without improvement which are tolerated.
+	 */
+	protected int getMaxStepsWithoutImprovement() {
+		return 0;
+	}
+
+	/**
+	 * A node together with its heuristic value.
+	 */
+	protected static class Scored implements Comparable<Scored> {
+		public final Node node;
+		public final double value;
+		final boolean goal;
+
+		Scored(Node node, double value) {
+			this(node, value, false);
+		}
+
+		Scored(Node node, double value, boolean goal) {
+			this.node = node;
+			this.value = value;
+			this.goal = goal;
+		}
+
+		public int compareTo(Scored o) {
+			return Double.compare(value, o.value);
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private List<Action> solution(Scored s, boolean goal) {
+		if (goal) {
+			outcome = HillClimbingSearch.SearchOutcome.SOLUTION_FOUND;
+		}
+		lastState = s.node.getState();
+		metrics.set(METRIC_BEST_VALUE, s.value);
+		return SearchUtils.actionsFromNodes(s.node.getPathFromRoot());
+	}
+
+	private List<List<Scored>> expandAll(List<Scored> beam, final Problem p)
+			throws InterruptedException, ExecutionException {
+		List<List<Scored>> result = new ArrayList<List<Scored>>(beam.size());
+		if (null == executor || 1 == beam.size()) {
+			for (Scored s : beam) {
+				result.add(expand(s.node, p));
+			}
+			return result;
+		}
+		List<Future<List<Scored>>> futures = new ArrayList<Future<List<Scored>>>(
+				beam.size());
+		try {
+			for (final Scored s : beam) {
+				futures.add(executor.submit(new Callable<List<Scored>>() {
+					public List<Scored> call() {
+						return expand(s.node, p);
+					}
+				}));
+			}
+			for (Future<List<Scored>> f : futures) {
+				result.add(f.get());
+			}
+		} finally {
+			for (Future<List<Scored>> f : futures) {
+				f.cancel(false);
+			}
+		}
+		return result;
+	}
+
+	private List<Scored> expand(Node node, Problem p) {
+		List<Node> children = expandNode(node, p);
+		List<Scored> result = new ArrayList<Scored>(children.size());
+		for (Node child : children) {
+			result.add(new Scored(child, hf.h(child.getState()), SearchUtils
+					.isGoalState(p, child)));
+		}
+		return result;
+	}
+}
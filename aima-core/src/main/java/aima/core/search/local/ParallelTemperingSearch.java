@@ -0,0 +1,445 @@
+package aima.core.search.local;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
+
+/**
+ * Parallel tempering (replica exchange) runs several simulated annealing
+ * chains, the replicas, at different fixed temperatures. Like
+ * {@link SimulatedAnnealingSearch}, each replica moves to a randomly selected
+ * successor of its current state if that is better, and otherwise only with
+ * probability e<sup>&Delta;E/T</sup>. Hot replicas wander across the
+ * landscape while cold ones descend into the basins they are given, so after
+ * every round of a fixed number of steps, the states of adjacent replicas are
+ * swapped with the Metropolis probability min(1, e<sup>(1/T<sub>i</sub> -
+ * 1/T<sub>i+1</sub>)(h<sub>i</sub> - h<sub>i+1</sub>)</sup>). A state which a
+ * hot replica finds in a good basin thereby moves to the colder ones, and a
+ * cold replica stuck in a poor basin is released.<br>
+ * <br>
+ * Each replica runs on a thread of its own and all replicas start with the
+ * initial state of the problem. The swaps are made between the rounds, while
+ * all replicas wait. A lower heuristic value is better, and the best state
+ * found by any replica so far is shared, see {@link #getLastSearchState()}.
+ * The search stops as soon as a replica reaches a goal, after the maximum
+ * number of rounds, or when the calling thread is canceled. The acceptance
+ * rate of each replica and of the swaps of each pair of adjacent replicas are
+ * recorded as metrics named {@link #METRIC_ACCEPTANCE_RATE} and
+ * {@link #METRIC_SWAP_ACCEPTANCE_RATE} followed by the index of the
+ * (colder) replica.<br>
+ * <br>
+ * <b>Note:</b> The heuristic, actions and result functions of the problem are
+ * called from several threads, and no tracer must be attached.
+ */
+public class ParallelTemperingSearch extends NodeExpander implements Search {
+	public static final String METRIC_ROUNDS = "rounds";
+	public static final String METRIC_SWAPS = "swaps";
+	public static final String METRIC_BEST_VALUE = "bestValue";
+	public static final String METRIC_ACCEPTANCE_RATE = "acceptanceRate";
+	public static final String METRIC_SWAP_ACCEPTANCE_RATE = "swapAcceptanceRate";
+
+	private final HeuristicFunction hf;
+	private final double[] temperatures;
+	private final int stepsPerRound;
+	private final int maxRounds;
+	private final long seed;
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongCounter rounds = metrics.counter(METRIC_ROUNDS);
+	private final Metrics.LongCounter swaps = metrics.counter(METRIC_SWAPS);
+	private final Metrics.DoubleGauge bestValue = metrics
+			.doubleGauge(METRIC_BEST_VALUE);
+	private final Metrics.DoubleGauge[] acceptanceRates;
+	private final Metrics.DoubleGauge[] swapAcceptanceRates;
+
+	// the state of the current search; done ends the current round early,
+	// stopped is decided between the rounds and ends the search
+	private volatile boolean done = false;
+	private volatile boolean stopped = false;
+	private Replica[] replicas = null;
+	// guarded by this
+	private Node best = null;
+	private double bestH = 0;
+	private boolean bestIsGoal = false;
+	private Throwable failure = null;
+
+	/**
+	 * Constructs a parallel tempering search.
+	 *
+	 * @param hf
+	 *            a heuristic function, 0 for goal states.
+	 * @param temperatures
+	 *            the positive temperature of each replica. Swaps are made
+	 *            between replicas which are adjacent in this array, which is
+	 *            therefore usually sorted, see
+	 *            {@link #geometricTemperatures(double, double, int)}.
+	 * @param stepsPerRound
+	 *            the number of steps each replica makes between two rounds of
+	 *            swaps.
+	 * @param maxRounds
+	 *            the maximum number of rounds, or 0 for no limit.
+	 * @param seed
+	 *            the seed of the random number generators of the replicas and
+	 *            the swaps.
+	 */
+	public ParallelTemperingSearch(HeuristicFunction hf,
+			double[] temperatures, int stepsPerRound, int maxRounds, long seed) {
+		if (temperatures.length < 1) {
+			throw new IllegalArgumentException("At least one replica needed.");
+		}
+		for (double t : temperatures) {
+			if (!(t > 0)) {
+				throw new IllegalArgumentException(
+						"Temperatures must be positive.");
+			}
+		}
+		if (stepsPerRound < 1 || maxRounds < 0) {
+			throw new IllegalArgumentException(
+					"Steps per round must be positive, rounds not negative.");
+		}
+		this.hf = hf;
+		this.temperatures = temperatures.clone();
+		this.stepsPerRound = stepsPerRound;
+		this.maxRounds = maxRounds;
+		this.seed = seed;
+		acceptanceRates = new Metrics.DoubleGauge[temperatures.length];
+		swapAcceptanceRates = new Metrics.DoubleGauge[temperatures.length - 1];
+		for (int i = 0; i < temperatures.length; i++) {
+			acceptanceRates[i] = metrics.doubleGauge(METRIC_ACCEPTANCE_RATE
+					+ i);
+			if (i < swapAcceptanceRates.length) {
+				swapAcceptanceRates[i] = metrics
+						.doubleGauge(METRIC_SWAP_ACCEPTANCE_RATE + i);
+			}
+		}
+	}
+
+	/**
+	 * Returns k temperatures from the lowest to the highest one, with a
+	 * constant ratio between adjacent temperatures.
+	 *
+	 * @param lowest
+	 *            the temperature of the coldest replica.
+	 * @param highest
+	 *            the temperature of the hottest replica.
+	 * @param k
+	 *            the number of replicas.
+	 * @return the temperatures of the replicas.
+	 */
+	public static double[] geometricTemperatures(double lowest,
+			double highest, int k) {
+		double[] result = new double[k];
+		for (int i = 0; i < k; i++) {
+			result[i] = k > 1 ? lowest
+					* Math.pow(highest / lowest, (double) i / (k - 1)) : lowest;
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the actions from the initial state to the best state found,
+	 * which is a goal if {@link #getOutcome()} returns SOLUTION_FOUND.
+	 *
+	 * @param p
+	 *            the search problem
+	 *
+	 * @return a list of actions to the best state found, or a list containing
+	 *         a single NoOp Action if this is the initial state.
+	 */
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		Random seeds = new Random(seed);
+		Node root = new Node(p.getInitialState());
+		double h = hf.h(root.getState());
+		synchronized (this) {
+			best = root;
+			bestH = h;
+			bestIsGoal = SearchUtils.isGoalState(p, root);
+			failure = null;
+		}
+		done = bestIsGoal;
+		stopped = false;
+		replicas = new Replica[temperatures.length];
+		for (int i = 0; i < replicas.length; i++) {
+			replicas[i] = new Replica(temperatures[i], root, h, new Random(
+					seeds.nextLong()));
+		}
+		final Random swapRandom = new Random(seeds.nextLong());
+		CyclicBarrier barrier = new CyclicBarrier(replicas.length,
+				new Runnable() {
+					public void run() {
+						endRound(swapRandom);
+					}
+				});
+		List<Thread> threads = new ArrayList<Thread>();
+		for (Replica r : replicas) {
+			threads.add(r.start(p, barrier));
+		}
+		try {
+			for (Thread t : threads) {
+				while (t.isAlive()) {
+					if (CancelableThread.currIsCanceled()) {
+						done = true;
+					}
+					t.join(20);
+				}
+			}
+		} finally {
+			done = true;
+			for (Thread t : threads) {
+				t.join();
+			}
+		}
+		updateAcceptanceRates();
+		synchronized (this) {
+			if (failure instanceof Error) {
+				throw (Error) failure;
+			}
+			if (null != failure) {
+				throw (Exception) failure;
+			}
+			bestValue.set(bestH);
+			if (CancelableThread.currIsCanceled()) {
+				return new ArrayList<Action>();
+			}
+			return SearchUtils.actionsFromNodes(best.getPathFromRoot());
+		}
+	}
+
+	/**
+	 * Returns SOLUTION_FOUND if a replica reached a goal, or FAILURE otherwise.
+	 *
+	 * @return the outcome of the last search.
+	 */
+	public synchronized HillClimbingSearch.SearchOutcome getOutcome() {
+		return bestIsGoal ? HillClimbingSearch.SearchOutcome.SOLUTION_FOUND
+				: HillClimbingSearch.SearchOutcome.FAILURE;
+	}
+
+	/**
+	 * Returns the best state found so far by any replica. While a search is
+	 * running, this can be called from other threads.
+	 *
+	 * @return the best state found so far.
+	 */
+	public synchronized Object getLastSearchState() {
+		return null == best ? null : best.getState();
+	}
+
+	public int getNumberOfReplicas() {
+		return temperatures.length;
+	}
+
+	/**
+	 * Returns the fraction of the moves to successors accepted by the
+	 * specified replica in the last search.
+	 *
+	 * @param replica
+	 *            the index of the replica in the array of temperatures.
+	 * @return the acceptance rate of the replica.
+	 */
+	public double getAcceptanceRate(int replica) {
+		return acceptanceRates[replica].get();
+	}
+
+	/**
+	 * Returns the fraction of the swaps accepted between the specified replica
+	 * and the next one in the last search.
+	 *
+	 * @param replica
+	 *            the index of the first replica of the pair.
+	 * @return the swap acceptance rate of the pair.
+	 */
+	public double getSwapAcceptanceRate(int replica) {
+		return swapAcceptanceRates[replica].get();
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		rounds.reset();
+		swaps.reset();
+		bestValue.set(0.0);
+		for (Metrics.DoubleGauge g : acceptanceRates) {
+			g.set(0.0);
+		}
+		for (Metrics.DoubleGauge g : swapAcceptanceRates) {
+			g.set(0.0);
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+
+	// called while all replicas wait at the barrier
+	private void endRound(Random random) {
+		if (done) {
+			stopped = true;
+			return;
+		}
+		rounds.increment();
+		for (int i = 0; i + 1 < replicas.length; i++) {
+			Replica cold = replicas[i];
+			Replica hot = replicas[i + 1];
+			double exponent = (1 / cold.temperature - 1 / hot.temperature)
+					* (cold.currentH - hot.currentH);
+			cold.swapsProposed++;
+			if (exponent >= 0 || random.nextDouble() < Math.exp(exponent)) {
+				cold.swapsAccepted++;
+				swaps.increment();
+				Node n = cold.current;
+				cold.current = hot.current;
+				hot.current = n;
+				double h = cold.currentH;
+				cold.currentH = hot.currentH;
+				hot.currentH = h;
+			}
+		}
+		updateAcceptanceRates();
+		stopped = maxRounds > 0 && rounds.get() >= maxRounds;
+	}
+
+	private void updateAcceptanceRates() {
+		for (int i = 0; i < replicas.length; i++) {
+			Replica r = replicas[i];
+			if (r.proposed > 0) {
+				acceptanceRates[i].set((double) r.accepted / r.proposed);
+			}
+			if (i < swapAcceptanceRates.length && r.swapsProposed > 0) {
+				swapAcceptanceRates[i].set((double) r.swapsAccepted
+						/ r.swapsProposed);
+			}
+		}
+	}
+
+	// shares a state which is better than the best one of its replica
+	private synchronized void offer(Node n, double h, Problem p) {
+		if (!bestIsGoal && h < bestH) {
+			best = n;
+			bestH = h;
+			if (SearchUtils.isGoalState(p, n)) {
+				bestIsGoal = true;
+				done = true;
+			}
+		}
+	}
+
+	private synchronized void fail(Throwable t) {
+		if (null == failure) {
+			failure = t;
+		}
+		done = true;
+	}
+
+	/**
+	 * A simulated annealing chain at a fixed temperature. The fields are only
+	 * accessed by the thread of the replica, and between the rounds by the
+	 * thread making the swaps.
+	 */
+	private class Replica implements Runnable {
+		final double temperature;
+		final Random random;
+		Node current;
+		double currentH;
+		double bestH;
+		long proposed = 0;
+		long accepted = 0;
+		long swapsProposed = 0;
+		long swapsAccepted = 0;
+		private Problem problem;
+		private CyclicBarrier barrier;
+
+		Replica(double temperature, Node current, double currentH,
+				Random random) {
+			this.temperature = temperature;
+			this.current = current;
+			this.currentH = currentH;
+			this.bestH = currentH;
+			this.random = random;
+		}
+
+		Thread start(Problem problem, CyclicBarrier barrier) {
+			this.problem = problem;
+			this.barrier = barrier;
+			Thread t = new Thread(this);
+			t.setDaemon(true);
+			t.start();
+			return t;
+		}
+
+		public void run() {
+			try {
+				while (!stopped) {
+					try {
+						for (int i = 0; i < stepsPerRound && !done; i++) {
+							step();
+						}
+					} catch (Throwable t) {
+						// also errors, e.g. a stack overflow in the heuristic;
+						// ends the round, the other replicas are waited for
+						fail(t);
+					}
+					barrier.await();
+				}
+			} catch (BrokenBarrierException ex) {
+				// another replica failed at the barrier
+			} catch (Throwable t) {
+				// interrupted, or the barrier action failed; releases the
+				// other replicas, which would wait for this one forever
+				fail(t);
+				barrier.reset();
+			}
+		}
+
+		private void step() {
+			nodesExpanded.increment();
+			// next <- a randomly selected successor of current
+			Set<Action> actions = problem.getActionsFunction().actions(
+					current.getState());
+			if (actions.isEmpty()) {
+				return;
+			}
+			Iterator<Action> it = actions.iterator();
+			for (int i = random.nextInt(actions.size()); i > 0; i--) {
+				it.next();
+			}
+			Action a = it.next();
+			Object state = problem.getResultFunction().result(
+					current.getState(), a);
+			Node next = newChildNode(state, current, a, problem
+					.getStepCostFunction().c(current.getState(), a, state));
+			double nextH = hf.h(state);
+			// /\E <- next.VALUE - current.VALUE
+			double deltaE = currentH - nextH;
+			proposed++;
+			if (deltaE > 0
+					|| random.nextDouble() < Math.exp(deltaE / temperature)) {
+				accepted++;
+				current = next;
+				currentH = nextH;
+				if (nextH < bestH) {
+					bestH = nextH;
+					offer(next, nextH, problem);
+				}
+			}
+		}
+	}
+}
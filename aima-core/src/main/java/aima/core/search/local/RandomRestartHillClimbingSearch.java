@@ -0,0 +1,282 @@
+package aima.core.search.local;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.Search;
+import aima.core.util.CancelableThread;
+import aima.core.util.JavaRandomizer;
+import aima.core.util.Randomizer;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 124.<br>
+ * <br>
+ * Random-restart hill climbing conducts a series of hill-climbing searches
+ * from randomly generated initial states, until a goal is found.<br>
+ * <br>
+ * The climbs are independent, so they are run by several worker threads, each
+ * with a {@link HillClimbingSearch} of its own and a randomizer of its own,
+ * seeded from the seed of this search. The initial states are created by an
+ * {@link InitialStateGenerator}; the initial state of the problem itself is
+ * not used. All workers stop as soon as one of them reaches a goal, or when
+ * the maximum number of climbs or the time limit is reached. The nodes
+ * expanded by all workers are summed up in the metrics of this search, see
+ * also {@link #METRIC_RESTARTS} and {@link #METRIC_BEST_VALUE}.<br>
+ * <br>
+ * <b>Note:</b> The heuristic, generator, actions and result functions of the
+ * problem are called from several threads. Which climb succeeds first depends
+ * on the scheduling of the threads, so with more than one thread the result
+ * is not reproducible, even with the same seed.
+ */
+public class RandomRestartHillClimbingSearch extends NodeExpander implements
+		Search {
+	public static final String METRIC_RESTARTS = "restarts";
+	public static final String METRIC_BEST_VALUE = "bestValue";
+
+	private final HeuristicFunction hf;
+	private final InitialStateGenerator generator;
+	private final int numberOfThreads;
+	private final int maxRestarts;
+	private final long timeLimitMillis;
+	private final long seed;
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongCounter restarts = metrics
+			.counter(METRIC_RESTARTS);
+	private final Metrics.DoubleGauge bestValue = metrics
+			.doubleGauge(METRIC_BEST_VALUE);
+
+	// the best climb of the current search, guarded by this
+	private HillClimbingSearch.SearchOutcome outcome = HillClimbingSearch.SearchOutcome.FAILURE;
+	private Object lastState = null;
+	private List<Action> bestActions = null;
+	private Exception failure = null;
+
+	/**
+	 * Constructs a random-restart hill-climbing search.
+	 *
+	 * @param hf
+	 *            a heuristic function, 0 for goal states.
+	 * @param generator
+	 *            the generator of the initial states of the climbs.
+	 * @param numberOfThreads
+	 *            the number of worker threads running climbs.
+	 * @param maxRestarts
+	 *            the maximum number of climbs, or 0 for no limit.
+	 * @param timeLimitMillis
+	 *            the maximum wall-clock time of a search in milliseconds, or 0
+	 *            for no limit.
+	 * @param seed
+	 *            the seed of the randomizers of the workers.
+	 */
+	public RandomRestartHillClimbingSearch(HeuristicFunction hf,
+			InitialStateGenerator generator, int numberOfThreads,
+			int maxRestarts, long timeLimitMillis, long seed) {
+		if (numberOfThreads < 1) {
+			throw new IllegalArgumentException(
+					"Number of threads must be at least 1.");
+		}
+		if (maxRestarts < 0 || timeLimitMillis < 0) {
+			throw new IllegalArgumentException("Limits must not be negative.");
+		}
+		this.hf = hf;
+		this.generator = generator;
+		this.numberOfThreads = numberOfThreads;
+		this.maxRestarts = maxRestarts;
+		this.timeLimitMillis = timeLimitMillis;
+		this.seed = seed;
+	}
+
+	/**
+	 * Returns the actions from the initial state of the successful climb to
+	 * the goal if a goal was found. Otherwise, the actions of the climb which
+	 * reached the best local maximum are returned, or an empty list if no
+	 * climb was completed. The state reached is returned by
+	 * {@link #getLastSearchState()}.
+	 *
+	 * @param p
+	 *            the search problem, which supplies the actions and result
+	 *            functions as well as the goal test.
+	 *
+	 * @return a list of actions leading to a goal or to the best local
+	 *         maximum.
+	 */
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		synchronized (this) {
+			outcome = HillClimbingSearch.SearchOutcome.FAILURE;
+			lastState = null;
+			bestActions = null;
+			failure = null;
+		}
+		Random seeds = new Random(seed);
+		AtomicInteger climbsStarted = new AtomicInteger();
+		List<Worker> workers = new ArrayList<Worker>();
+		for (int i = 0; i < numberOfThreads; i++) {
+			workers.add(new Worker(p, new JavaRandomizer(new Random(seeds
+					.nextLong())), climbsStarted, workers));
+		}
+		long deadline = System.nanoTime() + timeLimitMillis * 1000000L;
+		for (Worker w : workers) {
+			w.start();
+		}
+		try {
+			for (Worker w : workers) {
+				while (w.isAlive()) {
+					if (CancelableThread.currIsCanceled()
+							|| (timeLimitMillis > 0 && System.nanoTime()
+									- deadline >= 0)) {
+						cancelAll(workers);
+					}
+					w.join(20);
+				}
+			}
+		} finally {
+			// no worker must update the result after the search returned
+			cancelAll(workers);
+			for (Worker w : workers) {
+				w.join();
+			}
+		}
+		synchronized (this) {
+			if (null != failure) {
+				throw failure;
+			}
+			if (null == bestActions) {
+				return new ArrayList<Action>();
+			}
+			return bestActions;
+		}
+	}
+
+	/**
+	 * Returns SOLUTION_FOUND if a climb reached a goal, or FAILURE otherwise.
+	 *
+	 * @return the outcome of the last search.
+	 */
+	public synchronized HillClimbingSearch.SearchOutcome getOutcome() {
+		return outcome;
+	}
+
+	/**
+	 * Returns the goal reached, or the best local maximum if no goal was
+	 * reached.
+	 *
+	 * @return the state reached by the best climb of the last search.
+	 */
+	public synchronized Object getLastSearchState() {
+		return lastState;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Returns the number of climbs completed by the last search.
+	 *
+	 * @return the number of climbs completed by the last search.
+	 */
+	public int getRestarts() {
+		return (int) restarts.get();
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		restarts.reset();
+		bestValue.set(0.0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private static void cancelAll(List<Worker> workers) {
+		for (Worker w : workers) {
+			w.cancel();
+		}
+	}
+
+	// records a completed climb, returns true if the search is done
+	private synchronized boolean offer(HillClimbingSearch climb,
+			List<Action> actions, double value) {
+		if (outcome == HillClimbingSearch.SearchOutcome.SOLUTION_FOUND) {
+			// another worker was faster
+			return true;
+		}
+		if (climb.getOutcome() == HillClimbingSearch.SearchOutcome.SOLUTION_FOUND
+				|| null == bestActions || value < bestValue.get()) {
+			outcome = climb.getOutcome();
+			lastState = climb.getLastSearchState();
+			bestActions = actions;
+			bestValue.set(value);
+		}
+		return outcome == HillClimbingSearch.SearchOutcome.SOLUTION_FOUND;
+	}
+
+	private synchronized void fail(Exception ex) {
+		if (null == failure) {
+			failure = ex;
+		}
+	}
+
+	/**
+	 * A worker thread running climbs until the search is done.
+	 */
+	private class Worker extends CancelableThread {
+		private final Problem problem;
+		private final Randomizer random;
+		private final AtomicInteger climbsStarted;
+		private final List<Worker> workers;
+
+		Worker(Problem problem, Randomizer random, AtomicInteger climbsStarted,
+				List<Worker> workers) {
+			this.problem = problem;
+			this.random = random;
+			this.climbsStarted = climbsStarted;
+			this.workers = workers;
+			setDaemon(true);
+		}
+
+		@Override
+		public void run() {
+			HillClimbingSearch climb = new HillClimbingSearch(hf);
+			try {
+				while (!isCanceled()) {
+					if (maxRestarts > 0
+							&& climbsStarted.getAndIncrement() >= maxRestarts) {
+						break;
+					}
+					Object state = generator.generateInitialState(random);
+					List<Action> actions = climb.search(new Problem(state,
+							problem.getActionsFunction(),
+							problem.getResultFunction(), problem.getGoalTest(),
+							problem.getStepCostFunction()));
+					nodesExpanded.add(climb.getNodesExpanded());
+					if (isCanceled()) {
+						// the climb was abandoned
+						break;
+					}
+					restarts.increment();
+					double value = hf.h(climb.getLastSearchState());
+					if (offer(climb, actions, value)) {
+						cancelAll(workers);
+					}
+				}
+			} catch (Exception ex) {
+				fail(ex);
+				cancelAll(workers);
+			}
+		}
+	}
+}
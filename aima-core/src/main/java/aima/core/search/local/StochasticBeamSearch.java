@@ -0,0 +1,105 @@
+package aima.core.search.local;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+
+import aima.core.search.framework.HeuristicFunction;
+
+/**
+ * Artificial Intelligence A Modern Approach (3rd Edition): page 126.<br>
+ * <br>
+ * A variant called stochastic beam search, analogous to stochastic hill
+ * climbing, helps alleviate the problem of the k states of a local beam search
+ * quickly becoming concentrated in a small region of the state space. Instead
+ * of choosing the best k from the pool of candidate successors, stochastic
+ * beam search chooses k successors at random, with the probability of choosing
+ * a given successor being an increasing function of its value.<br>
+ * <br>
+ * Here, a successor is chosen with a weight of 1 / (1 + h - h<sub>min</sub>),
+ * where h<sub>min</sub> is the lowest heuristic value among the candidates.
+ * As the next beam is not necessarily better than the current one, the search
+ * stops after a specified number of steps without finding a state better than
+ * the best one found so far. The random choices are made after the candidates
+ * are collected, in their order of generation, so a search with a seeded
+ * random number generator is reproducible, also in parallel.
+ */
+public class StochasticBeamSearch extends LocalBeamSearch {
+
+	private final Random random;
+	private final int maxStepsWithoutImprovement;
+
+	/**
+	 * Constructs a stochastic beam search.
+	 *
+	 * @param hf
+	 *            a heuristic function, 0 for goal states.
+	 * @param k
+	 *            the number of states kept in the beam.
+	 * @param maxStepsWithoutImprovement
+	 *            the number of consecutive steps without improvement after
+	 *            which the search stops.
+	 * @param random
+	 *            the random number generator choosing the successors.
+	 * @param executor
+	 *            the executor expanding the states of the beam, or null for a
+	 *            sequential search.
+	 */
+	public StochasticBeamSearch(HeuristicFunction hf, int k,
+			int maxStepsWithoutImprovement, Random random,
+			ExecutorService executor) {
+		super(hf, k, executor);
+		if (maxStepsWithoutImprovement < 0) {
+			throw new IllegalArgumentException(
+					"Steps without improvement must not be negative.");
+		}
+		this.random = random;
+		this.maxStepsWithoutImprovement = maxStepsWithoutImprovement;
+	}
+
+	//
+	// PROTECTED METHODS
+	//
+	/**
+	 * Chooses k candidates at random without replacement, weighted by their
+	 * value (see A. Efraimidis, P. Spirakis: Weighted random sampling with a
+	 * reservoir, 2006).
+	 */
+	@Override
+	protected List<Scored> selectSuccessors(List<Scored> candidates) {
+		if (candidates.size() <= k) {
+			return candidates;
+		}
+		double min = Double.POSITIVE_INFINITY;
+		for (Scored s : candidates) {
+			min = Math.min(min, s.value);
+		}
+		// candidate i is chosen with a key of u^(1 / weight), where u is
+		// uniform in (0, 1), the k largest keys win
+		final double[] keys = new double[candidates.size()];
+		Integer[] order = new Integer[candidates.size()];
+		for (int i = 0; i < keys.length; i++) {
+			double weight = 1.0 / (1.0 + candidates.get(i).value - min);
+			keys[i] = Math.log(1.0 - random.nextDouble()) / weight;
+			order[i] = i;
+		}
+		Arrays.sort(order, new Comparator<Integer>() {
+			public int compare(Integer i1, Integer i2) {
+				return Double.compare(keys[i2], keys[i1]);
+			}
+		});
+		List<Scored> result = new ArrayList<Scored>(k);
+		for (int i = 0; i < k; i++) {
+			result.add(candidates.get(order[i]));
+		}
+		return result;
+	}
+
+	@Override
+	protected int getMaxStepsWithoutImprovement() {
+		return maxStepsWithoutImprovement;
+	}
+}
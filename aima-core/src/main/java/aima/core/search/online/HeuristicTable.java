@@ -0,0 +1,284 @@
+package aima.core.search.online;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import aima.core.search.framework.StateCodec;
+import aima.core.util.datastructure.LongDoubleHashMap;
+
+/**
+ * The table H of cost estimates learned by {@link LRTAStarAgent}, indexed by
+ * state, in a form which can be shared by many agents exploring the same
+ * {@link OnlineSearchProblem} and which survives the agents.<br>
+ * <br>
+ * The states are packed into <code>long</code> keys by a {@link StateCodec},
+ * and the table is divided into stripes, each a primitive hash table with its
+ * own lock, so that agents running in different threads rarely contend. Each
+ * operation is atomic, but an agent reads the estimates of the neighbours of a
+ * state and writes the estimate of the state in separate operations, i.e. of
+ * two concurrent updates of the same state the last one wins. As every update
+ * is based on the estimates of the neighbours, the table still converges as
+ * the agents move about the state space.<br>
+ * <br>
+ * The table can be written to a compact binary file, a header followed by a
+ * key and a value per state, and read back, e.g. to warm-start new agents
+ * after a restart.
+ */
+public class HeuristicTable {
+	// "AIHT", the first four bytes of a file written by a table
+	private static final int MAGIC = 0x41494854;
+	private static final int VERSION = 1;
+	private static final int DEFAULT_STRIPES = 16;
+
+	private final StateCodec codec;
+	private final LongDoubleHashMap[] stripes;
+	private final int stripeShift;
+
+	/**
+	 * Constructs an empty table with a default number of stripes.
+	 *
+	 * @param codec
+	 *            encodes the states into keys.
+	 */
+	public HeuristicTable(StateCodec codec) {
+		this(codec, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Constructs an empty table.
+	 *
+	 * @param codec
+	 *            encodes the states into keys.
+	 * @param concurrencyLevel
+	 *            the number of agents expected to update the table at the
+	 *            same time, rounded up to a power of 2 stripes.
+	 */
+	public HeuristicTable(StateCodec codec, int concurrencyLevel) {
+		if (concurrencyLevel < 1) {
+			throw new IllegalArgumentException(
+					"Concurrency level must be at least 1.");
+		}
+		this.codec = codec;
+		int bits = 0;
+		while ((1 << bits) < concurrencyLevel && bits < 16) {
+			bits++;
+		}
+		stripes = new LongDoubleHashMap[1 << bits];
+		for (int i = 0; i < stripes.length; i++) {
+			stripes[i] = new LongDoubleHashMap();
+		}
+		stripeShift = 64 - bits;
+	}
+
+	public StateCodec getStateCodec() {
+		return codec;
+	}
+
+	public boolean containsKey(Object state) {
+		long key = codec.encode(state);
+		LongDoubleHashMap stripe = stripeFor(key);
+		synchronized (stripe) {
+			return stripe.containsKey(key);
+		}
+	}
+
+	/**
+	 * Returns the cost estimate of the specified state.
+	 *
+	 * @param state
+	 *            a state.
+	 * @return the cost estimate of the state, or NaN if the table holds no
+	 *         estimate for it.
+	 */
+	public double get(Object state) {
+		long key = codec.encode(state);
+		LongDoubleHashMap stripe = stripeFor(key);
+		synchronized (stripe) {
+			return stripe.get(key, Double.NaN);
+		}
+	}
+
+	/**
+	 * Sets the cost estimate of the specified state.
+	 *
+	 * @param state
+	 *            a state.
+	 * @param value
+	 *            the new cost estimate of the state.
+	 */
+	public void put(Object state, double value) {
+		long key = codec.encode(state);
+		LongDoubleHashMap stripe = stripeFor(key);
+		synchronized (stripe) {
+			stripe.put(key, value);
+		}
+	}
+
+	/**
+	 * Sets the cost estimate of the specified state unless the table already
+	 * holds one.
+	 *
+	 * @param state
+	 *            a state.
+	 * @param value
+	 *            the initial cost estimate of the state.
+	 * @return the cost estimate held by the table after the call.
+	 */
+	public double putIfAbsent(Object state, double value) {
+		long key = codec.encode(state);
+		LongDoubleHashMap stripe = stripeFor(key);
+		synchronized (stripe) {
+			double current = stripe.get(key, Double.NaN);
+			if (!Double.isNaN(current)) {
+				return current;
+			}
+			stripe.put(key, value);
+			return value;
+		}
+	}
+
+	/**
+	 * Returns the number of states with a cost estimate.
+	 *
+	 * @return the number of states with a cost estimate.
+	 */
+	public int size() {
+		int size = 0;
+		for (LongDoubleHashMap stripe : stripes) {
+			synchronized (stripe) {
+				size += stripe.size();
+			}
+		}
+		return size;
+	}
+
+	public void clear() {
+		for (LongDoubleHashMap stripe : stripes) {
+			synchronized (stripe) {
+				stripe.clear();
+			}
+		}
+	}
+
+	/**
+	 * Writes the table to the specified file. The table is written to a
+	 * temporary file first, which then replaces the specified file, so that a
+	 * failure does not destroy an earlier snapshot. The stripes are written
+	 * one after the other, agents may update the table meanwhile.
+	 *
+	 * @param file
+	 *            the file to be written.
+	 * @throws IOException
+	 *             if the file cannot be written.
+	 */
+	public void snapshot(File file) throws IOException {
+		File tmp = new File(file.getPath() + ".tmp");
+		OutputStream out = new FileOutputStream(tmp);
+		try {
+			writeTo(out);
+		} finally {
+			out.close();
+		}
+		if (!tmp.renameTo(file) && !(file.delete() && tmp.renameTo(file))) {
+			throw new IOException("Cannot replace " + file + ".");
+		}
+	}
+
+	/**
+	 * Reads the estimates written by {@link #snapshot(File)} into the table,
+	 * replacing the current estimates of the states read.
+	 *
+	 * @param file
+	 *            the file to be read.
+	 * @throws IOException
+	 *             if the file cannot be read or was not written by a table.
+	 */
+	public void restore(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			readFrom(in);
+		} finally {
+			in.close();
+		}
+	}
+
+	/**
+	 * Writes the table to the specified stream, which is not closed.
+	 *
+	 * @param out
+	 *            the stream to be written.
+	 * @throws IOException
+	 *             if the stream cannot be written.
+	 */
+	public void writeTo(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(
+				out));
+		data.writeInt(MAGIC);
+		data.writeInt(VERSION);
+		data.writeInt(stripes.length);
+		for (LongDoubleHashMap stripe : stripes) {
+			synchronized (stripe) {
+				long[] keys = stripe.keys();
+				data.writeInt(keys.length);
+				for (long key : keys) {
+					data.writeLong(key);
+					data.writeDouble(stripe.get(key, Double.NaN));
+				}
+			}
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads the estimates written by {@link #writeTo(OutputStream)} into the
+	 * table. The tables need not have the same number of stripes.
+	 *
+	 * @param in
+	 *            the stream to be read, which is not closed.
+	 * @throws IOException
+	 *             if the stream cannot be read or was not written by a table.
+	 */
+	public void readFrom(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (MAGIC != data.readInt() || VERSION != data.readInt()) {
+			throw new IOException("Not a heuristic table.");
+		}
+		int blocks = data.readInt();
+		try {
+			for (int b = 0; b < blocks; b++) {
+				int n = data.readInt();
+				for (int i = 0; i < n; i++) {
+					long key = data.readLong();
+					double value = data.readDouble();
+					LongDoubleHashMap stripe = stripeFor(key);
+					synchronized (stripe) {
+						stripe.put(key, value);
+					}
+				}
+			}
+		} catch (EOFException ex) {
+			throw new IOException("Heuristic table is truncated.");
+		}
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// the high order bits of a multiplicative hash, the stripes hash the keys
+	// into their slots by the low order bits of a different hash
+	private LongDoubleHashMap stripeFor(long key) {
+		if (1 == stripes.length) {
+			return stripes[0];
+		}
+		return stripes[(int) ((key * 0x9e3779b97f4a7c15L) >>> stripeShift)];
+	}
+}
@@ -44,7 +44,12 @@ import aima.core.util.datastructure.TwoKeyHashMap;
  * <br>
  * <b>Note:</b> This algorithm fails to exit if the goal does not exist (e.g.
  * A<->B Goal=X), this could be an issue with the implementation. Comments
- * welcome.
+ * welcome.<br>
+ * <br>
+ * The table H can be a {@link HeuristicTable} shared by several agents
+ * exploring the same problem, possibly in different threads, so that each
+ * agent benefits from the cost estimates learned by the others. A shared
+ * table is not cleared when the problem of an agent is set.
  * 
  * @author Ciaran O'Reilly
  * @author Mike Stampone
@@ -58,6 +63,8 @@ public class LRTAStarAgent extends AbstractAgent {
 	private final TwoKeyHashMap<Object, Action, Object> result = new TwoKeyHashMap<Object, Action, Object>();
 	// H, a table of cost estimates indexed by state, initially empty
 	private final HashMap<Object, Double> H = new HashMap<Object, Double>();
+	// or a table shared with other agents
+	private final HeuristicTable sharedH;
 	// s, a, the previous state and action, initially null
 	private Object s = null;
 	private Action a = null;
@@ -78,6 +85,30 @@ public class LRTAStarAgent extends AbstractAgent {
 	 */
 	public LRTAStarAgent(OnlineSearchProblem problem,
 			PerceptToStateFunction ptsFunction, HeuristicFunction hf) {
+		this(problem, ptsFunction, hf, null);
+	}
+
+	/**
+	 * Constructs a LRTA* agent which keeps its cost estimates in the specified
+	 * table.
+	 * 
+	 * @param problem
+	 *            an online search problem for this agent to solve.
+	 * @param ptsFunction
+	 *            a function which returns the problem state associated with a
+	 *            given Percept.
+	 * @param hf
+	 *            heuristic function <em>h(n)</em>, which estimates the cost of
+	 *            the cheapest path from the state at node <em>n</em> to a goal
+	 *            state.
+	 * @param sharedH
+	 *            the table of cost estimates, possibly shared with other
+	 *            agents, or null for a private table.
+	 */
+	public LRTAStarAgent(OnlineSearchProblem problem,
+			PerceptToStateFunction ptsFunction, HeuristicFunction hf,
+			HeuristicTable sharedH) {
+		this.sharedH = sharedH;
 		setProblem(problem);
 		setPerceptToStateFunction(ptsFunction);
 		setHeuristicFunction(hf);
@@ -142,6 +173,16 @@ public class LRTAStarAgent extends AbstractAgent {
 		this.hf = hf;
 	}
 
+	/**
+	 * Returns the shared table of cost estimates of this agent.
+	 * 
+	 * @return the shared table of cost estimates, or null if the agent keeps
+	 *         a private table.
+	 */
+	public HeuristicTable getHeuristicTable() {
+		return sharedH;
+	}
+
 	// function LRTA*-AGENT(s') returns an action
 	// inputs: s', a percept that identifies the current state
 	@Override
@@ -152,8 +193,8 @@ public class LRTAStarAgent extends AbstractAgent {
 			a = NoOpAction.NO_OP;
 		} else {
 			// if s' is a new state (not in H) then H[s'] <- h(s')
-			if (!H.containsKey(sDelta)) {
-				H.put(sDelta, getHeuristicFunction().h(sDelta));
+			if (!hContainsKey(sDelta)) {
+				hPutIfAbsent(sDelta, getHeuristicFunction().h(sDelta));
 			}
 			// if s is not null
 			if (null != s) {
@@ -169,7 +210,7 @@ public class LRTAStarAgent extends AbstractAgent {
 						min = cost;
 					}
 				}
-				H.put(s, min);
+				hPut(s, min);
 			}
 			// a <- an action b in ACTIONS(s') that minimizes LRTA*-COST(s', b,
 			// result[s', b], H)
@@ -220,7 +261,32 @@ public class LRTAStarAgent extends AbstractAgent {
 		}
 		// else return c(s, a, s') + H[s']
 		return getProblem().getStepCostFunction().c(s, action, sDelta)
-				+ H.get(sDelta);
+				+ hGet(sDelta);
+	}
+
+	private boolean hContainsKey(Object state) {
+		return null == sharedH ? H.containsKey(state) : sharedH
+				.containsKey(state);
+	}
+
+	private double hGet(Object state) {
+		return null == sharedH ? H.get(state) : sharedH.get(state);
+	}
+
+	private void hPut(Object state, double value) {
+		if (null == sharedH) {
+			H.put(state, value);
+		} else {
+			sharedH.put(state, value);
+		}
+	}
+
+	private void hPutIfAbsent(Object state, double value) {
+		if (null == sharedH) {
+			H.put(state, value);
+		} else {
+			sharedH.putIfAbsent(state, value);
+		}
 	}
 
 	private Set<Action> actions(Object state) {
@@ -48,8 +48,15 @@ public class BidirectionalSearch implements Search {
 
 	private static final String PATH_COST = "pathCost";
 
+	private final Metrics.LongGauge queueSize;
+
+	private final Metrics.LongGauge maxQueueSize;
+
 	public BidirectionalSearch() {
 		metrics = new Metrics();
+		metrics.set(NODES_EXPANDED, 0);
+		queueSize = metrics.gauge(QUEUE_SIZE);
+		maxQueueSize = metrics.gauge(MAX_QUEUE_SIZE);
 	}
 
 	public List<Action> search(Problem p) throws Exception {
@@ -196,8 +203,8 @@ public class BidirectionalSearch implements Search {
 	 */
 	public void clearInstrumentation() {
 		metrics.set(NODES_EXPANDED, 0);
-		metrics.set(QUEUE_SIZE, 0);
-		metrics.set(MAX_QUEUE_SIZE, 0);
+		queueSize.reset();
+		maxQueueSize.reset();
 		metrics.set(PATH_COST, 0.0);
 	}
 
@@ -226,7 +233,7 @@ public class BidirectionalSearch implements Search {
 	 * @return the queue size.
 	 */
 	public int getQueueSize() {
-		return metrics.getInt(QUEUE_SIZE);
+		return (int) queueSize.get();
 	}
 
 	/**
@@ -237,11 +244,8 @@ public class BidirectionalSearch implements Search {
 	 *            the number of items in the queue.
 	 */
 	public void setQueueSize(int queueSize) {
-		metrics.set(QUEUE_SIZE, queueSize);
-		int maxQSize = metrics.getInt(MAX_QUEUE_SIZE);
-		if (queueSize > maxQSize) {
-			metrics.set(MAX_QUEUE_SIZE, queueSize);
-		}
+		this.queueSize.set(queueSize);
+		maxQueueSize.updateMax(queueSize);
 	}
 
 	/**
@@ -250,7 +254,7 @@ public class BidirectionalSearch implements Search {
 	 * @return the maximum queue size.
 	 */
 	public int getMaxQueueSize() {
-		return metrics.getInt(MAX_QUEUE_SIZE);
+		return (int) maxQueueSize.get();
 	}
 
 	/**
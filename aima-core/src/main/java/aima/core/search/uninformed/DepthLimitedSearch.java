@@ -2,7 +2,15 @@ package aima.core.search.uninformed;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import aima.core.agent.Action;
 import aima.core.search.framework.CutOffIndicatorAction;
@@ -11,6 +19,7 @@ import aima.core.search.framework.NodeExpander;
 import aima.core.search.framework.Problem;
 import aima.core.search.framework.Search;
 import aima.core.search.framework.SearchUtils;
+import aima.core.util.CancelableThread;
 
 /**
  * Artificial Intelligence A Modern Approach (3rd Edition): Figure 3.17, page
@@ -34,7 +43,14 @@ import aima.core.search.framework.SearchUtils;
  *       if cutoff_occurred? then return cutoff else return failure
  * </pre>
  * 
- * Figure 3.17 A recursive implementation of depth-limited search.
+ * Figure 3.17 A recursive implementation of depth-limited search.<br>
+ * <br>
+ * If an executor is specified, the search tree is split into disjoint subtrees
+ * (in the order in which RECURSIVE-DLS visits them) which are searched in
+ * parallel. A subtree stops being searched as soon as a solution has been
+ * found in a subtree to its left, so the solution returned is always the one
+ * RECURSIVE-DLS returns, while the number of expanded nodes includes the work
+ * done speculatively by the other subtrees.
  * 
  * @author Ravi Mohan
  * @author Ciaran O'Reilly
@@ -43,10 +59,29 @@ import aima.core.search.framework.SearchUtils;
 public class DepthLimitedSearch extends NodeExpander implements Search {
 	private static String PATH_COST = "pathCost";
 	private static List<Action> cutoffResult = null;
+	// number of subtrees per available processor a parallel search is split
+	// into, so that the workers stay busy although subtrees differ in size
+	private static final int SUBTREES_PER_PROCESSOR = 8;
 	private final int limit;
+	private final ExecutorService executor;
 
 	public DepthLimitedSearch(int limit) {
+		this(limit, null);
+	}
+
+	/**
+	 * Constructs a depth-limited search which searches subtrees in parallel.
+	 * 
+	 * @param limit
+	 *            the depth limit.
+	 * @param executor
+	 *            the executor running the subtree searches, or null for a
+	 *            sequential search. The executor is not shut down by the
+	 *            search.
+	 */
+	public DepthLimitedSearch(int limit, ExecutorService executor) {
 		this.limit = limit;
+		this.executor = executor;
 	}
 
 	/**
@@ -98,6 +133,9 @@ public class DepthLimitedSearch extends NodeExpander implements Search {
 	 */
 	public List<Action> search(Problem p) throws Exception {
 		clearInstrumentation();
+		if (null != executor) {
+			return parallelDLS(p);
+		}
 		// return RECURSIVE-DLS(MAKE-NODE(INITIAL-STATE[problem]), problem,
 		// limit)
 		return recursiveDLS(new Node(p.getInitialState()), p, limit);
@@ -150,8 +188,11 @@ public class DepthLimitedSearch extends NodeExpander implements Search {
 			// cutoff_occurred? <- false
 			boolean cutoff_occurred = false;
 			// for each action in problem.ACTIONS(node.STATE) do
-			for (Node child : this.expandNode(node, problem)) {
+			// (the children are generated on demand, so that the remaining
+			// ones are not created once a solution is found)
+			for (Iterator<Node> it = successors(node, problem); it.hasNext();) {
 				// child <- CHILD-NODE(problem, node, action)
+				Node child = it.next();
 				// result <- RECURSIVE-DLS(child, problem, limit - 1)
 				List<Action> result = recursiveDLS(child, problem, limit - 1);
 				// if result = cutoff then cutoff_occurred? <- true
@@ -172,6 +213,109 @@ public class DepthLimitedSearch extends NodeExpander implements Search {
 		}
 	}
 
+	private List<Action> parallelDLS(Problem problem) throws Exception {
+		// split the tree level by level, keeping the subtrees in the order in
+		// which RECURSIVE-DLS visits them, until there are enough of them
+		List<Subtree> subtrees = new ArrayList<Subtree>();
+		subtrees.add(new Subtree(new Node(problem.getInitialState()), limit));
+		int minSubtrees = SUBTREES_PER_PROCESSOR
+				* Runtime.getRuntime().availableProcessors();
+		Node solution = null;
+		boolean splittable = true;
+		while (null == solution && splittable
+				&& subtrees.size() < minSubtrees) {
+			splittable = false;
+			List<Subtree> split = new ArrayList<Subtree>();
+			for (Subtree s : subtrees) {
+				if (0 == s.limit) {
+					split.add(s);
+				} else if (SearchUtils.isGoalState(problem, s.root)) {
+					// the subtrees to the right are never visited
+					solution = s.root;
+					break;
+				} else {
+					for (Node child : expandNode(s.root, problem)) {
+						split.add(new Subtree(child, s.limit - 1));
+					}
+					splittable = true;
+				}
+			}
+			subtrees = split;
+		}
+
+		AtomicInteger leftmostSolution = new AtomicInteger(Integer.MAX_VALUE);
+		List<Future<Node>> futures = new ArrayList<Future<Node>>();
+		for (int i = 0; i < subtrees.size(); i++) {
+			subtrees.get(i).start(problem, i, leftmostSolution);
+			futures.add(executor.submit(subtrees.get(i)));
+		}
+		boolean cutoff_occurred = false;
+		try {
+			// the results are awaited from left to right, so the first one
+			// found is the leftmost
+			for (int i = 0; i < futures.size(); i++) {
+				Node result = await(futures.get(i));
+				if (null != result) {
+					solution = result;
+					break;
+				}
+				if (CancelableThread.currIsCanceled()) {
+					return failure();
+				}
+				cutoff_occurred |= subtrees.get(i).cutoffOccurred;
+			}
+		} finally {
+			// stop the remaining subtrees, and wait for all of them so that
+			// their expanded nodes have been counted and no worker is busy
+			// when the search returns (the futures are not canceled, as a
+			// canceled future does not wait for its subtree, which returns
+			// immediately anyway once it sees the stop signal)
+			leftmostSolution.set(-1);
+			boolean interrupted = false;
+			for (Future<Node> f : futures) {
+				boolean finished = false;
+				while (!finished) {
+					try {
+						f.get();
+						finished = true;
+					} catch (ExecutionException ex) {
+						// already reported or superseded by the result
+						finished = true;
+					} catch (InterruptedException ex) {
+						interrupted = true;
+					}
+				}
+			}
+			if (interrupted) {
+				Thread.currentThread().interrupt();
+			}
+		}
+
+		if (null != solution) {
+			setPathCost(solution.getPathCost());
+			return SearchUtils.actionsFromNodes(solution.getPathFromRoot());
+		}
+		return cutoff_occurred ? cutoff() : failure();
+	}
+
+	// Waits for the result of a subtree, returns null early if the calling
+	// thread is canceled.
+	private Node await(Future<Node> future) throws Exception {
+		while (!CancelableThread.currIsCanceled()) {
+			try {
+				return future.get(20, TimeUnit.MILLISECONDS);
+			} catch (TimeoutException ex) {
+				// poll again
+			} catch (ExecutionException ex) {
+				if (ex.getCause() instanceof Exception) {
+					throw (Exception) ex.getCause();
+				}
+				throw ex;
+			}
+		}
+		return null;
+	}
+
 	private List<Action> cutoff() {
 		// Only want to created once
 		if (null == cutoffResult) {
@@ -186,4 +330,58 @@ public class DepthLimitedSearch extends NodeExpander implements Search {
 	private List<Action> failure() {
 		return Collections.emptyList();
 	}
+
+	/**
+	 * A subtree of a parallel search, searched with the same algorithm as
+	 * RECURSIVE-DLS. The search of the subtree is abandoned as soon as a
+	 * solution has been found in a subtree to its left.
+	 */
+	private class Subtree implements Callable<Node> {
+		final Node root;
+		final int limit;
+		private Problem problem;
+		private int index;
+		private AtomicInteger leftmostSolution;
+		volatile boolean cutoffOccurred = false;
+
+		Subtree(Node root, int limit) {
+			this.root = root;
+			this.limit = limit;
+		}
+
+		void start(Problem problem, int index, AtomicInteger leftmostSolution) {
+			this.problem = problem;
+			this.index = index;
+			this.leftmostSolution = leftmostSolution;
+		}
+
+		public Node call() {
+			return dls(root, limit);
+		}
+
+		// returns the solution, or null on failure/cutoff
+		private Node dls(Node node, int limit) {
+			if (index > leftmostSolution.get()) {
+				return null;
+			}
+			if (SearchUtils.isGoalState(problem, node)) {
+				int leftmost;
+				while (index < (leftmost = leftmostSolution.get())
+						&& !leftmostSolution.compareAndSet(leftmost, index)) {
+					// retry
+				}
+				return node;
+			} else if (0 == limit) {
+				cutoffOccurred = true;
+				return null;
+			}
+			for (Iterator<Node> it = successors(node, problem); it.hasNext();) {
+				Node result = dls(it.next(), limit - 1);
+				if (null != result) {
+					return result;
+				}
+			}
+			return null;
+		}
+	}
 }
\ No newline at end of file
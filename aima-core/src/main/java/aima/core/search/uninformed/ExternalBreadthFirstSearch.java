@@ -0,0 +1,455 @@
+package aima.core.search.uninformed;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import aima.core.agent.Action;
+import aima.core.search.framework.Metrics;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchUtils;
+import aima.core.search.framework.StateCodec;
+import aima.core.util.CancelableThread;
+
+/**
+ * Breadth-first search in external memory with delayed duplicate detection,
+ * see R. Korf: Best-First Frontier Search with Delayed Duplicate Detection,
+ * AAAI 2004.<br>
+ * <br>
+ * The search proceeds layer by layer and keeps no explored set in memory.
+ * Each layer is a file of the sorted keys (see {@link StateCodec}) of the
+ * states at that depth. The successors of a layer are collected in a buffer of
+ * bounded size, which is sorted and written to disk as a run whenever it is
+ * full. The runs are then merged into the next layer in one streaming pass,
+ * which removes the duplicates among the successors as well as the states
+ * which are contained in the current or the previous layer. Memory
+ * consumption is thus bounded by the buffer, independent of the size of the
+ * state space.<br>
+ * <br>
+ * The goal test is applied when a state is generated. A solution is
+ * reconstructed from the layer files by searching each layer, from the goal
+ * back to the initial state, for a predecessor of the state found last. Step
+ * costs are ignored, so the solution is one with the fewest actions.<br>
+ * <br>
+ * <b>Note:</b> Comparing with the previous two layers detects all duplicates
+ * if every action can be undone by another action, as in the sliding tile
+ * puzzles. Otherwise states of earlier layers may be visited again and the
+ * search may not terminate if there is no solution. The layer files are
+ * removed when the search returns. A search without goal (e.g. with a goal
+ * test which always fails) enumerates the whole state space, see
+ * {@link #getLayerSizes()}.
+ */
+public class ExternalBreadthFirstSearch extends NodeExpander implements
+		Search {
+	public static final String METRIC_DEPTH = "depth";
+	public static final String METRIC_STATES_VISITED = "statesVisited";
+	public static final String METRIC_DUPLICATES_REMOVED = "duplicatesRemoved";
+	public static final String METRIC_RUNS_WRITTEN = "runsWritten";
+
+	private static final int IO_BUFFER_SIZE = 1 << 16;
+
+	private final StateCodec codec;
+	private final File directory;
+	private final int runCapacity;
+	private final Metrics.LongCounter nodesExpanded = metrics
+			.counter(METRIC_NODES_EXPANDED);
+	private final Metrics.LongGauge depth = metrics.gauge(METRIC_DEPTH);
+	private final Metrics.LongCounter statesVisited = metrics
+			.counter(METRIC_STATES_VISITED);
+	private final Metrics.LongCounter duplicatesRemoved = metrics
+			.counter(METRIC_DUPLICATES_REMOVED);
+	private final Metrics.LongCounter runsWritten = metrics
+			.counter(METRIC_RUNS_WRITTEN);
+	private final List<Long> layerSizes = new ArrayList<Long>();
+
+	// state of the current search
+	private Problem problem;
+	private File workDirectory;
+	private List<File> layers;
+	// the key of the goal state found in the last expanded layer
+	private boolean goalFound;
+	private long goalKey;
+
+	/**
+	 * Constructs a search which writes its files to the default temporary
+	 * directory and sorts runs of up to one million states in memory.
+	 *
+	 * @param codec
+	 *            encodes the states of the problems to be solved.
+	 */
+	public ExternalBreadthFirstSearch(StateCodec codec) {
+		this(codec, null, 1 << 20);
+	}
+
+	/**
+	 * Constructs a search.
+	 *
+	 * @param codec
+	 *            encodes the states of the problems to be solved.
+	 * @param directory
+	 *            the directory in which the layers and runs are stored, or
+	 *            null for the default temporary directory.
+	 * @param runCapacity
+	 *            the number of states collected in memory before they are
+	 *            sorted and written to disk.
+	 */
+	public ExternalBreadthFirstSearch(StateCodec codec, File directory,
+			int runCapacity) {
+		if (runCapacity < 1) {
+			throw new IllegalArgumentException(
+					"Run capacity must be at least 1.");
+		}
+		this.codec = codec;
+		this.directory = directory;
+		this.runCapacity = runCapacity;
+	}
+
+	public List<Action> search(Problem p) throws Exception {
+		clearInstrumentation();
+		layerSizes.clear();
+		Object initialState = p.getInitialState();
+		if (p.isGoalState(initialState)) {
+			layerSizes.add(1L);
+			statesVisited.increment();
+			return SearchUtils.actionsFromNodes(Collections
+					.singletonList(new Node(initialState)));
+		}
+		problem = p;
+		workDirectory = createWorkDirectory();
+		layers = new ArrayList<File>();
+		goalFound = false;
+		try {
+			File layer = new File(workDirectory, "layer0");
+			writeKeys(layer, new long[] { codec.encode(initialState) }, 1);
+			addLayer(layer, 1);
+			while (!CancelableThread.currIsCanceled()) {
+				int d = layers.size() - 1;
+				List<File> runs = expandLayer(layers.get(d));
+				if (goalFound) {
+					deleteAll(runs);
+					depth.set(d + 1);
+					return reconstructSolution();
+				}
+				File next = new File(workDirectory, "layer" + (d + 1));
+				long size = mergeRuns(runs, layers.get(d),
+						d > 0 ? layers.get(d - 1) : null, next);
+				deleteAll(runs);
+				if (0 == size) {
+					next.delete();
+					break;
+				}
+				addLayer(next, size);
+			}
+		} finally {
+			if (null != layers) {
+				deleteAll(layers);
+			}
+			workDirectory.delete();
+			problem = null;
+			workDirectory = null;
+			layers = null;
+		}
+		// Empty List indicates that no solution was found
+		return Collections.emptyList();
+	}
+
+	/**
+	 * Sets all metrics to zero.
+	 */
+	@Override
+	public void clearInstrumentation() {
+		super.clearInstrumentation();
+		depth.reset();
+		statesVisited.reset();
+		duplicatesRemoved.reset();
+		runsWritten.reset();
+	}
+
+	/**
+	 * Returns the number of distinct states at each depth which were visited
+	 * by the last search, starting with the initial state at depth 0. If the
+	 * last search did not find a goal, these are the sizes of all layers of
+	 * the state space reachable from the initial state.
+	 *
+	 * @return the number of states per depth.
+	 */
+	public List<Long> getLayerSizes() {
+		return Collections.unmodifiableList(new ArrayList<Long>(layerSizes));
+	}
+
+	/**
+	 * Returns the depth of the last layer visited by the last search, which is
+	 * the length of the solution if one was found.
+	 *
+	 * @return the depth of the last layer.
+	 */
+	public int getDepth() {
+		return (int) depth.get();
+	}
+
+	public long getStatesVisited() {
+		return statesVisited.get();
+	}
+
+	public long getDuplicatesRemoved() {
+		return duplicatesRemoved.get();
+	}
+
+	public int getRunsWritten() {
+		return (int) runsWritten.get();
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void addLayer(File layer, long size) {
+		layers.add(layer);
+		layerSizes.add(size);
+		statesVisited.add(size);
+		depth.set(layers.size() - 1);
+	}
+
+	// Generates the successors of all states of the layer and writes them to
+	// sorted runs. Stops as soon as a goal is generated.
+	private List<File> expandLayer(File layer) throws IOException {
+		List<File> runs = new ArrayList<File>();
+		long[] buffer = new long[runCapacity];
+		int size = 0;
+		ResultFunction resultFunction = problem.getResultFunction();
+		KeyReader in = new KeyReader(layer);
+		try {
+			while (in.advance() && !CancelableThread.currIsCanceled()) {
+				Object state = codec.decode(in.current);
+				nodesExpanded.increment();
+				for (Iterator<Action> it = SearchUtils.actionIterator(
+						problem.getActionsFunction(), state); it.hasNext();) {
+					Object successor = resultFunction.result(state, it.next());
+					long key = codec.encode(successor);
+					if (problem.isGoalState(successor)) {
+						goalFound = true;
+						goalKey = key;
+						return runs;
+					}
+					if (size == buffer.length) {
+						runs.add(writeRun(buffer, size, runs.size()));
+						size = 0;
+					}
+					buffer[size++] = key;
+				}
+			}
+		} finally {
+			in.close();
+		}
+		if (size > 0) {
+			runs.add(writeRun(buffer, size, runs.size()));
+		}
+		return runs;
+	}
+
+	private File writeRun(long[] buffer, int size, int index)
+			throws IOException {
+		Arrays.sort(buffer, 0, size);
+		// remove the duplicates within the run
+		int unique = 0;
+		for (int i = 0; i < size; i++) {
+			if (0 == unique || buffer[unique - 1] != buffer[i]) {
+				buffer[unique++] = buffer[i];
+			}
+		}
+		duplicatesRemoved.add(size - unique);
+		File run = new File(workDirectory, "run" + index);
+		writeKeys(run, buffer, unique);
+		runsWritten.increment();
+		return run;
+	}
+
+	// Merges the sorted runs into the next layer, dropping duplicates and the
+	// states of the current and the previous layer. Returns the size of the
+	// next layer.
+	private long mergeRuns(List<File> runs, File current, File previous,
+			File next) throws IOException {
+		PriorityQueue<KeyReader> heap = new PriorityQueue<KeyReader>(Math.max(
+				1, runs.size()), LOWEST_KEY_FIRST);
+		KeyReader cur = null;
+		KeyReader prev = null;
+		DataOutputStream out = null;
+		long size = 0;
+		try {
+			for (File run : runs) {
+				KeyReader r = new KeyReader(run);
+				if (r.advance()) {
+					heap.add(r);
+				} else {
+					r.close();
+				}
+			}
+			cur = new KeyReader(current);
+			cur.advance();
+			if (null != previous) {
+				prev = new KeyReader(previous);
+				prev.advance();
+			}
+			out = new DataOutputStream(new BufferedOutputStream(
+					new FileOutputStream(next), IO_BUFFER_SIZE));
+			boolean first = true;
+			long last = 0;
+			while (!heap.isEmpty()) {
+				KeyReader r = heap.poll();
+				long key = r.current;
+				if (r.advance()) {
+					heap.add(r);
+				} else {
+					r.close();
+				}
+				if ((!first && key == last) || cur.skipTo(key)
+						|| (null != prev && prev.skipTo(key))) {
+					duplicatesRemoved.increment();
+					continue;
+				}
+				out.writeLong(key);
+				first = false;
+				last = key;
+				size++;
+			}
+		} finally {
+			for (KeyReader r : heap) {
+				r.close();
+			}
+			if (null != cur) {
+				cur.close();
+			}
+			if (null != prev) {
+				prev.close();
+			}
+			if (null != out) {
+				out.close();
+			}
+		}
+		return size;
+	}
+
+	// Walks back from the goal through the layers, searching each layer for a
+	// predecessor of the state found last.
+	private List<Action> reconstructSolution() throws IOException {
+		List<Action> actions = new ArrayList<Action>();
+		long target = goalKey;
+		ResultFunction resultFunction = problem.getResultFunction();
+		for (int d = layers.size() - 1; d >= 0; d--) {
+			KeyReader in = new KeyReader(layers.get(d));
+			Action found = null;
+			try {
+				while (null == found && in.advance()) {
+					Object state = codec.decode(in.current);
+					for (Iterator<Action> it = SearchUtils.actionIterator(
+							problem.getActionsFunction(), state); it.hasNext();) {
+						Action a = it.next();
+						Object successor = resultFunction.result(state, a);
+						if (codec.encode(successor) == target) {
+							found = a;
+							target = in.current;
+							break;
+						}
+					}
+				}
+			} finally {
+				in.close();
+			}
+			if (null == found) {
+				throw new IllegalStateException(
+						"No predecessor found in layer " + d + ".");
+			}
+			actions.add(found);
+		}
+		Collections.reverse(actions);
+		return actions;
+	}
+
+	private File createWorkDirectory() throws IOException {
+		File dir = File.createTempFile("bfs", "", directory);
+		if (!dir.delete() || !dir.mkdir()) {
+			throw new IOException("Cannot create directory " + dir + ".");
+		}
+		return dir;
+	}
+
+	private static void writeKeys(File file, long[] keys, int size)
+			throws IOException {
+		DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+				new FileOutputStream(file), IO_BUFFER_SIZE));
+		try {
+			for (int i = 0; i < size; i++) {
+				out.writeLong(keys[i]);
+			}
+		} finally {
+			out.close();
+		}
+	}
+
+	private static void deleteAll(List<File> files) {
+		for (File file : files) {
+			file.delete();
+		}
+	}
+
+	/**
+	 * Reads the keys of a sorted file one at a time.
+	 */
+	private static class KeyReader {
+		final DataInputStream in;
+		long remaining;
+		long current;
+		boolean exhausted = false;
+
+		KeyReader(File file) throws IOException {
+			in = new DataInputStream(new BufferedInputStream(
+					new FileInputStream(file), IO_BUFFER_SIZE));
+			remaining = file.length() / 8;
+		}
+
+		boolean advance() throws IOException {
+			if (0 == remaining) {
+				exhausted = true;
+				return false;
+			}
+			remaining--;
+			current = in.readLong();
+			return true;
+		}
+
+		// Advances to the first key which is not less than the specified
+		// key, returns true if the key is contained in the file.
+		boolean skipTo(long key) throws IOException {
+			while (!exhausted && current < key) {
+				advance();
+			}
+			return !exhausted && current == key;
+		}
+
+		void close() throws IOException {
+			in.close();
+		}
+	}
+
+	private static final Comparator<KeyReader> LOWEST_KEY_FIRST = new Comparator<KeyReader>() {
+		public int compare(KeyReader r1, KeyReader r2) {
+			return r1.current < r2.current ? -1
+					: (r1.current == r2.current ? 0 : 1);
+		}
+	};
+}
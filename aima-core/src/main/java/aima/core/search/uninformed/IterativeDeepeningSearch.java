@@ -2,6 +2,8 @@ package aima.core.search.uninformed;
 
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import aima.core.agent.Action;
 import aima.core.search.framework.Metrics;
@@ -24,7 +26,11 @@ import aima.core.search.framework.Search;
  * Figure 3.18 The iterative deepening search algorithm, which repeatedly
  * applies depth-limited search with increasing limits. It terminates when a
  * solution is found or if the depth- limited search returns failure, meaning
- * that no solution exists.
+ * that no solution exists.<br>
+ * <br>
+ * Optionally, each depth-limited search searches subtrees in parallel, see
+ * {@link DepthLimitedSearch#DepthLimitedSearch(int, ExecutorService)}. The
+ * worker threads are shared by the iterations of a search.
  * 
  * @author Ravi Mohan
  * @author Ciaran O'Reilly
@@ -37,34 +43,65 @@ public class IterativeDeepeningSearch extends NodeExpander implements Search {
 
 	private final Metrics iterationMetrics;
 
+	private final Metrics.LongCounter iterationNodesExpanded;
+
+	private final int numberOfThreads;
+
 	public IterativeDeepeningSearch() {
+		this(0);
+	}
+
+	/**
+	 * Constructs an iterative deepening search which searches subtrees in
+	 * parallel.
+	 * 
+	 * @param numberOfThreads
+	 *            the number of worker threads, or 0 for a sequential search.
+	 */
+	public IterativeDeepeningSearch(int numberOfThreads) {
+		if (numberOfThreads < 0) {
+			throw new IllegalArgumentException(
+					"Number of threads must not be negative.");
+		}
+		this.numberOfThreads = numberOfThreads;
 		iterationMetrics = new Metrics();
-		iterationMetrics.set(METRIC_NODES_EXPANDED, 0);
+		iterationNodesExpanded = iterationMetrics
+				.counter(METRIC_NODES_EXPANDED);
 		iterationMetrics.set(PATH_COST, 0);
 	}
 
 	// function ITERATIVE-DEEPENING-SEARCH(problem) returns a solution, or
 	// failure
 	public List<Action> search(Problem p) throws Exception {
-		iterationMetrics.set(METRIC_NODES_EXPANDED, 0);
+		iterationNodesExpanded.reset();
 		iterationMetrics.set(PATH_COST, 0);
-		// for depth = 0 to infinity do
-		for (int i = 0; i <= infinity; i++) {
-			// result <- DEPTH-LIMITED-SEARCH(problem, depth)
-			DepthLimitedSearch dls = new DepthLimitedSearch(i);
-			List<Action> result = dls.search(p);
-			iterationMetrics.set(METRIC_NODES_EXPANDED,
-					iterationMetrics.getInt(METRIC_NODES_EXPANDED)
-							+ dls.getMetrics().getInt(METRIC_NODES_EXPANDED));
-			// if result != cutoff then return result
-			if (!dls.isCutOff(result)) {
-				iterationMetrics.set(PATH_COST, dls.getPathCost());
-				return result;
+		ExecutorService executor = numberOfThreads > 0 ? Executors
+				.newFixedThreadPool(numberOfThreads) : null;
+		try {
+			// for depth = 0 to infinity do
+			for (int i = 0; i <= infinity; i++) {
+				// result <- DEPTH-LIMITED-SEARCH(problem, depth)
+				DepthLimitedSearch dls = new DepthLimitedSearch(i, executor);
+				List<Action> result = dls.search(p);
+				iterationNodesExpanded.add(dls.getNodesExpanded());
+				// if result != cutoff then return result
+				if (!dls.isCutOff(result)) {
+					iterationMetrics.set(PATH_COST, dls.getPathCost());
+					return result;
+				}
+			}
+		} finally {
+			if (null != executor) {
+				executor.shutdownNow();
 			}
 		}
 		return failure();
 	}
 
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
 	@Override
 	public Metrics getMetrics() {
 		return iterationMetrics;
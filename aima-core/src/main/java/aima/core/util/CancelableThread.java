@@ -19,7 +19,7 @@ public class CancelableThread extends Thread {
 		return false;
 	}
 
-	private boolean isCanceled;
+	private volatile boolean isCanceled;
 
 	/**
 	 * Returns <code>true</code> if this thread is canceled
@@ -36,4 +36,12 @@ public class CancelableThread extends Thread {
 	public void cancel() {
 		isCanceled = true;
 	}
+
+	/**
+	 * Clears the cancellation flag, so that a pooled thread can run further
+	 * tasks after a canceled one.
+	 */
+	public void resetCanceled() {
+		isCanceled = false;
+	}
 }
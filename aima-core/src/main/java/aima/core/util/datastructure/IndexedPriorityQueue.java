@@ -0,0 +1,258 @@
+package aima.core.util.datastructure;
+
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * A priority queue implemented as an indexed binary heap. In addition to the
+ * heap, the queue maintains an index from each element to its position in the
+ * heap. This makes {@link #contains(Object)} a constant time operation and
+ * reduces {@link #remove(Object)} to O(log n), where a plain
+ * {@link java.util.PriorityQueue} needs a linear scan.<br>
+ * <br>
+ * The heap is maintained in exactly the same way as in
+ * {@link java.util.PriorityQueue}, so elements with equal priority are popped
+ * in the same order as with {@link PriorityQueue}. For this reason, a node
+ * reached on a cheaper path is not moved up in place (decrease-key), but
+ * {@link aima.core.search.framework.GraphSearch} removes the old node and
+ * inserts the new one, as it does with any other frontier.<br>
+ * <br>
+ * Note: The elements of the queue must be distinct with respect to
+ * <code>equals</code>.
+ */
+public class IndexedPriorityQueue<E> extends AbstractQueue<E> implements
+		Queue<E> {
+
+	private final Comparator<? super E> comparator;
+	private Entry<E>[] heap;
+	private int size = 0;
+	private final Map<E, Entry<E>> index;
+	private int modCount = 0;
+
+	/**
+	 * Creates a queue which orders its elements according to their natural
+	 * ordering.
+	 */
+	public IndexedPriorityQueue() {
+		this(11, null);
+	}
+
+	/**
+	 * Creates a queue which orders its elements according to the specified
+	 * comparator.
+	 *
+	 * @param initialCapacity
+	 *            the initial capacity of the heap.
+	 * @param comparator
+	 *            the comparator used to order the elements, or null if the
+	 *            natural ordering of the elements is to be used.
+	 */
+	public IndexedPriorityQueue(int initialCapacity,
+			Comparator<? super E> comparator) {
+		if (initialCapacity < 1) {
+			throw new IllegalArgumentException();
+		}
+		this.comparator = comparator;
+		heap = newHeap(initialCapacity);
+		index = new HashMap<E, Entry<E>>(initialCapacity * 2);
+	}
+
+	//
+	// START-Queue
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public E pop() {
+		return poll();
+	}
+
+	public Queue<E> insert(E element) {
+		if (offer(element)) {
+			return this;
+		}
+		return null;
+	}
+
+	// END-Queue
+	//
+
+	@Override
+	public boolean offer(E element) {
+		if (null == element) {
+			throw new NullPointerException();
+		}
+		if (index.containsKey(element)) {
+			throw new IllegalArgumentException(
+					"Queue already contains the element.");
+		}
+		Entry<E> e = new Entry<E>(element);
+		index.put(element, e);
+		modCount++;
+		if (size >= heap.length) {
+			heap = Arrays.copyOf(heap, heap.length < 64 ? heap.length * 2 + 2
+					: heap.length + (heap.length >> 1));
+		}
+		siftUp(size++, e);
+		return true;
+	}
+
+	public E peek() {
+		return 0 == size ? null : heap[0].element;
+	}
+
+	public E poll() {
+		if (0 == size) {
+			return null;
+		}
+		E result = heap[0].element;
+		index.remove(result);
+		removeAt(0);
+		return result;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return index.containsKey(o);
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		Entry<E> e = index.remove(o);
+		if (null == e) {
+			return false;
+		}
+		removeAt(e.pos);
+		return true;
+	}
+
+	@Override
+	public void clear() {
+		modCount++;
+		Arrays.fill(heap, 0, size, null);
+		size = 0;
+		index.clear();
+	}
+
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Returns an iterator over the elements in this queue, in no particular
+	 * order.
+	 */
+	@Override
+	public Iterator<E> iterator() {
+		return new Iterator<E>() {
+			private int cursor = 0;
+			private final int expectedModCount = modCount;
+
+			public boolean hasNext() {
+				return cursor < size;
+			}
+
+			public E next() {
+				if (expectedModCount != modCount) {
+					throw new ConcurrentModificationException();
+				}
+				if (cursor >= size) {
+					throw new NoSuchElementException();
+				}
+				return heap[cursor++].element;
+			}
+
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	@SuppressWarnings("unchecked")
+	private static <E> Entry<E>[] newHeap(int capacity) {
+		// generic arrays can not be created directly
+		return (Entry<E>[]) new Entry<?>[capacity];
+	}
+
+	private void removeAt(int i) {
+		modCount++;
+		int s = --size;
+		if (s == i) {
+			heap[i] = null;
+		} else {
+			Entry<E> moved = heap[s];
+			heap[s] = null;
+			siftDown(i, moved);
+			if (heap[i] == moved) {
+				siftUp(i, moved);
+			}
+		}
+	}
+
+	private void siftUp(int k, Entry<E> e) {
+		while (k > 0) {
+			int parent = (k - 1) >>> 1;
+			Entry<E> p = heap[parent];
+			if (compare(e.element, p.element) >= 0) {
+				break;
+			}
+			set(k, p);
+			k = parent;
+		}
+		set(k, e);
+	}
+
+	private void siftDown(int k, Entry<E> e) {
+		int half = size >>> 1;
+		while (k < half) {
+			int child = (k << 1) + 1;
+			Entry<E> c = heap[child];
+			int right = child + 1;
+			if (right < size && compare(c.element, heap[right].element) > 0) {
+				c = heap[child = right];
+			}
+			if (compare(e.element, c.element) <= 0) {
+				break;
+			}
+			set(k, c);
+			k = child;
+		}
+		set(k, e);
+	}
+
+	private void set(int pos, Entry<E> e) {
+		heap[pos] = e;
+		e.pos = pos;
+	}
+
+	@SuppressWarnings("unchecked")
+	private int compare(E e1, E e2) {
+		if (null != comparator) {
+			return comparator.compare(e1, e2);
+		}
+		return ((Comparable<? super E>) e1).compareTo(e2);
+	}
+
+	/**
+	 * Heap slot holding an element together with its current position, so
+	 * that moving an element within the heap does not allocate.
+	 */
+	private static class Entry<E> {
+		E element;
+		int pos;
+
+		Entry(E element) {
+			this.element = element;
+		}
+	}
+}
@@ -0,0 +1,142 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive <code>long</code> keys to primitive
+ * <code>double</code> values, implemented as an open addressing hash table
+ * with linear probing. Compared to a <code>HashMap&lt;Long, Double&gt;</code>
+ * it boxes neither the keys nor the values and allocates no entry per
+ * mapping, so that a mapping occupies only between 23 and 46 bytes, depending
+ * on the current load of the table.
+ */
+public class LongDoubleHashMap {
+	private long[] keys;
+	private double[] values;
+	private boolean[] used;
+	private int size = 0;
+	private int mask;
+	private int threshold;
+
+	public LongDoubleHashMap() {
+		this(16);
+	}
+
+	/**
+	 * Creates a map which can hold the specified number of mappings without
+	 * being resized.
+	 *
+	 * @param expectedSize
+	 *            the expected number of mappings.
+	 */
+	public LongDoubleHashMap(int expectedSize) {
+		allocate(LongHashMap.tableSize(expectedSize));
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or the specified
+	 * default value if this map contains no mapping for the key.
+	 */
+	public double get(long key, double defaultValue) {
+		int i = LongHashMap.hash(key) & mask;
+		while (used[i]) {
+			if (key == keys[i]) {
+				return values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return defaultValue;
+	}
+
+	public boolean containsKey(long key) {
+		int i = LongHashMap.hash(key) & mask;
+		while (used[i]) {
+			if (key == keys[i]) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Associates the specified value with the specified key.
+	 *
+	 * @return true if this map did not already contain a mapping for the key.
+	 */
+	public boolean put(long key, double value) {
+		int i = LongHashMap.hash(key) & mask;
+		while (used[i]) {
+			if (key == keys[i]) {
+				values[i] = value;
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		used[i] = true;
+		if (++size > threshold) {
+			resize();
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the keys of this map, in no particular order.
+	 *
+	 * @return a new array holding the keys of this map.
+	 */
+	public long[] keys() {
+		long[] result = new long[size];
+		int n = 0;
+		for (int i = 0; i < keys.length; i++) {
+			if (used[i]) {
+				result[n++] = keys[i];
+			}
+		}
+		return result;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public void clear() {
+		Arrays.fill(used, false);
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new double[capacity];
+		used = new boolean[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LongHashMap.LOAD_FACTOR);
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		double[] oldValues = values;
+		boolean[] oldUsed = used;
+		allocate(keys.length * 2);
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldUsed[j]) {
+				int i = LongHashMap.hash(oldKeys[j]) & mask;
+				while (used[i]) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+				used[i] = true;
+			}
+		}
+	}
+}
@@ -0,0 +1,197 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * A map from primitive <code>long</code> keys to objects, implemented as an
+ * open addressing hash table with linear probing. Compared to a
+ * <code>HashMap&lt;Long, V&gt;</code> it neither boxes the keys nor allocates
+ * an entry per mapping.<br>
+ * <br>
+ * Note: Null values are not supported.
+ * 
+ * @param <V>
+ *            the type of the values.
+ */
+public class LongHashMap<V> {
+	static final float LOAD_FACTOR = 0.75f;
+
+	private long[] keys;
+	// null marks a free slot
+	private Object[] values;
+	private int size = 0;
+	private int mask;
+	private int threshold;
+
+	public LongHashMap() {
+		this(16);
+	}
+
+	/**
+	 * Creates a map which can hold the specified number of mappings without
+	 * being resized.
+	 * 
+	 * @param expectedSize
+	 *            the expected number of mappings.
+	 */
+	public LongHashMap(int expectedSize) {
+		allocate(tableSize(expectedSize));
+	}
+
+	/**
+	 * Returns the value to which the specified key is mapped, or null if this
+	 * map contains no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V get(long key) {
+		int i = hash(key) & mask;
+		while (null != values[i]) {
+			if (key == keys[i]) {
+				return (V) values[i];
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	public boolean containsKey(long key) {
+		return null != get(key);
+	}
+
+	/**
+	 * Associates the specified value with the specified key.
+	 * 
+	 * @return the previous value associated with the key, or null if there
+	 *         was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V put(long key, V value) {
+		if (null == value) {
+			throw new NullPointerException("Null values are not supported.");
+		}
+		int i = hash(key) & mask;
+		while (null != values[i]) {
+			if (key == keys[i]) {
+				V old = (V) values[i];
+				values[i] = value;
+				return old;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		values[i] = value;
+		if (++size > threshold) {
+			resize();
+		}
+		return null;
+	}
+
+	/**
+	 * Removes the mapping for the specified key.
+	 * 
+	 * @return the value which was associated with the key, or null if there
+	 *         was no mapping for the key.
+	 */
+	@SuppressWarnings("unchecked")
+	public V remove(long key) {
+		int i = hash(key) & mask;
+		while (null != values[i]) {
+			if (key == keys[i]) {
+				V old = (V) values[i];
+				closeGap(i);
+				size--;
+				return old;
+			}
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public void clear() {
+		Arrays.fill(values, null);
+		size = 0;
+	}
+
+	//
+	// PACKAGE METHODS, shared with LongHashSet
+	//
+
+	// The 64 bit finalizer of MurmurHash3, so that keys which only differ in
+	// their high order bits (e.g. packed states) are spread over the table.
+	static int hash(long key) {
+		key ^= key >>> 33;
+		key *= 0xff51afd7ed558ccdL;
+		key ^= key >>> 33;
+		key *= 0xc4ceb9fe1a85ec53L;
+		key ^= key >>> 33;
+		return (int) key;
+	}
+
+	static int tableSize(int expectedSize) {
+		int capacity = 4;
+		while (capacity * LOAD_FACTOR < expectedSize) {
+			capacity <<= 1;
+		}
+		return capacity;
+	}
+
+	// Returns true if home lies cyclically in (gap, i], i.e. an element at
+	// slot i with the specified home slot must not be moved to the gap.
+	static boolean isBetween(int gap, int home, int i) {
+		return gap <= i ? gap < home && home <= i : gap < home || home <= i;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		values = new Object[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LOAD_FACTOR);
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		Object[] oldValues = values;
+		allocate(keys.length * 2);
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (null != oldValues[j]) {
+				int i = hash(oldKeys[j]) & mask;
+				while (null != values[i]) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = oldKeys[j];
+				values[i] = oldValues[j];
+			}
+		}
+	}
+
+	// Backward shift deletion: moves following entries of the probe sequence
+	// into the freed slot, so that no tombstones are needed.
+	private void closeGap(int gap) {
+		int i = gap;
+		while (true) {
+			i = (i + 1) & mask;
+			if (null == values[i]) {
+				break;
+			}
+			int home = hash(keys[i]) & mask;
+			if (isBetween(gap, home, i)) {
+				continue;
+			}
+			keys[gap] = keys[i];
+			values[gap] = values[i];
+			gap = i;
+		}
+		values[gap] = null;
+	}
+}
@@ -0,0 +1,159 @@
+package aima.core.util.datastructure;
+
+import java.util.Arrays;
+
+/**
+ * A set of primitive <code>long</code> values, implemented as an open
+ * addressing hash table with linear probing. Compared to a
+ * <code>HashSet&lt;Long&gt;</code> it neither boxes the values nor allocates
+ * an entry per value, so that an element occupies only between 11 and 22
+ * bytes, depending on the current load of the table.
+ */
+public class LongHashSet {
+	// 0 marks a free slot, the value 0 itself is tracked separately
+	private long[] keys;
+	private boolean containsZero = false;
+	private int size = 0;
+	private int mask;
+	private int threshold;
+
+	public LongHashSet() {
+		this(16);
+	}
+
+	/**
+	 * Creates a set which can hold the specified number of elements without
+	 * being resized.
+	 * 
+	 * @param expectedSize
+	 *            the expected number of elements.
+	 */
+	public LongHashSet(int expectedSize) {
+		allocate(LongHashMap.tableSize(expectedSize));
+	}
+
+	/**
+	 * Adds the specified value to this set.
+	 * 
+	 * @return true if this set did not already contain the value.
+	 */
+	public boolean add(long value) {
+		if (0 == value) {
+			if (containsZero) {
+				return false;
+			}
+			containsZero = true;
+			size++;
+			return true;
+		}
+		int i = LongHashMap.hash(value) & mask;
+		while (0 != keys[i]) {
+			if (value == keys[i]) {
+				return false;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[i] = value;
+		if (++size > threshold) {
+			resize();
+		}
+		return true;
+	}
+
+	public boolean contains(long value) {
+		if (0 == value) {
+			return containsZero;
+		}
+		int i = LongHashMap.hash(value) & mask;
+		while (0 != keys[i]) {
+			if (value == keys[i]) {
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	/**
+	 * Removes the specified value from this set.
+	 * 
+	 * @return true if this set contained the value.
+	 */
+	public boolean remove(long value) {
+		if (0 == value) {
+			if (!containsZero) {
+				return false;
+			}
+			containsZero = false;
+			size--;
+			return true;
+		}
+		int i = LongHashMap.hash(value) & mask;
+		while (0 != keys[i]) {
+			if (value == keys[i]) {
+				closeGap(i);
+				size--;
+				return true;
+			}
+			i = (i + 1) & mask;
+		}
+		return false;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return 0 == size;
+	}
+
+	public void clear() {
+		Arrays.fill(keys, 0L);
+		containsZero = false;
+		size = 0;
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void allocate(int capacity) {
+		keys = new long[capacity];
+		mask = capacity - 1;
+		threshold = (int) (capacity * LongHashMap.LOAD_FACTOR);
+	}
+
+	private void resize() {
+		long[] oldKeys = keys;
+		allocate(keys.length * 2);
+		for (long key : oldKeys) {
+			if (0 != key) {
+				int i = LongHashMap.hash(key) & mask;
+				while (0 != keys[i]) {
+					i = (i + 1) & mask;
+				}
+				keys[i] = key;
+			}
+		}
+	}
+
+	// Backward shift deletion: moves following elements of the probe
+	// sequence into the freed slot, so that no tombstones are needed.
+	private void closeGap(int gap) {
+		int i = gap;
+		while (true) {
+			i = (i + 1) & mask;
+			long key = keys[i];
+			if (0 == key) {
+				break;
+			}
+			int home = LongHashMap.hash(key) & mask;
+			if (LongHashMap.isBetween(gap, home, i)) {
+				continue;
+			}
+			keys[gap] = key;
+			gap = i;
+		}
+		keys[gap] = 0;
+	}
+}
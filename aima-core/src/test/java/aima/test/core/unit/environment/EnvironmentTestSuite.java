@@ -7,6 +7,7 @@ import aima.test.core.unit.environment.cellworld.CellWorldTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleBoardMoveTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleBoardTest;
 import aima.test.core.unit.environment.eightpuzzle.EightPuzzleFunctionFactoryTest;
+import aima.test.core.unit.environment.eightpuzzle.EightPuzzleStateCodecTest;
 import aima.test.core.unit.environment.eightpuzzle.MisplacedTileHeuristicFunctionTest;
 import aima.test.core.unit.environment.map.MapAgentTest;
 import aima.test.core.unit.environment.map.MapEnvironmentTest;
@@ -14,9 +15,15 @@ import aima.test.core.unit.environment.map.MapFunctionFactoryTest;
 import aima.test.core.unit.environment.map.MapStepCostFunctionTest;
 import aima.test.core.unit.environment.map.MapTest;
 import aima.test.core.unit.environment.nqueens.NQueensBoardTest;
+import aima.test.core.unit.environment.nqueens.NQueensColumnBoardTest;
 import aima.test.core.unit.environment.nqueens.NQueensFitnessFunctionTest;
 import aima.test.core.unit.environment.nqueens.NQueensFunctionFactoryTest;
 import aima.test.core.unit.environment.nqueens.NQueensGoalTestTest;
+import aima.test.core.unit.environment.nqueens.NQueensStateCodecTest;
+import aima.test.core.unit.environment.slidingtile.PackedTileBoardTest;
+import aima.test.core.unit.environment.slidingtile.PatternDatabaseHeuristicFunctionTest;
+import aima.test.core.unit.environment.slidingtile.SlidingTileBoardTest;
+import aima.test.core.unit.environment.slidingtile.SlidingTileStateCodecTest;
 import aima.test.core.unit.environment.tictactoe.TicTacToeTest;
 import aima.test.core.unit.environment.vacuum.ModelBasedReflexVacuumAgentTest;
 import aima.test.core.unit.environment.vacuum.ReflexVacuumAgentTest;
@@ -28,12 +35,15 @@ import aima.test.core.unit.environment.xyenv.XYEnvironmentTest;
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ CellWorldTest.class, EightPuzzleBoardMoveTest.class,
 		EightPuzzleBoardTest.class, EightPuzzleFunctionFactoryTest.class,
+		EightPuzzleStateCodecTest.class,
 		MisplacedTileHeuristicFunctionTest.class, TicTacToeTest.class,
 		MapAgentTest.class, MapEnvironmentTest.class,
 		MapStepCostFunctionTest.class, MapFunctionFactoryTest.class,
-		MapTest.class, NQueensBoardTest.class,
+		MapTest.class, NQueensBoardTest.class, NQueensColumnBoardTest.class,
 		NQueensFitnessFunctionTest.class, NQueensGoalTestTest.class,
-		NQueensFunctionFactoryTest.class,
+		NQueensFunctionFactoryTest.class, NQueensStateCodecTest.class,
+		PackedTileBoardTest.class, PatternDatabaseHeuristicFunctionTest.class,
+		SlidingTileBoardTest.class, SlidingTileStateCodecTest.class,
 		ModelBasedReflexVacuumAgentTest.class, ReflexVacuumAgentTest.class,
 		SimpleReflexVacuumAgentTest.class, TableDrivenVacuumAgentTest.class,
 		VacuumEnvironmentTest.class, XYEnvironmentTest.class })
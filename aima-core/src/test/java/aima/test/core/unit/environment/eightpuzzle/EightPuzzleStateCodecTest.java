@@ -0,0 +1,43 @@
+package aima.test.core.unit.environment.eightpuzzle;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.slidingtile.PackedTileBoard;
+
+public class EightPuzzleStateCodecTest {
+
+	@Test
+	public void testEncodeDecode() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+		long key = codec.encode(board);
+		Assert.assertEquals(0x532640817L, key);
+		Assert.assertEquals(board, codec.decode(key));
+
+		EightPuzzleBoard moved = new EightPuzzleBoard(board);
+		moved.moveGapRight();
+		Assert.assertTrue(key != codec.encode(moved));
+		Assert.assertEquals(moved, codec.decode(codec.encode(moved)));
+	}
+
+	@Test
+	public void testPackedBoard() {
+		EightPuzzleStateCodec codec = new EightPuzzleStateCodec();
+		int[] tiles = { 7, 1, 8, 0, 4, 6, 2, 3, 5 };
+		PackedTileBoard packed = new PackedTileBoard(tiles);
+		long key = codec.encode(packed);
+		Assert.assertEquals(codec.encode(new EightPuzzleBoard(tiles)), key);
+		EightPuzzleBoard decoded = (EightPuzzleBoard) codec.decode(key);
+		Assert.assertArrayEquals(tiles, decoded.getState());
+		Assert.assertEquals(packed, new PackedTileBoard(decoded.getState()));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testFifteenPuzzleBoard() {
+		new EightPuzzleStateCodec().encode(new PackedTileBoard(4));
+	}
+}
@@ -0,0 +1,134 @@
+package aima.test.core.unit.environment.nqueens;
+
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensColumnBoard;
+import aima.core.environment.nqueens.NQueensFitnessFunction;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.environment.nqueens.NQueensMinConflictsSolver;
+import aima.core.environment.nqueens.QueenAction;
+import aima.core.search.framework.Problem;
+import aima.core.search.local.HillClimbingSearch;
+import aima.core.util.datastructure.XYLocation;
+
+public class NQueensColumnBoardTest {
+
+	@Test
+	public void testInitialBoard() {
+		NQueensColumnBoard board = new NQueensColumnBoard(8);
+		// all queens in the first row
+		Assert.assertEquals(28, board.getNumberOfAttackingPairs());
+		Assert.assertEquals(7, board.getNumberOfAttacksOn(3));
+		Assert.assertEquals(1, board.getNumberOfConflicts(0, 1));
+		Assert.assertEquals(-6, board.getAttackingPairsDelta(0, 1));
+		Assert.assertEquals(board.toNQueensBoard().toString(), board.toString());
+	}
+
+	@Test
+	public void testRandomMoves() {
+		Random random = new Random(5);
+		int size = 10;
+		NQueensColumnBoard board = new NQueensColumnBoard(size);
+		for (int step = 0; step < 500; step++) {
+			int x = random.nextInt(size);
+			int y = random.nextInt(size);
+			long before = board.getNumberOfAttackingPairs();
+			int delta = board.getAttackingPairsDelta(x, y);
+			board.moveQueen(x, y);
+			Assert.assertEquals(before + delta,
+					board.getNumberOfAttackingPairs());
+
+			NQueensBoard reference = board.toNQueensBoard();
+			Assert.assertEquals(reference.getNumberOfAttackingPairs(),
+					board.getNumberOfAttackingPairs());
+			for (int col = 0; col < size; col++) {
+				Assert.assertEquals(reference
+						.getNumberOfAttacksOn(new XYLocation(col, board
+								.getRowOf(col))),
+						board.getNumberOfAttacksOn(col));
+			}
+			Assert.assertEquals(new NQueensColumnBoard(reference), board);
+			Assert.assertEquals(new NQueensGoalTest().isGoalState(reference),
+					new NQueensGoalTest().isGoalState(board));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testIncompleteBoard() {
+		NQueensBoard board = new NQueensBoard(4);
+		board.addQueenAt(new XYLocation(0, 0));
+		new NQueensColumnBoard(board);
+	}
+
+	@Test
+	public void testFunctions() {
+		NQueensColumnBoard board = new NQueensColumnBoard(new int[] { 0, 4,
+				7, 5, 2, 6, 1, 3 });
+		Assert.assertTrue(new NQueensGoalTest().isGoalState(board));
+		Assert.assertEquals(56, NQueensFunctionFactory.getCActionsFunction()
+				.actions(board).size());
+		NQueensColumnBoard moved = (NQueensColumnBoard) NQueensFunctionFactory
+				.getResultFunction().result(
+						board,
+						new QueenAction(QueenAction.MOVE_QUEEN,
+								new XYLocation(0, 1)));
+		// results are new boards
+		Assert.assertEquals(0, board.getRowOf(0));
+		Assert.assertEquals(1, moved.getRowOf(0));
+		Assert.assertEquals(moved.getNumberOfAttackingPairs(),
+				new AttackingPairsHeuristic().h(moved), 0.0);
+		Assert.assertFalse(new NQueensGoalTest().isGoalState(moved));
+	}
+
+	@Test
+	public void testHillClimbing() throws Exception {
+		Problem problem = new Problem(new NQueensColumnBoard(8),
+				NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+		HillClimbingSearch search = new HillClimbingSearch(
+				new AttackingPairsHeuristic());
+		search.search(problem);
+		NQueensColumnBoard result = (NQueensColumnBoard) search
+				.getLastSearchState();
+		// the same local optimum as with the general board
+		problem = new Problem(new NQueensColumnBoard(8).toNQueensBoard(),
+				NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+		search.search(problem);
+		Assert.assertEquals(new NQueensColumnBoard(
+				(NQueensBoard) search.getLastSearchState()), result);
+	}
+
+	@Test
+	public void testFitnessFunction() {
+		NQueensFitnessFunction fitnessFunction = new NQueensFitnessFunction();
+		Assert.assertEquals(new NQueensColumnBoard(fitnessFunction
+				.getBoardForIndividual("56136477")), fitnessFunction
+				.getColumnBoardForIndividual("56136477"));
+		Assert.assertEquals(23.0, fitnessFunction.getValue("56136477"), 0.0);
+	}
+
+	@Test
+	public void testMinConflicts() {
+		NQueensMinConflictsSolver solver = new NQueensMinConflictsSolver(1000,
+				new Random(11));
+		NQueensColumnBoard board = new NQueensColumnBoard(8);
+		Assert.assertTrue(solver.solve(board));
+		Assert.assertEquals(0, board.toNQueensBoard()
+				.getNumberOfAttackingPairs());
+
+		// 100000 queens, a million take a few seconds
+		board = solver.solve(100000);
+		Assert.assertNotNull(board);
+		Assert.assertTrue(board.isGoal());
+		Assert.assertTrue(solver.getSteps() < 1000);
+	}
+}
@@ -0,0 +1,56 @@
+package aima.test.core.unit.environment.nqueens;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensStateCodec;
+import aima.core.util.datastructure.XYLocation;
+
+public class NQueensStateCodecTest {
+
+	@Test
+	public void testEncodeDecode() {
+		NQueensStateCodec codec = new NQueensStateCodec(8);
+		NQueensBoard board = new NQueensBoard(8);
+		Assert.assertEquals(0L, codec.encode(board));
+
+		board.addQueenAt(new XYLocation(0, 0));
+		board.addQueenAt(new XYLocation(2, 7));
+		long key = codec.encode(board);
+		Assert.assertEquals(0x801L, key);
+		NQueensBoard decoded = (NQueensBoard) codec.decode(key);
+		Assert.assertEquals(board.getQueenPositions(),
+				decoded.getQueenPositions());
+
+		// a subset of the queens is encoded differently
+		NQueensBoard subset = new NQueensBoard(8);
+		subset.addQueenAt(new XYLocation(0, 0));
+		Assert.assertTrue(key != codec.encode(subset));
+	}
+
+	@Test
+	public void testLargestBoard() {
+		NQueensStateCodec codec = new NQueensStateCodec(15);
+		NQueensBoard board = new NQueensBoard(15);
+		for (int x = 0; x < 15; x++) {
+			board.addQueenAt(new XYLocation(x, 14 - x));
+		}
+		Assert.assertEquals(board.getQueenPositions(),
+				((NQueensBoard) codec.decode(codec.encode(board)))
+						.getQueenPositions());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoardTooLarge() {
+		new NQueensStateCodec(16);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTwoQueensInColumn() {
+		NQueensBoard board = new NQueensBoard(4);
+		board.addQueenAt(new XYLocation(1, 0));
+		board.addQueenAt(new XYLocation(1, 2));
+		new NQueensStateCodec(4).encode(board);
+	}
+}
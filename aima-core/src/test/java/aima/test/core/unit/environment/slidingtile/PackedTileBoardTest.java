@@ -0,0 +1,149 @@
+package aima.test.core.unit.environment.slidingtile;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.eightpuzzle.MisplacedTilleHeuristicFunction;
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.environment.slidingtile.SlidingTileBoard;
+import aima.core.environment.slidingtile.SlidingTileFunctionFactory;
+import aima.core.environment.slidingtile.SlidingTileGoalTest;
+import aima.core.environment.slidingtile.SlidingTileManhattanHeuristicFunction;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.IterativeDeepeningAStarSearch;
+
+public class PackedTileBoardTest {
+
+	@Test
+	public void testGoalBoard() {
+		PackedTileBoard board = new PackedTileBoard(4);
+		Assert.assertEquals(16, board.getNumberOfSquares());
+		Assert.assertEquals(0, board.getGapSquare());
+		Assert.assertTrue(board.isGoal());
+		Assert.assertTrue(new SlidingTileGoalTest().isGoalState(board));
+		Assert.assertEquals(0xfedcba9876543210L, board.getKey());
+		Assert.assertEquals("[Action[name==Down], Action[name==Right]]",
+				SlidingTileFunctionFactory.getActionsFunction().actions(board)
+						.toString());
+		Assert.assertEquals(new SlidingTileBoard(4).toString(),
+				board.toString());
+	}
+
+	@Test
+	public void testMoveGap() {
+		PackedTileBoard board = new PackedTileBoard(4);
+		Assert.assertSame(board, board.moveGap(SlidingTileBoard.UP));
+		PackedTileBoard moved = board.moveGap(SlidingTileBoard.DOWN).moveGap(
+				SlidingTileBoard.RIGHT);
+		// boards are immutable
+		Assert.assertTrue(board.isGoal());
+		Assert.assertEquals(5, moved.getGapSquare());
+		Assert.assertEquals(4, moved.getSquareOf(5));
+		Assert.assertEquals(5, moved.getTileAt(4));
+		Assert.assertEquals(2, moved.getManhattanDistance());
+		Assert.assertEquals("4 1 2 3\n5 0 6 7\n8 9 10 11\n12 13 14 15",
+				moved.toString());
+		Assert.assertEquals(board, moved.moveGap(SlidingTileBoard.LEFT)
+				.moveGap(SlidingTileBoard.UP));
+		Assert.assertEquals(board.hashCode(),
+				moved.moveGap(SlidingTileBoard.LEFT)
+						.moveGap(SlidingTileBoard.UP).hashCode());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooLarge() {
+		new PackedTileBoard(5);
+	}
+
+	@Test
+	public void testRandomWalks() {
+		Random random = new Random(3);
+		SlidingTileManhattanHeuristicFunction manhattan = new SlidingTileManhattanHeuristicFunction();
+		for (int size = 2; size <= 4; size++) {
+			SlidingTileBoard board = new SlidingTileBoard(size);
+			PackedTileBoard packed = new PackedTileBoard(size);
+			for (int step = 0; step < 5000; step++) {
+				List<Action> actions = new ArrayList<Action>(
+						SlidingTileFunctionFactory.getActionsFunction()
+								.actions(board));
+				Assert.assertEquals(actions, new ArrayList<Action>(
+						SlidingTileFunctionFactory.getActionsFunction()
+								.actions(packed)));
+				Action a = actions.get(random.nextInt(actions.size()));
+				board = (SlidingTileBoard) SlidingTileFunctionFactory
+						.getResultFunction().result(board, a);
+				packed = (PackedTileBoard) SlidingTileFunctionFactory
+						.getResultFunction().result(packed, a);
+				Assert.assertArrayEquals(board.getTiles(), packed.getTiles());
+				Assert.assertEquals(board.getGapSquare(),
+						packed.getGapSquare());
+				Assert.assertEquals(manhattan.h(board), manhattan.h(packed),
+						0.0);
+				Assert.assertEquals(
+						new SlidingTileGoalTest().isGoalState(board),
+						packed.isGoal());
+				Assert.assertEquals(packed, new PackedTileBoard(board));
+			}
+		}
+	}
+
+	@Test
+	public void testEightPuzzleFunctions() {
+		int[] tiles = { 7, 1, 8, 0, 4, 6, 2, 3, 5 };
+		EightPuzzleBoard board = new EightPuzzleBoard(tiles);
+		PackedTileBoard packed = new PackedTileBoard(tiles);
+		Assert.assertEquals(new ManhattanHeuristicFunction().h(board),
+				new ManhattanHeuristicFunction().h(packed), 0.0);
+		Assert.assertEquals(new MisplacedTilleHeuristicFunction().h(board),
+				new MisplacedTilleHeuristicFunction().h(packed), 0.0);
+		Assert.assertEquals(new EightPuzzleStateCodec().encode(board),
+				new EightPuzzleStateCodec().encode(packed));
+		Assert.assertEquals(EightPuzzleFunctionFactory.getActionsFunction()
+				.actions(board), EightPuzzleFunctionFactory
+				.getActionsFunction().actions(packed));
+		Assert.assertTrue(new EightPuzzleGoalTest()
+				.isGoalState(new PackedTileBoard(3)));
+		Assert.assertFalse(new EightPuzzleGoalTest().isGoalState(packed));
+	}
+
+	@Test
+	public void testSearches() throws Exception {
+		// the same search as with eight puzzle boards
+		Problem problem = new Problem(new PackedTileBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		GraphSearch gs = new GraphSearch(new EightPuzzleStateCodec());
+		Assert.assertEquals(23, new AStarSearch(gs,
+				new ManhattanHeuristicFunction()).search(problem).size());
+		Assert.assertEquals(926, gs.getNodesExpanded());
+
+		// a 15-puzzle
+		problem = new Problem(new PackedTileBoard(4)
+				.moveGap(SlidingTileBoard.DOWN)
+				.moveGap(SlidingTileBoard.RIGHT)
+				.moveGap(SlidingTileBoard.DOWN)
+				.moveGap(SlidingTileBoard.RIGHT),
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new SlidingTileGoalTest());
+		Assert.assertEquals(4, new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(
+						new SlidingTileManhattanHeuristicFunction())).search(
+				problem).size());
+	}
+}
@@ -0,0 +1,199 @@
+package aima.test.core.unit.environment.slidingtile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.environment.slidingtile.PatternDatabase;
+import aima.core.environment.slidingtile.PatternDatabaseHeuristicFunction;
+import aima.core.environment.slidingtile.SlidingTileBoard;
+import aima.core.environment.slidingtile.SlidingTileFunctionFactory;
+import aima.core.environment.slidingtile.SlidingTileGoalTest;
+import aima.core.environment.slidingtile.SlidingTileManhattanHeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.IterativeDeepeningAStarSearch;
+
+public class PatternDatabaseHeuristicFunctionTest {
+
+	@Test
+	public void testCompletePatternIsExact() {
+		// a pattern with all tiles yields the exact solution length
+		PatternDatabaseHeuristicFunction exact = PatternDatabaseHeuristicFunction
+				.generate(3, new int[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		Assert.assertEquals(0.0, exact.h(new SlidingTileBoard(3)), 0.0);
+		Assert.assertEquals(23.0, exact.h(new EightPuzzleBoard(new int[] { 7,
+				1, 8, 0, 4, 6, 2, 3, 5 })), 0.0);
+	}
+
+	@Test
+	public void testAdditivePatterns() {
+		PatternDatabaseHeuristicFunction exact = PatternDatabaseHeuristicFunction
+				.generate(3, new int[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		PatternDatabaseHeuristicFunction additive = PatternDatabaseHeuristicFunction
+				.generate(3, new int[] { 1, 2, 3, 4 }, new int[] { 5, 6, 7, 8 });
+		ManhattanHeuristicFunction manhattan = new ManhattanHeuristicFunction();
+		Random r = new Random(3);
+		SlidingTileBoard board = new SlidingTileBoard(3);
+		for (int i = 0; i < 500; i++) {
+			board = randomMove(board, r);
+			EightPuzzleBoard epb = new EightPuzzleBoard(board.getTiles());
+			double h = additive.h(board);
+			Assert.assertEquals(h, additive.h(epb), 0.0);
+			// admissible and at least as informed as the Manhattan distance
+			Assert.assertTrue(h <= exact.h(board));
+			Assert.assertTrue(h >= manhattan.h(epb));
+		}
+	}
+
+	@Test
+	public void testSaveAndLoad() throws IOException {
+		PatternDatabaseHeuristicFunction generated = PatternDatabaseHeuristicFunction
+				.generate(3, new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 },
+						new int[] { 7, 8 });
+		File file = File.createTempFile("aima-pdb", ".bin");
+		try {
+			generated.save(file);
+			// header, pattern headers and tables
+			Assert.assertEquals(16 + 20 + 20 + 16 + 504 + 504 + 72,
+					file.length());
+			PatternDatabaseHeuristicFunction loaded = PatternDatabaseHeuristicFunction
+					.load(file);
+			Assert.assertEquals(3, loaded.getSize());
+			Random r = new Random(5);
+			SlidingTileBoard board = new SlidingTileBoard(3);
+			for (int i = 0; i < 200; i++) {
+				board = randomMove(board, r);
+				Assert.assertEquals(generated.h(board), loaded.h(board), 0.0);
+			}
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IOException.class)
+	public void testLoadInvalidFile() throws IOException {
+		File file = File.createTempFile("aima-pdb", ".bin");
+		try {
+			FileOutputStream out = new FileOutputStream(file);
+			out.write(new byte[] { 'A', 'P', 'D', 'B', 0, 0 });
+			out.close();
+			PatternDatabaseHeuristicFunction.load(file);
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOverlappingPatterns() {
+		new PatternDatabaseHeuristicFunction(3, PatternDatabase.generate(3,
+				new int[] { 1, 2 }), PatternDatabase.generate(3, new int[] {
+				2, 3 }));
+	}
+
+	@Test
+	public void testFifteenPuzzle() throws Exception {
+		PatternDatabaseHeuristicFunction pdb = PatternDatabaseHeuristicFunction
+				.generate(4, new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 },
+						new int[] { 7, 8, 9 }, new int[] { 10, 11, 12 },
+						new int[] { 13, 14, 15 });
+		Random r = new Random(17);
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		for (int i = 0; i < 60; i++) {
+			board = randomMove(board, r);
+		}
+		Problem problem = new Problem(board,
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new SlidingTileGoalTest());
+
+		IterativeDeepeningAStarSearch withPdb = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(pdb));
+		List<Action> actions = withPdb.search(problem);
+		IterativeDeepeningAStarSearch withManhattan = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(
+						new SlidingTileManhattanHeuristicFunction()));
+		// both heuristics are admissible, so the solutions are optimal
+		Assert.assertEquals(withManhattan.search(problem).size(),
+				actions.size());
+		Assert.assertTrue(withPdb.getNodesExpanded() < withManhattan
+				.getNodesExpanded());
+
+		Object state = board;
+		for (Action a : actions) {
+			state = SlidingTileFunctionFactory.getResultFunction().result(
+					state, a);
+		}
+		Assert.assertTrue(new SlidingTileGoalTest().isGoalState(state));
+	}
+
+	@Test
+	public void testPackedFifteenPuzzle() throws Exception {
+		PatternDatabaseHeuristicFunction pdb = PatternDatabaseHeuristicFunction
+				.generate(4, new int[] { 1, 2, 3 }, new int[] { 4, 5, 6 },
+						new int[] { 7, 8, 9 }, new int[] { 10, 11, 12 },
+						new int[] { 13, 14, 15 });
+		Random r = new Random(17);
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		for (int i = 0; i < 200; i++) {
+			board = randomMove(board, r);
+			Assert.assertEquals(pdb.h(board), pdb.h(new PackedTileBoard(board)),
+					0.0);
+		}
+		board = new SlidingTileBoard(4);
+		for (int i = 0; i < 60; i++) {
+			board = randomMove(board, r);
+		}
+		PackedTileBoard packed = new PackedTileBoard(board);
+		Problem problem = new Problem(packed,
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new SlidingTileGoalTest());
+		List<Action> actions = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(pdb)).search(problem);
+		Assert.assertEquals(new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(pdb)).search(
+				new Problem(board, SlidingTileFunctionFactory
+						.getActionsFunction(), SlidingTileFunctionFactory
+						.getResultFunction(), new SlidingTileGoalTest()))
+				.size(), actions.size());
+		Object state = packed;
+		for (Action a : actions) {
+			state = SlidingTileFunctionFactory.getResultFunction().result(
+					state, a);
+		}
+		Assert.assertTrue(((PackedTileBoard) state).isGoal());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testPackedBoardOfOtherSize() {
+		PatternDatabaseHeuristicFunction.generate(3, new int[] { 1, 2, 3 })
+				.h(new PackedTileBoard(4));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testBoardOfOtherSize() {
+		PatternDatabaseHeuristicFunction.generate(3, new int[] { 1, 2, 3 })
+				.h(new SlidingTileBoard(4));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private SlidingTileBoard randomMove(SlidingTileBoard board, Random r) {
+		List<Action> actions = new java.util.ArrayList<Action>(
+				SlidingTileFunctionFactory.getActionsFunction().actions(board));
+		return (SlidingTileBoard) SlidingTileFunctionFactory
+				.getResultFunction().result(board,
+						actions.get(r.nextInt(actions.size())));
+	}
+}
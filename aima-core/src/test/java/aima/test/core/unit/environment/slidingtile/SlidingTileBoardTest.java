@@ -0,0 +1,70 @@
+package aima.test.core.unit.environment.slidingtile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.slidingtile.SlidingTileBoard;
+import aima.core.environment.slidingtile.SlidingTileFunctionFactory;
+import aima.core.environment.slidingtile.SlidingTileGoalTest;
+import aima.core.environment.slidingtile.SlidingTileManhattanHeuristicFunction;
+
+public class SlidingTileBoardTest {
+
+	@Test
+	public void testGoalBoard() {
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		Assert.assertEquals(4, board.getSize());
+		Assert.assertEquals(16, board.getNumberOfSquares());
+		Assert.assertEquals(0, board.getGapSquare());
+		Assert.assertTrue(new SlidingTileGoalTest().isGoalState(board));
+		Assert.assertEquals(0.0,
+				new SlidingTileManhattanHeuristicFunction().h(board), 0.0);
+		Assert.assertEquals("[Action[name==Down], Action[name==Right]]",
+				SlidingTileFunctionFactory.getActionsFunction().actions(board)
+						.toString());
+	}
+
+	@Test
+	public void testMoveGap() {
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		Assert.assertFalse(board.canMoveGap(SlidingTileBoard.UP));
+		Assert.assertFalse(board.canMoveGap(SlidingTileBoard.LEFT));
+		board.moveGap(SlidingTileBoard.DOWN);
+		board.moveGap(SlidingTileBoard.RIGHT);
+		Assert.assertEquals(5, board.getGapSquare());
+		Assert.assertEquals(4, board.getSquareOf(5));
+		Assert.assertEquals(0, board.getSquareOf(4));
+		Assert.assertEquals(5, board.getTileAt(4));
+		Assert.assertEquals("4 1 2 3\n5 0 6 7\n8 9 10 11\n12 13 14 15",
+				board.toString());
+		Assert.assertFalse(new SlidingTileGoalTest().isGoalState(board));
+		Assert.assertEquals(2.0,
+				new SlidingTileManhattanHeuristicFunction().h(board), 0.0);
+
+		SlidingTileBoard result = (SlidingTileBoard) SlidingTileFunctionFactory
+				.getResultFunction().result(board, SlidingTileBoard.LEFT);
+		Assert.assertEquals(4, result.getGapSquare());
+		// the original board is unchanged
+		Assert.assertEquals(5, board.getGapSquare());
+	}
+
+	@Test
+	public void testEqualsAndEightPuzzleBoard() {
+		EightPuzzleBoard epb = new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4,
+				6, 2, 3, 5 });
+		SlidingTileBoard board = new SlidingTileBoard(epb);
+		Assert.assertEquals(3, board.getSize());
+		Assert.assertEquals(3, board.getGapSquare());
+		Assert.assertEquals(new SlidingTileBoard(new int[] { 7, 1, 8, 0, 4, 6,
+				2, 3, 5 }), board);
+		Assert.assertEquals(board.hashCode(), new SlidingTileBoard(board)
+				.hashCode());
+		Assert.assertFalse(board.equals(new SlidingTileBoard(3)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNoPermutation() {
+		new SlidingTileBoard(new int[] { 0, 1, 2, 2 });
+	}
+}
@@ -0,0 +1,41 @@
+package aima.test.core.unit.environment.slidingtile;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.environment.slidingtile.SlidingTileBoard;
+import aima.core.environment.slidingtile.SlidingTileStateCodec;
+
+public class SlidingTileStateCodecTest {
+
+	@Test
+	public void testEncodeDecode() {
+		SlidingTileStateCodec codec = new SlidingTileStateCodec(4);
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		board.moveGap(SlidingTileBoard.DOWN);
+		board.moveGap(SlidingTileBoard.RIGHT);
+		long key = codec.encode(board);
+		Assert.assertEquals(board, codec.decode(key));
+		// the same key as a packed board
+		PackedTileBoard packed = new PackedTileBoard(board);
+		Assert.assertEquals(packed.getKey(), key);
+		Assert.assertEquals(key, codec.encode(packed));
+		Assert.assertEquals(0xfedcba9876543210L,
+				codec.encode(new SlidingTileBoard(4)));
+
+		codec = new SlidingTileStateCodec(2);
+		board = new SlidingTileBoard(new int[] { 3, 1, 0, 2 });
+		Assert.assertEquals(board, codec.decode(codec.encode(board)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOtherSize() {
+		new SlidingTileStateCodec(4).encode(new SlidingTileBoard(3));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooLarge() {
+		new SlidingTileStateCodec(5);
+	}
+}
@@ -6,29 +6,59 @@ import org.junit.runners.Suite;
 import aima.test.core.unit.search.csp.AssignmentTest;
 import aima.test.core.unit.search.csp.CSPTest;
 import aima.test.core.unit.search.csp.MapCSPTest;
+import aima.test.core.unit.search.framework.CachingHeuristicFunctionTest;
+import aima.test.core.unit.search.framework.MetricsTest;
+import aima.test.core.unit.search.framework.NodeArenaTest;
 import aima.test.core.unit.search.framework.NodeTest;
+import aima.test.core.unit.search.framework.SearchBudgetTest;
+import aima.test.core.unit.search.framework.SearchServiceTest;
+import aima.test.core.unit.search.framework.SearchTracerTest;
 import aima.test.core.unit.search.framework.SolutionCheckerTest;
+import aima.test.core.unit.search.framework.StreamingActionsFunctionTest;
 import aima.test.core.unit.search.informed.AStarSearchTest;
+import aima.test.core.unit.search.informed.AnytimeRepairingAStarSearchTest;
+import aima.test.core.unit.search.informed.BidirectionalAStarSearchTest;
 import aima.test.core.unit.search.informed.GreedyBestFirstSearchTest;
+import aima.test.core.unit.search.informed.HashDistributedAStarSearchTest;
+import aima.test.core.unit.search.informed.IterativeDeepeningAStarSearchTest;
 import aima.test.core.unit.search.informed.RecursiveBestFirstSearchTest;
+import aima.test.core.unit.search.informed.SimplifiedMemoryBoundedAStarSearchTest;
+import aima.test.core.unit.search.local.LocalBeamSearchTest;
+import aima.test.core.unit.search.local.ParallelTemperingSearchTest;
+import aima.test.core.unit.search.local.RandomRestartHillClimbingSearchTest;
 import aima.test.core.unit.search.local.SimulatedAnnealingSearchTest;
+import aima.test.core.unit.search.online.HeuristicTableTest;
 import aima.test.core.unit.search.online.LRTAStarAgentTest;
 import aima.test.core.unit.search.online.OnlineDFSAgentTest;
 import aima.test.core.unit.search.uninformed.BidirectionalSearchTest;
 import aima.test.core.unit.search.uninformed.BreadthFirstSearchTest;
 import aima.test.core.unit.search.uninformed.DepthFirstSearchTest;
 import aima.test.core.unit.search.uninformed.DepthLimitedSearchTest;
+import aima.test.core.unit.search.uninformed.ExternalBreadthFirstSearchTest;
 import aima.test.core.unit.search.uninformed.IterativeDeepeningSearchTest;
 import aima.test.core.unit.search.uninformed.UniformCostSearchTest;
 
 @RunWith(Suite.class)
 @Suite.SuiteClasses({ AssignmentTest.class, CSPTest.class, MapCSPTest.class,
-		AStarSearchTest.class, GreedyBestFirstSearchTest.class,
-		RecursiveBestFirstSearchTest.class, SimulatedAnnealingSearchTest.class,
-		LRTAStarAgentTest.class, OnlineDFSAgentTest.class,
+		AStarSearchTest.class, AnytimeRepairingAStarSearchTest.class,
+		BidirectionalAStarSearchTest.class,
+		GreedyBestFirstSearchTest.class,
+		HashDistributedAStarSearchTest.class,
+		IterativeDeepeningAStarSearchTest.class,
+		RecursiveBestFirstSearchTest.class,
+		SimplifiedMemoryBoundedAStarSearchTest.class,
+		LocalBeamSearchTest.class, ParallelTemperingSearchTest.class,
+		RandomRestartHillClimbingSearchTest.class,
+		SimulatedAnnealingSearchTest.class,
+		HeuristicTableTest.class, LRTAStarAgentTest.class,
+		OnlineDFSAgentTest.class,
 		BidirectionalSearchTest.class, BreadthFirstSearchTest.class,
 		DepthFirstSearchTest.class, DepthLimitedSearchTest.class,
+		ExternalBreadthFirstSearchTest.class,
 		IterativeDeepeningSearchTest.class, UniformCostSearchTest.class,
-		NodeTest.class, SolutionCheckerTest.class })
+		CachingHeuristicFunctionTest.class, MetricsTest.class,
+		NodeArenaTest.class, NodeTest.class, SearchBudgetTest.class,
+		SearchServiceTest.class, SearchTracerTest.class,
+		SolutionCheckerTest.class, StreamingActionsFunctionTest.class })
 public class SearchTestSuite {
 }
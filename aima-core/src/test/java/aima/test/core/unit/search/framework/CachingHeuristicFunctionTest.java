@@ -0,0 +1,153 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.search.framework.CachingHeuristicFunction;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+
+public class CachingHeuristicFunctionTest {
+
+	@Test
+	public void testHitsAndMisses() {
+		CountingHeuristicFunction counting = new CountingHeuristicFunction();
+		CachingHeuristicFunction cache = new CachingHeuristicFunction(
+				counting, 10);
+		Assert.assertEquals(3.0, cache.h(3), 0.0);
+		Assert.assertEquals(3.0, cache.h(3), 0.0);
+		Assert.assertEquals(4.0, cache.h(4), 0.0);
+		Assert.assertEquals(2, counting.calls.get());
+		Assert.assertEquals(1, cache.getHits());
+		Assert.assertEquals(2, cache.getMisses());
+		Assert.assertEquals(1.0 / 3.0, cache.getHitRate(), 1e-9);
+		Assert.assertEquals(2, cache.size());
+
+		cache.clearInstrumentation();
+		Assert.assertEquals(0.0, cache.getHitRate(), 0.0);
+		cache.clear();
+		Assert.assertEquals(0, cache.size());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEviction() {
+		CountingHeuristicFunction counting = new CountingHeuristicFunction();
+		CachingHeuristicFunction cache = new CachingHeuristicFunction(
+				counting, 3);
+		cache.h(1);
+		cache.h(2);
+		cache.h(3);
+		// 1 is used, so 2 is the least recently used value
+		cache.h(1);
+		cache.h(4);
+		Assert.assertEquals(3, cache.size());
+		Assert.assertEquals(1, cache.getEvictions());
+		cache.h(1);
+		cache.h(3);
+		cache.h(4);
+		Assert.assertEquals(4, counting.calls.get());
+		cache.h(2);
+		Assert.assertEquals(5, counting.calls.get());
+	}
+
+	@Test
+	public void testCapacityIsBounded() {
+		CachingHeuristicFunction cache = new CachingHeuristicFunction(
+				new CountingHeuristicFunction(), 1000);
+		for (int i = 0; i < 5000; i++) {
+			cache.h(i);
+		}
+		Assert.assertEquals(1000, cache.size());
+		Assert.assertEquals(4000, cache.getEvictions());
+	}
+
+	@Test
+	public void testSearchesWithCache() throws Exception {
+		ManhattanHeuristicFunction hf = new ManhattanHeuristicFunction();
+		CachingHeuristicFunction cache = new CachingHeuristicFunction(hf,
+				100000, new EightPuzzleStateCodec());
+
+		GraphSearch gs = new GraphSearch();
+		List<Action> actions = new AStarSearch(gs, cache)
+				.search(createProblem());
+		Assert.assertEquals(23, actions.size());
+		Assert.assertEquals(926, gs.getNodesExpanded());
+		Assert.assertTrue(cache.getHits() > 0);
+
+		// RBFS regenerates the same states after backtracking
+		cache.clearInstrumentation();
+		cache.clear();
+		RecursiveBestFirstSearch rbfs = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(cache));
+		Assert.assertEquals(23, rbfs.search(createProblem()).size());
+		Assert.assertTrue(cache.getHitRate() > 0.5);
+	}
+
+	@Test
+	public void testSharedBetweenThreads() throws Exception {
+		final CachingHeuristicFunction cache = new CachingHeuristicFunction(
+				new ManhattanHeuristicFunction(), 5000);
+		final List<Throwable> failures = new ArrayList<Throwable>();
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int i = 0; i < 4; i++) {
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					try {
+						Assert.assertEquals(23, new AStarSearch(
+								new GraphSearch(), cache).search(
+								createProblem()).size());
+					} catch (Throwable t) {
+						synchronized (failures) {
+							failures.add(t);
+						}
+					}
+				}
+			});
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		Assert.assertEquals(0, failures.size());
+		Assert.assertTrue(cache.size() <= 5000);
+		Assert.assertTrue(cache.getHits() > 0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createProblem() {
+		return new Problem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6,
+				2, 3, 5 }), EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+
+	// h(n) = n, counting the calls
+	private static class CountingHeuristicFunction implements
+			HeuristicFunction {
+		final AtomicInteger calls = new AtomicInteger();
+
+		public double h(Object state) {
+			calls.incrementAndGet();
+			return (Integer) state;
+		}
+	}
+}
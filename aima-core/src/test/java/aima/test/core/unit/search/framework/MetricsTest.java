@@ -0,0 +1,105 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.Map;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.search.framework.Metrics;
+
+public class MetricsTest {
+
+	@Test
+	public void testLegacyAccessors() {
+		Metrics metrics = new Metrics();
+		metrics.set("count", 3);
+		metrics.set("cost", 2.5);
+		Assert.assertEquals(3, metrics.getInt("count"));
+		Assert.assertEquals("3", metrics.get("count"));
+		Assert.assertEquals(2.5, metrics.getDouble("cost"), 0.0);
+		Assert.assertEquals("2.5", metrics.get("cost"));
+		Assert.assertNull(metrics.get("unknown"));
+
+		// Re-setting with a value of a different type changes the type
+		metrics.set("cost", 0);
+		Assert.assertEquals("0", metrics.get("cost"));
+		metrics.set("cost", 278.0);
+		Assert.assertEquals("278.0", metrics.get("cost"));
+	}
+
+	@Test
+	public void testTypedHandles() {
+		Metrics metrics = new Metrics();
+		Metrics.LongCounter counter = metrics.counter("expanded");
+		counter.increment();
+		counter.add(4);
+		Assert.assertSame(counter, metrics.counter("expanded"));
+		Assert.assertEquals(5, metrics.getInt("expanded"));
+
+		Metrics.LongGauge gauge = metrics.gauge("max");
+		gauge.updateMax(7);
+		gauge.updateMax(3);
+		Assert.assertEquals(7, gauge.get());
+
+		Metrics.DoubleCounter dc = metrics.doubleCounter("time");
+		dc.add(0.5);
+		dc.add(1.0);
+		Assert.assertEquals("1.5", metrics.get("time"));
+
+		Metrics.DoubleGauge dg = metrics.doubleGauge("best");
+		dg.updateMax(2.0);
+		dg.updateMax(1.0);
+		Assert.assertEquals(2.0, dg.get(), 0.0);
+
+		// Legacy set keeps the registered handle valid
+		metrics.set("expanded", 0);
+		counter.increment();
+		Assert.assertEquals(1, metrics.getInt("expanded"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testHandleTypeMismatch() {
+		Metrics metrics = new Metrics();
+		metrics.counter("x");
+		metrics.doubleGauge("x");
+	}
+
+	@Test
+	public void testSnapshotAndExport() {
+		Metrics metrics = new Metrics();
+		Metrics.LongCounter counter = metrics.counter("b");
+		counter.add(2);
+		metrics.set("a", 1.5);
+
+		Metrics snapshot = metrics.snapshot();
+		counter.increment();
+		Assert.assertEquals(2, snapshot.getInt("b"));
+		Assert.assertEquals(3, metrics.getInt("b"));
+
+		Map<String, Number> exported = metrics.toMap();
+		Assert.assertEquals("{a=1.5, b=3}", exported.toString());
+		Assert.assertEquals("{a=1.5, b=3}", metrics.toString());
+	}
+
+	@Test
+	public void testConcurrentCounterUpdates() throws Exception {
+		Metrics metrics = new Metrics();
+		final Metrics.LongCounter counter = metrics.counter("c");
+		Thread[] threads = new Thread[4];
+		for (int i = 0; i < threads.length; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					for (int j = 0; j < 10000; j++) {
+						counter.increment();
+					}
+				}
+			};
+			threads[i].start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		Assert.assertEquals(40000, counter.get());
+	}
+}
@@ -0,0 +1,138 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeArena;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.TreeSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.UniformCostSearch;
+
+public class NodeArenaTest {
+
+	@Test
+	public void testBreadthFirstSearch() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 1, 4,
+				2, 7, 5, 8, 3, 0, 6 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		GraphSearch plain = new GraphSearch();
+		List<Action> expected = new BreadthFirstSearch(plain).search(problem);
+
+		GraphSearch compact = new GraphSearch();
+		compact.setUseNodeArena(true);
+		List<Action> actions = new BreadthFirstSearch(compact).search(problem);
+		Assert.assertEquals(expected, actions);
+		Assert.assertEquals(plain.getNodesExpanded(),
+				compact.getNodesExpanded());
+		Assert.assertEquals(compact.getNodesExpanded(), compact
+				.getNodeArena().size());
+	}
+
+	@Test
+	public void testAStarSearch() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		GraphSearch compact = new GraphSearch();
+		compact.setUseNodeArena(true);
+		AStarSearch search = new AStarSearch(compact,
+				new ManhattanHeuristicFunction());
+		Assert.assertEquals(23, search.search(problem).size());
+		Assert.assertEquals("926", search.getMetrics().get("nodesExpanded"));
+	}
+
+	@Test
+	public void testMaterializedNodes() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+		TreeSearch compact = new TreeSearch();
+		compact.setUseNodeArena(true);
+		UniformCostSearch search = new UniformCostSearch(compact);
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+				search.search(problem).toString());
+		Assert.assertEquals("418.0", search.getMetrics().get("pathCost"));
+
+		NodeArena arena = compact.getNodeArena();
+		Node root = arena.getNode(0);
+		Assert.assertTrue(root.isRootNode());
+		Assert.assertEquals(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				root.getState());
+		for (int i = 1; i < arena.size(); i++) {
+			// every materialized node is consistent with its parent
+			Node node = arena.getNode(i);
+			Node parent = node.getParent();
+			Assert.assertEquals(node.getState(), problem.getResultFunction()
+					.result(parent.getState(), node.getAction()));
+			Assert.assertEquals(node.getPathCost(), parent.getPathCost()
+					+ romaniaMap.getDistance((String) parent.getState(),
+							(String) node.getState()), 1e-9);
+		}
+	}
+
+	@Test
+	public void testWalkingParentsReplaysPathOnce() throws Exception {
+		final int[] results = new int[1];
+		final ResultFunction rf = EightPuzzleFunctionFactory
+				.getResultFunction();
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				new ResultFunction() {
+					public Object result(Object s, Action a) {
+						results[0]++;
+						return rf.result(s, a);
+					}
+				}, new EightPuzzleGoalTest());
+		GraphSearch compact = new GraphSearch();
+		compact.setUseNodeArena(true);
+		new AStarSearch(compact, new ManhattanHeuristicFunction())
+				.search(problem);
+
+		// a node of depth 23 created by the arena
+		Node node = compact.getLastSearchResult().getBestNode();
+		Assert.assertEquals(23, node.getPathFromRoot().size() - 1);
+		results[0] = 0;
+		int depth = 0;
+		for (Node n = node; !n.isRootNode(); n = n.getParent()) {
+			depth++;
+		}
+		Assert.assertEquals(23, depth);
+		// the 22 ancestors below the root are replayed once, not once per
+		// step
+		Assert.assertEquals(22, results[0]);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testForeignNode() {
+		Problem problem = new Problem("A", null, null, null);
+		NodeArena arena = new NodeArena(problem);
+		Node root = new Node("A");
+		arena.add(new Node("B", root, null, 1.0));
+	}
+}
@@ -0,0 +1,245 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.agent.impl.DynamicAction;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.BudgetedSearchResult;
+import aima.core.search.framework.GoalTest;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.SearchBudget;
+import aima.core.search.framework.TreeSearch;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.GreedyBestFirstEvaluationFunction;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+
+public class SearchBudgetTest {
+
+	private static final EightPuzzleBoard BOARD = new EightPuzzleBoard(
+			new int[] { 7, 1, 8, 0, 4, 6, 2, 3, 5 });
+
+	@Test
+	public void testUnlimitedBudget() throws Exception {
+		GraphSearch gs = new GraphSearch();
+		List<Action> actions = new AStarSearch(gs,
+				new ManhattanHeuristicFunction()).search(createProblem());
+		Assert.assertEquals(23, actions.size());
+
+		BudgetedSearchResult result = gs.getLastSearchResult();
+		Assert.assertEquals(BudgetedSearchResult.StopReason.SOLUTION_FOUND,
+				result.getStopReason());
+		Assert.assertTrue(result.isSolutionFound());
+		Assert.assertFalse(result.isBudgetExhausted());
+		Assert.assertSame(actions, result.getActions());
+		Assert.assertEquals(926, result.getNodesExpanded());
+		Assert.assertEquals(23.0, result.getBestNodeValue(), 0.0);
+		Assert.assertEquals(actions, result.getActionsToBestNode());
+	}
+
+	@Test
+	public void testNoRankingWithoutBudget() throws Exception {
+		// a generous budget ranks each expanded node by f, which takes one
+		// more call of the heuristic per expansion
+		CountingHeuristicFunction hf = new CountingHeuristicFunction();
+		GraphSearch gs = new GraphSearch();
+		Assert.assertEquals(23, new AStarSearch(gs, hf)
+				.search(createProblem()).size());
+		long unlimitedCalls = hf.calls;
+		hf.calls = 0;
+		gs.setSearchBudget(new SearchBudget(0, 1000000, 0));
+		Assert.assertEquals(23, new AStarSearch(gs, hf)
+				.search(createProblem()).size());
+		Assert.assertEquals(unlimitedCalls + gs.getNodesExpanded(), hf.calls);
+
+		hf.calls = 0;
+		RecursiveBestFirstSearch rbfs = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(hf));
+		Assert.assertEquals(23, rbfs.search(createProblem()).size());
+		unlimitedCalls = hf.calls;
+		hf.calls = 0;
+		rbfs.setSearchBudget(new SearchBudget(0, 1000000, 0));
+		Assert.assertEquals(23, rbfs.search(createProblem()).size());
+		Assert.assertEquals(unlimitedCalls + rbfs.getNodesExpanded(),
+				hf.calls);
+		// the solution is reported as best node in both cases
+		Assert.assertEquals(23.0, rbfs.getLastSearchResult()
+				.getBestNodeValue(), 0.0);
+	}
+
+	@Test
+	public void testNodeLimit() throws Exception {
+		GraphSearch gs = new GraphSearch();
+		gs.setSearchBudget(new SearchBudget(0, 100, 0));
+		// rank the nodes by h to report the node closest to the goal
+		ManhattanHeuristicFunction hf = new ManhattanHeuristicFunction();
+		gs.setBestNodeEvaluationFunction(new GreedyBestFirstEvaluationFunction(
+				hf));
+		List<Action> actions = new AStarSearch(gs, hf).search(createProblem());
+		Assert.assertTrue(actions.isEmpty());
+
+		BudgetedSearchResult result = gs.getLastSearchResult();
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.NODE_LIMIT_REACHED,
+				result.getStopReason());
+		Assert.assertTrue(result.isBudgetExhausted());
+		Assert.assertEquals(100, result.getNodesExpanded());
+		Assert.assertEquals(100, gs.getNodesExpanded());
+		Assert.assertNotNull(result.getBestNode());
+		Assert.assertTrue(result.getBestNodeValue() < hf.h(BOARD));
+		Assert.assertEquals(result.getBestNodeValue(),
+				hf.h(result.getBestNode().getState()), 0.0);
+		Assert.assertEquals(result.getBestNode().getPathFromRoot().size() - 1,
+				result.getActionsToBestNode().size());
+
+		// a larger budget finds the solution
+		gs.setSearchBudget(new SearchBudget(0, 1000, 0));
+		Assert.assertEquals(23, new AStarSearch(gs, hf)
+				.search(createProblem()).size());
+		Assert.assertTrue(gs.getLastSearchResult().isSolutionFound());
+		Assert.assertEquals(0.0, gs.getLastSearchResult().getBestNodeValue(),
+				0.0);
+	}
+
+	@Test
+	public void testMemoryLimit() throws Exception {
+		GraphSearch gs = new GraphSearch();
+		gs.setSearchBudget(new SearchBudget(0, 0, 200));
+		List<Action> actions = new AStarSearch(gs,
+				new ManhattanHeuristicFunction()).search(createProblem());
+		Assert.assertTrue(actions.isEmpty());
+
+		BudgetedSearchResult result = gs.getLastSearchResult();
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.MEMORY_LIMIT_REACHED,
+				result.getStopReason());
+		// frontier plus explored set, exceeded by at most one expansion
+		Assert.assertTrue(result.getMaxNodesInMemory() > 200);
+		Assert.assertTrue(result.getMaxNodesInMemory() <= 204);
+		// ranked by f = g + h by default
+		Assert.assertNotNull(result.getBestNode());
+		Assert.assertTrue(result.getBestNodeValue() <= 23.0);
+	}
+
+	@Test
+	public void testTimeLimit() throws Exception {
+		TreeSearch ts = new TreeSearch();
+		ts.setSearchBudget(new SearchBudget(20, 0, 0));
+		List<Action> actions = new BreadthFirstSearch(ts)
+				.search(createEndlessProblem());
+		Assert.assertTrue(actions.isEmpty());
+
+		BudgetedSearchResult result = ts.getLastSearchResult();
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.TIME_LIMIT_REACHED,
+				result.getStopReason());
+		Assert.assertTrue(result.getElapsedMillis() >= 20);
+		Assert.assertTrue(result.getNodesExpanded() > 0);
+		// no ranking function, hence no best node
+		Assert.assertNull(result.getBestNode());
+		Assert.assertTrue(result.getActionsToBestNode().isEmpty());
+	}
+
+	@Test
+	public void testSearchSpaceExhausted() throws Exception {
+		GraphSearch gs = new GraphSearch();
+		gs.setSearchBudget(new SearchBudget(60000, 0, 0));
+		// the goal is not reachable from an odd permutation
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 1, 0,
+				2, 3, 4, 5, 6, 7, 8 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new GoalTest() {
+					public boolean isGoalState(Object state) {
+						return new EightPuzzleBoard(new int[] { 0, 2, 1, 3, 4,
+								5, 6, 7, 8 }).equals(state);
+					}
+				});
+		Assert.assertTrue(new BreadthFirstSearch(gs).search(problem).isEmpty());
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.SEARCH_SPACE_EXHAUSTED, gs
+						.getLastSearchResult().getStopReason());
+		Assert.assertEquals(181440, gs.getLastSearchResult()
+				.getMaxNodesInMemory());
+	}
+
+	@Test
+	public void testRecursiveBestFirstSearch() throws Exception {
+		RecursiveBestFirstSearch rbfs = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()));
+		rbfs.setSearchBudget(new SearchBudget(0, 50, 0));
+		Assert.assertTrue(rbfs.search(createProblem()).isEmpty());
+
+		BudgetedSearchResult result = rbfs.getLastSearchResult();
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.NODE_LIMIT_REACHED,
+				result.getStopReason());
+		Assert.assertEquals(50, result.getNodesExpanded());
+		Assert.assertNotNull(result.getBestNode());
+		// the path and the successors of the nodes on the path
+		Assert.assertTrue(result.getMaxNodesInMemory() > 1);
+
+		rbfs.setSearchBudget(null);
+		Assert.assertEquals(23, rbfs.search(createProblem()).size());
+		Assert.assertTrue(rbfs.getLastSearchResult().isSolutionFound());
+		Assert.assertEquals(23.0, rbfs.getLastSearchResult()
+				.getBestNodeValue(), 0.0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNegativeLimit() {
+		new SearchBudget(0, -1, 0);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createProblem() {
+		return new Problem(BOARD,
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+
+	// states are the natural numbers, the only action increments the state
+	private Problem createEndlessProblem() {
+		final Action inc = new DynamicAction("inc");
+		return new Problem(0, new ActionsFunction() {
+			public Set<Action> actions(Object s) {
+				return Collections.singleton(inc);
+			}
+		}, new ResultFunction() {
+			public Object result(Object s, Action a) {
+				return (Integer) s + 1;
+			}
+		}, new GoalTest() {
+			public boolean isGoalState(Object state) {
+				return false;
+			}
+		});
+	}
+
+	private static class CountingHeuristicFunction extends
+			ManhattanHeuristicFunction {
+		long calls = 0;
+
+		@Override
+		public double h(Object state) {
+			calls++;
+			return super.h(state);
+		}
+	}
+}
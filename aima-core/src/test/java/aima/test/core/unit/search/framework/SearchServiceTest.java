@@ -0,0 +1,248 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.agent.impl.DynamicAction;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.GoalTest;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.Search;
+import aima.core.search.framework.SearchService;
+import aima.core.search.framework.TreeSearch;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.uninformed.BreadthFirstSearch;
+
+public class SearchServiceTest {
+
+	private SearchService service;
+
+	@After
+	public void tearDown() throws InterruptedException {
+		if (null != service) {
+			service.shutdownNow();
+			Assert.assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testBatchOfRomaniaQueries() throws Exception {
+		final Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		service = new SearchService(new SearchService.SearchFactory() {
+			public Search createSearch() {
+				return new AStarSearch(new GraphSearch(),
+						new StraightLineDistanceHeuristicFunction(
+								SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+								romaniaMap));
+			}
+		}, 3, 2);
+
+		List<Problem> problems = new ArrayList<Problem>();
+		for (String city : romaniaMap.getLocations()) {
+			problems.add(createRomaniaProblem(romaniaMap, city));
+		}
+		List<Future<SearchService.Result>> futures = service
+				.submitAll(problems);
+		Assert.assertEquals(problems.size(), futures.size());
+
+		for (int i = 0; i < problems.size(); i++) {
+			SearchService.Result result = futures.get(i).get();
+			Assert.assertSame(problems.get(i), result.getProblem());
+			// same solution and metrics as a search of its own
+			Search search = new AStarSearch(new GraphSearch(),
+					new StraightLineDistanceHeuristicFunction(
+							SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+							romaniaMap));
+			List<Action> actions = search.search(problems.get(i));
+			Assert.assertEquals(actions, result.getActions());
+			Assert.assertEquals(search.getMetrics().toMap(), result
+					.getMetrics().toMap());
+		}
+		Assert.assertEquals(0, service.getPendingQueries());
+	}
+
+	@Test
+	public void testBackpressureAndCancellation() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		service = new SearchService(new SearchService.SearchFactory() {
+			public Search createSearch() {
+				return new BreadthFirstSearch(new TreeSearch());
+			}
+		}, 1, 1);
+
+		// occupies the worker until canceled
+		Future<SearchService.Result> endless = service
+				.submit(createEndlessProblem(started));
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		Future<SearchService.Result> queued = service
+				.submit(createEndlessProblem(null));
+		Assert.assertEquals(2, service.getPendingQueries());
+		// the queue is full
+		Assert.assertNull(service.trySubmit(createEndlessProblem(null), 10,
+				TimeUnit.MILLISECONDS));
+
+		// canceling the queued query makes room for another one
+		Assert.assertTrue(queued.cancel(false));
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Future<SearchService.Result> arad = service.trySubmit(
+				createRomaniaProblem(romaniaMap,
+						SimplifiedRoadMapOfPartOfRomania.ARAD), 10,
+				TimeUnit.SECONDS);
+		Assert.assertNotNull(arad);
+
+		// canceling the running query stops its search, so that the worker
+		// solves the next query
+		Assert.assertTrue(endless.cancel(true));
+		try {
+			endless.get();
+			Assert.fail("Canceled query returned a result.");
+		} catch (CancellationException ex) {
+		}
+		Assert.assertFalse(arad.get(10, TimeUnit.SECONDS).getActions()
+				.isEmpty());
+	}
+
+	@Test
+	public void testCanceledQueryCountsUntilWorkerStops() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch proceed = new CountDownLatch(1);
+		service = new SearchService(new SearchService.SearchFactory() {
+			public Search createSearch() {
+				return new BreadthFirstSearch(new TreeSearch());
+			}
+		}, 1, 0);
+		Future<SearchService.Result> blocked = service
+				.submit(createBlockingProblem(started, proceed));
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+
+		// the future is done, but the worker is still busy
+		Assert.assertTrue(blocked.cancel(true));
+		Assert.assertTrue(blocked.isDone());
+		Assert.assertEquals(1, service.getPendingQueries());
+		Assert.assertNull(service.trySubmit(createEndlessProblem(null), 10,
+				TimeUnit.MILLISECONDS));
+
+		// the search notices the cancellation and frees the worker
+		proceed.countDown();
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Future<SearchService.Result> arad = service.trySubmit(
+				createRomaniaProblem(romaniaMap,
+						SimplifiedRoadMapOfPartOfRomania.ARAD), 10,
+				TimeUnit.SECONDS);
+		Assert.assertNotNull(arad);
+		Assert.assertFalse(arad.get(10, TimeUnit.SECONDS).getActions()
+				.isEmpty());
+	}
+
+	@Test
+	public void testShutdownNow() throws Exception {
+		final CountDownLatch started = new CountDownLatch(1);
+		service = new SearchService(new SearchService.SearchFactory() {
+			public Search createSearch() {
+				return new BreadthFirstSearch(new TreeSearch());
+			}
+		}, 1, 2);
+		service.submit(createEndlessProblem(started));
+		Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+		service.submit(createEndlessProblem(null));
+		service.submit(createEndlessProblem(null));
+		Assert.assertEquals(3, service.getPendingQueries());
+
+		List<Future<SearchService.Result>> dropped = service.shutdownNow();
+		Assert.assertEquals(2, dropped.size());
+		for (Future<SearchService.Result> query : dropped) {
+			Assert.assertTrue(query.isCancelled());
+		}
+		Assert.assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertEquals(0, service.getPendingQueries());
+	}
+
+	@Test
+	public void testShutdown() throws Exception {
+		service = new SearchService(new SearchService.SearchFactory() {
+			public Search createSearch() {
+				return new BreadthFirstSearch(new GraphSearch());
+			}
+		}, 2, 4);
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Future<SearchService.Result> result = service
+				.submit(createRomaniaProblem(romaniaMap,
+						SimplifiedRoadMapOfPartOfRomania.NEAMT));
+		service.shutdown();
+		Assert.assertTrue(service.isShutdown());
+		Assert.assertFalse(result.get().getActions().isEmpty());
+		Assert.assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		Assert.assertEquals(0, service.getPendingQueries());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createRomaniaProblem(Map romaniaMap, String from) {
+		return new Problem(from,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+	}
+
+	// waits for proceed when the initial state is expanded, ignoring
+	// cancellation, then behaves like the endless problem
+	private Problem createBlockingProblem(final CountDownLatch started,
+			final CountDownLatch proceed) {
+		final Problem endless = createEndlessProblem(null);
+		return new Problem(0, new ActionsFunction() {
+			public Set<Action> actions(Object s) {
+				if (s.equals(0)) {
+					started.countDown();
+					try {
+						proceed.await();
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					}
+				}
+				return endless.getActionsFunction().actions(s);
+			}
+		}, endless.getResultFunction(), endless.getGoalTest());
+	}
+
+	// states are the natural numbers, the only action increments the state
+	private Problem createEndlessProblem(final CountDownLatch started) {
+		final Action inc = new DynamicAction("inc");
+		return new Problem(0, new ActionsFunction() {
+			public Set<Action> actions(Object s) {
+				if (null != started) {
+					started.countDown();
+				}
+				return Collections.singleton(inc);
+			}
+		}, new ResultFunction() {
+			public Object result(Object s, Action a) {
+				return (Integer) s + 1;
+			}
+		}, new GoalTest() {
+			public boolean isGoalState(Object state) {
+				return false;
+			}
+		});
+	}
+}
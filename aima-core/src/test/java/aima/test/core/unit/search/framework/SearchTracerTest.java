@@ -0,0 +1,219 @@
+package aima.test.core.unit.search.framework;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.agent.impl.DynamicAction;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.GoalTest;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.SearchTraceSummary;
+import aima.core.search.framework.SearchTracer;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.RecursiveBestFirstSearch;
+import aima.core.search.uninformed.DepthLimitedSearch;
+
+public class SearchTracerTest {
+
+	private File traceFile;
+
+	@Before
+	public void setUp() throws IOException {
+		traceFile = File.createTempFile("search", ".trace");
+	}
+
+	@After
+	public void tearDown() {
+		traceFile.delete();
+	}
+
+	@Test
+	public void testFullTrace() throws Exception {
+		SearchTraceSummary summary = traceAStarSearch(1.0);
+		Assert.assertTrue(summary.isComplete());
+		Assert.assertEquals(1.0, summary.getSamplingRate(), 0.0);
+		Assert.assertEquals(0, summary.getDroppedEvents());
+		Assert.assertEquals(926,
+				summary.getEventCount(SearchTracer.EventType.EXPANDED));
+		Assert.assertTrue(summary
+				.getEventCount(SearchTracer.EventType.GENERATED) > 926);
+		Assert.assertTrue(summary
+				.getEventCount(SearchTracer.EventType.DUPLICATE_PRUNED) > 0);
+
+		// frontier growth curve
+		int[] frontierSizes = summary.getFrontierSizes();
+		long[] times = summary.getExpansionTimes();
+		Assert.assertEquals(926, frontierSizes.length);
+		Assert.assertEquals(926, times.length);
+		Assert.assertEquals(0, frontierSizes[0]);
+		// recorded after the expanded node has been removed
+		Assert.assertEquals(534, max(frontierSizes));
+		for (int i = 1; i < times.length; i++) {
+			Assert.assertTrue(times[i - 1] <= times[i]);
+		}
+
+		// f-values of the expanded nodes, from h(root) to the solution cost
+		Assert.assertEquals(new ManhattanHeuristicFunction().h(createProblem()
+				.getInitialState()), summary.getMinValue(), 0.0);
+		Assert.assertEquals(23.0, summary.getMaxValue(), 0.0);
+		int[] histogram = summary.getValueHistogram(3);
+		Assert.assertEquals(926, histogram[0] + histogram[1] + histogram[2]);
+		Assert.assertTrue(summary.getExpansionsPerSecond() > 0);
+	}
+
+	@Test
+	public void testSampling() throws Exception {
+		SearchTraceSummary all = traceAStarSearch(1.0);
+		SearchTraceSummary sampled = traceAStarSearch(0.01);
+		// every 100th event of each type
+		for (SearchTracer.EventType type : SearchTracer.EventType.values()) {
+			Assert.assertEquals(all.getEventCount(type) / 100,
+					sampled.getEventCount(type));
+		}
+		// a rough estimate from few samples
+		long generated = all.getEventCount(SearchTracer.EventType.GENERATED);
+		Assert.assertEquals(generated, sampled
+				.getEstimatedEventCount(SearchTracer.EventType.GENERATED),
+				generated / 2.0);
+	}
+
+	@Test
+	public void testSamplingWithConstantBranching() throws Exception {
+		// 1 expansion and 4 generations per expanded node, the length of the
+		// pattern divides the sampling interval
+		SearchTracer tracer = new SearchTracer(0.01, 1 << 16);
+		tracer.startWriting(traceFile);
+		DepthLimitedSearch dls = new DepthLimitedSearch(9);
+		dls.setTracer(tracer);
+		try {
+			Assert.assertTrue(dls.isCutOff(dls.search(createTreeProblem(4))));
+		} finally {
+			tracer.close();
+		}
+		SearchTraceSummary summary = SearchTraceSummary.read(traceFile);
+		Assert.assertEquals(87381, dls.getNodesExpanded());
+		Assert.assertEquals(dls.getNodesExpanded(),
+				summary.getEstimatedEventCount(SearchTracer.EventType.EXPANDED),
+				100.0);
+		Assert.assertEquals(4 * dls.getNodesExpanded(), summary
+				.getEstimatedEventCount(SearchTracer.EventType.GENERATED),
+				100.0);
+		Assert.assertEquals(873, summary.getExpansionTimes().length);
+		Assert.assertTrue(summary.getExpansionsPerSecond() > 0);
+	}
+
+	@Test
+	public void testFullBufferDropsEvents() throws Exception {
+		// without writer, nothing drains the buffer
+		SearchTracer tracer = new SearchTracer(1.0, 3);
+		GraphSearch gs = new GraphSearch();
+		gs.setTracer(tracer);
+		new AStarSearch(gs, new ManhattanHeuristicFunction())
+				.search(createProblem());
+		Assert.assertTrue(tracer.getDroppedEvents() > 926);
+		// closing a tracer which never wrote is a no-op
+		tracer.close();
+	}
+
+	@Test
+	public void testRecursiveBestFirstSearch() throws Exception {
+		SearchTracer tracer = new SearchTracer(1.0, 1 << 16);
+		tracer.startWriting(traceFile);
+		RecursiveBestFirstSearch rbfs = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()));
+		rbfs.setTracer(tracer);
+		Assert.assertEquals(23, rbfs.search(createProblem()).size());
+		tracer.close();
+
+		SearchTraceSummary summary = SearchTraceSummary.read(traceFile);
+		Assert.assertEquals(rbfs.getNodesExpanded(),
+				summary.getEventCount(SearchTracer.EventType.EXPANDED));
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidTraceFile() throws Exception {
+		FileOutputStream out = new FileOutputStream(traceFile);
+		out.write(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+		out.close();
+		SearchTraceSummary.read(traceFile);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidSamplingRate() {
+		new SearchTracer(0.0, 16);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private SearchTraceSummary traceAStarSearch(double samplingRate)
+			throws Exception {
+		SearchTracer tracer = new SearchTracer(samplingRate, 1 << 16);
+		tracer.setEvaluationFunction(new AStarEvaluationFunction(
+				new ManhattanHeuristicFunction()));
+		tracer.startWriting(traceFile);
+		GraphSearch gs = new GraphSearch();
+		gs.setTracer(tracer);
+		try {
+			Assert.assertEquals(23, new AStarSearch(gs,
+					new ManhattanHeuristicFunction()).search(createProblem())
+					.size());
+		} finally {
+			tracer.close();
+		}
+		return SearchTraceSummary.read(traceFile);
+	}
+
+	private Problem createProblem() {
+		return new Problem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6,
+				2, 3, 5 }), EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+
+	// an endless tree with the specified branching factor, without goal
+	private Problem createTreeProblem(int branchingFactor) {
+		final Set<Action> actions = new LinkedHashSet<Action>();
+		for (int i = 0; i < branchingFactor; i++) {
+			actions.add(new DynamicAction("child" + i));
+		}
+		return new Problem(0, new ActionsFunction() {
+			public Set<Action> actions(Object s) {
+				return actions;
+			}
+		}, new ResultFunction() {
+			public Object result(Object s, Action a) {
+				return (Integer) s + 1;
+			}
+		}, new GoalTest() {
+			public boolean isGoalState(Object state) {
+				return false;
+			}
+		});
+	}
+
+	private int max(int[] values) {
+		int max = Integer.MIN_VALUE;
+		for (int v : values) {
+			max = Math.max(max, v);
+		}
+		return max;
+	}
+}
@@ -0,0 +1,145 @@
+package aima.test.core.unit.search.framework;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.agent.impl.DynamicAction;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.search.framework.AbstractStreamingActionsFunction;
+import aima.core.search.framework.GoalTest;
+import aima.core.search.framework.Node;
+import aima.core.search.framework.NodeExpander;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.framework.SearchUtils;
+import aima.core.search.uninformed.DepthLimitedSearch;
+
+public class StreamingActionsFunctionTest {
+
+	@Test
+	public void testActionsDerivedFromIterator() {
+		CountingActionsFunction af = new CountingActionsFunction(3);
+		Assert.assertEquals("[Action[name==0], Action[name==1], "
+				+ "Action[name==2]]", af.actions(0).toString());
+		Assert.assertEquals(3, af.generated);
+	}
+
+	@Test
+	public void testAdapterForPlainActionsFunction() {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 1, 2, 5, 3,
+				4, 0, 6, 7, 8 });
+		Iterator<Action> it = SearchUtils.actionIterator(
+				EightPuzzleFunctionFactory.getActionsFunction(), board);
+		List<Action> actions = new ArrayList<Action>();
+		while (it.hasNext()) {
+			actions.add(it.next());
+		}
+		Assert.assertEquals(new ArrayList<Action>(EightPuzzleFunctionFactory
+				.getActionsFunction().actions(board)), actions);
+		Assert.assertEquals(3, actions.size());
+	}
+
+	@Test
+	public void testSuccessorsAreGeneratedOnDemand() {
+		CountingActionsFunction af = new CountingActionsFunction(10);
+		Problem problem = createProblem(af, 1);
+		NodeExpander expander = new NodeExpander();
+		Iterator<Node> it = expander.successors(new Node(0), problem);
+		// counted as expanded, but nothing generated yet
+		Assert.assertEquals(1, expander.getNodesExpanded());
+		Assert.assertEquals(0, af.generated);
+		Node child = it.next();
+		Assert.assertEquals(1, child.getState());
+		Assert.assertEquals(1.0, child.getPathCost(), 0.0);
+		Assert.assertEquals(1, af.generated);
+
+		List<Node> children = expander.expandNode(new Node(0), problem);
+		Assert.assertEquals(10, children.size());
+		Assert.assertEquals(2, expander.getNodesExpanded());
+	}
+
+	@Test
+	public void testDepthLimitedSearchStopsEarly() throws Exception {
+		CountingActionsFunction af = new CountingActionsFunction(10);
+		// the goal is reached by the first action of each state
+		DepthLimitedSearch search = new DepthLimitedSearch(3);
+		List<Action> actions = search.search(createProblem(af, 3));
+		Assert.assertEquals("[Action[name==0], Action[name==0], "
+				+ "Action[name==0]]", actions.toString());
+		Assert.assertEquals(3, search.getNodesExpanded());
+		Assert.assertEquals(3, af.generated);
+	}
+
+	@Test
+	public void testDepthLimitedSearchOnPlainProblem() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 1, 2,
+				5, 3, 4, 0, 6, 7, 8 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		DepthLimitedSearch search = new DepthLimitedSearch(3);
+		Assert.assertEquals(3, search.search(problem).size());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createProblem(CountingActionsFunction af,
+			final int goal) {
+		return new Problem(0, af, new ResultFunction() {
+			public Object result(Object s, Action a) {
+				// the first action increments the state, all others lead to
+				// dead ends
+				String name = ((DynamicAction) a).getName();
+				return "0".equals(name) ? (Integer) s + 1 : -1;
+			}
+		}, new GoalTest() {
+			public boolean isGoalState(Object state) {
+				return Integer.valueOf(goal).equals(state);
+			}
+		});
+	}
+
+	/**
+	 * Generates the actions "0", "1", ... and counts them.
+	 */
+	private static class CountingActionsFunction extends
+			AbstractStreamingActionsFunction {
+		private final int numberOfActions;
+		int generated = 0;
+
+		CountingActionsFunction(int numberOfActions) {
+			this.numberOfActions = numberOfActions;
+		}
+
+		public Iterator<Action> actionIterator(Object s) {
+			return new Iterator<Action>() {
+				private int i = 0;
+
+				public boolean hasNext() {
+					return i < numberOfActions;
+				}
+
+				public Action next() {
+					if (i >= numberOfActions) {
+						throw new NoSuchElementException();
+					}
+					generated++;
+					return new DynamicAction(Integer.toString(i++));
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+	}
+}
@@ -9,6 +9,7 @@ import aima.core.agent.Action;
 import aima.core.environment.eightpuzzle.EightPuzzleBoard;
 import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
 import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
 import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
 import aima.core.environment.map.ExtendableMap;
 import aima.core.environment.map.Map;
@@ -60,6 +61,26 @@ public class AStarSearchTest {
 		}
 	}
 
+	@Test
+	public void testAStarSearchWithStateCodec() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+
+		Problem problem = new Problem(board,
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		Search search = new AStarSearch(new GraphSearch(
+				new EightPuzzleStateCodec()), new ManhattanHeuristicFunction());
+		SearchAgent agent = new SearchAgent(problem, search);
+		// same result as without codec
+		Assert.assertEquals(23, agent.getActions().size());
+		Assert.assertEquals("926",
+				agent.getInstrumentation().getProperty("nodesExpanded"));
+		Assert.assertEquals("534",
+				agent.getInstrumentation().getProperty("queueSize"));
+	}
+
 	@Test
 	public void testAIMA3eFigure3_15() throws Exception {
 		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
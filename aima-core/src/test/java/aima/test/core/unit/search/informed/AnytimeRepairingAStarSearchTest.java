@@ -0,0 +1,175 @@
+package aima.test.core.unit.search.informed;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.BudgetedSearchResult;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.SearchBudget;
+import aima.core.search.informed.AnytimeRepairingAStarSearch;
+
+public class AnytimeRepairingAStarSearchTest {
+
+	@Test
+	public void testEightPuzzle() throws Exception {
+		AnytimeRepairingAStarSearch search = new AnytimeRepairingAStarSearch(
+				new ManhattanHeuristicFunction(), 3.0, 0.5);
+		final List<double[]> solutions = new ArrayList<double[]>();
+		final List<Integer> nodesExpanded = new ArrayList<Integer>();
+		final AnytimeRepairingAStarSearch s = search;
+		search.addSolutionListener(new AnytimeRepairingAStarSearch.SolutionListener() {
+			public void solutionImproved(List<Action> actions,
+					double pathCost, double suboptimalityBound) {
+				Assert.assertEquals(pathCost, actions.size(), 0.0);
+				solutions.add(new double[] { pathCost, suboptimalityBound });
+				nodesExpanded.add(s.getNodesExpanded());
+			}
+		});
+		List<Action> actions = search.search(createEightPuzzleProblem());
+		Assert.assertEquals(23, actions.size());
+		Assert.assertEquals(23.0, search.getPathCost(), 0.0);
+		Assert.assertEquals(1.0, search.getSuboptimalityBound(), 0.0);
+		Assert.assertEquals(BudgetedSearchResult.StopReason.SOLUTION_FOUND,
+				search.getLastSearchResult().getStopReason());
+
+		// the weight is lowered from 3 to 1 in steps of 0.5
+		Assert.assertTrue(search.getIterations() <= 5);
+		Assert.assertTrue(solutions.size() > 1);
+		Assert.assertTrue(solutions.size() <= search.getIterations());
+		double[] previous = { Double.POSITIVE_INFINITY,
+				Double.POSITIVE_INFINITY };
+		for (double[] solution : solutions) {
+			Assert.assertTrue(solution[0] <= previous[0]);
+			Assert.assertTrue(solution[1] < previous[1]);
+			Assert.assertTrue(solution[1] <= 3.0);
+			// the bound holds with respect to the optimal cost
+			Assert.assertTrue(solution[0] <= solution[1] * 23.0);
+			previous = solution;
+		}
+		Assert.assertEquals(1.0, previous[1], 0.0);
+		// the first solution is found with fewer expansions than needed by
+		// A* (926)
+		Assert.assertTrue(nodesExpanded.get(0) < 926);
+
+		// with a node limit, the first solution is returned
+		search.setSearchBudget(new SearchBudget(0, nodesExpanded.get(0) + 1,
+				0));
+		solutions.clear();
+		nodesExpanded.clear();
+		actions = search.search(createEightPuzzleProblem());
+		Assert.assertEquals(1, solutions.size());
+		Assert.assertEquals(solutions.get(0)[0], actions.size(), 0.0);
+		BudgetedSearchResult result = search.getLastSearchResult();
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.NODE_LIMIT_REACHED,
+				result.getStopReason());
+		Assert.assertTrue(result.isBudgetExhausted());
+		Assert.assertTrue(result.isSolutionFound());
+		Assert.assertSame(actions, result.getActions());
+		Assert.assertEquals(solutions.get(0)[0], result.getBestNodeValue(),
+				0.0);
+	}
+
+	@Test
+	public void testAIMA3eFigure3_24() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+		HeuristicFunction hf = new StraightLineDistanceHeuristicFunction(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap);
+
+		AnytimeRepairingAStarSearch search = new AnytimeRepairingAStarSearch(
+				hf, 5.0, 1.0);
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+				search.search(problem).toString());
+		Assert.assertEquals(418.0, search.getPathCost(), 0.0);
+		Assert.assertEquals(1.0, search.getSuboptimalityBound(), 0.0);
+
+		// weight 1 is A*
+		search = new AnytimeRepairingAStarSearch(hf, 1.0, 1.0);
+		Assert.assertEquals(4, search.search(problem).size());
+		Assert.assertEquals(418.0, search.getPathCost(), 0.0);
+		Assert.assertEquals(1, search.getIterations());
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		AnytimeRepairingAStarSearch search = new AnytimeRepairingAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				3.0, 1.0);
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+		Assert.assertEquals(0, search.getNodesExpanded());
+		Assert.assertEquals(1.0, search.getSuboptimalityBound(), 0.0);
+	}
+
+	@Test
+	public void testGoalNotReachable() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 1.0);
+		aMap.addUnidirectionalLink("B", "C", 1.0);
+		aMap.addBidirectionalLink("D", "E", 1.0);
+		Problem problem = new Problem("A",
+				MapFunctionFactory.getActionsFunction(aMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						"E"), new MapStepCostFunction(aMap));
+
+		AnytimeRepairingAStarSearch search = new AnytimeRepairingAStarSearch(
+				new HeuristicFunction() {
+					public double h(Object state) {
+						return 0;
+					}
+				}, 2.0, 0.5);
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertEquals(3, search.getNodesExpanded());
+		Assert.assertEquals(
+				BudgetedSearchResult.StopReason.SEARCH_SPACE_EXHAUSTED, search
+						.getLastSearchResult().getStopReason());
+		Assert.assertFalse(search.getLastSearchResult().isSolutionFound());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testWeightBelowOne() {
+		new AnytimeRepairingAStarSearch(new ManhattanHeuristicFunction(), 0.5,
+				0.5);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createEightPuzzleProblem() {
+		return new Problem(new EightPuzzleBoard(new int[] { 7, 1, 8, 0, 4, 6,
+				2, 3, 5 }), EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+	}
+}
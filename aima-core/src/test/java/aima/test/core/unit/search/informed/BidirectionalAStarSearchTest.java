@@ -0,0 +1,121 @@
+package aima.test.core.unit.search.informed;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.map.BidirectionalMapProblem;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.GraphSearch;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarSearch;
+import aima.core.search.informed.BidirectionalAStarSearch;
+
+public class BidirectionalAStarSearchTest {
+
+	@Test
+	public void testAIMA3eFigure3_24() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new BidirectionalMapProblem(romaniaMap,
+				SimplifiedRoadMapOfPartOfRomania.ARAD,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST);
+
+		BidirectionalAStarSearch search = new BidirectionalAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.ARAD, romaniaMap));
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+				search.search(problem).toString());
+		Assert.assertEquals("418.0",
+				search.getMetrics().get(
+						BidirectionalAStarSearch.METRIC_PATH_COST));
+	}
+
+	@Test
+	public void testSameCostAsAStarForAllPairs() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		for (String from : romaniaMap.getLocations()) {
+			for (String to : romaniaMap.getLocations()) {
+				Problem problem = new BidirectionalMapProblem(romaniaMap,
+						from, to);
+				AStarSearch aStar = new AStarSearch(new GraphSearch(),
+						new StraightLineDistanceHeuristicFunction(to,
+								romaniaMap));
+				aStar.search(problem);
+				BidirectionalAStarSearch search = new BidirectionalAStarSearch(
+						new StraightLineDistanceHeuristicFunction(to,
+								romaniaMap),
+						new StraightLineDistanceHeuristicFunction(from,
+								romaniaMap));
+				search.search(problem);
+				Assert.assertEquals(from + "->" + to, aStar.getMetrics()
+						.getDouble("pathCost"), search.getPathCost(), 1e-9);
+			}
+		}
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new BidirectionalMapProblem(romaniaMap,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST);
+
+		BidirectionalAStarSearch search = new BidirectionalAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap));
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+		Assert.assertEquals(0, search.getNodesExpanded());
+		Assert.assertEquals(0.0, search.getPathCost(), 0.0);
+	}
+
+	//
+	// Test A->B, A<->C<->B: the reverse search reaches A from B, but the
+	// link can not be traversed from A.
+	@Test
+	public void testUnidirectionalLink() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addUnidirectionalLink("B", "A", 1.0);
+		aMap.addBidirectionalLink("A", "C", 2.0);
+		aMap.addBidirectionalLink("C", "B", 2.0);
+
+		BidirectionalAStarSearch search = new BidirectionalAStarSearch(
+				ZERO_HF, ZERO_HF);
+		List<Action> actions = search.search(new BidirectionalMapProblem(
+				aMap, "A", "B"));
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==C], Action[name==moveTo, location==B]]",
+				actions.toString());
+		Assert.assertEquals(4.0, search.getPathCost(), 0.0);
+	}
+
+	@Test
+	public void testGoalNotReachable() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 1.0);
+		aMap.addBidirectionalLink("C", "D", 1.0);
+
+		BidirectionalAStarSearch search = new BidirectionalAStarSearch(
+				ZERO_HF, ZERO_HF);
+		Assert.assertTrue(search.search(
+				new BidirectionalMapProblem(aMap, "A", "D")).isEmpty());
+		Assert.assertEquals(0.0, search.getPathCost(), 0.0);
+	}
+
+	private static final HeuristicFunction ZERO_HF = new HeuristicFunction() {
+		public double h(Object state) {
+			return 0;
+		}
+	};
+}
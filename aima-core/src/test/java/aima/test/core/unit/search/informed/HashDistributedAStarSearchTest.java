@@ -0,0 +1,128 @@
+package aima.test.core.unit.search.informed;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.HashDistributedAStarSearch;
+
+public class HashDistributedAStarSearchTest {
+
+	@Test
+	public void testEightPuzzle() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+		Problem problem = new Problem(board,
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		for (int threads = 1; threads <= 4; threads++) {
+			HashDistributedAStarSearch search = new HashDistributedAStarSearch(
+					new ManhattanHeuristicFunction(), threads);
+			List<Action> actions = search.search(problem);
+			// same solution length as sequential A*
+			Assert.assertEquals(23, actions.size());
+			Assert.assertEquals("23.0", search.getMetrics().get(
+					HashDistributedAStarSearch.METRIC_PATH_COST));
+			Assert.assertTrue(search.getMetrics().getInt(
+					HashDistributedAStarSearch.METRIC_NODES_EXPANDED) > 0);
+		}
+	}
+
+	@Test
+	public void testAIMA3eFigure3_24() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		HashDistributedAStarSearch search = new HashDistributedAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				4);
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+				search.search(problem).toString());
+		Assert.assertEquals("418.0",
+				search.getMetrics().get(
+						HashDistributedAStarSearch.METRIC_PATH_COST));
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		HashDistributedAStarSearch search = new HashDistributedAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				2);
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+	}
+
+	@Test
+	public void testGoalUnreachable() throws Exception {
+		ExtendableMap map = new ExtendableMap();
+		map.addBidirectionalLink("A", "B", 5.0);
+		map.addBidirectionalLink("B", "C", 5.0);
+		map.addBidirectionalLink("D", "E", 5.0);
+		Problem problem = new Problem("A",
+				MapFunctionFactory.getActionsFunction(map),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						"E"), new MapStepCostFunction(map));
+
+		HashDistributedAStarSearch search = new HashDistributedAStarSearch(
+				new HeuristicFunction() {
+					public double h(Object state) {
+						return 0;
+					}
+				}, 3);
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertEquals(3, search.getMetrics().getInt(
+				HashDistributedAStarSearch.METRIC_NODES_EXPANDED));
+	}
+
+	@Test(expected = AssertionError.class, timeout = 10000)
+	public void testFailingHeuristic() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		final HeuristicFunction manhattan = new ManhattanHeuristicFunction();
+		// an error in one worker stops the others instead of leaving its
+		// nodes unprocessed
+		new HashDistributedAStarSearch(new HeuristicFunction() {
+			public double h(Object state) {
+				if (manhattan.h(state) == 12) {
+					throw new AssertionError("inconsistent heuristic");
+				}
+				return manhattan.h(state);
+			}
+		}, 4).search(problem);
+	}
+
+}
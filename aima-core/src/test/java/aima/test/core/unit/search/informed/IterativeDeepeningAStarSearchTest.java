@@ -0,0 +1,120 @@
+package aima.test.core.unit.search.informed;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.AStarEvaluationFunction;
+import aima.core.search.informed.IterativeDeepeningAStarSearch;
+
+public class IterativeDeepeningAStarSearchTest {
+
+	@Test
+	public void testEightPuzzle() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+
+		IterativeDeepeningAStarSearch search = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()));
+		List<Action> actions = search.search(problem);
+		// same solution length as A*
+		Assert.assertEquals(23, actions.size());
+		Assert.assertEquals(23.0, search.getPathCost(), 0.0);
+		Assert.assertEquals(22, search.getMaxRecursiveDepth());
+		Assert.assertEquals("23.0", search.getMetrics().get(
+				IterativeDeepeningAStarSearch.METRIC_F_LIMIT));
+		int expandedWithoutTable = search.getNodesExpanded();
+
+		IterativeDeepeningAStarSearch withTable = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(new ManhattanHeuristicFunction()),
+				10000);
+		Assert.assertEquals(23, withTable.search(problem).size());
+		Assert.assertEquals(search.getIterations(), withTable.getIterations());
+		Assert.assertTrue(withTable.getNodesExpanded() < expandedWithoutTable);
+
+		// the search can be repeated
+		Assert.assertEquals(actions, search.search(problem));
+		Assert.assertEquals(expandedWithoutTable, search.getNodesExpanded());
+	}
+
+	@Test
+	public void testAIMA3eFigure3_24() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		IterativeDeepeningAStarSearch search = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(
+						new StraightLineDistanceHeuristicFunction(
+								SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+								romaniaMap)), 100);
+		Assert.assertEquals(
+				"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+				search.search(problem).toString());
+		Assert.assertEquals("418.0", search.getMetrics().get(
+				IterativeDeepeningAStarSearch.METRIC_PATH_COST));
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		IterativeDeepeningAStarSearch search = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(
+						new StraightLineDistanceHeuristicFunction(
+								SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+								romaniaMap)));
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+		Assert.assertEquals(0, search.getNodesExpanded());
+	}
+
+	@Test
+	public void testGoalNotReachable() throws Exception {
+		// A dead end, so that the tree search terminates
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addUnidirectionalLink("A", "B", 1.0);
+		aMap.addUnidirectionalLink("B", "C", 1.0);
+		aMap.addBidirectionalLink("D", "E", 1.0);
+		Problem problem = new Problem("A",
+				MapFunctionFactory.getActionsFunction(aMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						"E"), new MapStepCostFunction(aMap));
+
+		IterativeDeepeningAStarSearch search = new IterativeDeepeningAStarSearch(
+				new AStarEvaluationFunction(new HeuristicFunction() {
+					public double h(Object state) {
+						return 0;
+					}
+				}));
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertEquals(3, search.getIterations());
+	}
+}
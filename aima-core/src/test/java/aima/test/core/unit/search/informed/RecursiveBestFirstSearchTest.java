@@ -1,5 +1,9 @@
 package aima.test.core.unit.search.informed;
 
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -8,11 +12,16 @@ import aima.core.agent.Action;
 import aima.core.agent.Agent;
 import aima.core.agent.EnvironmentState;
 import aima.core.agent.EnvironmentView;
+import aima.core.agent.impl.DynamicAction;
 import aima.core.environment.map.Map;
 import aima.core.environment.map.MapAgent;
 import aima.core.environment.map.MapEnvironment;
 import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.GoalTest;
 import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
 import aima.core.search.informed.AStarEvaluationFunction;
 import aima.core.search.informed.RecursiveBestFirstSearch;
 import aima.core.util.datastructure.Point2D;
@@ -78,6 +87,63 @@ public class RecursiveBestFirstSearchTest {
 				envChanges.toString());
 	}
 
+	@Test
+	public void testDeepSolution() throws Exception {
+		final int length = 50000;
+		final Action forward = new DynamicAction("forward");
+		final Action back = new DynamicAction("back");
+		// a chain of states 0, 1, ..., length, in which each state but 0 can
+		// also be left backwards
+		ActionsFunction af = new ActionsFunction() {
+			public Set<Action> actions(Object state) {
+				Set<Action> actions = new LinkedHashSet<Action>();
+				if ((Integer) state < length) {
+					actions.add(forward);
+				}
+				if ((Integer) state > 0) {
+					actions.add(back);
+				}
+				return actions;
+			}
+		};
+		ResultFunction rf = new ResultFunction() {
+			public Object result(Object state, Action a) {
+				return (Integer) state + (a == forward ? 1 : -1);
+			}
+		};
+		GoalTest gt = new GoalTest() {
+			public boolean isGoalState(Object state) {
+				return length == (Integer) state;
+			}
+		};
+		final Problem problem = new Problem(0, af, rf, gt);
+		final RecursiveBestFirstSearch search = new RecursiveBestFirstSearch(
+				new AStarEvaluationFunction(new HeuristicFunction() {
+					public double h(Object state) {
+						return length - (Integer) state;
+					}
+				}));
+
+		// a small stack, which a recursive implementation would exhaust
+		final Object[] result = new Object[1];
+		Thread thread = new Thread(null, new Runnable() {
+			public void run() {
+				try {
+					result[0] = search.search(problem);
+				} catch (Throwable t) {
+					result[0] = t;
+				}
+			}
+		}, "rbfs", 256 * 1024);
+		thread.start();
+		thread.join();
+		Assert.assertTrue(result[0] instanceof List);
+		Assert.assertEquals(length, ((List<?>) result[0]).size());
+		Assert.assertEquals(length, search.getMaxRecursiveDepth());
+		Assert.assertEquals(length, search.getNodesExpanded());
+		Assert.assertEquals((double) length, search.getPathCost(), 0.0);
+	}
+
 	private class TestEnvironmentView implements EnvironmentView {
 		public void notify(String msg) {
 			envChanges.append(msg).append(":");
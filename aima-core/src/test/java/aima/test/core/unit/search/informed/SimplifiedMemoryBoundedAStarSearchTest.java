@@ -0,0 +1,127 @@
+package aima.test.core.unit.search.informed;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.ManhattanHeuristicFunction;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.Map;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.environment.map.SimplifiedRoadMapOfPartOfRomania;
+import aima.core.environment.map.StraightLineDistanceHeuristicFunction;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.informed.SimplifiedMemoryBoundedAStarSearch;
+
+public class SimplifiedMemoryBoundedAStarSearchTest {
+
+	@Test
+	public void testEightPuzzle() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 7, 1,
+				8, 0, 4, 6, 2, 3, 5 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+
+		// enough memory, no node is forgotten
+		SimplifiedMemoryBoundedAStarSearch search = new SimplifiedMemoryBoundedAStarSearch(
+				new ManhattanHeuristicFunction(), 100000);
+		List<Action> actions = search.search(problem);
+		Assert.assertEquals(23, actions.size());
+		Assert.assertEquals(23.0, search.getPathCost(), 0.0);
+		Assert.assertEquals(0, search.getNodesForgotten());
+
+		// a fraction of the memory, still optimal
+		SimplifiedMemoryBoundedAStarSearch bounded = new SimplifiedMemoryBoundedAStarSearch(
+				new ManhattanHeuristicFunction(), 200);
+		Assert.assertEquals(23, bounded.search(problem).size());
+		Assert.assertEquals(23.0, bounded.getPathCost(), 0.0);
+		Assert.assertTrue(bounded.getNodesForgotten() > 0);
+		Assert.assertEquals(200, bounded.getMaxNodesInMemory());
+		Assert.assertTrue(search.getMaxNodesInMemory() > 200);
+	}
+
+	@Test
+	public void testAIMA3eFigure3_24() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(SimplifiedRoadMapOfPartOfRomania.ARAD,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+		HeuristicFunction hf = new StraightLineDistanceHeuristicFunction(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap);
+
+		for (int maxNodes : new int[] { 5, 6, 10, 100 }) {
+			SimplifiedMemoryBoundedAStarSearch search = new SimplifiedMemoryBoundedAStarSearch(
+					hf, maxNodes);
+			Assert.assertEquals(
+					"[Action[name==moveTo, location==Sibiu], Action[name==moveTo, location==RimnicuVilcea], Action[name==moveTo, location==Pitesti], Action[name==moveTo, location==Bucharest]]",
+					search.search(problem).toString());
+			Assert.assertEquals(418.0, search.getPathCost(), 0.0);
+			Assert.assertTrue(search.getMaxNodesInMemory() <= maxNodes);
+		}
+
+		// the solution is four steps deep and cannot be reached with four
+		// nodes
+		SimplifiedMemoryBoundedAStarSearch search = new SimplifiedMemoryBoundedAStarSearch(
+				hf, 4);
+		List<Action> actions = search.search(problem);
+		Assert.assertFalse(actions.isEmpty());
+		Assert.assertTrue(search.getPathCost() > 418.0);
+
+		// only the initial state fits into memory
+		search = new SimplifiedMemoryBoundedAStarSearch(hf, 1);
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertEquals(1, search.getMaxNodesInMemory());
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Map romaniaMap = new SimplifiedRoadMapOfPartOfRomania();
+		Problem problem = new Problem(
+				SimplifiedRoadMapOfPartOfRomania.BUCHAREST,
+				MapFunctionFactory.getActionsFunction(romaniaMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST),
+				new MapStepCostFunction(romaniaMap));
+
+		SimplifiedMemoryBoundedAStarSearch search = new SimplifiedMemoryBoundedAStarSearch(
+				new StraightLineDistanceHeuristicFunction(
+						SimplifiedRoadMapOfPartOfRomania.BUCHAREST, romaniaMap),
+				1);
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+		Assert.assertEquals(0, search.getNodesExpanded());
+	}
+
+	@Test
+	public void testGoalNotReachable() throws Exception {
+		ExtendableMap aMap = new ExtendableMap();
+		aMap.addBidirectionalLink("A", "B", 1.0);
+		aMap.addUnidirectionalLink("B", "C", 1.0);
+		aMap.addBidirectionalLink("D", "E", 1.0);
+		Problem problem = new Problem("A",
+				MapFunctionFactory.getActionsFunction(aMap),
+				MapFunctionFactory.getResultFunction(), new DefaultGoalTest(
+						"E"), new MapStepCostFunction(aMap));
+
+		// the cycle between A and B is cut by the memory limit
+		SimplifiedMemoryBoundedAStarSearch search = new SimplifiedMemoryBoundedAStarSearch(
+				new HeuristicFunction() {
+					public double h(Object state) {
+						return 0;
+					}
+				}, 10);
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertTrue(search.getMaxNodesInMemory() <= 10);
+	}
+}
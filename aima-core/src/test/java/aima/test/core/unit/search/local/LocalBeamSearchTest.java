@@ -0,0 +1,119 @@
+package aima.test.core.unit.search.local;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.search.framework.Problem;
+import aima.core.search.local.HillClimbingSearch;
+import aima.core.search.local.LocalBeamSearch;
+import aima.core.search.local.StochasticBeamSearch;
+import aima.core.util.datastructure.XYLocation;
+
+public class LocalBeamSearchTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testLocalBeamSearch() throws Exception {
+		Problem problem = createProblem();
+		HillClimbingSearch hillClimbing = new HillClimbingSearch(
+				new AttackingPairsHeuristic());
+		hillClimbing.search(problem);
+
+		LocalBeamSearch search = new LocalBeamSearch(
+				new AttackingPairsHeuristic(), 10);
+		List<Action> actions = search.search(problem);
+		Assert.assertFalse(actions.isEmpty());
+		NQueensBoard best = (NQueensBoard) search.getLastSearchState();
+		NQueensBoard hillClimbingBest = (NQueensBoard) hillClimbing
+				.getLastSearchState();
+		Assert.assertTrue(best.getNumberOfAttackingPairs() <= hillClimbingBest
+				.getNumberOfAttackingPairs());
+		// the beam is filled with the successors of the initial state
+		Assert.assertEquals(1 + 10 * (search.getIterations() - 1),
+				search.getNodesExpanded());
+
+		// the parallel search selects the same beams
+		LocalBeamSearch parallel = new LocalBeamSearch(
+				new AttackingPairsHeuristic(), 10, executor);
+		Assert.assertEquals(actions, parallel.search(problem));
+		Assert.assertEquals(best, parallel.getLastSearchState());
+		Assert.assertEquals(search.getNodesExpanded(),
+				parallel.getNodesExpanded());
+	}
+
+	@Test
+	public void testStochasticBeamSearch() throws Exception {
+		Problem problem = createProblem();
+		StochasticBeamSearch search = new StochasticBeamSearch(
+				new AttackingPairsHeuristic(), 4, 20, new Random(1), null);
+		List<Action> actions = search.search(problem);
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.SOLUTION_FOUND,
+				search.getOutcome());
+		Assert.assertEquals(0, ((NQueensBoard) search.getLastSearchState())
+				.getNumberOfAttackingPairs());
+
+		// reproducible with the same seed, also in parallel
+		StochasticBeamSearch parallel = new StochasticBeamSearch(
+				new AttackingPairsHeuristic(), 4, 20, new Random(1), executor);
+		Assert.assertEquals(actions, parallel.search(problem));
+		Assert.assertEquals(search.getLastSearchState(),
+				parallel.getLastSearchState());
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		NQueensBoard board = new NQueensBoard(4);
+		int[] rows = { 1, 3, 0, 2 };
+		for (int col = 0; col < rows.length; col++) {
+			board.addQueenAt(new XYLocation(col, rows[col]));
+		}
+		LocalBeamSearch search = new LocalBeamSearch(
+				new AttackingPairsHeuristic(), 3);
+		Assert.assertEquals("[Action[name==NoOp]]",
+				search.search(createProblem(board)).toString());
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.SOLUTION_FOUND,
+				search.getOutcome());
+		Assert.assertEquals(0, search.getNodesExpanded());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	// eight queens in the first row
+	private Problem createProblem() {
+		NQueensBoard board = new NQueensBoard(8);
+		for (int col = 0; col < 8; col++) {
+			board.addQueenAt(new XYLocation(col, 0));
+		}
+		return createProblem(board);
+	}
+
+	private Problem createProblem(NQueensBoard board) {
+		return new Problem(board, NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+	}
+}
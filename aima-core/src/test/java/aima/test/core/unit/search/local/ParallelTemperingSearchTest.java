@@ -0,0 +1,131 @@
+package aima.test.core.unit.search.local;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.environment.nqueens.NQueensColumnBoard;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.Problem;
+import aima.core.search.local.HillClimbingSearch;
+import aima.core.search.local.ParallelTemperingSearch;
+
+public class ParallelTemperingSearchTest {
+
+	@Test
+	public void testGeometricTemperatures() {
+		Assert.assertArrayEquals(new double[] { 0.5, 1.0, 2.0, 4.0 },
+				ParallelTemperingSearch.geometricTemperatures(0.5, 4.0, 4),
+				1e-9);
+		Assert.assertArrayEquals(new double[] { 2.0 },
+				ParallelTemperingSearch.geometricTemperatures(2.0, 4.0, 1),
+				0.0);
+	}
+
+	@Test
+	public void testSolution() throws Exception {
+		ParallelTemperingSearch search = new ParallelTemperingSearch(
+				new AttackingPairsHeuristic(),
+				ParallelTemperingSearch.geometricTemperatures(0.2, 5.0, 4),
+				50, 10000, 7);
+		Problem problem = createProblem(8);
+		List<Action> actions = search.search(problem);
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.SOLUTION_FOUND,
+				search.getOutcome());
+		NQueensColumnBoard board = (NQueensColumnBoard) search
+				.getLastSearchState();
+		Assert.assertTrue(board.isGoal());
+		// the actions lead from the initial state to the goal
+		Object state = problem.getInitialState();
+		for (Action a : actions) {
+			state = problem.getResultFunction().result(state, a);
+		}
+		Assert.assertEquals(board, state);
+		Assert.assertEquals(0.0, search.getMetrics().getDouble(
+				ParallelTemperingSearch.METRIC_BEST_VALUE), 0.0);
+	}
+
+	@Test
+	public void testAcceptanceRates() throws Exception {
+		// there is no solution with 3 queens
+		ParallelTemperingSearch search = new ParallelTemperingSearch(
+				new AttackingPairsHeuristic(), new double[] { 0.1, 1.0, 10.0 },
+				20, 50, 7);
+		search.search(createProblem(3));
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.FAILURE,
+				search.getOutcome());
+		Assert.assertEquals(50, search.getMetrics().getInt(
+				ParallelTemperingSearch.METRIC_ROUNDS));
+		Assert.assertEquals(3 * 20 * 50, search.getNodesExpanded());
+		Assert.assertEquals(1, ((NQueensColumnBoard) search
+				.getLastSearchState()).getNumberOfAttackingPairs());
+		// hotter replicas accept more moves
+		Assert.assertTrue(search.getAcceptanceRate(0) < search
+				.getAcceptanceRate(1));
+		Assert.assertTrue(search.getAcceptanceRate(1) < search
+				.getAcceptanceRate(2));
+		Assert.assertEquals(search.getAcceptanceRate(2), search.getMetrics()
+				.getDouble(ParallelTemperingSearch.METRIC_ACCEPTANCE_RATE + 2),
+				0.0);
+		for (int i = 0; i < 2; i++) {
+			Assert.assertTrue(search.getSwapAcceptanceRate(i) > 0);
+			Assert.assertTrue(search.getSwapAcceptanceRate(i) <= 1);
+		}
+		Assert.assertTrue(search.getMetrics().getInt(
+				ParallelTemperingSearch.METRIC_SWAPS) > 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailingHeuristic() throws Exception {
+		ParallelTemperingSearch search = new ParallelTemperingSearch(
+				new HeuristicFunction() {
+					private int calls = 0;
+
+					public synchronized double h(Object state) {
+						if (++calls > 100) {
+							throw new IllegalStateException();
+						}
+						return 1;
+					}
+				}, new double[] { 1.0, 2.0 }, 10, 0, 7);
+		search.search(createProblem(8));
+	}
+
+	@Test(expected = StackOverflowError.class, timeout = 10000)
+	public void testErrorInReplica() throws Exception {
+		// the other replicas must not wait for the failed one forever
+		ParallelTemperingSearch search = new ParallelTemperingSearch(
+				new HeuristicFunction() {
+					private int calls = 0;
+
+					public synchronized double h(Object state) {
+						if (++calls > 100) {
+							throw new StackOverflowError();
+						}
+						return 1;
+					}
+				}, new double[] { 1.0, 2.0, 4.0 }, 10, 0, 7);
+		search.search(createProblem(8));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testNonPositiveTemperature() {
+		new ParallelTemperingSearch(new AttackingPairsHeuristic(),
+				new double[] { 0.0, 1.0 }, 10, 10, 7);
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createProblem(int size) {
+		return new Problem(new NQueensColumnBoard(size),
+				NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+	}
+}
@@ -0,0 +1,94 @@
+package aima.test.core.unit.search.local;
+
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.nqueens.AttackingPairsHeuristic;
+import aima.core.environment.nqueens.NQueensBoard;
+import aima.core.environment.nqueens.NQueensFunctionFactory;
+import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.search.framework.Problem;
+import aima.core.search.local.HillClimbingSearch;
+import aima.core.search.local.InitialStateGenerator;
+import aima.core.search.local.RandomRestartHillClimbingSearch;
+import aima.core.util.Randomizer;
+
+public class RandomRestartHillClimbingSearchTest {
+
+	@Test
+	public void testSolution() throws Exception {
+		for (int threads = 1; threads <= 4; threads *= 2) {
+			RandomRestartHillClimbingSearch search = new RandomRestartHillClimbingSearch(
+					new AttackingPairsHeuristic(),
+					NQueensFunctionFactory.getCInitialStateGenerator(8),
+					threads, 0, 0, 3);
+			List<Action> actions = search.search(createProblem(8));
+			Assert.assertEquals(HillClimbingSearch.SearchOutcome.SOLUTION_FOUND,
+					search.getOutcome());
+			NQueensBoard board = (NQueensBoard) search.getLastSearchState();
+			Assert.assertEquals(0, board.getNumberOfAttackingPairs());
+			Assert.assertFalse(actions.isEmpty());
+			Assert.assertTrue(search.getRestarts() >= 1);
+			Assert.assertTrue(search.getNodesExpanded() >= search
+					.getRestarts());
+			Assert.assertEquals(0.0, search.getMetrics().getDouble(
+					RandomRestartHillClimbingSearch.METRIC_BEST_VALUE), 0.0);
+		}
+	}
+
+	@Test
+	public void testRestartLimit() throws Exception {
+		// there is no solution with 3 queens
+		RandomRestartHillClimbingSearch search = new RandomRestartHillClimbingSearch(
+				new AttackingPairsHeuristic(),
+				NQueensFunctionFactory.getCInitialStateGenerator(3), 4, 25, 0,
+				3);
+		search.search(createProblem(3));
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.FAILURE,
+				search.getOutcome());
+		Assert.assertEquals(25, search.getRestarts());
+		// the best local maximum found
+		Assert.assertEquals(1.0, search.getMetrics().getDouble(
+				RandomRestartHillClimbingSearch.METRIC_BEST_VALUE), 0.0);
+		Assert.assertEquals(1, ((NQueensBoard) search.getLastSearchState())
+				.getNumberOfAttackingPairs());
+	}
+
+	@Test
+	public void testTimeLimit() throws Exception {
+		RandomRestartHillClimbingSearch search = new RandomRestartHillClimbingSearch(
+				new AttackingPairsHeuristic(),
+				NQueensFunctionFactory.getCInitialStateGenerator(3), 2, 0,
+				200, 3);
+		long start = System.currentTimeMillis();
+		search.search(createProblem(3));
+		Assert.assertTrue(System.currentTimeMillis() - start < 5000);
+		Assert.assertEquals(HillClimbingSearch.SearchOutcome.FAILURE,
+				search.getOutcome());
+		Assert.assertTrue(search.getRestarts() > 0);
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testFailingGenerator() throws Exception {
+		RandomRestartHillClimbingSearch search = new RandomRestartHillClimbingSearch(
+				new AttackingPairsHeuristic(), new InitialStateGenerator() {
+					public Object generateInitialState(Randomizer random) {
+						throw new IllegalStateException();
+					}
+				}, 2, 0, 0, 3);
+		search.search(createProblem(8));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private Problem createProblem(int size) {
+		return new Problem(new NQueensBoard(size),
+				NQueensFunctionFactory.getCActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+	}
+}
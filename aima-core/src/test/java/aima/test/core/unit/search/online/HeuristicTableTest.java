@@ -0,0 +1,229 @@
+package aima.test.core.unit.search.online;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.agent.Agent;
+import aima.core.agent.EnvironmentState;
+import aima.core.agent.EnvironmentView;
+import aima.core.environment.map.ExtendableMap;
+import aima.core.environment.map.MapEnvironment;
+import aima.core.environment.map.MapFunctionFactory;
+import aima.core.environment.map.MapStepCostFunction;
+import aima.core.search.framework.DefaultGoalTest;
+import aima.core.search.framework.HeuristicFunction;
+import aima.core.search.framework.StateCodec;
+import aima.core.search.online.HeuristicTable;
+import aima.core.search.online.LRTAStarAgent;
+import aima.core.search.online.OnlineSearchProblem;
+
+public class HeuristicTableTest {
+	ExtendableMap aMap;
+
+	HeuristicFunction hf;
+
+	@Before
+	public void setUp() {
+		aMap = new ExtendableMap();
+		// X is a dead end, which looks promising at first
+		aMap.addBidirectionalLink("A", "X", 1.0);
+		aMap.addBidirectionalLink("A", "B", 4.0);
+		aMap.addBidirectionalLink("B", "C", 4.0);
+		aMap.addBidirectionalLink("C", "D", 4.0);
+		aMap.addBidirectionalLink("D", "E", 4.0);
+		aMap.addBidirectionalLink("E", "F", 4.0);
+		hf = new HeuristicFunction() {
+			public double h(Object state) {
+				return "X".equals(state) ? 0 : 1;
+			}
+		};
+	}
+
+	@Test
+	public void testPutGet() {
+		HeuristicTable table = new HeuristicTable(new LocationCodec());
+		Assert.assertFalse(table.containsKey("A"));
+		Assert.assertTrue(Double.isNaN(table.get("A")));
+		table.put("A", 4.0);
+		Assert.assertEquals(4.0, table.get("A"), 0.0);
+		Assert.assertEquals(4.0, table.putIfAbsent("A", 1.0), 0.0);
+		Assert.assertEquals(1.0, table.putIfAbsent("B", 1.0), 0.0);
+		table.put("A", 8.0);
+		Assert.assertEquals(8.0, table.get("A"), 0.0);
+		Assert.assertEquals(2, table.size());
+		table.clear();
+		Assert.assertEquals(0, table.size());
+	}
+
+	@Test
+	public void testSnapshotAndRestore() throws IOException {
+		HeuristicTable table = new HeuristicTable(new IntegerCodec(), 8);
+		for (int i = -5000; i < 5000; i++) {
+			table.put(i, i * 0.5);
+		}
+		File file = File.createTempFile("heuristic", ".bin");
+		try {
+			table.snapshot(file);
+			// 16 bytes per state and a small header
+			Assert.assertTrue(file.length() < 10000 * 16 + 1000);
+
+			HeuristicTable restored = new HeuristicTable(new IntegerCodec(), 3);
+			restored.put(0, 99.0);
+			restored.put(5000, 1.0);
+			restored.restore(file);
+			Assert.assertEquals(10001, restored.size());
+			for (int i = -5000; i < 5000; i++) {
+				Assert.assertEquals(i * 0.5, restored.get(i), 0.0);
+			}
+			Assert.assertEquals(1.0, restored.get(5000), 0.0);
+
+			// a snapshot replaces an earlier one
+			table.clear();
+			table.put(7, 7.0);
+			table.snapshot(file);
+			restored = new HeuristicTable(new IntegerCodec());
+			restored.restore(file);
+			Assert.assertEquals(1, restored.size());
+		} finally {
+			file.delete();
+		}
+	}
+
+	@Test
+	public void testCorruptInput() throws IOException {
+		HeuristicTable table = new HeuristicTable(new IntegerCodec());
+		table.put(1, 1.0);
+		table.put(2, 2.0);
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		table.writeTo(out);
+		byte[] bytes = out.toByteArray();
+		try {
+			table.readFrom(new ByteArrayInputStream(Arrays.copyOf(bytes,
+					bytes.length - 4)));
+			Assert.fail("truncated input was read");
+		} catch (IOException ex) {
+			// expected
+		}
+		bytes[0]++;
+		try {
+			table.readFrom(new ByteArrayInputStream(bytes));
+			Assert.fail("foreign input was read");
+		} catch (IOException ex) {
+			// expected
+		}
+	}
+
+	@Test
+	public void testConcurrentUpdates() throws Exception {
+		final HeuristicTable table = new HeuristicTable(new IntegerCodec(), 4);
+		List<Thread> threads = new ArrayList<Thread>();
+		for (int t = 0; t < 4; t++) {
+			final int offset = t * 1000;
+			threads.add(new Thread() {
+				@Override
+				public void run() {
+					// the ranges of the threads overlap
+					for (int i = offset; i < offset + 2000; i++) {
+						table.putIfAbsent(i, 1.0);
+						table.put(i, table.get(i) + 1.0);
+					}
+				}
+			});
+		}
+		for (Thread t : threads) {
+			t.start();
+		}
+		for (Thread t : threads) {
+			t.join();
+		}
+		Assert.assertEquals(5000, table.size());
+		for (int i = 0; i < 5000; i++) {
+			Assert.assertTrue(table.get(i) >= 2.0);
+		}
+	}
+
+	@Test
+	public void testSharedBetweenAgents() throws IOException {
+		HeuristicTable table = new HeuristicTable(new LocationCodec());
+		int steps = run(new LRTAStarAgent(createProblem(),
+				MapFunctionFactory.getPerceptToStateFunction(), hf, table));
+		Assert.assertEquals(18, steps);
+		// all locations but the goal
+		Assert.assertEquals(6, table.size());
+
+		// a new agent starts with the estimates learned by the first one
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		table.writeTo(out);
+		int warmSteps = run(new LRTAStarAgent(createProblem(),
+				MapFunctionFactory.getPerceptToStateFunction(), hf, table));
+		// the agent leaves the dead end at once
+		Assert.assertEquals(16, warmSteps);
+
+		// and so does an agent with a restored table
+		HeuristicTable restored = new HeuristicTable(new LocationCodec());
+		restored.readFrom(new ByteArrayInputStream(out.toByteArray()));
+		Assert.assertEquals(warmSteps, run(new LRTAStarAgent(createProblem(),
+				MapFunctionFactory.getPerceptToStateFunction(), hf, restored)));
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private OnlineSearchProblem createProblem() {
+		return new OnlineSearchProblem(
+				MapFunctionFactory.getActionsFunction(aMap),
+				new DefaultGoalTest("F"), new MapStepCostFunction(aMap));
+	}
+
+	// the number of actions until the agent stops, including the final NoOp
+	private int run(LRTAStarAgent agent) {
+		MapEnvironment me = new MapEnvironment(aMap);
+		me.addAgent(agent, "A");
+		final int[] steps = new int[1];
+		me.addEnvironmentView(new EnvironmentView() {
+			public void notify(String msg) {
+			}
+
+			public void agentAdded(Agent agent, EnvironmentState state) {
+			}
+
+			public void agentActed(Agent agent, Action action,
+					EnvironmentState state) {
+				steps[0]++;
+			}
+		});
+		me.stepUntilDone();
+		return steps[0];
+	}
+
+	// the locations of the map are single letters
+	private static class LocationCodec implements StateCodec {
+		public long encode(Object state) {
+			return ((String) state).charAt(0);
+		}
+
+		public Object decode(long key) {
+			return String.valueOf((char) key);
+		}
+	}
+
+	private static class IntegerCodec implements StateCodec {
+		public long encode(Object state) {
+			return (Integer) state;
+		}
+
+		public Object decode(long key) {
+			return (int) key;
+		}
+	}
+}
@@ -1,15 +1,24 @@
 package aima.test.core.unit.search.uninformed;
 
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.Assert;
 import org.junit.Test;
 
 import aima.core.agent.Action;
+import aima.core.agent.impl.DynamicAction;
 import aima.core.environment.nqueens.NQueensBoard;
 import aima.core.environment.nqueens.NQueensFunctionFactory;
 import aima.core.environment.nqueens.NQueensGoalTest;
+import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.DefaultGoalTest;
 import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
 import aima.core.search.framework.Search;
 import aima.core.search.framework.SearchAgent;
 import aima.core.search.uninformed.DepthLimitedSearch;
@@ -54,6 +63,96 @@ public class DepthLimitedSearchTest {
 		Assert.assertEquals(true, search.isFailure(actions));
 	}
 
+	@Test
+	public void testParallelDepthLimitedSearch() throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			Problem problem = new Problem(new NQueensBoard(8),
+					NQueensFunctionFactory.getIActionsFunction(),
+					NQueensFunctionFactory.getResultFunction(),
+					new NQueensGoalTest());
+			// the leftmost solution, as found by the sequential search
+			for (int i = 0; i < 5; i++) {
+				DepthLimitedSearch search = new DepthLimitedSearch(8, executor);
+				List<Action> actions = search.search(problem);
+				assertCorrectPlacement(actions);
+				Assert.assertEquals(8.0, search.getPathCost(), 0.0);
+				Assert.assertTrue(search.getNodesExpanded() >= 113);
+			}
+
+			DepthLimitedSearch search = new DepthLimitedSearch(1, executor);
+			Assert.assertTrue(search.isCutOff(search.search(problem)));
+			// only the root is expanded, as by the sequential search
+			Assert.assertEquals(1, search.getNodesExpanded());
+
+			// without solution, the whole tree is searched
+			search = new DepthLimitedSearch(5, executor);
+			Assert.assertTrue(search.isCutOff(search.search(problem)));
+			DepthLimitedSearch sequential = new DepthLimitedSearch(5);
+			sequential.search(problem);
+			Assert.assertEquals(sequential.getNodesExpanded(),
+					search.getNodesExpanded());
+
+			problem = new Problem(new NQueensBoard(3),
+					NQueensFunctionFactory.getIActionsFunction(),
+					NQueensFunctionFactory.getResultFunction(),
+					new NQueensGoalTest());
+			search = new DepthLimitedSearch(5, executor);
+			Assert.assertTrue(search.isFailure(search.search(problem)));
+			sequential = new DepthLimitedSearch(5);
+			sequential.search(problem);
+			Assert.assertEquals(sequential.getNodesExpanded(),
+					search.getNodesExpanded());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelSearchWaitsForSubtrees() throws Exception {
+		// a binary tree, where the children of state s are 2s and 2s + 1,
+		// with the leftmost leaf as goal; expanding any other state is slow
+		final AtomicInteger busy = new AtomicInteger();
+		final Action left = new DynamicAction("left");
+		final Action right = new DynamicAction("right");
+		final Set<Action> actions = new LinkedHashSet<Action>();
+		actions.add(left);
+		actions.add(right);
+		Problem problem = new Problem(1, new ActionsFunction() {
+			public Set<Action> actions(Object s) {
+				int state = (Integer) s;
+				if (0 != (state & (state - 1))) {
+					busy.incrementAndGet();
+					try {
+						Thread.sleep(5);
+					} catch (InterruptedException ex) {
+						Thread.currentThread().interrupt();
+					} finally {
+						busy.decrementAndGet();
+					}
+				}
+				return actions;
+			}
+		}, new ResultFunction() {
+			public Object result(Object s, Action a) {
+				return 2 * (Integer) s + (left.equals(a) ? 0 : 1);
+			}
+		}, new DefaultGoalTest(1 << 8));
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		try {
+			DepthLimitedSearch search = new DepthLimitedSearch(8, executor);
+			List<Action> result = search.search(problem);
+			// no subtree is still running or counting
+			Assert.assertEquals(0, busy.get());
+			long nodesExpanded = search.getNodesExpanded();
+			Assert.assertEquals(8, result.size());
+			Thread.sleep(50);
+			Assert.assertEquals(nodesExpanded, search.getNodesExpanded());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
 	//
 	// PRIVATE METHODS
 	//
@@ -0,0 +1,176 @@
+package aima.test.core.unit.search.uninformed;
+
+import java.io.File;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import aima.core.agent.Action;
+import aima.core.environment.eightpuzzle.EightPuzzleBoard;
+import aima.core.environment.eightpuzzle.EightPuzzleFunctionFactory;
+import aima.core.environment.eightpuzzle.EightPuzzleGoalTest;
+import aima.core.environment.eightpuzzle.EightPuzzleStateCodec;
+import aima.core.environment.slidingtile.PackedTileBoard;
+import aima.core.environment.slidingtile.SlidingTileBoard;
+import aima.core.environment.slidingtile.SlidingTileFunctionFactory;
+import aima.core.environment.slidingtile.SlidingTileGoalTest;
+import aima.core.environment.slidingtile.SlidingTileStateCodec;
+import aima.core.search.framework.GoalTest;
+import aima.core.search.framework.Problem;
+import aima.core.search.framework.ResultFunction;
+import aima.core.search.uninformed.BreadthFirstSearch;
+import aima.core.search.uninformed.ExternalBreadthFirstSearch;
+
+public class ExternalBreadthFirstSearchTest {
+
+	private File directory;
+
+	@Before
+	public void setUp() throws Exception {
+		directory = File.createTempFile("ebfs-test", "");
+		directory.delete();
+		directory.mkdir();
+	}
+
+	@After
+	public void tearDown() {
+		// all layers and runs have been removed
+		Assert.assertEquals(0, directory.list().length);
+		directory.delete();
+	}
+
+	@Test
+	public void testEightPuzzleSolution() throws Exception {
+		EightPuzzleBoard board = new EightPuzzleBoard(new int[] { 7, 1, 8, 0,
+				4, 6, 2, 3, 5 });
+		Problem problem = new Problem(board,
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+
+		// runs of 1000 states, so that layers are merged from several runs
+		ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(
+				new EightPuzzleStateCodec(), directory, 1000);
+		List<Action> actions = search.search(problem);
+		List<Action> expected = new BreadthFirstSearch().search(problem);
+		Assert.assertEquals(23, actions.size());
+		Assert.assertEquals(expected.size(), actions.size());
+		Assert.assertEquals(actions.size(), search.getDepth());
+		Assert.assertTrue(search.getRunsWritten() > search.getDepth());
+		assertSolves(problem, actions);
+	}
+
+	@Test
+	public void testEightPuzzleStateSpace() throws Exception {
+		// no goal, the whole state space is enumerated
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 0, 1,
+				2, 3, 4, 5, 6, 7, 8 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new GoalTest() {
+					public boolean isGoalState(Object state) {
+						return false;
+					}
+				});
+		ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(
+				new EightPuzzleStateCodec(), directory, 10000);
+		Assert.assertTrue(search.search(problem).isEmpty());
+
+		// 9!/2 states, at most 31 moves away from a corner configuration
+		Assert.assertEquals(181440, search.getStatesVisited());
+		Assert.assertEquals(181440, search.getNodesExpanded());
+		List<Long> layerSizes = search.getLayerSizes();
+		Assert.assertEquals(32, layerSizes.size());
+		Assert.assertEquals(31, search.getDepth());
+		Assert.assertEquals(Long.valueOf(1), layerSizes.get(0));
+		Assert.assertEquals(Long.valueOf(2), layerSizes.get(1));
+		Assert.assertEquals(Long.valueOf(4), layerSizes.get(2));
+		Assert.assertEquals(Long.valueOf(2), layerSizes.get(31));
+		long sum = 0;
+		for (long size : layerSizes) {
+			sum += size;
+		}
+		Assert.assertEquals(181440, sum);
+	}
+
+	@Test
+	public void testFifteenPuzzleSolution() throws Exception {
+		SlidingTileBoard board = new SlidingTileBoard(4);
+		Action[] moves = { SlidingTileBoard.DOWN, SlidingTileBoard.RIGHT,
+				SlidingTileBoard.DOWN, SlidingTileBoard.RIGHT,
+				SlidingTileBoard.UP, SlidingTileBoard.LEFT,
+				SlidingTileBoard.DOWN, SlidingTileBoard.DOWN,
+				SlidingTileBoard.RIGHT, SlidingTileBoard.UP };
+		for (Action a : moves) {
+			board.moveGap(a);
+		}
+		Problem problem = new Problem(board,
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new SlidingTileGoalTest());
+
+		ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(
+				new SlidingTileStateCodec(4), directory, 1000);
+		List<Action> actions = search.search(problem);
+		List<Action> expected = new BreadthFirstSearch().search(problem);
+		Assert.assertEquals(expected.size(), actions.size());
+		Assert.assertEquals(actions.size(), search.getDepth());
+		assertSolves(problem, actions);
+
+		// the same keys for packed boards
+		problem = new Problem(new PackedTileBoard(board),
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new SlidingTileGoalTest());
+		Assert.assertEquals(actions, search.search(problem));
+	}
+
+	@Test
+	public void testSlidingTileStateSpace() throws Exception {
+		// the 3x3 board enumerated as a sliding-tile board
+		Problem problem = new Problem(new SlidingTileBoard(3),
+				SlidingTileFunctionFactory.getActionsFunction(),
+				SlidingTileFunctionFactory.getResultFunction(),
+				new GoalTest() {
+					public boolean isGoalState(Object state) {
+						return false;
+					}
+				});
+		ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(
+				new SlidingTileStateCodec(3), directory, 10000);
+		Assert.assertTrue(search.search(problem).isEmpty());
+		Assert.assertEquals(181440, search.getStatesVisited());
+		Assert.assertEquals(31, search.getDepth());
+	}
+
+	@Test
+	public void testStartingAtGoal() throws Exception {
+		Problem problem = new Problem(new EightPuzzleBoard(new int[] { 0, 1,
+				2, 3, 4, 5, 6, 7, 8 }),
+				EightPuzzleFunctionFactory.getActionsFunction(),
+				EightPuzzleFunctionFactory.getResultFunction(),
+				new EightPuzzleGoalTest());
+		ExternalBreadthFirstSearch search = new ExternalBreadthFirstSearch(
+				new EightPuzzleStateCodec(), directory, 100);
+		Assert.assertEquals("[Action[name==NoOp]]", search.search(problem)
+				.toString());
+		Assert.assertEquals(0, search.getNodesExpanded());
+	}
+
+	//
+	// PRIVATE METHODS
+	//
+	private void assertSolves(Problem problem, List<Action> actions) {
+		ResultFunction rf = problem.getResultFunction();
+		Object state = problem.getInitialState();
+		for (Action a : actions) {
+			Assert.assertTrue(problem.getActionsFunction().actions(state)
+					.contains(a));
+			state = rf.result(state, a);
+		}
+		Assert.assertTrue(problem.isGoalState(state));
+	}
+}
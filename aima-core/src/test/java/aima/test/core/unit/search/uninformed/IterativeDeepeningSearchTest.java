@@ -36,6 +36,37 @@ public class IterativeDeepeningSearchTest {
 		}
 	}
 
+	@Test
+	public void testParallelIterativeDeepeningSearch() throws Exception {
+		Problem problem = new Problem(new NQueensBoard(8),
+				NQueensFunctionFactory.getIActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+		IterativeDeepeningSearch search = new IterativeDeepeningSearch(4);
+		SearchAgent agent = new SearchAgent(problem, search);
+		assertCorrectPlacement(agent.getActions());
+		// all iterations but the last one search the whole tree
+		Assert.assertTrue(search.getMetrics().getInt("nodesExpanded") >= 3656);
+		Assert.assertEquals(8.0, search.getMetrics().getDouble(
+				IterativeDeepeningSearch.PATH_COST), 0.0);
+	}
+
+	@Test
+	public void testParallelIterativeDeepeningFailure() throws Exception {
+		// no solution with 3 queens, so that all iterations search their
+		// whole tree and expand exactly the nodes of the sequential search
+		Problem problem = new Problem(new NQueensBoard(3),
+				NQueensFunctionFactory.getIActionsFunction(),
+				NQueensFunctionFactory.getResultFunction(),
+				new NQueensGoalTest());
+		IterativeDeepeningSearch sequential = new IterativeDeepeningSearch();
+		Assert.assertTrue(sequential.search(problem).isEmpty());
+		IterativeDeepeningSearch parallel = new IterativeDeepeningSearch(4);
+		Assert.assertTrue(parallel.search(problem).isEmpty());
+		Assert.assertEquals(sequential.getMetrics().getInt("nodesExpanded"),
+				parallel.getMetrics().getInt("nodesExpanded"));
+	}
+
 	private void assertCorrectPlacement(List<Action> actions) {
 		Assert.assertEquals(8, actions.size());
 		Assert.assertEquals(
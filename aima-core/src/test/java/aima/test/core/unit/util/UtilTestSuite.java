@@ -4,15 +4,21 @@ import org.junit.runner.RunWith;
 import org.junit.runners.Suite;
 
 import aima.test.core.unit.util.datastructure.FIFOQueueTest;
+import aima.test.core.unit.util.datastructure.IndexedPriorityQueueTest;
 import aima.test.core.unit.util.datastructure.LIFOQueueTest;
+import aima.test.core.unit.util.datastructure.LongDoubleHashMapTest;
+import aima.test.core.unit.util.datastructure.LongHashMapTest;
+import aima.test.core.unit.util.datastructure.LongHashSetTest;
 import aima.test.core.unit.util.datastructure.TableTest;
 import aima.test.core.unit.util.datastructure.XYLocationTest;
 import aima.test.core.unit.util.math.MixedRadixNumberTest;
 
 @RunWith(Suite.class)
-@Suite.SuiteClasses({ FIFOQueueTest.class, LIFOQueueTest.class,
-		TableTest.class, XYLocationTest.class, MixedRadixNumberTest.class,
-		SetOpsTest.class, UtilTest.class })
+@Suite.SuiteClasses({ FIFOQueueTest.class, IndexedPriorityQueueTest.class,
+		LIFOQueueTest.class, LongDoubleHashMapTest.class,
+		LongHashMapTest.class, LongHashSetTest.class, TableTest.class,
+		XYLocationTest.class, MixedRadixNumberTest.class, SetOpsTest.class,
+		UtilTest.class })
 public class UtilTestSuite {
 
 }
@@ -0,0 +1,98 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.IndexedPriorityQueue;
+import aima.core.util.datastructure.PriorityQueue;
+
+public class IndexedPriorityQueueTest {
+
+	// Orders by priority only, so that ties between distinct items occur
+	private static final Comparator<Item> BY_PRIORITY = new Comparator<Item>() {
+		public int compare(Item i1, Item i2) {
+			return i1.priority < i2.priority ? -1
+					: (i1.priority > i2.priority ? 1 : 0);
+		}
+	};
+
+	@Test
+	public void testQueueOperations() {
+		IndexedPriorityQueue<String> queue = new IndexedPriorityQueue<String>();
+		Assert.assertTrue(queue.isEmpty());
+		queue.insert("c");
+		queue.insert("a");
+		queue.insert("d");
+		queue.insert("b");
+		Assert.assertEquals(4, queue.size());
+		Assert.assertTrue(queue.contains("d"));
+		Assert.assertEquals("a", queue.peek());
+
+		Assert.assertTrue(queue.remove("c"));
+		Assert.assertFalse(queue.remove("c"));
+		Assert.assertFalse(queue.contains("c"));
+		Assert.assertEquals("a", queue.pop());
+		Assert.assertEquals("b", queue.pop());
+		Assert.assertEquals("d", queue.pop());
+		Assert.assertTrue(queue.isEmpty());
+		Assert.assertNull(queue.pop());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testDuplicateElementRejected() {
+		IndexedPriorityQueue<String> queue = new IndexedPriorityQueue<String>();
+		queue.insert("a");
+		queue.insert("a");
+	}
+
+	@Test
+	public void testSameOrderAsPriorityQueue() {
+		Random r = new Random(42);
+		IndexedPriorityQueue<Item> indexed = new IndexedPriorityQueue<Item>(
+				5, BY_PRIORITY);
+		PriorityQueue<Item> plain = new PriorityQueue<Item>(5, BY_PRIORITY);
+		List<Item> present = new ArrayList<Item>();
+		for (int i = 0; i < 5000; i++) {
+			int op = r.nextInt(10);
+			if (op < 5 || present.isEmpty()) {
+				Item item = new Item("i" + i, r.nextInt(20));
+				indexed.insert(item);
+				plain.insert(item);
+				present.add(item);
+			} else if (op < 8) {
+				Item item = plain.pop();
+				Assert.assertSame(item, indexed.pop());
+				present.remove(item);
+			} else {
+				Item item = present.remove(r.nextInt(present.size()));
+				Assert.assertTrue(plain.remove(item));
+				Assert.assertTrue(indexed.remove(item));
+			}
+			Assert.assertEquals(plain.size(), indexed.size());
+		}
+		while (!plain.isEmpty()) {
+			Assert.assertSame(plain.pop(), indexed.pop());
+		}
+		Assert.assertTrue(indexed.isEmpty());
+	}
+
+	private static class Item {
+		final String name;
+		final int priority;
+
+		Item(String name, int priority) {
+			this.name = name;
+			this.priority = priority;
+		}
+
+		@Override
+		public String toString() {
+			return name + ":" + priority;
+		}
+	}
+}
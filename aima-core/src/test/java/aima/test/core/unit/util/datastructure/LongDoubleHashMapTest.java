@@ -0,0 +1,58 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.LongDoubleHashMap;
+
+public class LongDoubleHashMapTest {
+
+	@Test
+	public void testPutGet() {
+		LongDoubleHashMap map = new LongDoubleHashMap();
+		Assert.assertTrue(map.put(0, 1.5));
+		Assert.assertTrue(map.put(-5, -2.0));
+		Assert.assertFalse(map.put(0, 0.0));
+		Assert.assertEquals(2, map.size());
+		Assert.assertEquals(0.0, map.get(0, Double.NaN), 0.0);
+		Assert.assertTrue(map.containsKey(-5));
+		Assert.assertFalse(map.containsKey(5));
+		Assert.assertTrue(Double.isNaN(map.get(5, Double.NaN)));
+
+		long[] keys = map.keys();
+		Arrays.sort(keys);
+		Assert.assertArrayEquals(new long[] { -5, 0 }, keys);
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertEquals(-1.0, map.get(0, -1.0), 0.0);
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random r = new Random(11);
+		LongDoubleHashMap map = new LongDoubleHashMap(4);
+		Map<Long, Double> expected = new HashMap<Long, Double>();
+		for (int i = 0; i < 50000; i++) {
+			long key = r.nextInt(2000) * 0x100000001L;
+			if (r.nextBoolean()) {
+				Assert.assertEquals(null == expected.put(key, (double) i),
+						map.put(key, i));
+			} else {
+				Double value = expected.get(key);
+				Assert.assertEquals(null == value ? -1.0 : value,
+						map.get(key, -1.0), 0.0);
+			}
+			Assert.assertEquals(expected.size(), map.size());
+		}
+		Assert.assertEquals(expected.size(), map.keys().length);
+		for (long key : map.keys()) {
+			Assert.assertEquals(expected.get(key), map.get(key, -1.0), 0.0);
+		}
+	}
+}
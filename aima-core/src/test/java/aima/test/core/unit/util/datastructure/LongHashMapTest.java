@@ -0,0 +1,63 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.LongHashMap;
+
+public class LongHashMapTest {
+
+	@Test
+	public void testPutGetRemove() {
+		LongHashMap<String> map = new LongHashMap<String>();
+		Assert.assertNull(map.put(0, "zero"));
+		Assert.assertNull(map.put(-5, "minus five"));
+		Assert.assertEquals("zero", map.put(0, "null"));
+		Assert.assertEquals(2, map.size());
+		Assert.assertEquals("null", map.get(0));
+		Assert.assertTrue(map.containsKey(-5));
+		Assert.assertFalse(map.containsKey(5));
+		Assert.assertNull(map.get(5));
+
+		Assert.assertEquals("minus five", map.remove(-5));
+		Assert.assertNull(map.remove(-5));
+		Assert.assertEquals(1, map.size());
+
+		map.clear();
+		Assert.assertTrue(map.isEmpty());
+		Assert.assertNull(map.get(0));
+	}
+
+	@Test(expected = NullPointerException.class)
+	public void testNullValue() {
+		new LongHashMap<String>().put(1, null);
+	}
+
+	@Test
+	public void testAgainstHashMap() {
+		Random r = new Random(11);
+		LongHashMap<Integer> map = new LongHashMap<Integer>(4);
+		Map<Long, Integer> expected = new HashMap<Long, Integer>();
+		for (int i = 0; i < 50000; i++) {
+			long key = r.nextInt(2000) * 0x100000001L;
+			switch (r.nextInt(3)) {
+			case 0:
+				Assert.assertEquals(expected.put(key, i), map.put(key, i));
+				break;
+			case 1:
+				Assert.assertEquals(expected.remove(key), map.remove(key));
+				break;
+			default:
+				Assert.assertEquals(expected.get(key), map.get(key));
+			}
+			Assert.assertEquals(expected.size(), map.size());
+		}
+		for (Map.Entry<Long, Integer> e : expected.entrySet()) {
+			Assert.assertEquals(e.getValue(), map.get(e.getKey()));
+		}
+	}
+}
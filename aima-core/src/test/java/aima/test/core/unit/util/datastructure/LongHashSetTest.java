@@ -0,0 +1,62 @@
+package aima.test.core.unit.util.datastructure;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import aima.core.util.datastructure.LongHashSet;
+
+public class LongHashSetTest {
+
+	@Test
+	public void testAddContainsRemove() {
+		LongHashSet set = new LongHashSet();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertTrue(set.add(0));
+		Assert.assertTrue(set.add(-1));
+		Assert.assertTrue(set.add(Long.MAX_VALUE));
+		Assert.assertFalse(set.add(0));
+		Assert.assertEquals(3, set.size());
+		Assert.assertTrue(set.contains(0));
+		Assert.assertTrue(set.contains(-1));
+		Assert.assertFalse(set.contains(1));
+
+		Assert.assertTrue(set.remove(0));
+		Assert.assertFalse(set.remove(0));
+		Assert.assertFalse(set.contains(0));
+		Assert.assertEquals(2, set.size());
+
+		set.clear();
+		Assert.assertTrue(set.isEmpty());
+		Assert.assertFalse(set.contains(-1));
+	}
+
+	@Test
+	public void testAgainstHashSet() {
+		Random r = new Random(7);
+		LongHashSet set = new LongHashSet(4);
+		Set<Long> expected = new HashSet<Long>();
+		for (int i = 0; i < 50000; i++) {
+			// small range, so that there are many collisions and removals
+			long value = r.nextInt(2000) << 20;
+			switch (r.nextInt(3)) {
+			case 0:
+				Assert.assertEquals(expected.add(value), set.add(value));
+				break;
+			case 1:
+				Assert.assertEquals(expected.remove(value), set.remove(value));
+				break;
+			default:
+				Assert.assertEquals(expected.contains(value),
+						set.contains(value));
+			}
+			Assert.assertEquals(expected.size(), set.size());
+		}
+		for (long value : expected) {
+			Assert.assertTrue(set.contains(value));
+		}
+	}
+}
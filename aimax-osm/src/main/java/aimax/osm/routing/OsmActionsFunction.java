@@ -1,11 +1,11 @@
 package aimax.osm.routing;
 
-import java.util.LinkedHashSet;
+import java.util.Iterator;
 import java.util.List;
-import java.util.Set;
+import java.util.NoSuchElementException;
 
 import aima.core.agent.Action;
-import aima.core.search.framework.ActionsFunction;
+import aima.core.search.framework.AbstractStreamingActionsFunction;
 import aimax.osm.data.MapWayFilter;
 import aimax.osm.data.entities.MapNode;
 import aimax.osm.data.entities.MapWay;
@@ -18,7 +18,7 @@ import aimax.osm.data.entities.WayRef;
  * specified goal. Otherwise, they lead to directly linked neighbor nodes.
  * @author Ruediger Lunde
  */
-public class OsmActionsFunction implements ActionsFunction {
+public class OsmActionsFunction extends AbstractStreamingActionsFunction {
 
 	protected MapWayFilter filter;
 	private boolean ignoreOneWays;
@@ -35,38 +35,87 @@ public class OsmActionsFunction implements ActionsFunction {
 		this.goal = goal;
 	}
 
-	/** Expects a <code>MapNode</code> as argument. */
+	/**
+	 * Expects a <code>MapNode</code> as argument. The actions are generated
+	 * on demand, way by way.
+	 */
 	@Override
-	public Set<Action> actions(Object s) {
-		Set<Action> result = new LinkedHashSet<Action>();
-		MapNode from = (MapNode) s;
-		for (WayRef wref : from.getWayRefs()) {
-			if (filter == null || filter.isAccepted(wref.getWay())) {
-				MapWay way = wref.getWay();
-				int nodeIdx = wref.getNodeIdx();
-				List<MapNode> wayNodes = way.getNodes();
-				MapNode to;
-				for (int idx = nodeIdx + 1; idx < wayNodes.size(); idx++) {
-					to = wayNodes.get(idx);
-					if (goal == null || goal == to
-							|| to.getWayRefs().size() > 1
-							|| idx == wayNodes.size() - 1) {
-						result.add(new OsmMoveAction(way, from, to));
-						break;
-					}
-				}
-				if (!way.isOneway() || ignoreOneWays) {
-					for (int idx = nodeIdx - 1; idx >= 0; idx--) {
-						to = wayNodes.get(idx);
-						if (goal == null || goal == to
-								|| to.getWayRefs().size() > 1 || idx == 0) {
-							result.add(new OsmMoveAction(way, from, to));
-							break;
-						}
-					}
+	public Iterator<Action> actionIterator(Object s) {
+		return new MoveIterator((MapNode) s);
+	}
+
+	/**
+	 * Returns the move from a node along a way in the specified direction to
+	 * the nearest node which is a road crossing, a road end, or the goal (or
+	 * to the neighbor node if no goal is specified), or null if the node is
+	 * the end of the way in that direction.
+	 */
+	private Action move(MapNode from, WayRef wref, int step) {
+		MapWay way = wref.getWay();
+		List<MapNode> wayNodes = way.getNodes();
+		for (int idx = wref.getNodeIdx() + step; idx >= 0
+				&& idx < wayNodes.size(); idx += step) {
+			MapNode to = wayNodes.get(idx);
+			if (goal == null || goal == to || to.getWayRefs().size() > 1
+					|| idx == 0 || idx == wayNodes.size() - 1) {
+				return new OsmMoveAction(way, from, to);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Generates the forward and then the backward move along each accepted
+	 * way of a node.
+	 */
+	private class MoveIterator implements Iterator<Action> {
+		private final MapNode from;
+		private final Iterator<WayRef> wayRefs;
+		private WayRef wref;
+		// 0: next way, 1: forward move, 2: backward move
+		private int phase = 0;
+		private Action next;
+
+		MoveIterator(MapNode from) {
+			this.from = from;
+			wayRefs = from.getWayRefs().iterator();
+			advance();
+		}
+
+		public boolean hasNext() {
+			return next != null;
+		}
+
+		public Action next() {
+			if (next == null)
+				throw new NoSuchElementException();
+			Action result = next;
+			advance();
+			return result;
+		}
+
+		public void remove() {
+			throw new UnsupportedOperationException();
+		}
+
+		private void advance() {
+			next = null;
+			while (next == null) {
+				if (phase == 0) {
+					if (!wayRefs.hasNext())
+						return;
+					wref = wayRefs.next();
+					if (filter == null || filter.isAccepted(wref.getWay()))
+						phase = 1;
+				} else if (phase == 1) {
+					next = move(from, wref, 1);
+					phase = 2;
+				} else {
+					if (!wref.getWay().isOneway() || ignoreOneWays)
+						next = move(from, wref, -1);
+					phase = 0;
 				}
 			}
 		}
-		return result;
 	}
 }